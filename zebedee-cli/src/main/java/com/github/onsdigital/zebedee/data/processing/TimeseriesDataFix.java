@@ -23,6 +23,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logDebug;
 import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logError;
@@ -48,8 +49,7 @@ public class TimeseriesDataFix {
         CsdbFinder csdbFinder = new CsdbFinder();
         List<Path> csdbPaths = csdbFinder.find(Paths.get(inputPath));
 
-        while (!dataIndex.indexBuilt) {
-            Thread.sleep(1000);
+        while (!dataIndex.awaitIndexBuilt(1, TimeUnit.SECONDS)) {
             System.out.print(".");
         }
 
@@ -6,10 +6,7 @@ import com.github.onsdigital.zebedee.reader.ContentReader;
 public class DataIndexBuilder {
     public static DataIndex buildDataIndex(ContentReader contentReader) throws InterruptedException {
         DataIndex dataIndex = new DataIndex(contentReader);
-
-        while (!dataIndex.isIndexBuilt()) {
-            Thread.sleep(1000);
-        }
+        dataIndex.awaitIndexBuilt();
         return dataIndex;
     }
 }
@@ -46,6 +46,7 @@ public class Zebedee {
     public static final String TEAMS = "teams";
     public static final String LAUNCHPAD = "launchpad";
     public static final String APPLICATION_KEYS = "application-keys";
+    public static final String DATA_INDEX = "data-index.bin";
 
     private static final String[] ZEBEDEE_DIRS = new String[]{PUBLISHED, COLLECTIONS, USERS, SESSIONS, PERMISSIONS,
             TEAMS, LAUNCHPAD, PUBLISHED_COLLECTIONS, APPLICATION_KEYS};
@@ -117,46 +118,29 @@ public class Zebedee {
      * @throws IOException
      */
     public int isBeingEdited(String uri) throws IOException {
-        int result = 0;
-
         // Is this URI present anywhere else?
-        for (Collection collection : collections.list()) {
-            if (collection.isInCollection(uri)) {
-                result++;
-            }
-        }
-
-        return result;
+        return collections.editing(uri).size();
     }
 
     public Optional<Collection> checkForCollectionBlockingChange(Collection workingCollection, String uri) throws IOException {
-        return collections.list()
+        return collections.editing(uri)
                 .stream()
-                .filter(c -> c.isInCollection(uri) && !workingCollection.getDescription().getId()
-                        .equals(c.getDescription().getId()))
+                .filter(c -> !workingCollection.getDescription().getId().equals(c.getDescription().getId()))
                 .findFirst();
     }
 
     public void checkAllCollectionsForDeleteMarker(String uri) throws IOException, DeleteContentRequestDeniedException {
-        Path searchValue = Paths.get(uri);
-
-        for (Collection collection : collections.list()) {
-            if (collection.description.getPendingDeletes()
-                    .stream()
-                    .filter(existingDeleteRoot -> searchValue.startsWith(Paths.get(existingDeleteRoot.getRoot()
-                            .contentPath)))
-                    .findFirst().isPresent()) {
-                throw markedDeleteInAnotherCollectionError(collection, uri);
-            }
+        Optional<Collection> markedCollection = collections.markingForDelete(uri).stream().findFirst();
+        if (markedCollection.isPresent()) {
+            throw markedDeleteInAnotherCollectionError(markedCollection.get(), uri);
         }
     }
 
     public void isBeingEditedInAnotherCollection(Collection workingCollection, String uri, Session session) throws
             IOException,
             ZebedeeException {
-        Optional<Collection> blockingCollection = collections.list()
+        Optional<Collection> blockingCollection = collections.editing(uri)
                 .stream()
-                .filter(collection -> collection.isInCollection(uri))
                 .findFirst();
         if (blockingCollection.isPresent()) {
             String title = new ZebedeeCollectionReader(this, blockingCollection.get(), session)
@@ -120,7 +120,8 @@ public class ZebedeeConfiguration {
         this.useVerificationAgent = enableVerificationAgent;
 
         // Create the services and objects...
-        this.dataIndex = new DataIndex(new FileSystemContentReader(publishedContentPath));
+        this.dataIndex = new DataIndex(new FileSystemContentReader(publishedContentPath),
+                zebedeePath.resolve(DATA_INDEX));
         this.publishedCollections = new PublishedCollections(publishedCollectionsPath);
         this.applicationKeys = new ApplicationKeys(applicationKeysPath);
         this.sessionsService = new SessionsService(sessionsPath);
@@ -0,0 +1,41 @@
+package com.github.onsdigital.zebedee.api;
+
+import com.github.davidcarboni.restolino.framework.Api;
+import com.github.onsdigital.zebedee.exceptions.UnauthorizedException;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.model.approval.ApprovalQueue;
+import com.github.onsdigital.zebedee.model.approval.ApprovalQueueStatus;
+import com.github.onsdigital.zebedee.session.model.Session;
+import com.github.onsdigital.zebedee.util.ZebedeeCmsService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.GET;
+import java.io.IOException;
+
+/**
+ * Admin view of the approval queue.
+ */
+@Api
+public class Approvals {
+
+    private static ZebedeeCmsService zebedeeCmsService = ZebedeeCmsService.getInstance();
+
+    /**
+     * Get the approvals running and waiting, with how long they have waited and the time taken by each phase.
+     *
+     * @param request
+     * @param response
+     * @return
+     * @throws ZebedeeException
+     * @throws IOException
+     */
+    @GET
+    public ApprovalQueueStatus getApprovals(HttpServletRequest request, HttpServletResponse response) throws ZebedeeException, IOException {
+        Session session = zebedeeCmsService.getSession(request);
+        if (!zebedeeCmsService.getPermissions().isAdministrator(session)) {
+            throw new UnauthorizedException("You must be an admin to view the approval queue.");
+        }
+        return ApprovalQueue.getStatus();
+    }
+}
@@ -17,6 +17,7 @@ import com.github.onsdigital.zebedee.model.KeyManager;
 import com.github.onsdigital.zebedee.model.csdb.CsdbImporter;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.PublishScheduler;
 import com.github.onsdigital.zebedee.model.publishing.scheduled.Scheduler;
+import com.github.onsdigital.zebedee.reader.cache.LatestEditionIndex;
 import com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration;
 import com.github.onsdigital.zebedee.util.SlackNotification;
 import org.apache.commons.io.IOUtils;
@@ -121,6 +122,14 @@ public class Root {
         initialiseCsdbImportKeys();
         indexPublishedCollections();
         cleanupStaleCollectionKeys();
+        buildLatestEditionIndex();
+    }
+
+    /**
+     * Indexes latest editions of published bulletins, articles and compendia in the background.
+     */
+    private static void buildLatestEditionIndex() {
+        LatestEditionIndex.getInstance().buildInBackground(zebedee.getPublished().path);
     }
 
     /**
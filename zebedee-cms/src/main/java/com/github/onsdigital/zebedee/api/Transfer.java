@@ -74,6 +74,8 @@ public class Transfer {
         }
 
         PathUtils.moveFilesInDirectory(sourcePath, destinationPath);
+        source.contentChanged();
+        destination.contentChanged();
 
         Audit.Event.COLLECTION_TRANSFERRED.parameters()
                 .host(request)
@@ -21,6 +21,24 @@ public class Configuration {
 
     private static final int VERIFY_RETRTY_DELAY = 5000; //milliseconds
     private static final int VERIFY_RETRTY_COUNT = 10;
+    private static final int VERIFY_MAX_RETRTY_DELAY = 60000; //milliseconds
+    private static final int DEFAULT_VERIFICATION_THREADS = 10;
+
+    private static final int DEFAULT_TRAIN_MAX_CONNECTIONS = 20;
+    private static final int DEFAULT_TRAIN_CONNECT_TIMEOUT = 5000; //milliseconds
+    private static final int DEFAULT_TRAIN_SOCKET_TIMEOUT = 300000; //milliseconds
+    private static final int DEFAULT_TRAIN_RETRY_COUNT = 3;
+    private static final int DEFAULT_TRAIN_RETRY_DELAY = 500; //milliseconds, doubled on each retry
+    private static final int DEFAULT_PUBLISH_BATCH_SIZE = 16; //megabytes
+    private static final int DEFAULT_PUBLISH_BATCH_MAX_FILE_SIZE = 1024; //kilobytes
+    private static final int DEFAULT_PUBLISH_BATCH_PACK_THREADS = 20;
+    private static final int DEFAULT_DATA_PUBLICATION_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_APPROVAL_WORKERS = 4;
+    private static final int DEFAULT_TIMESERIES_COMPRESSION_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_TIMESERIES_COMPRESSION_ENTRY_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_KEY_DISTRIBUTION_THREADS = 25;
+    private static final int DEFAULT_COLLECTIONS_RECONCILE_INTERVAL = 60; //seconds
+    private static final int DEFAULT_POST_PUBLISH_COPY_THREADS = 8;
 
     // how many seconds before the actual publish time should we run the preprocess
     private static final int DEFAULT_PREPROCESS_SECONDS_BEFORE_PUBLISH = 30;
@@ -78,6 +96,119 @@ public class Configuration {
         return StringUtils.split(StringUtils.defaultIfBlank(getValue("publish_url"), DEFAULT_TRAIN_URL), ",");
     }
 
+    /**
+     * maximum number of pooled connections to each train host.
+     */
+    public static int getTrainMaxConnections() {
+        return getIntValue("train_max_connections", DEFAULT_TRAIN_MAX_CONNECTIONS);
+    }
+
+    /**
+     * milliseconds to wait for a connection to a train host, also used waiting for a connection from the pool.
+     */
+    public static int getTrainConnectTimeout() {
+        return getIntValue("train_connect_timeout", DEFAULT_TRAIN_CONNECT_TIMEOUT);
+    }
+
+    /**
+     * milliseconds to wait for data from a train host.
+     */
+    public static int getTrainSocketTimeout() {
+        return getIntValue("train_socket_timeout", DEFAULT_TRAIN_SOCKET_TIMEOUT);
+    }
+
+    /**
+     * how many times idempotent requests to a train host are retried on io errors.
+     */
+    public static int getTrainRetryCount() {
+        return getIntValue("train_retry_count", DEFAULT_TRAIN_RETRY_COUNT);
+    }
+
+    /**
+     * milliseconds to wait before the first retry of a request to a train host, doubled on each further retry.
+     */
+    public static int getTrainRetryDelay() {
+        return getIntValue("train_retry_delay", DEFAULT_TRAIN_RETRY_DELAY);
+    }
+
+    /**
+     * should small collection files be sent to the train in zip archives rather than one request per file.
+     */
+    public static boolean isPublishBatchingEnabled() {
+        return BooleanUtils.toBoolean(StringUtils.defaultIfBlank(getValue("publish_batching_enabled"), "false"));
+    }
+
+    /**
+     * maximum megabytes of collection files sent to the train in a single zip archive.
+     */
+    public static int getPublishBatchSizeMb() {
+        return getIntValue("publish_batch_size_mb", DEFAULT_PUBLISH_BATCH_SIZE);
+    }
+
+    /**
+     * kilobytes above which collection files are sent to the train on their own rather than in a zip archive.
+     */
+    public static int getPublishBatchMaxFileSizeKb() {
+        return getIntValue("publish_batch_max_file_size_kb", DEFAULT_PUBLISH_BATCH_MAX_FILE_SIZE);
+    }
+
+    /**
+     * how many zip archives are packed at the same time while they are sent to the train. A batch waits for a packer
+     * once they are all busy, so this should be at least the number of files sent to the train at the same time.
+     */
+    public static int getPublishBatchPackThreads() {
+        return getIntValue("publish_batch_pack_threads", DEFAULT_PUBLISH_BATCH_PACK_THREADS);
+    }
+
+    /**
+     * how many timeseries are processed at the same time when approving a timeseries dataset.
+     */
+    public static int getDataPublicationThreads() {
+        return getIntValue("data_publication_threads", DEFAULT_DATA_PUBLICATION_THREADS);
+    }
+
+    /**
+     * how many collections can be approved at the same time.
+     */
+    public static int getApprovalWorkers() {
+        return getIntValue("approval_workers", DEFAULT_APPROVAL_WORKERS);
+    }
+
+    /**
+     * how many time series directories are compressed at the same time, shared by all approvals.
+     */
+    public static int getTimeseriesCompressionThreads() {
+        return getIntValue("timeseries_compression_threads", DEFAULT_TIMESERIES_COMPRESSION_THREADS);
+    }
+
+    /**
+     * how many files are read ahead of being added to time series zip files at the same time.
+     */
+    public static int getTimeseriesCompressionEntryThreads() {
+        return getIntValue("timeseries_compression_entry_threads", DEFAULT_TIMESERIES_COMPRESSION_ENTRY_THREADS);
+    }
+
+    /**
+     * how many user keyrings are updated at the same time when a collection key is distributed.
+     */
+    public static int getKeyDistributionThreads() {
+        return getIntValue("key_distribution_threads", DEFAULT_KEY_DISTRIBUTION_THREADS);
+    }
+
+    /**
+     * how many seconds between checks of the collection json files for changes made outside the CMS.
+     */
+    public static int getCollectionsReconcileInterval() {
+        return getIntValue("collections_reconcile_interval", DEFAULT_COLLECTIONS_RECONCILE_INTERVAL);
+    }
+
+    /**
+     * how many files are copied into master and the publish log at the same time after a publish.
+     */
+    public static int getPostPublishCopyThreads() {
+        return getIntValue("post_publish_copy_threads", DEFAULT_POST_PUBLISH_COPY_THREADS);
+    }
+
     public static String[] getWebsiteUrls() {
         return StringUtils.split(StringUtils.defaultIfBlank(getValue("website_url"), DEFAULT_WEBSITE_URL), ",");
     }
@@ -102,6 +233,20 @@ public class Configuration {
         return VERIFY_RETRTY_COUNT;
     }
 
+    /**
+     * the longest delay between verification retries, as the retry delay is doubled on each retry.
+     */
+    public static int getVerifyMaxRetrtyDelay() {
+        return VERIFY_MAX_RETRTY_DELAY;
+    }
+
+    /**
+     * how many batches of published uris are verified at the same time.
+     */
+    public static int getVerificationThreads() {
+        return getIntValue("verification_threads", DEFAULT_VERIFICATION_THREADS);
+    }
+
     public static String getReindexKey() {
         return StringUtils.defaultIfBlank(getValue("website_reindex_key"), "");
     }
@@ -140,6 +285,14 @@ public class Configuration {
         return StringUtils.defaultIfBlank(System.getProperty(key), System.getenv(key));
     }
 
+    private static int getIntValue(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getValue(key));
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
     public static String getContentDirectory() {
         return CONTENT_DIRECTORY;
     }
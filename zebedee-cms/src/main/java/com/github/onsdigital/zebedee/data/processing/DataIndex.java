@@ -5,26 +5,51 @@ import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
 import com.github.onsdigital.zebedee.reader.ContentReader;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
 
 /**
  * A hashmap storing an entry for each timeseries - mapping the CDID to the url of the timeseries.
+ * <p>
+ * The index is safe to read and update from multiple threads, as timeseries are processed in parallel.
+ * <p>
+ * If given an index file the index is saved to it after it is built or updated, along with a checksum of the entries.
+ * On startup the saved index is loaded if its checksum matches, so it is ready straight away, and the published
+ * content is then walked in the background to pick up any timeseries changed outside of the CMS. CDIDs that are not
+ * found by a walk, or indexed while it runs, are dropped when it finishes, so the index matches the published content.
  */
 public class DataIndex {
     private static final ExecutorService pool = Executors.newSingleThreadExecutor();
-    Map<String, String> index = new HashMap<>();
+    private static final int INDEX_FILE_VERSION = 1;
+
+    Map<String, String> index = new ConcurrentHashMap<>();
     ContentReader contentReader = null;
-    boolean indexBuilt = false;
+    private Path indexFile = null;
+    private volatile CompletableFuture<Void> indexBuilt = CompletableFuture.completedFuture(null);
+    private volatile Set<String> seen = null;
 
     /**
      * Set up the data index based on a content reader
@@ -32,21 +57,48 @@ public class DataIndex {
      * @param contentReader any content reader
      */
     public DataIndex(ContentReader contentReader) {
+        this(contentReader, null);
+    }
+
+    /**
+     * Set up the data index based on a content reader, loading it from the index file if it has been saved and saving
+     * it there whenever it changes.
+     *
+     * @param contentReader any content reader
+     * @param indexFile     the file to save the index to, or null to build it each time
+     */
+    public DataIndex(ContentReader contentReader, Path indexFile) {
         this.contentReader = contentReader;
-        reindex();
+        this.indexFile = indexFile;
+        if (load()) {
+            pool.submit(() -> build(false));
+        } else {
+            reindex();
+        }
     }
 
     public DataIndex() {
     }
 
     public String getUriForCdid(String cdid) {
-        return index.get(cdid);
+        return cdid == null ? null : index.get(cdid);
     }
 
     public void setUriForCdid(String cdid, String uri) {
+        indexed(cdid);
         index.put(cdid, uri);
     }
 
+    /**
+     * Get the uri for a CDID, setting it to the given uri if the CDID is not in the index.
+     *
+     * @return the uri already in the index, or null if the given uri was set.
+     */
+    public String setUriForCdidIfAbsent(String cdid, String uri) {
+        indexed(cdid);
+        return index.putIfAbsent(cdid, uri);
+    }
+
     public Set<String> cdids() {
         return index.keySet();
     }
@@ -55,37 +107,213 @@ public class DataIndex {
      * Build the data index
      */
     public void reindex() {
-        indexBuilt = false;
-        Runnable build = () -> {
-            logInfo("Start building data index.").log();
-            long startTime = System.nanoTime();
+        CompletableFuture<Void> built = new CompletableFuture<>();
+        indexBuilt = built;
+        pool.submit(() -> {
             try {
-                Files.walkFileTree(contentReader.getRootFolder(), new IndexBuilder(index, contentReader));
-            } catch (IOException e) {
-                logError(e, "Failed to build data index").log();
+                build(true);
+            } finally {
+                built.complete(null);
             }
-            long duration = System.nanoTime() - startTime;
-            logInfo("Finished building data index.").addParameter("entries", index.size()).addParameter("duration_ns", duration).log();
-            indexBuilt = true;
-        };
-        pool.submit(build);
+        });
+    }
+
+    private void build(boolean initial) {
+        logInfo(initial ? "Start building data index." : "Start refreshing data index.").log();
+        long startTime = System.nanoTime();
+        seen = ConcurrentHashMap.newKeySet();
+        try {
+            Files.walkFileTree(contentReader.getRootFolder(), new IndexBuilder(this, contentReader));
+            // drop timeseries that have been deleted or moved since the index was saved or last built
+            index.keySet().retainAll(seen);
+        } catch (IOException | RuntimeException e) {
+            logError(e, "Failed to build data index").log();
+        } finally {
+            seen = null;
+        }
+        long duration = System.nanoTime() - startTime;
+        logInfo(initial ? "Finished building data index." : "Finished refreshing data index.")
+                .addParameter("entries", index.size()).addParameter("duration_ns", duration).log();
+        save();
     }
 
     /**
-     * Wait until complete with return value
+     * Update the index for the given published uris, e.g. after a collection is published. Uris that are not
+     * timeseries are ignored. The index file is saved in the background if anything changed.
      *
-     * @param maxSeconds max wait time
-     * @return build is completed
-     * @throws InterruptedException
+     * @param uris the published uris, e.g. "/economy/inflationandpriceindices/timeseries/cdid/data.json"
+     */
+    public void update(Iterable<String> uris) {
+        boolean updated = false;
+        for (String uri : uris) {
+            updated |= indexTimeseries(uri);
+        }
+        if (updated && indexFile != null) {
+            pool.submit(this::save);
+        }
+    }
+
+    /**
+     * Index the timeseries page at the given uri.
+     *
+     * @return true if the uri is a timeseries page and it was indexed.
      */
-    private boolean waitWhileIncomplete(int maxSeconds) throws InterruptedException {
-        int tries = 0;
-        while (!indexBuilt) {
-            Thread.sleep(100);
-            if (tries++ > 10 * maxSeconds)
+    boolean indexTimeseries(String uri) {
+        // Check json files in timeseries directories (excluding versions)
+        if (!(uri.endsWith("data.json") && uri.contains("/timeseries/")
+                && !uri.contains("/" + VersionedContentItem.getVersionDirectoryName() + "/"))) {
+            return false;
+        }
+
+        uri = uri.substring(0, uri.length() - "/data.json".length());
+
+        TimeSeries timeSeries;
+        try {
+            timeSeries = (TimeSeries) this.contentReader.getContent(uri);
+            if (timeSeries.getCdid() != null) {
+
+                // get the parent path so that we are referencing the timeseries landing page instead of dataset specific timeseries.
+                String timeseriesLandingPageUri = uri; //if the parent directory is the timeseries folder just use the uri.
+                Path path = Paths.get(uri);
+
+                if (!path.getParent().getFileName().toString().equals("timeseries")) {
+                    timeseriesLandingPageUri = path.getParent().toString(); // else use the parent CDID based directory.
+                }
+
+                String cdid = timeSeries.getCdid().toLowerCase();
+                indexed(cdid);
+                this.index.put(cdid, timeseriesLandingPageUri);
+                return true;
+            }
+        } catch (Exception e) {
+            logError(e, "Error indexing uri").addParameter("uri", uri).log();
+        }
+        return false;
+    }
+
+    /**
+     * Record that the CDID is being indexed while the index is being built, so it is kept when the build finishes.
+     * Called before the entry is put, so the entry can't be dropped between the two.
+     */
+    private void indexed(String cdid) {
+        Set<String> building = seen;
+        if (building != null) {
+            building.add(cdid);
+        }
+    }
+
+    /**
+     * Load the index from the index file if there is one and its checksum matches its entries.
+     *
+     * @return true if the index was loaded.
+     */
+    private boolean load() {
+        if (indexFile == null || !Files.exists(indexFile)) {
+            return false;
+        }
+
+        long startTime = System.nanoTime();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(indexFile))))) {
+            if (input.readInt() != INDEX_FILE_VERSION) {
+                logInfo("Data index file version has changed, rebuilding data index.").log();
+                return false;
+            }
+
+            long checksum = input.readLong();
+            int entries = input.readInt();
+            Map<String, String> loaded = new HashMap<>(entries * 2);
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < entries; i++) {
+                String cdid = input.readUTF();
+                String uri = input.readUTF();
+                updateChecksum(crc, cdid, uri);
+                loaded.put(cdid, uri);
+            }
+
+            if (crc.getValue() != checksum) {
+                logInfo("Data index file checksum does not match, rebuilding data index.").log();
                 return false;
+            }
+
+            index.putAll(loaded);
+            logInfo("Loaded data index.").addParameter("entries", index.size())
+                    .addParameter("duration_ns", System.nanoTime() - startTime).log();
+            return true;
+        } catch (IOException e) {
+            logError(e, "Failed to load data index, rebuilding data index.").log();
+            return false;
+        }
+    }
+
+    /**
+     * Save the index to a temporary file and move it over the index file, so a partly written index is never loaded.
+     */
+    private void save() {
+        if (indexFile == null) {
+            return;
+        }
+
+        Map<String, String> entries = new TreeMap<>(index);
+        CRC32 crc = new CRC32();
+        entries.forEach((cdid, uri) -> updateChecksum(crc, cdid, uri));
+
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                output.writeInt(INDEX_FILE_VERSION);
+                output.writeLong(crc.getValue());
+                output.writeInt(entries.size());
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeUTF(entry.getValue());
+                }
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logError(e, "Failed to save data index").addParameter("path", indexFile.toString()).log();
+        }
+    }
+
+    private static void updateChecksum(CRC32 crc, String cdid, String uri) {
+        crc.update(cdid.getBytes(StandardCharsets.UTF_8));
+        crc.update(0);
+        crc.update(uri.getBytes(StandardCharsets.UTF_8));
+        crc.update(0);
+    }
+
+    /**
+     * Wait until the index is built
+     *
+     * @param timeout max wait time
+     * @param unit    the unit of the timeout
+     * @return true if the index is built, false if the timeout passed first
+     * @throws InterruptedException
+     */
+    public boolean awaitIndexBuilt(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            indexBuilt.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // a failed build is logged and the future completed, so there is nothing more to wait for.
+            return true;
+        }
+    }
+
+    /**
+     * Wait until the index is built, however long it takes
+     *
+     * @throws InterruptedException
+     */
+    public void awaitIndexBuilt() throws InterruptedException {
+        try {
+            indexBuilt.get();
+        } catch (ExecutionException e) {
+            // a failed build is logged and the future completed, so there is nothing more to wait for.
         }
-        return true;
     }
 
     /**
@@ -96,16 +324,17 @@ public class DataIndex {
      */
     public void pauseUntilComplete(int maxSeconds) throws BadRequestException {
         try {
-            if (!waitWhileIncomplete(maxSeconds)) {
+            if (!awaitIndexBuilt(maxSeconds, TimeUnit.SECONDS)) {
                 throw new BadRequestException("DataIndex build in progress");
             }
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new BadRequestException("DataIndex build in progress");
         }
     }
 
     public boolean isIndexBuilt() {
-        return indexBuilt;
+        return indexBuilt.isDone();
     }
 
     /**
@@ -113,11 +342,11 @@ public class DataIndex {
      */
     private static class IndexBuilder extends SimpleFileVisitor<Path> {
 
-        Map<String, String> index = new HashMap<>();
+        DataIndex dataIndex;
         ContentReader contentReader = null;
 
-        public IndexBuilder(Map<String, String> index, ContentReader contentReader) {
-            this.index = index;
+        public IndexBuilder(DataIndex dataIndex, ContentReader contentReader) {
+            this.dataIndex = dataIndex;
             this.contentReader = contentReader;
         }
 
@@ -125,31 +354,7 @@ public class DataIndex {
         public FileVisitResult visitFile(Path file, BasicFileAttributes attr) {
             // Get the uri
             String uri = "/" + this.contentReader.getRootFolder().relativize(file).toString();
-
-            // Check json files in timeseries directories (excluding versions)
-            if (uri.endsWith("data.json") && uri.contains("/timeseries/") && !uri.contains("/" + VersionedContentItem.getVersionDirectoryName() + "/")) {
-                uri = uri.substring(0, uri.length() - "/data.json".length());
-
-                TimeSeries timeSeries;
-                try {
-                    timeSeries = (TimeSeries) this.contentReader.getContent(uri);
-                    if (timeSeries.getCdid() != null) {
-
-                        // get the parent path so that we are referencing the timeseries landing page instead of dataset specific timeseries.
-                        String timeseriesLandingPageUri = uri; //if the parent directory is the timeseries folder just use the uri.
-                        Path path = Paths.get(uri);
-
-                        if (!path.getParent().getFileName().toString().equals("timeseries")) {
-                            timeseriesLandingPageUri = path.getParent().toString(); // else use the parent CDID based directory.
-                        }
-
-                        this.index.put(timeSeries.getCdid().toLowerCase(), timeseriesLandingPageUri);
-                    }
-                } catch (Exception e) {
-                    logError(e, "Error indexing uri").addParameter("uri", uri).log();
-                }
-
-            }
+            dataIndex.indexTimeseries(uri);
             return FileVisitResult.CONTINUE;
         }
     }
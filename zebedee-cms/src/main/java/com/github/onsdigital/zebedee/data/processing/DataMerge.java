@@ -2,11 +2,11 @@ package com.github.onsdigital.zebedee.data.processing;
 
 import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
 import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeriesValue;
-import com.github.onsdigital.zebedee.content.util.ContentUtil;
 
-import java.util.List;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Created by thomasridd on 1/21/16.
@@ -18,8 +18,8 @@ public class DataMerge {
 
     public TimeSeries merge(TimeSeries original, TimeSeries updates, String datasetId) {
 
-        // Clone the original timeseries
-        this.merged = ContentUtil.deserialise(ContentUtil.serialise(original), TimeSeries.class);
+        // Copy the original timeseries
+        this.merged = new TimeSeries(original);
 
         // Merge in each of the yearly, quarterly, and monthly timeseries
         mergeTimeSeriesValueSet(merged, merged.years, updates.years, datasetId);
@@ -30,7 +30,10 @@ public class DataMerge {
     }
 
     /**
-     * Merge a
+     * Merge a set of updated values into the current values of a timeseries.
+     * <p>
+     * Current values are indexed by date, so each update is matched in constant time. Current values left in the
+     * index once all updates are matched have been suppressed.
      *
      * @param page
      * @param currentValues
@@ -40,9 +43,12 @@ public class DataMerge {
      */
     private void mergeTimeSeriesValueSet(TimeSeries page, Set<TimeSeriesValue> currentValues, Set<TimeSeriesValue> updateValues, String datasetId) {
 
+        Map<Date, TimeSeriesValue> unmatched = indexByDate(currentValues);
+        Date updateDate = page.getDescription().getReleaseDate();
+
         for (TimeSeriesValue value : updateValues) {
             // Find the current value of the data point
-            TimeSeriesValue current = getCurrentValue(currentValues, value);
+            TimeSeriesValue current = unmatched.remove(value.toDate());
 
             if (current != null) { // A point already exists for this data
 
@@ -51,16 +57,16 @@ public class DataMerge {
                     // Update the point
                     current.value = value.value;
                     current.sourceDataset = datasetId;
-                    current.updateDate = page.getDescription().getReleaseDate();
+                    current.updateDate = updateDate;
 
                     // Log a correction has been made to existing data
                     this.corrections += 1;
                 }
             } else {
                 // Take a copy of the point and add it to our merged page
-                TimeSeriesValue copy = ContentUtil.deserialise(ContentUtil.serialise(value), TimeSeriesValue.class);
+                TimeSeriesValue copy = new TimeSeriesValue(value);
                 copy.sourceDataset = datasetId;
-                copy.updateDate = page.getDescription().getReleaseDate();
+                copy.updateDate = updateDate;
 
                 page.add(copy);
 
@@ -69,33 +75,26 @@ public class DataMerge {
             }
         }
 
-        // Find values that have been suppressed, i.e, they are in the current values but not in the updated values
-        List<TimeSeriesValue> suppressed = currentValues.stream()
-                .filter(current -> !updateValues.contains(current))
-                .collect(Collectors.toList());
-
-        suppressed.forEach(current -> current.value = "");
-        this.corrections += suppressed.size();
+        // Values that have been suppressed, i.e, they are in the current values but not in the updated values
+        unmatched.values().forEach(current -> current.value = "");
+        this.corrections += unmatched.size();
     }
 
     /**
-     * If a {@link TimeSeriesValue} for value.time exists in currentValues returns that.
-     * Otherwise null
+     * Index {@link TimeSeriesValue}s by the date they are for.
      *
-     * @param currentValues a set of {@link TimeSeriesValue}
-     * @param value         a {@link TimeSeriesValue}
-     * @return a {@link TimeSeriesValue} from currentValues
+     * @param values a set of {@link TimeSeriesValue}, may be null
+     * @return date - value mapping
      */
-    private TimeSeriesValue getCurrentValue(Set<TimeSeriesValue> currentValues, TimeSeriesValue value) {
-        if (currentValues == null) {
-            return null;
+    private Map<Date, TimeSeriesValue> indexByDate(Set<TimeSeriesValue> values) {
+        if (values == null) {
+            return new HashMap<>();
         }
 
-        for (TimeSeriesValue current : currentValues) {
-            if (current.compareTo(value) == 0) {
-                return current;
-            }
+        Map<Date, TimeSeriesValue> index = new HashMap<>(values.size() * 4 / 3 + 1);
+        for (TimeSeriesValue value : values) {
+            index.put(value.toDate(), value);
         }
-        return null;
+        return index;
     }
 }
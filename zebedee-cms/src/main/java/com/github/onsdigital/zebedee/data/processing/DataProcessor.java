@@ -203,19 +203,21 @@ public class DataProcessor {
         String datasetId = details.landingPage.getDescription().getDatasetId().toLowerCase();
         String indexed = dataIndex.getUriForCdid(cdid);
 
-        indexed = URIUtils.removeTrailingSlash(indexed);
-
-        if (indexed != null) {
-            // if its in the index, just add the dataset id to the end of the existing timeseries URL.
-            return String.format("%s/%s", indexed, datasetId);
-        } else {
+        if (indexed == null) {
             // if its not in the data index, build the URI based on the dataset location.
+            // another timeseries processed at the same time may have added it since, in which case use that.
             String timeseriesUri = details.getTimeseriesFolder() + "/" + series.getCdid().toLowerCase();
-            dataIndex.setUriForCdid(cdid, timeseriesUri);
+            indexed = dataIndex.setUriForCdidIfAbsent(cdid, timeseriesUri);
 
-            String timeseriesDataUri = String.format("%s/%s", timeseriesUri, datasetId);
-            return timeseriesDataUri;
+            if (indexed == null) {
+                String timeseriesDataUri = String.format("%s/%s", timeseriesUri, datasetId);
+                return timeseriesDataUri;
+            }
         }
+
+        // if its in the index, just add the dataset id to the end of the existing timeseries URL.
+        indexed = URIUtils.removeTrailingSlash(indexed);
+        return String.format("%s/%s", indexed, datasetId);
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.github.onsdigital.zebedee.data.processing;
 
 import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.configuration.Configuration;
 import com.github.onsdigital.zebedee.content.page.statistics.dataset.DownloadSection;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateCommand;
 import com.github.onsdigital.zebedee.data.json.TimeSerieses;
@@ -13,12 +14,21 @@ import com.github.onsdigital.zebedee.reader.ContentReader;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DataPublication {
     public static final String DEFAULT_DATASET_ID = "data";
     public static final int MAX_SECONDS = 60;
+    private static final ExecutorService pool = Executors.newFixedThreadPool(Configuration.getDataPublicationThreads());
     DataLink dataLink = new DataLinkBrian();
     private DataPublicationDetails details = null;
     private TimeSerieses serieses = null;
@@ -101,26 +111,56 @@ public class DataPublication {
 
         CompositeContentReader compositeContentReader = new CompositeContentReader(reviewedContentReader, publishedContentReader);
 
-        // Process each timeseries returned from Brian
-        for(TimeSeries series: serieses) {
+        // Index the update commands by CDID, the first command for a CDID is applied
+        Map<String, TimeseriesUpdateCommand> commandsByCdid = new HashMap<>();
+        for (TimeseriesUpdateCommand updateCommand : updateCommands) {
+            if (updateCommand.cdid != null) {
+                commandsByCdid.putIfAbsent(updateCommand.cdid.toLowerCase(), updateCommand);
+            }
+        }
 
-            // see if there is an update command for this timeseries.
-            Optional<TimeseriesUpdateCommand> command = updateCommands.stream()
-                    .filter(updateCommand -> updateCommand.cdid.equalsIgnoreCase(series.getCdid()))
-                    .findFirst();
+        // Group the timeseries returned from Brian by CDID. Groups are processed in parallel, and a CDID returned more
+        // than once is processed in order within its group, as each entry is versioned and saved to the same uri.
+        Map<String, List<Integer>> seriesByCdid = new LinkedHashMap<>();
+        for (int i = 0; i < serieses.size(); i++) {
+            String cdid = serieses.get(i).getCdid();
+            seriesByCdid.computeIfAbsent(cdid == null ? null : cdid.toLowerCase(), key -> new ArrayList<>()).add(i);
+        }
 
-            // Build new timeseries
-            DataProcessor processor = new DataProcessor();
-            processor.processTimeseries(compositeContentReader, details, series, dataIndex, command);
+        TimeSeries[] processedSeries = new TimeSeries[serieses.size()];
+        List<Future<Void>> processed = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> group : seriesByCdid.entrySet()) {
+            processed.add(pool.submit(() -> {
 
-            // Save files
-            if (saveTimeSeries) {
-                DataWriter writer = new DataWriter(reviewedContentWriter, reviewedContentReader, publishedContentReader);
-                writer.versionAndSave(processor, details);
-            }
+                // see if there is an update command for this timeseries.
+                Optional<TimeseriesUpdateCommand> command = Optional.ofNullable(
+                        group.getKey() == null ? null : commandsByCdid.get(group.getKey()));
+
+                for (int index : group.getValue()) {
+
+                    // Build new timeseries
+                    DataProcessor processor = new DataProcessor();
+                    processor.processTimeseries(compositeContentReader, details, serieses.get(index), dataIndex, command);
+
+                    // Save files
+                    if (saveTimeSeries) {
+                        DataWriter writer = new DataWriter(reviewedContentWriter, reviewedContentReader, publishedContentReader);
+                        writer.versionAndSave(processor, details);
+                    }
+
+                    processedSeries[index] = processor.timeSeries;
+                }
+                return null;
+            }));
+        }
+
+        for (Future<Void> result : processed) {
+            getResult(result, processed);
+        }
 
-            // Retain the result to be added to any generated spreadsheet
-            results.add(processor.timeSeries);
+        // Retain the results in the order Brian returned them, to be added to any generated spreadsheet
+        for (TimeSeries series : processedSeries) {
+            results.add(series);
         }
 
         // Generate data files
@@ -133,6 +173,38 @@ public class DataPublication {
     }
 
 
+    /**
+     * Wait for a group of timeseries to be processed, cancelling the remaining timeseries if it failed.
+     */
+    private void getResult(Future<Void> result, List<Future<Void>> processed) throws IOException, ZebedeeException, URISyntaxException {
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            cancel(processed);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted processing timeseries", e);
+        } catch (ExecutionException e) {
+            cancel(processed);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ZebedeeException) {
+                throw (ZebedeeException) cause;
+            } else if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error processing timeseries", cause);
+        }
+    }
+
+    private void cancel(List<Future<Void>> processed) {
+        for (Future<Void> future : processed) {
+            future.cancel(true);
+        }
+    }
+
     /**
      * Process a specified collection
      *
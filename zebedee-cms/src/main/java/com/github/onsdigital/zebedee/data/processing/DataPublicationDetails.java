@@ -92,7 +92,7 @@ public class DataPublicationDetails {
      * @param path
      * @return
      */
-    boolean isAnUploadFile(Path path) {
+    public static boolean isAnUploadFile(Path path) {
         String fileName = path.getFileName().toString().toLowerCase();
 
         if (fileName.endsWith(".csdb")) {
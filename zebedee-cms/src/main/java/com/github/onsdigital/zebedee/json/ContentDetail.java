@@ -71,6 +71,24 @@ public class ContentDetail {
         return cloned;
     }
 
+    /**
+     * Creates a copy of this content detail instance that shares its child items, so that a tree can be changed along
+     * one path without copying the rest of it.
+     *
+     * @return
+     */
+    public ContentDetail shallowClone() {
+        ContentDetail cloned = new ContentDetail(this.description, this.uri, this.type, this.contentPath);
+        cloned.events = this.events;
+        cloned.deleteMarker = this.deleteMarker;
+
+        if (this.children != null) {
+            cloned.children = new ArrayList<>(this.children);
+        }
+
+        return cloned;
+    }
+
     /**
      * Return true if this content contains the given child item.
      *
@@ -32,6 +32,7 @@ import com.github.onsdigital.zebedee.reader.ContentReader;
 import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
 import com.github.onsdigital.zebedee.reader.Resource;
 import com.github.onsdigital.zebedee.reader.ZebedeeReader;
+import com.github.onsdigital.zebedee.reader.cache.CollectionContentIndex;
 import com.github.onsdigital.zebedee.service.ServiceSupplier;
 import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.teams.model.Team;
@@ -78,6 +79,7 @@ import static com.github.onsdigital.zebedee.persistence.model.CollectionEventMet
 import static com.github.onsdigital.zebedee.persistence.model.CollectionEventMetaData.renamed;
 import static com.github.onsdigital.zebedee.persistence.model.CollectionEventMetaData.reschedule;
 import static com.github.onsdigital.zebedee.persistence.model.CollectionEventMetaData.typeChanged;
+import static com.github.onsdigital.zebedee.util.URIUtils.removeLastSegment;
 
 public class Collection {
 
@@ -155,6 +157,26 @@ public class Collection {
         this.inProgress = new Content(inProgress);
     }
 
+    /**
+     * Instantiates an existing {@link Collection} with a description that has already been read, e.g. from the
+     * {@link CollectionRegistry}.
+     *
+     * @param path        The {@link Path} of the {@link Collection}.
+     * @param zebedee     The containing {@link Zebedee}.
+     * @param description The {@link CollectionDescription} of the {@link Collection}.
+     */
+    Collection(Path path, Zebedee zebedee, CollectionDescription description) {
+        this.zebedee = zebedee;
+        this.path = path;
+        this.collectionJsonPath = path.getParent().resolve(path.getFileName() + ".json");
+        this.description = description;
+        collectionLocks.putIfAbsent(this.path, new ReentrantReadWriteLock());
+
+        this.reviewed = new Content(path.resolve(REVIEWED));
+        this.complete = new Content(path.resolve(COMPLETE));
+        this.inProgress = new Content(path.resolve(IN_PROGRESS));
+    }
+
     /**
      * Deconstructs a {@link Collection} in the given {@link Zebedee},
      * creating the necessary folders {@value #REVIEWED} and
@@ -190,6 +212,7 @@ public class Collection {
         }
 
         Collection collection = new Collection(rootCollectionsPath.resolve(filename), zebedee);
+        collection.register();
         collectionHistoryDaoServiceSupplier.getService().saveCollectionHistoryEvent(collection, session, COLLECTION_CREATED,
                 collectionCreated(collectionDescription));
 
@@ -283,8 +306,12 @@ public class Collection {
         }
 
         Files.delete(zebedee.getCollections().path.resolve(filename + ".json"));
+        zebedee.getCollections().registry.remove(collection);
+        CollectionContentIndex.remove(collection);
 
-        return new Collection(zebedee.getCollections().path.resolve(newFilename), zebedee);
+        Collection renamed = new Collection(zebedee.getCollections().path.resolve(newFilename), zebedee);
+        renamed.register();
+        return renamed;
     }
 
     private static Release getPublishedRelease(String uri, Zebedee zebedee) throws IOException, ZebedeeException {
@@ -464,6 +491,12 @@ public class Collection {
 
         // remove the lock for the collection
         collectionLocks.remove(path);
+        CollectionContentIndex.remove(path);
+
+        Collections collections = zebedee == null ? null : zebedee.getCollections();
+        if (collections != null) {
+            collections.registry.remove(path);
+        }
     }
 
     /**
@@ -480,10 +513,21 @@ public class Collection {
         collectionLocks.get(this.path).writeLock().lock();
         try (OutputStream output = Files.newOutputStream(this.descriptionPath())) {
             Serialiser.serialise(output, this.description);
-            return true;
         } finally {
             collectionLocks.get(this.path).writeLock().unlock();
         }
+        register();
+        return true;
+    }
+
+    /**
+     * Update the {@link CollectionRegistry} with the saved description of this collection.
+     */
+    private void register() {
+        Collections collections = zebedee == null ? null : zebedee.getCollections();
+        if (collections != null) {
+            collections.registry.put(path, description);
+        }
     }
 
     private Path descriptionPath() {
@@ -583,6 +627,7 @@ public class Collection {
             // Copy from Published to in progress:
             Path path = inProgress.toPath(uri);
             PathUtils.create(path);
+            contentWritten(uri);
 
             addEvent(uri, new Event(new Date(), EventType.CREATED, email));
 
@@ -648,10 +693,12 @@ public class Collection {
                 if (recursive) {
                     FileUtils.deleteDirectory(destination.getParent().toFile());
                     FileUtils.moveDirectory(source.getParent().toFile(), destination.getParent().toFile());
+                    contentChanged();
                 } else {
                     PathUtils.moveFilesInDirectory(source, destination);
                     zebedee.getCollections().removeEmptyCollectionDirectories(source);
                 }
+                getContentIndex().invalidate(removeLastSegment(uri));
             } else {
                 try (InputStream inputStream = new FileInputStream(source.toFile())) {
                     collectionWriter.getInProgress().write(inputStream, uri);
@@ -690,9 +737,11 @@ public class Collection {
             if (recursive) {
                 FileUtils.deleteDirectory(destination.getParent().toFile());
                 FileUtils.moveDirectory(source.getParent().toFile(), destination.getParent().toFile());
+                contentChanged();
             } else {
                 PathUtils.moveFilesInDirectory(source, destination);
             }
+            getContentIndex().invalidate(removeLastSegment(uri));
 
             addEvent(uri, new Event(new Date(), EventType.COMPLETED, email));
             result = true;
@@ -762,10 +811,12 @@ public class Collection {
             if (recursive) {
                 FileUtils.deleteDirectory(destination.getParent().toFile());
                 FileUtils.moveDirectory(source.getParent().toFile(), destination.getParent().toFile());
+                contentChanged();
             } else {
                 PathUtils.moveFilesInDirectory(source, destination);
                 zebedee.getCollections().removeEmptyCollectionDirectories(source);
             }
+            getContentIndex().invalidate(removeLastSegment(uri));
 
             addEvent(uri, new Event(new Date(), EventType.REVIEWED, session.getEmail()));
             collectionHistoryDaoServiceSupplier.getService().saveCollectionHistoryEvent(
@@ -885,14 +936,19 @@ public class Collection {
      * @return True if the file system has been amended
      */
     public boolean deleteFile(String uri) throws IOException {
+        getContentIndex().invalidate(uri);
+        boolean deleted = false;
         if (isInProgress(uri)) {
-            return inProgress.delete(uri);
+            deleted = inProgress.delete(uri);
         } else if (isComplete(uri)) {
-            return complete.delete(uri);
+            deleted = complete.delete(uri);
         } else if (isReviewed(uri)) {
-            return reviewed.delete(uri);
+            deleted = reviewed.delete(uri);
         }
-        return false;
+        if (deleted) {
+            contentChanged();
+        }
+        return deleted;
     }
 
     /**
@@ -919,7 +975,11 @@ public class Collection {
             hasDeleted = true;
         }
 
-        if (hasDeleted) addEvent(uri, new Event(new Date(), EventType.DELETED, email));
+        if (hasDeleted) {
+            getContentIndex().invalidate(uri);
+            contentChanged();
+            addEvent(uri, new Event(new Date(), EventType.DELETED, email));
+        }
         save();
 
         return hasDeleted;
@@ -941,6 +1001,8 @@ public class Collection {
         }
 
         if (hasDeleted) {
+            getContentIndex().invalidate(contentUri);
+            contentChanged();
             addEvent(contentUri, new Event(new Date(), EventType.DELETED, session.getEmail()));
             collectionHistoryDaoServiceSupplier.getService().saveCollectionHistoryEvent(new CollectionHistoryEvent(this, session,
                     DATA_VISUALISATION_COLLECTION_CONTENT_DELETED, contentUri));
@@ -1046,6 +1108,8 @@ public class Collection {
         }
 
         FileUtils.deleteDirectory(reviewedPath.toFile());
+        getContentIndex().invalidate(uri);
+        contentChanged();
     }
 
     /**
@@ -1072,6 +1136,12 @@ public class Collection {
             hasMoved = true;
         }
 
+        if (hasMoved) {
+            getContentIndex().invalidate(fromUri);
+            getContentIndex().invalidate(toUri);
+            contentChanged();
+        }
+
         // Fix up links within the content
         if (hasMoved) replaceLinksWithinCollection(session, fromUri, toUri);
 
@@ -1167,7 +1237,12 @@ public class Collection {
             hasRenamed = renameContent(reviewed, fromUri, toUri);
         }
 
-        if (hasRenamed) addEvent(fromUri, new Event(new Date(), EventType.RENAMED, email));
+        if (hasRenamed) {
+            getContentIndex().invalidate(fromUri);
+            getContentIndex().invalidate(toUri);
+            contentChanged();
+            addEvent(fromUri, new Event(new Date(), EventType.RENAMED, email));
+        }
 
         return hasRenamed;
     }
@@ -1192,5 +1267,35 @@ public class Collection {
     public Content getInProgress() {
         return inProgress;
     }
+
+    /**
+     * Index a file that has just been written to this collection, so it is found by checks for content being edited.
+     *
+     * @param uri The URI of the file.
+     */
+    void contentWritten(String uri) {
+        Collections collections = zebedee == null ? null : zebedee.getCollections();
+        if (collections != null) {
+            collections.uriIndex.written(path, uri);
+        }
+    }
+
+    /**
+     * List the content of this collection again, so checks for content being edited see content that has been moved
+     * or deleted.
+     */
+    public void contentChanged() {
+        Collections collections = zebedee == null ? null : zebedee.getCollections();
+        if (collections != null) {
+            collections.uriIndex.contentChanged(path);
+        }
+    }
+
+    /**
+     * @return the index of which folder holds each uri read from this collection, shared by its readers and writers.
+     */
+    public CollectionContentIndex getContentIndex() {
+        return CollectionContentIndex.forCollection(path);
+    }
 }
 
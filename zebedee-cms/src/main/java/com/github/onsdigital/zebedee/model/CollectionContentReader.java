@@ -5,12 +5,11 @@ import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
 import com.github.onsdigital.zebedee.reader.Resource;
 import com.github.onsdigital.zebedee.util.EncryptionUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 
 import javax.crypto.SecretKey;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -31,9 +30,13 @@ public class CollectionContentReader extends FileSystemContentReader {
     @Override
     protected long calculateContentLength(Path path) throws IOException {
         if (collection.description.isEncrypted) {
-            try (InputStream inputStream = EncryptionUtils.encryptionInputStream(path, key);
-                 OutputStream outputStream = new ByteArrayOutputStream()) {
-                return IOUtils.copy(inputStream, outputStream);
+            long length = EncryptionUtils.getPlainLength(path);
+            if (length != EncryptionUtils.UNKNOWN_LENGTH) {
+                return length;
+            }
+            // files written without a length header are counted as they are decrypted
+            try (InputStream inputStream = EncryptionUtils.encryptionInputStream(path, key)) {
+                return IOUtils.copyLarge(inputStream, NullOutputStream.NULL_OUTPUT_STREAM);
             }
         } else {
             return super.calculateContentLength(path);
@@ -2,6 +2,7 @@ package com.github.onsdigital.zebedee.model;
 
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.UnauthorizedException;
+import com.github.onsdigital.zebedee.reader.cache.CollectionContentIndex.State;
 import com.github.onsdigital.zebedee.util.EncryptionUtils;
 import com.github.onsdigital.zebedee.util.SlackNotification;
 import org.apache.commons.io.FileUtils;
@@ -19,6 +20,7 @@ import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
 public class CollectionContentWriter extends ContentWriter {
     private Collection collection;
     private SecretKey key;
+    private State state;
 
     /**
      * Create a new instance of ContentWriter to write content from the given root folder.
@@ -26,17 +28,33 @@ public class CollectionContentWriter extends ContentWriter {
      * @param rootFolder
      */
     public CollectionContentWriter(Collection collection, SecretKey key, Path rootFolder) throws IOException, UnauthorizedException {
+        this(collection, key, rootFolder, null);
+    }
+
+    /**
+     * Create a new instance of ContentWriter to write content from the given collection folder, keeping the
+     * collection content index up to date as content is written.
+     *
+     * @param rootFolder
+     * @param state      the collection folder the root folder is.
+     */
+    public CollectionContentWriter(Collection collection, SecretKey key, Path rootFolder, State state) throws IOException, UnauthorizedException {
         super(rootFolder);
         this.collection = collection;
         this.key = key;
+        this.state = state;
     }
 
     @Override
     public OutputStream getOutputStream(String uri) throws IOException, BadRequestException {
         Path path = resolvePath(uri);
         assertNotDirectory(path);
+        if (state != null) {
+            collection.getContentIndex().written(uri, state);
+        }
+        OutputStream output;
         if (collection.description.isEncrypted) {
-            return EncryptionUtils.encryptionOutputStream(path, key);
+            output = EncryptionUtils.encryptionOutputStream(path, key);
         } else {
             String logMessage = String.format("Writing unencrypted content in collection %s for URI %s",
                     collection.getDescription().getName(), uri);
@@ -46,7 +64,11 @@ public class CollectionContentWriter extends ContentWriter {
                     .collectionName(collection.getDescription().getName())
                     .log();
 
-            return FileUtils.openOutputStream(path.toFile());
+            output = FileUtils.openOutputStream(path.toFile());
+        }
+        if (state != null) {
+            collection.contentWritten(uri);
         }
+        return output;
     }
 }
@@ -0,0 +1,311 @@
+package com.github.onsdigital.zebedee.model;
+
+import com.github.davidcarboni.restolino.json.Serialiser;
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
+
+/**
+ * Keeps the description of every collection in memory, indexed by collection directory name and by collection id, so
+ * collections can be listed and found without reading every collection json file.
+ * <p>
+ * The registry is updated as collections are created, saved, renamed and deleted. A reconcile scan on a timer compares
+ * the modified time and size of each collection json file with the registered ones, and only reads the files that
+ * have changed outside the CMS.
+ * <p>
+ * Registered descriptions are copies, and are shared by every collection listed from the registry, so they should not
+ * be changed.
+ */
+class CollectionRegistry {
+
+    // shared by every registry, each registry's reconcile task is cancelled when it is closed or garbage collected.
+    private static final Timer timer = new Timer("Collections reconcile timer", true);
+
+    private final Path path;
+    private final CollectionUriIndex uriIndex;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> namesById = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile boolean closed;
+    private TimerTask reconcileTask;
+
+    /**
+     * A registered collection description, along with the attributes of the json file it was read from.
+     */
+    static class Entry {
+        final Path path;
+        final CollectionDescription description;
+        final FileTime lastModified;
+        final long size;
+
+        Entry(Path path, CollectionDescription description, BasicFileAttributes attributes) {
+            this.path = path;
+            this.description = description;
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+
+    /**
+     * @param path the collections directory.
+     */
+    CollectionRegistry(Path path) {
+        this(path, new CollectionUriIndex());
+    }
+
+    /**
+     * @param path     the collections directory.
+     * @param uriIndex the index to keep the delete markers of registered collections in.
+     */
+    CollectionRegistry(Path path, CollectionUriIndex uriIndex) {
+        this.path = path;
+        this.uriIndex = uriIndex;
+    }
+
+    /**
+     * @return every registered collection, loading the registry first if needed.
+     */
+    List<Entry> entries() throws IOException {
+        ensureLoaded();
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Get the registered collection with the given id. The collections directory is reconciled if the id is not
+     * registered, in case the collection was added outside the CMS.
+     *
+     * @return the registered collection, or null if there is no collection with the given id.
+     */
+    Entry getById(String id) throws IOException {
+        if (StringUtils.isBlank(id)) {
+            return null;
+        }
+        ensureLoaded();
+        Entry entry = find(id);
+        if (entry == null) {
+            reconcile();
+            entry = find(id);
+        }
+        return entry;
+    }
+
+    /**
+     * @param name the collection directory name.
+     * @return the registered collection, or null if it is not registered.
+     */
+    Entry getByName(String name) {
+        return entries.get(name);
+    }
+
+    private Entry find(String id) {
+        String name = namesById.get(id.toLowerCase());
+        return name == null ? null : entries.get(name);
+    }
+
+    /**
+     * Register a copy of the description of a collection that has just been saved.
+     *
+     * @param collectionPath the collection directory.
+     */
+    void put(Path collectionPath, CollectionDescription description) {
+        if (!loaded || !path.equals(collectionPath.getParent())) {
+            return;
+        }
+        try {
+            CollectionDescription copy = Serialiser.deserialise(Serialiser.serialise(description),
+                    CollectionDescription.class);
+            register(collectionPath, new Entry(collectionPath, copy, attributes(collectionPath)));
+        } catch (IOException e) {
+            logError(e, "Failed to register collection, dropping it until the next reconcile")
+                    .addParameter("collectionPath", collectionPath.toString()).log();
+            remove(collectionPath);
+        }
+    }
+
+    /**
+     * Remove a deleted or renamed collection.
+     *
+     * @param collectionPath the collection directory.
+     */
+    void remove(Path collectionPath) {
+        Entry entry = entries.remove(collectionPath.getFileName().toString());
+        if (entry != null) {
+            unindex(entry);
+        }
+        uriIndex.remove(collectionPath);
+    }
+
+    /**
+     * Read the json files of any collections that have been added or changed since they were registered, and remove
+     * any collections that are no longer there.
+     */
+    synchronized void reconcile() throws IOException {
+        Set<String> found = new HashSet<>();
+        int read = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            for (Path collectionPath : stream) {
+                if (!isCollection(collectionPath)) {
+                    continue;
+                }
+                String name = collectionPath.getFileName().toString();
+                found.add(name);
+
+                Entry entry = entries.get(name);
+                BasicFileAttributes attributes = attributes(collectionPath);
+                if (entry != null && entry.isCurrent(attributes)) {
+                    continue;
+                }
+
+                try (InputStream input = Files.newInputStream(jsonPath(collectionPath))) {
+                    CollectionDescription description = Serialiser.deserialise(input, CollectionDescription.class);
+                    Entry updated = new Entry(collectionPath, description, attributes);
+
+                    // only replace the entry read above, so a collection saved in the meantime is not overwritten.
+                    boolean replaced = entry == null
+                            ? entries.putIfAbsent(name, updated) == null
+                            : entries.replace(name, entry, updated);
+                    if (replaced) {
+                        if (entry != null) {
+                            unindex(entry);
+                        }
+                        index(updated);
+                        read++;
+                    }
+                } catch (Exception e) {
+                    logError(e, "Failed to deserialise collection")
+                            .addParameter("collectionPath", collectionPath.toString())
+                            .log();
+                }
+            }
+        }
+
+        for (Entry entry : entries.values()) {
+            if (!found.contains(entry.path.getFileName().toString())) {
+                remove(entry.path);
+            }
+        }
+
+        if (read > 0) {
+            logInfo("Reconciled collections registry").addParameter("collections", entries.size())
+                    .addParameter("read", read).log();
+        }
+    }
+
+    void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                reconcile();
+                loaded = true;
+                if (!closed) {
+                    long interval = Configuration.getCollectionsReconcileInterval() * 1000L;
+                    reconcileTask = new ReconcileTask(this);
+                    timer.schedule(reconcileTask, interval, interval);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop reconciling the registry on the timer.
+     */
+    synchronized void close() {
+        closed = true;
+        if (reconcileTask != null) {
+            reconcileTask.cancel();
+            reconcileTask = null;
+        }
+    }
+
+    /**
+     * Reconciles a registry on the shared timer. Only weakly refers to the registry, so a registry that is no longer
+     * used is not kept reconciling forever.
+     */
+    private static class ReconcileTask extends TimerTask {
+        private final WeakReference<CollectionRegistry> registry;
+
+        private ReconcileTask(CollectionRegistry registry) {
+            this.registry = new WeakReference<>(registry);
+        }
+
+        @Override
+        public void run() {
+            CollectionRegistry collectionRegistry = registry.get();
+            if (collectionRegistry == null) {
+                cancel();
+                return;
+            }
+            try {
+                collectionRegistry.reconcile();
+            } catch (Exception e) {
+                logError(e, "Failed to reconcile collections registry").log();
+            }
+        }
+    }
+
+    private void register(Path collectionPath, Entry entry) {
+        Entry previous = entries.put(collectionPath.getFileName().toString(), entry);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(entry);
+    }
+
+    private void index(Entry entry) {
+        String id = entry.description.getId();
+        if (StringUtils.isNotBlank(id)) {
+            namesById.put(id.toLowerCase(), entry.path.getFileName().toString());
+        }
+        uriIndex.registered(entry.path, entry.description);
+    }
+
+    private void unindex(Entry entry) {
+        String id = entry.description.getId();
+        if (StringUtils.isNotBlank(id)) {
+            namesById.remove(id.toLowerCase(), entry.path.getFileName().toString());
+        }
+    }
+
+    private static boolean isCollection(Path collectionPath) {
+        return Files.isDirectory(collectionPath)
+                && Files.exists(jsonPath(collectionPath))
+                && Files.exists(collectionPath.resolve(Collection.REVIEWED))
+                && Files.exists(collectionPath.resolve(Collection.COMPLETE))
+                && Files.exists(collectionPath.resolve(Collection.IN_PROGRESS));
+    }
+
+    private static BasicFileAttributes attributes(Path collectionPath) throws IOException {
+        return Files.readAttributes(jsonPath(collectionPath), BasicFileAttributes.class);
+    }
+
+    private static Path jsonPath(Path collectionPath) {
+        return collectionPath.getParent().resolve(collectionPath.getFileName() + ".json");
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.onsdigital.zebedee.model;
+
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.json.PendingDelete;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
+
+/**
+ * Index of the uris owned by each collection, so checking whether a uri is being edited or is marked for delete in
+ * another collection is a single lookup rather than a check of every collection.
+ * <p>
+ * Edited content is indexed by each file uri and each of its parent directories, so a uri is being edited by a
+ * collection if the collection has a file at or under it. Delete markers are indexed by the uri of the page marked for
+ * delete, so a uri is marked for delete if it or one of its parents is indexed.
+ * <p>
+ * Delete markers are updated with the {@link CollectionRegistry} whenever a collection description is registered.
+ * Edited content is loaded the first time it is needed, then updated as content is written, and each collection is
+ * listed again when content in it is moved or deleted.
+ */
+class CollectionUriIndex {
+
+    private static final String[] FOLDERS = {Collection.IN_PROGRESS, Collection.COMPLETE, Collection.REVIEWED};
+
+    private final ConcurrentMap<String, Set<String>> filesByCollection = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Integer>> editedBy = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> deletesByCollection = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> markedForDeleteBy = new ConcurrentHashMap<>();
+    private volatile boolean contentLoaded;
+
+    /**
+     * @param uri a file or directory uri.
+     * @return the names of the collections with content at or under the given uri.
+     */
+    Set<String> editing(String uri) {
+        ConcurrentMap<String, Integer> owners = editedBy.get(key(uri));
+        return owners == null ? new HashSet<>() : new HashSet<>(owners.keySet());
+    }
+
+    /**
+     * @param uri a file or directory uri.
+     * @return the names of the collections with the given uri, or one of its parents, marked for delete.
+     */
+    Set<String> markingForDelete(String uri) {
+        Set<String> owners = new HashSet<>();
+        String key = key(uri);
+        while (true) {
+            Set<String> marked = markedForDeleteBy.get(key);
+            if (marked != null) {
+                owners.addAll(marked);
+            }
+            if (key.isEmpty()) {
+                return owners;
+            }
+            key = key.contains("/") ? key.substring(0, key.lastIndexOf('/')) : "";
+        }
+    }
+
+    boolean isContentLoaded() {
+        return contentLoaded;
+    }
+
+    /**
+     * List the content of each given collection that has not been indexed yet.
+     *
+     * @param collectionPaths the collection directories.
+     */
+    synchronized void loadContent(Iterable<Path> collectionPaths) {
+        if (contentLoaded) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        for (Path collectionPath : collectionPaths) {
+            if (!filesByCollection.containsKey(name(collectionPath))) {
+                refreshContent(collectionPath);
+            }
+        }
+        contentLoaded = true;
+        logInfo("Indexed collection content").addParameter("collections", filesByCollection.size())
+                .addParameter("uris", editedBy.size())
+                .addParameter("timeMS", System.currentTimeMillis() - start).log();
+    }
+
+    /**
+     * Index a file that has just been written to a collection.
+     *
+     * @param collectionPath the collection directory.
+     * @param uri            the file uri.
+     */
+    synchronized void written(Path collectionPath, String uri) {
+        if (contentLoaded) {
+            addFile(name(collectionPath), key(uri));
+        }
+    }
+
+    /**
+     * List the content of a collection again, if content has been loaded, after content in it has been moved or
+     * deleted.
+     *
+     * @param collectionPath the collection directory.
+     */
+    synchronized void contentChanged(Path collectionPath) {
+        if (contentLoaded) {
+            refreshContent(collectionPath);
+        }
+    }
+
+    private void refreshContent(Path collectionPath) {
+        String name = name(collectionPath);
+        Set<String> files = new HashSet<>();
+        for (String folder : FOLDERS) {
+            Path folderPath = collectionPath.resolve(folder);
+            if (!Files.isDirectory(folderPath)) {
+                continue;
+            }
+            try (Stream<Path> stream = Files.walk(folderPath)) {
+                stream.filter(Files::isRegularFile)
+                        .forEach(file -> files.add(key(folderPath.relativize(file).toString())));
+            } catch (IOException | RuntimeException e) {
+                logError(e, "Failed to list collection content, keeping the indexed content")
+                        .addParameter("collectionPath", collectionPath.toString()).log();
+                return;
+            }
+        }
+
+        Set<String> indexed = filesByCollection.getOrDefault(name, new HashSet<>());
+        for (String file : new HashSet<>(indexed)) {
+            if (!files.contains(file)) {
+                removeFile(name, file);
+            }
+        }
+        files.forEach(file -> addFile(name, file));
+        filesByCollection.putIfAbsent(name, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Index the delete markers of a collection description that has just been registered.
+     *
+     * @param collectionPath the collection directory.
+     */
+    synchronized void registered(Path collectionPath, CollectionDescription description) {
+        String name = name(collectionPath);
+        Set<String> roots = new HashSet<>();
+        for (PendingDelete pendingDelete : description.getPendingDeletes()) {
+            if (pendingDelete.getRoot() != null && pendingDelete.getRoot().contentPath != null) {
+                roots.add(key(pendingDelete.getRoot().contentPath));
+            }
+        }
+
+        Set<String> previous = deletesByCollection.put(name, roots);
+        if (previous != null) {
+            previous.stream().filter(root -> !roots.contains(root)).forEach(root -> unmark(name, root));
+        }
+        roots.forEach(root -> markedForDeleteBy.computeIfAbsent(root, key -> ConcurrentHashMap.newKeySet()).add(name));
+
+        if (contentLoaded && !filesByCollection.containsKey(name)) {
+            refreshContent(collectionPath);
+        }
+    }
+
+    /**
+     * Remove a collection that has been deleted or renamed.
+     *
+     * @param collectionPath the collection directory.
+     */
+    synchronized void remove(Path collectionPath) {
+        String name = name(collectionPath);
+        Set<String> files = filesByCollection.remove(name);
+        if (files != null) {
+            for (String file : files) {
+                forEachParent(file, parent -> decrement(name, parent));
+            }
+        }
+        Set<String> roots = deletesByCollection.remove(name);
+        if (roots != null) {
+            roots.forEach(root -> unmark(name, root));
+        }
+    }
+
+    private void addFile(String name, String file) {
+        if (filesByCollection.computeIfAbsent(name, key -> ConcurrentHashMap.newKeySet()).add(file)) {
+            forEachParent(file, parent -> editedBy.computeIfAbsent(parent, key -> new ConcurrentHashMap<>())
+                    .merge(name, 1, Integer::sum));
+        }
+    }
+
+    private void removeFile(String name, String file) {
+        if (filesByCollection.get(name).remove(file)) {
+            forEachParent(file, parent -> decrement(name, parent));
+        }
+    }
+
+    private void decrement(String name, String key) {
+        ConcurrentMap<String, Integer> owners = editedBy.get(key);
+        if (owners != null) {
+            owners.computeIfPresent(name, (owner, count) -> count > 1 ? count - 1 : null);
+            if (owners.isEmpty()) {
+                editedBy.remove(key);
+            }
+        }
+    }
+
+    private void unmark(String name, String root) {
+        Set<String> marked = markedForDeleteBy.get(root);
+        if (marked != null) {
+            marked.remove(name);
+            if (marked.isEmpty()) {
+                markedForDeleteBy.remove(root);
+            }
+        }
+    }
+
+    /**
+     * Apply the given action to the given uri and each of its parent directories, up to the content root.
+     */
+    private static void forEachParent(String key, Consumer<String> action) {
+        action.accept(key);
+        while (!key.isEmpty()) {
+            key = key.contains("/") ? key.substring(0, key.lastIndexOf('/')) : "";
+            action.accept(key);
+        }
+    }
+
+    private static String name(Path collectionPath) {
+        return collectionPath.getFileName().toString();
+    }
+
+    private static String key(String uri) {
+        return StringUtils.strip(uri.replace('\\', '/'), "/");
+    }
+}
@@ -49,6 +49,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Future;
@@ -75,6 +76,8 @@ import static com.github.onsdigital.zebedee.persistence.model.CollectionEventMet
 public class Collections {
 
     public final Path path;
+    final CollectionUriIndex uriIndex;
+    final CollectionRegistry registry;
     private PermissionsService permissionsService;
     private Content published;
     private Supplier<Zebedee> zebedeeSupplier = () -> Root.zebedee;
@@ -86,11 +89,20 @@ public class Collections {
 
     public Collections(Path path, PermissionsService permissionsService, Content published) {
         this.path = path;
+        this.uriIndex = new CollectionUriIndex();
+        this.registry = new CollectionRegistry(path, uriIndex);
         this.permissionsService = permissionsService;
         this.published = published;
         this.collectionReaderWriterFactory = new CollectionReaderWriterFactory();
     }
 
+    /**
+     * Stop reconciling the collections registry with the collections directory.
+     */
+    public void close() {
+        registry.close();
+    }
+
     /**
      * Populate a list of files / folders for a given path.
      *
@@ -212,26 +224,66 @@ public class Collections {
     }
 
     /**
+     * Lists the collections in the {@link CollectionRegistry}, without reading their json files. The descriptions are
+     * shared with the registry, so get the collection by id before changing it.
+     *
      * @return A list of all {@link Collection}s.
      * @throws IOException If a filesystem error occurs.
      */
     public CollectionList list() throws IOException {
 
         CollectionList result = new CollectionList();
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    try {
-                        result.add(new Collection(path, zebedeeSupplier.get()));
-                    } catch (CollectionNotFoundException e) {
-                        logError(e, "Failed to deserialise collection")
-                                .addParameter("collectionPath", path.toString())
-                                .log();
-                    }
+        for (CollectionRegistry.Entry entry : registry.entries()) {
+            result.add(new Collection(entry.path, zebedeeSupplier.get(), entry.description));
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the collections with content at or under the given uri, using the {@link CollectionUriIndex} rather than
+     * checking every collection.
+     *
+     * @param uri The URI to check.
+     * @return The {@link Collection}s containing the given URI.
+     * @throws IOException If a filesystem error occurs.
+     */
+    public List<Collection> editing(String uri) throws IOException {
+        registry.ensureLoaded();
+        if (!uriIndex.isContentLoaded()) {
+            uriIndex.loadContent(registry.entries().stream().map(entry -> entry.path).collect(Collectors.toList()));
+        }
+
+        List<Collection> result = new ArrayList<>();
+        for (String name : uriIndex.editing(uri)) {
+            CollectionRegistry.Entry entry = registry.getByName(name);
+            if (entry != null) {
+                Collection collection = new Collection(entry.path, zebedeeSupplier.get(), entry.description);
+                if (collection.isInCollection(uri)) {
+                    result.add(collection);
                 }
             }
         }
+        return result;
+    }
 
+    /**
+     * Finds the collections with the given uri, or one of its parents, marked for delete.
+     *
+     * @param uri The URI to check.
+     * @return The {@link Collection}s with pending deletes covering the given URI.
+     * @throws IOException If a filesystem error occurs.
+     */
+    public List<Collection> markingForDelete(String uri) throws IOException {
+        registry.ensureLoaded();
+
+        List<Collection> result = new ArrayList<>();
+        for (String name : uriIndex.markingForDelete(uri)) {
+            CollectionRegistry.Entry entry = registry.getByName(name);
+            if (entry != null) {
+                result.add(new Collection(entry.path, zebedeeSupplier.get(), entry.description));
+            }
+        }
         return result;
     }
 
@@ -254,7 +306,15 @@ public class Collections {
             Collection collection = getCollectionByName(collectionName);
             return collection;
         } catch (IOException | CollectionNotFoundException e) {
-            return list().getCollection(collectionId);
+            CollectionRegistry.Entry entry = registry.getById(collectionId);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                return getCollectionByName(entry.path.getFileName().toString());
+            } catch (CollectionNotFoundException notFound) {
+                return null;
+            }
         }
     }
 
@@ -4,6 +4,7 @@ import com.github.davidcarboni.restolino.json.Serialiser;
 import com.github.onsdigital.zebedee.json.ContentDetail;
 import com.github.onsdigital.zebedee.json.ContentDetailDescription;
 import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
+import com.github.onsdigital.zebedee.service.content.navigation.ContentTreeIndex;
 import com.github.onsdigital.zebedee.util.ZebedeeCmsService;
 import com.google.gson.JsonSyntaxException;
 import org.apache.commons.io.FileUtils;
@@ -17,6 +18,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
@@ -233,17 +235,7 @@ public class Content {
     }
 
     private ContentDetail nestedDetails(Path contentPath) throws IOException {
-        ContentDetail detail = details(contentPath.resolve("data.json"));
-
-        // if the folder is empty put in an empty node with just a name.
-        if (detail == null) {
-            detail = new ContentDetail();
-            detail.description = new ContentDetailDescription(contentPath.getFileName().toString());
-            detail.uri = "";
-        }
-
-        detail.contentPath = "/" + getPublishedContentPath().relativize(contentPath);
-        detail.children = new ArrayList<>();
+        ContentDetail detail = directoryDetails(contentPath);
 
         // todo: remove timeseries filter once we are caching the browse tree.
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(contentPath)) {
@@ -257,9 +249,110 @@ public class Content {
             }
         }
 
+        sortDetails(detail.children, contentPath);
+        return detail;
+    }
+
+    /**
+     * Updates the given tree, as returned by {@link #nestedDetails()}, by reading the details of the given directories
+     * again. A directory that no longer exists is removed from the tree, and a new one is added along with any parent
+     * directories it needs. Only the nodes on the path to each directory are copied, the rest of the tree is shared
+     * with the tree the index was copied from. The index is updated with the copied, added and removed nodes.
+     *
+     * @param nestedDetails the tree to update, which must not be shared.
+     * @param directories   the directories that have changed.
+     * @throws IOException
+     */
+    public void updateNestedDetails(ContentTreeIndex nestedDetails, Set<Path> directories) throws IOException {
+        for (Path directory : directories) {
+            if (directory.equals(path)) {
+                nestedDetails.setRoot(refreshDetails(nestedDetails.getRoot(), path));
+            } else if (directory.startsWith(path)) {
+                nestedDetails.setRoot(updateNestedDetails(nestedDetails, nestedDetails.getRoot(), path, directory));
+            }
+        }
+    }
+
+    private ContentDetail updateNestedDetails(ContentTreeIndex index, ContentDetail node, Path nodePath,
+                                              Path directory) throws IOException {
+        Path childPath = nodePath.resolve(nodePath.relativize(directory).getName(0));
+        String childContentPath = "/" + getPublishedContentPath().relativize(childPath);
+
+        ContentDetail child = index.find(childContentPath).orElse(null);
+        int position = child == null || node.children == null ? -1 : indexOf(node.children, child);
+        if (position < 0) {
+            child = null;
+        }
+
+        ContentDetail updated;
+        if (!isVisible(childPath)) {
+            updated = null;
+        } else if (childPath.equals(directory)) {
+            updated = refreshDetails(child, childPath);
+        } else {
+            updated = updateNestedDetails(index, child != null ? child : directoryDetails(childPath), childPath,
+                    directory);
+        }
+
+        if (updated == child) {
+            return node;
+        }
+
+        ContentDetail copy = node.shallowClone();
+        if (copy.children == null) {
+            copy.children = new ArrayList<>();
+        }
+        if (position >= 0) {
+            copy.children.remove(position);
+            if (updated == null) {
+                index.removeAll(child);
+            }
+        }
+        if (updated != null) {
+            copy.children.add(updated);
+            sortDetails(copy.children, nodePath);
+            index.put(updated);
+        }
+        index.put(copy);
+        return copy;
+    }
+
+    private static int indexOf(List<ContentDetail> details, ContentDetail detail) {
+        for (int i = 0; i < details.size(); i++) {
+            if (details.get(i) == detail) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ContentDetail refreshDetails(ContentDetail existing, Path contentPath) throws IOException {
+        ContentDetail detail = directoryDetails(contentPath);
+        if (existing != null && existing.children != null) {
+            detail.children.addAll(existing.children);
+        }
+        return detail;
+    }
+
+    private ContentDetail directoryDetails(Path contentPath) throws IOException {
+        ContentDetail detail = details(contentPath.resolve("data.json"));
+
+        // if the folder is empty put in an empty node with just a name.
+        if (detail == null) {
+            detail = new ContentDetail();
+            detail.description = new ContentDetailDescription(contentPath.getFileName().toString());
+            detail.uri = "";
+        }
+
+        detail.contentPath = "/" + getPublishedContentPath().relativize(contentPath);
+        detail.children = new ArrayList<>();
+        return detail;
+    }
+
+    private static void sortDetails(List<ContentDetail> details, Path contentPath) {
         try {
-            if (detail.children.size() > 1) {
-                java.util.Collections.sort(detail.children, (o1, o2) -> {
+            if (details.size() > 1) {
+                java.util.Collections.sort(details, (o1, o2) -> {
 
                     if ((o1.description == null || o1.description.title == null) && (o2.description == null || o2.description.title == null)) {
                         return 0; // if both are null
@@ -276,8 +369,6 @@ public class Content {
         } catch (IllegalArgumentException e) {
             logError(e, "Failed to sort content detail items").addParameter("path", contentPath.toString()).log();
         }
-
-        return detail;
     }
 
     /**
@@ -2,6 +2,7 @@ package com.github.onsdigital.zebedee.model;
 
 import com.github.onsdigital.zebedee.content.util.ContentUtil;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
+import com.github.onsdigital.zebedee.reader.cache.PageCache;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
@@ -50,6 +51,7 @@ public class ContentWriter {
         try (OutputStream output = getOutputStream(uri)) {
             org.apache.commons.io.IOUtils.copy(input, output);
         }
+        PageCache.getInstance().invalidate(resolvePath(uri));
     }
 
     /**
@@ -63,6 +65,7 @@ public class ContentWriter {
     public OutputStream getOutputStream(String uri) throws IOException, BadRequestException {
         Path path = resolvePath(uri);
         assertNotDirectory(path);
+        PageCache.getInstance().invalidate(path);
         return FileUtils.openOutputStream(path.toFile());
     }
 
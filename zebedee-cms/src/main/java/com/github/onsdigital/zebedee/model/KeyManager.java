@@ -2,6 +2,7 @@ package com.github.onsdigital.zebedee.model;
 
 import com.github.onsdigital.zebedee.Zebedee;
 import com.github.onsdigital.zebedee.api.Root;
+import com.github.onsdigital.zebedee.configuration.Configuration;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.json.Keyring;
@@ -9,16 +10,22 @@ import com.github.onsdigital.zebedee.service.ServiceSupplier;
 import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.user.model.User;
 import com.github.onsdigital.zebedee.util.ZebedeeCmsService;
+import com.google.common.util.concurrent.Striped;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
@@ -32,26 +39,46 @@ public class KeyManager {
     private static ZebedeeCmsService zebedeeCmsService = ZebedeeCmsService.getInstance();
     private static ServiceSupplier<Collections> collectionsServiceSupplier = () -> Root.zebedee.getCollections();
 
-    static final ExecutorService executorService = Executors.newFixedThreadPool(25);
+    static final ExecutorService executorService = Executors.newFixedThreadPool(Configuration.getKeyDistributionThreads());
+    // weakly held, so the lock of a collection is dropped once no distribution of its key is running.
+    private static final Striped<Lock> collectionLocks = Striped.lazyWeakLock(1024);
 
     public static void setCollectionsServiceSupplier(ServiceSupplier<Collections> supplier) {
         collectionsServiceSupplier = supplier;
     }
 
     /**
-     * Distribute the collection key to users that should have it.
+     * Distribute the collection key to users that should have it. Each user's keyring is updated by its own task on
+     * a bounded pool, so users are updated in parallel and only updates to the same user wait for each other. Every
+     * task is run to completion and any failures are reported together once all users have been updated.
+     * <p>
+     * Distributions of the same collection key are serialised, from reading the permissions to the last user being
+     * updated, so an older distribution can never give the key back to a user a newer one has taken it from.
      *
      * @param zebedee         the {@link Zebedee} instance to use.
      * @param session         the users session.
      * @param collection      the {@link Collection} the key belongs to.
      * @param isNewCollection true if the collection is new, false otherwise.
-     * @throws IOException
+     * @throws IOException if the key could not be assigned to or removed from one or more users.
      */
-    public static synchronized void distributeCollectionKey(Zebedee zebedee, Session session, Collection collection,
-                                                            boolean isNewCollection) throws IOException {
+    public static void distributeCollectionKey(Zebedee zebedee, Session session, Collection collection,
+                                               boolean isNewCollection) throws IOException {
+        String collectionId = collection.getDescription().getId();
+        Lock collectionLock = collectionLocks.get(collectionId);
+        collectionLock.lock();
+        try {
+            distributeCollectionKeyToUsers(zebedee, session, collection, collectionId, isNewCollection);
+        } finally {
+            collectionLock.unlock();
+        }
+    }
+
+    private static void distributeCollectionKeyToUsers(Zebedee zebedee, Session session, Collection collection,
+                                                       String collectionId, boolean isNewCollection)
+            throws IOException {
         SecretKey key = zebedee.getKeyringCache()
                 .get(session)
-                .get(collection.getDescription().getId());
+                .get(collectionId);
 
 
         List<User> keyRecipients = nullSafeList(zebedee
@@ -67,17 +94,50 @@ public class KeyManager {
                     .collect(Collectors.toList());
         }
 
+        Map<String, Future<Boolean>> keyTasks = new LinkedHashMap<>();
         for (User removedUser : keyRevoked) {
-            removeKeyFromUser(zebedee, removedUser, collection.getDescription().getId());
+            keyTasks.computeIfAbsent(removedUser.getEmail(), email -> executorService.submit(() -> {
+                removeKeyFromUser(zebedee, removedUser, collectionId);
+                return true;
+            }));
         }
 
         for (User recipient : keyRecipients) {
-            assignKeyToUser(zebedee, recipient, collection.getDescription().getId(), key);
+            keyTasks.computeIfAbsent(recipient.getEmail(), email -> executorService.submit(() -> {
+                assignKeyToUser(zebedee, recipient, collectionId, key);
+                return true;
+            }));
+        }
+
+        List<String> failedUsers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (Map.Entry<String, Future<Boolean>> keyTask : keyTasks.entrySet()) {
+            try {
+                keyTask.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                keyTasks.values().forEach(task -> task.cancel(true));
+                throw new IOException("Interrupted while distributing the collection key", e);
+            } catch (ExecutionException e) {
+                logError(e.getCause(), "failed to update user keyring with collection key")
+                        .user(keyTask.getKey())
+                        .collectionId(collectionId)
+                        .log();
+                failedUsers.add(keyTask.getKey());
+                failures.add(e.getCause());
+            }
         }
 
         zebedee.getKeyringCache()
                 .getSchedulerCache()
-                .put(collection.getDescription().getId(), key);
+                .put(collectionId, key);
+
+        if (!failures.isEmpty()) {
+            IOException exception = new IOException("Failed to update the collection key for "
+                    + failedUsers.size() + " user(s): " + String.join(", ", failedUsers));
+            failures.forEach(exception::addSuppressed);
+            throw exception;
+        }
     }
 
     private static <T> List<T> nullSafeList(List<T> list) {
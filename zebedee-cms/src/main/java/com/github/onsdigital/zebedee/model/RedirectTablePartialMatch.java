@@ -4,19 +4,30 @@ import java.io.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Partial redirects work by matching as much of the URI as possible to the redirect table and forwarding accordingly
  *
  * This optimises storage since we don't need to have 60 entries for all
+ * <p>
+ * Redirects are matched against a trie of the path segments of each redirect origin, and redirect targets that do not
+ * exist are remembered for a few seconds so repeated lookups do not check the file system each time.
  */
 public class RedirectTablePartialMatch implements RedirectTable {
+    private static final long MISSING_TARGET_MILLIS = 2000;
+    private static final int MAX_MISSING_TARGETS = 10000;
+
     Content content;
     Map<String, List<String>> table = new ConcurrentHashMap<>(); // Concurrent is going to be necessary for save and add
+    private volatile Node trie = new Node();
+    private final Map<String, Long> missingTargets = new ConcurrentHashMap<>();
 
     public RedirectTablePartialMatch(Content content) {
         this.content = content;
@@ -26,22 +37,37 @@ public class RedirectTablePartialMatch implements RedirectTable {
         this.content = content;
     }
 
+    /**
+     * A path segment in the trie of redirect origins.
+     */
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        String partialFrom; // the redirect origin ending at this segment, if there is one
+    }
+
     @Override
     public String get(String uri) {
         if (content.exists(uri, false)) { return uri; } // most times the URI will exist
 
-        // Otherwise lets chuck iteration and go for a bit of dynamic programming
+        // Collect the redirect origins that match the start of the uri path
         Path path = Paths.get(uri);
-        for(int i = path.getNameCount() - 1; i >= 0; i--){
-            // Reverse down the length of the uri path
-            String partialFrom = path.subpath(0, i + 1).toString();
+        List<String> matches = new ArrayList<>();
+        Node node = trie;
+        for (int i = 0; i < path.getNameCount() && node != null; i++) {
+            node = node.children.get(path.getName(i).toString());
+            if (node != null && node.partialFrom != null) {
+                matches.add(node.partialFrom);
+            }
+        }
 
-            // See if this brings up a match
-            if (table.containsKey(partialFrom)) {
-                List<String> options = table.get(partialFrom);
+        // Reverse down the length of the uri path
+        for (int i = matches.size() - 1; i >= 0; i--) {
+            String partialFrom = matches.get(i);
+            List<String> options = table.get(partialFrom);
+            if (options != null) {
                 for (String partialTo: options) {
                     String redirected = partialTo + uri.substring(partialFrom.length());
-                    if (content.exists(redirected, false)) { return redirected; }
+                    if (targetExists(redirected)) { return redirected; }
                 }
             }
         }
@@ -50,48 +76,161 @@ public class RedirectTablePartialMatch implements RedirectTable {
         return null;
     }
 
+    private boolean targetExists(String uri) {
+        long now = System.currentTimeMillis();
+        Long expires = missingTargets.get(uri);
+        if (expires != null && expires > now) {
+            return false;
+        }
+
+        if (content.exists(uri, false)) {
+            if (expires != null) {
+                missingTargets.remove(uri);
+            }
+            return true;
+        }
+
+        if (missingTargets.size() >= MAX_MISSING_TARGETS) {
+            missingTargets.clear();
+        }
+        missingTargets.put(uri, now + MISSING_TARGET_MILLIS);
+        return false;
+    }
+
     @Override
     public void addRedirect(String redirectFrom, String redirectTo) {
-        // Check the redirect doesn't already exist
-        if (this.table.containsKey(redirectFrom)) {
-            for (String partialTo: this.table.get(redirectFrom)) {
-                if (partialTo.equalsIgnoreCase(redirectTo)) { return;}
+        addRedirects(java.util.Collections.singletonList(new String[]{redirectFrom, redirectTo}));
+    }
+
+    /**
+     * Add redirects in order, as if {@link #addRedirect(String, String)} was called for each one, in a single pass.
+     * <p>
+     * Each redirect changes the targets of the redirects before it that start with its origin. Rather than rewriting
+     * the table for each redirect, the redirects are indexed by origin as they are added, and each target is followed
+     * through the later redirects that change it once they have all been added.
+     *
+     * @param redirects from and to pairs.
+     */
+    public synchronized void addRedirects(List<String[]> redirects) {
+        List<String> froms = new ArrayList<>();
+        List<String> tos = new ArrayList<>();
+        Map<String, List<Integer>> byOrigin = new HashMap<>();
+
+        // The existing redirects come before any new ones, and have already been applied to each other
+        for (Map.Entry<String, List<String>> entry : table.entrySet()) {
+            for (String partialTo : entry.getValue()) {
+                byOrigin.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(froms.size());
+                froms.add(entry.getKey());
+                tos.add(partialTo);
             }
         }
 
-        // Create a clone
-        Map<String, List<String>> newTable = new ConcurrentHashMap<>();
+        // Index the position of each new redirect by origin, and note the origin lengths to look up
+        Map<String, List<Integer>> positions = new HashMap<>();
+        TreeSet<Integer> lengths = new TreeSet<>();
+        for (String[] fromTo : redirects) {
+
+            // Check the redirect doesn't already exist, given the redirects added so far
+            boolean exists = false;
+            for (int position : byOrigin.getOrDefault(fromTo[0], java.util.Collections.emptyList())) {
+                if (follow(position, tos.get(position), froms, tos, positions, lengths).equalsIgnoreCase(fromTo[1])) {
+                    exists = true;
+                    break;
+                }
+            }
+            if (exists) {
+                continue;
+            }
 
-        // Update the existing table
-        for (String partialFrom: this.table.keySet()) {
+            int position = froms.size();
+            froms.add(fromTo[0]);
+            tos.add(fromTo[1]);
+            byOrigin.computeIfAbsent(fromTo[0], key -> new ArrayList<>()).add(position);
+            positions.computeIfAbsent(fromTo[0], key -> new ArrayList<>()).add(position);
+            lengths.add(fromTo[0].length());
+        }
 
-            // At each node we start to build a new list
-            List<String> newList = new ArrayList<>();
+        // Follow each target through the later redirects that change it
+        Map<String, List<String>> newTable = new LinkedHashMap<>();
+        for (int i = 0; i < froms.size(); i++) {
+            newTable.computeIfAbsent(froms.get(i), key -> new ArrayList<>())
+                    .add(follow(i, tos.get(i), froms, tos, positions, lengths));
+        }
 
-            // We iterate through the current list
-            List<String> list = table.get(partialFrom);
-            for (String partialTo: list) {
-                // If the new redirect affects the to value we change it
-                if (partialTo.startsWith(redirectFrom)) {
-                    String newLink = redirectTo + partialTo.substring(redirectFrom.length());
-                    newList.add(newLink);
-                } else { // or just copy the link
-                    newList.add(partialTo);
+        setTable(newTable);
+    }
+
+    /**
+     * Follow a redirect target through each later redirect whose origin it starts with.
+     *
+     * @param position  the position of the redirect.
+     * @param partialTo the redirect target.
+     * @param positions the positions of the redirects that can change targets, by origin.
+     * @param lengths   the lengths of the origins that can change targets.
+     * @return the target once every later redirect has been applied.
+     */
+    private static String follow(int position, String partialTo, List<String> froms, List<String> tos,
+                                 Map<String, List<Integer>> positions, TreeSet<Integer> lengths) {
+        while (true) {
+            int next = Integer.MAX_VALUE;
+            for (int length : lengths.headSet(partialTo.length(), true)) {
+                List<Integer> candidates = positions.get(partialTo.substring(0, length));
+                if (candidates != null) {
+                    int after = firstAfter(candidates, position);
+                    if (after >= 0 && after < next) {
+                        next = after;
+                    }
                 }
             }
-            newTable.put(partialFrom, newList);
+            if (next == Integer.MAX_VALUE) {
+                return partialTo;
+            }
+            partialTo = tos.get(next) + partialTo.substring(froms.get(next).length());
+            position = next;
         }
+    }
 
-        // Now add the link (we know it doesn't exist)
-        if (!newTable.containsKey(redirectFrom)) { newTable.put(redirectFrom, new ArrayList<String>()); }
-        newTable.get(redirectFrom).add(redirectTo);
+    /**
+     * @return the first of the sorted positions after the given position, or -1 if there is none.
+     */
+    private static int firstAfter(List<Integer> positions, int position) {
+        int low = 0;
+        int high = positions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions.get(mid) <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < positions.size() ? positions.get(low) : -1;
+    }
+
+    private void setTable(Map<String, List<String>> newTable) {
+        Node root = new Node();
+        for (String partialFrom : newTable.keySet()) {
+            Path path = Paths.get(partialFrom);
+
+            // only origins that can match a path prefix of a uri
+            if (partialFrom.isEmpty() || path.isAbsolute() || !path.toString().equals(partialFrom)) {
+                continue;
+            }
+            Node node = root;
+            for (Path name : path) {
+                node = node.children.computeIfAbsent(name.toString(), key -> new Node());
+            }
+            node.partialFrom = partialFrom;
+        }
 
         // replace the class level table
-        table = newTable;
+        table = new ConcurrentHashMap<>(newTable);
+        trie = root;
+        missingTargets.clear();
     }
 
     @Override
-    public void removeRedirect(String redirectFrom, String redirectTo) {
+    public synchronized void removeRedirect(String redirectFrom, String redirectTo) {
         // Create a clone
         Map<String, List<String>> newTable = new ConcurrentHashMap<>();
 
@@ -112,18 +251,16 @@ public class RedirectTablePartialMatch implements RedirectTable {
             newTable.put(partialFrom, newList);
         }
 
-        table = newTable;
+        setTable(newTable);
     }
 
     @Override
     public void merge(RedirectTable redirectTable) {
-        Iterator<String[]> pairs = redirectTable.iterator();
-
-        while( pairs.hasNext() ) {
-
-            String[] fromTo = pairs.next();
-            addRedirect(fromTo[0], fromTo[1]);
+        List<String[]> redirects = new ArrayList<>();
+        for (String[] fromTo : redirectTable) {
+            redirects.add(fromTo);
         }
+        addRedirects(redirects);
     }
 
     @Override
@@ -139,14 +276,18 @@ public class RedirectTablePartialMatch implements RedirectTable {
 
     @Override
     public void load(Path path) throws IOException {
+        List<String[]> redirects = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(path.toFile()))) {
             String line;
             while ((line = br.readLine()) != null) {
                 // process the line.
                 String[] fromTo = line.split("\t");
-                addRedirect(fromTo[0], fromTo[1]);
+                if (fromTo.length >= 2) {
+                    redirects.add(fromTo);
+                }
             }
         }
+        addRedirects(redirects);
     }
 
     @Override
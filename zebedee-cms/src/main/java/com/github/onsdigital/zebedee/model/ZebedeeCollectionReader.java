@@ -51,6 +51,7 @@ public class ZebedeeCollectionReader extends CollectionReader {
         complete = getContentReader(collection, key, collection.path, getConfiguration().getCompleteFolderName());
         reviewed = getContentReader(collection, key, collection.path, getConfiguration().getReviewedFolderName());
         root = new CollectionContentReader(collection, key, collection.path);
+        index = collection.getContentIndex();
     }
 
     private ContentReader getContentReader(Collection collection, SecretKey key, Path collectionPath, String folderName) throws UnauthorizedException, IOException {
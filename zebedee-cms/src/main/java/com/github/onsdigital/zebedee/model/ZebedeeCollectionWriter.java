@@ -6,6 +6,7 @@ import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.UnauthorizedException;
 import com.github.onsdigital.zebedee.json.Keyring;
 import com.github.onsdigital.zebedee.session.model.Session;
+import com.github.onsdigital.zebedee.reader.cache.CollectionContentIndex.State;
 import com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration;
 
 import javax.crypto.SecretKey;
@@ -69,9 +70,9 @@ public class ZebedeeCollectionWriter extends CollectionWriter {
 
         ReaderConfiguration config = getConfiguration();
 
-        inProgress = new CollectionContentWriter(collection, key, collection.path.resolve(config.getInProgressFolderName()));
-        complete = new CollectionContentWriter(collection, key, collection.path.resolve(config.getCompleteFolderName()));
-        reviewed = new CollectionContentWriter(collection, key, collection.path.resolve(config.getReviewedFolderName()));
+        inProgress = new CollectionContentWriter(collection, key, collection.path.resolve(config.getInProgressFolderName()), State.IN_PROGRESS);
+        complete = new CollectionContentWriter(collection, key, collection.path.resolve(config.getCompleteFolderName()), State.COMPLETE);
+        reviewed = new CollectionContentWriter(collection, key, collection.path.resolve(config.getReviewedFolderName()), State.REVIEWED);
         root = new CollectionContentWriter(collection, key, collection.path);
     }
 }
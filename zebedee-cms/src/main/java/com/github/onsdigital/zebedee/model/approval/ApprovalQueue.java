@@ -1,22 +1,43 @@
 package com.github.onsdigital.zebedee.model.approval;
 
+import com.github.onsdigital.zebedee.configuration.Configuration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
+
 /**
  * In memory queue of tasks to approve collections.
  * <p>
  * The approval process may contain time / resource intensive tasks like generating timeseries. The tasks
- * are queued to ensure the user is not held up waiting for the process to finish, and to ensure only one approval
- * is done at a time.
+ * are queued to ensure the user is not held up waiting for the process to finish. Approvals are run by a pool of
+ * workers, but an approval only starts once no running approval shares a resource with it, i.e. the same collection
+ * or the same dataset. Approvals sharing a resource run in the order they were added.
  */
 public class ApprovalQueue {
 
+    private static final int workers = Configuration.getApprovalWorkers();
+
     /**
-     * Single thread for processing the approvals.
+     * Threads for processing the approvals.
      */
-    private static ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(workers);
+
+    private static final List<QueuedApproval> queued = new LinkedList<>();
+    private static final List<QueuedApproval> running = new ArrayList<>();
 
     /**
      * Add the given task instance to the queue.
@@ -25,6 +46,108 @@ public class ApprovalQueue {
      * @return
      */
     public static Future<Boolean> add(ApproveTask task) {
-        return executorService.submit(task);
+        QueuedApproval approval = new QueuedApproval(task, getResources(task));
+        synchronized (queued) {
+            queued.add(approval);
+            dispatch();
+        }
+        logInfo("Approval queued").collectionName(task.getCollection())
+                .addParameter("resources", approval.resources)
+                .log();
+        return approval.result;
+    }
+
+    /**
+     * @return the approvals waiting and running, with how long they have waited and the phases they have run.
+     */
+    public static ApprovalQueueStatus getStatus() {
+        ApprovalQueueStatus status = new ApprovalQueueStatus();
+        status.setWorkers(workers);
+        synchronized (queued) {
+            status.setQueueDepth(queued.size());
+            for (QueuedApproval approval : running) {
+                status.getRunning().add(approval.getStatus());
+            }
+            for (QueuedApproval approval : queued) {
+                status.getQueued().add(approval.getStatus());
+            }
+        }
+        return status;
+    }
+
+    private static Set<String> getResources(ApproveTask task) {
+        try {
+            return task.getResources();
+        } catch (IOException e) {
+            // fall back to only serialising the approval with others of the same collection
+            logError(e, "Failed to read resources of approval").collectionName(task.getCollection()).log();
+            return Collections.singleton("collection:" + task.getCollection().getDescription().getId());
+        }
+    }
+
+    /**
+     * Starts queued approvals that do not share resources with a running approval or an approval queued before them,
+     * while there are free workers. Must be called holding the queue lock.
+     */
+    private static void dispatch() {
+        Set<String> reserved = new HashSet<>();
+        for (QueuedApproval approval : running) {
+            reserved.addAll(approval.resources);
+        }
+
+        Iterator<QueuedApproval> iterator = queued.iterator();
+        while (iterator.hasNext() && running.size() < workers) {
+            QueuedApproval approval = iterator.next();
+            if (Collections.disjoint(reserved, approval.resources)) {
+                iterator.remove();
+                running.add(approval);
+                approval.started = new Date();
+                executorService.submit(() -> run(approval));
+            }
+            reserved.addAll(approval.resources);
+        }
+    }
+
+    private static void run(QueuedApproval approval) {
+        try {
+            approval.result.complete(approval.task.call());
+        } catch (Throwable t) {
+            logError(t, "Unexpected error approving collection").collectionName(approval.task.getCollection()).log();
+            approval.result.completeExceptionally(t);
+        } finally {
+            synchronized (queued) {
+                running.remove(approval);
+                dispatch();
+            }
+        }
+    }
+
+    private static class QueuedApproval {
+        private final ApproveTask task;
+        private final Set<String> resources;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private final Date queuedDate = new Date();
+        private volatile Date started;
+
+        QueuedApproval(ApproveTask task, Set<String> resources) {
+            this.task = task;
+            this.resources = resources;
+        }
+
+        ApprovalTaskStatus getStatus() {
+            Date startDate = started;
+            long waitedUntil = startDate == null ? System.currentTimeMillis() : startDate.getTime();
+
+            ApprovalTaskStatus status = new ApprovalTaskStatus();
+            status.setCollectionId(task.getCollection().getDescription().getId());
+            status.setCollectionName(task.getCollection().getDescription().getName());
+            status.setResources(new ArrayList<>(resources));
+            status.setQueuedDate(queuedDate);
+            status.setStartDate(startDate);
+            status.setWaitTime(waitedUntil - queuedDate.getTime());
+            status.setPhase(task.getPhase());
+            status.setPhaseTimings(task.getPhaseTimings());
+            return status;
+        }
     }
 }
@@ -0,0 +1,47 @@
+package com.github.onsdigital.zebedee.model.approval;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of the approvals running and waiting in the {@link ApprovalQueue}.
+ */
+public class ApprovalQueueStatus {
+
+    private int workers;
+    private int queueDepth;
+    private List<ApprovalTaskStatus> running = new ArrayList<>();
+    private List<ApprovalTaskStatus> queued = new ArrayList<>();
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public List<ApprovalTaskStatus> getRunning() {
+        return running;
+    }
+
+    public void setRunning(List<ApprovalTaskStatus> running) {
+        this.running = running;
+    }
+
+    public List<ApprovalTaskStatus> getQueued() {
+        return queued;
+    }
+
+    public void setQueued(List<ApprovalTaskStatus> queued) {
+        this.queued = queued;
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.onsdigital.zebedee.model.approval;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a single approval in the {@link ApprovalQueue}.
+ */
+public class ApprovalTaskStatus {
+
+    private String collectionId;
+    private String collectionName;
+    private List<String> resources;
+    private Date queuedDate;
+    private Date startDate;
+    private long waitTime;
+    private String phase;
+    private Map<String, Long> phaseTimings;
+
+    public String getCollectionId() {
+        return collectionId;
+    }
+
+    public void setCollectionId(String collectionId) {
+        this.collectionId = collectionId;
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    public void setCollectionName(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    public List<String> getResources() {
+        return resources;
+    }
+
+    public void setResources(List<String> resources) {
+        this.resources = resources;
+    }
+
+    public Date getQueuedDate() {
+        return queuedDate;
+    }
+
+    public void setQueuedDate(Date queuedDate) {
+        this.queuedDate = queuedDate;
+    }
+
+    /**
+     * @return when the approval started running, or null if it is still waiting.
+     */
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Date startDate) {
+        this.startDate = startDate;
+    }
+
+    /**
+     * @return milliseconds the approval waited, or has waited so far, before running.
+     */
+    public long getWaitTime() {
+        return waitTime;
+    }
+
+    public void setWaitTime(long waitTime) {
+        this.waitTime = waitTime;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public Map<String, Long> getPhaseTimings() {
+        return phaseTimings;
+    }
+
+    public void setPhaseTimings(Map<String, Long> phaseTimings) {
+        this.phaseTimings = phaseTimings;
+    }
+}
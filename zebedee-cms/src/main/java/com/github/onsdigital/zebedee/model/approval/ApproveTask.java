@@ -5,6 +5,7 @@ import com.github.onsdigital.zebedee.data.importing.CsvTimeseriesUpdateImporter;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateCommand;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateImporter;
 import com.github.onsdigital.zebedee.data.processing.DataIndex;
+import com.github.onsdigital.zebedee.data.processing.DataPublicationDetails;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
 import com.github.onsdigital.zebedee.json.ApprovalStatus;
 import com.github.onsdigital.zebedee.json.ContentDetail;
@@ -30,9 +31,15 @@ import com.github.onsdigital.zebedee.util.SlackNotification;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logDebug;
@@ -51,6 +58,10 @@ public class ApproveTask implements Callable<Boolean> {
     private final ContentReader publishedReader;
     private final DataIndex dataIndex;
 
+    private final Map<String, Long> phaseTimings = new LinkedHashMap<>();
+    private volatile String phase;
+    private volatile long phaseStart;
+
     public ApproveTask(
             Collection collection,
             Session session,
@@ -137,20 +148,33 @@ public class ApproveTask implements Callable<Boolean> {
 
         try {
 
+            startPhase("resolveContent");
             List<ContentDetail> collectionContent = ContentDetailUtil.resolveDetails(collection.reviewed, collectionReader.getReviewed());
 
+            startPhase("populateRelease");
             populateReleasePage(collectionContent);
+
+            startPhase("generateTimeseries");
             generateTimeseries(collection, publishedReader, collectionReader, collectionWriter, dataIndex);
+
+            startPhase("generatePdfs");
             generatePdfFiles(collectionContent);
 
             PublishNotification publishNotification = createPublishNotification(collectionReader, collection);
 
+            startPhase("compressTimeseries");
             compressZipFiles(collection, collectionReader, collectionWriter);
+
+            startPhase("approve");
             approveCollection();
 
             // Send a notification to the website with the publish date for caching.
             publishNotification.sendNotification(EventType.APPROVED);
 
+            endPhase();
+            logInfo("Collection approved").collectionName(collection)
+                    .addParameter("phaseTimings", getPhaseTimings())
+                    .log();
             return true;
 
         } catch (IOException | ZebedeeException | URISyntaxException e) {
@@ -167,6 +191,67 @@ public class ApproveTask implements Callable<Boolean> {
             SlackNotification.alarm(String.format("Exception approving collection %s : %s",
                     collection.getDescription().getName(), e.getMessage()));
             return false;
+        } finally {
+            endPhase();
+        }
+    }
+
+    public Collection getCollection() {
+        return collection;
+    }
+
+    /**
+     * Resources the approval writes to that other approvals must not write to at the same time: the collection itself
+     * and the landing page of any timeseries dataset uploaded in it.
+     */
+    public Set<String> getResources() throws IOException {
+        Set<String> resources = new HashSet<>();
+        resources.add("collection:" + collection.getDescription().getId());
+        for (String uri : collection.reviewed.uris()) {
+            Path path = Paths.get(uri);
+            if (!uri.contains("/previous/") && DataPublicationDetails.isAnUploadFile(path)
+                    && path.getParent() != null && path.getParent().getParent() != null) {
+                resources.add("dataset:" + path.getParent().getParent());
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * @return the phase of the approval currently running, or null if not running.
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return milliseconds taken by each phase of the approval so far, including the running phase.
+     */
+    public Map<String, Long> getPhaseTimings() {
+        Map<String, Long> timings;
+        synchronized (phaseTimings) {
+            timings = new LinkedHashMap<>(phaseTimings);
+        }
+        String running = phase;
+        if (running != null) {
+            timings.put(running, System.currentTimeMillis() - phaseStart);
+        }
+        return timings;
+    }
+
+    private void startPhase(String name) {
+        endPhase();
+        phaseStart = System.currentTimeMillis();
+        phase = name;
+    }
+
+    private void endPhase() {
+        String finished = phase;
+        if (finished != null) {
+            phase = null;
+            synchronized (phaseTimings) {
+                phaseTimings.put(finished, System.currentTimeMillis() - phaseStart);
+            }
         }
     }
 
@@ -79,11 +79,7 @@ public class TimeSeriesCompressionTask {
     private List<TimeseriesCompressionResult> verifyZipFiles(Collection collection, CollectionReader collectionReader, CollectionWriter collectionWriter, int attempt, List<TimeseriesCompressionResult> zipFiles) throws IOException {
         List<TimeseriesCompressionResult> failedZipFiles;
         logInfo("Verifying " + zipFiles.size() + " time series zip files").collectionName(collection).addParameter("attempt", attempt).log();
-        failedZipFiles = zipFileVerifier.verifyZipFiles(
-                zipFiles,
-                collectionReader.getReviewed(),
-                collectionReader.getRoot(),
-                collectionWriter.getRoot());
+        failedZipFiles = zipFileVerifier.verifyZipFiles(zipFiles, collectionReader.getReviewed());
 
         for (TimeseriesCompressionResult failedZipFile : failedZipFiles) {
             String message = "Failed verification of time series zip file: " + failedZipFile.zipPath;
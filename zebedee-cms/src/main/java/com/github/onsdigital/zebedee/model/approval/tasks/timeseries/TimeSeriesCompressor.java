@@ -1,5 +1,6 @@
 package com.github.onsdigital.zebedee.model.approval.tasks.timeseries;
 
+import com.github.onsdigital.zebedee.configuration.Configuration;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
 import com.github.onsdigital.zebedee.model.ContentWriter;
@@ -12,16 +13,36 @@ import java.io.OutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
 
 public class TimeSeriesCompressor {
 
+    /**
+     * Threads for compressing time series directories, shared by all approvals.
+     */
+    private static final ExecutorService pool = Executors.newFixedThreadPool(Configuration.getTimeseriesCompressionThreads());
+
+    /**
+     * Threads for reading the files of a time series directory ahead of them being added to its zip file. Kept apart
+     * from the directory pool so a directory never waits on a thread that is itself waiting on a directory.
+     */
+    private static final ExecutorService entryPool = Executors.newFixedThreadPool(Configuration.getTimeseriesCompressionEntryThreads());
+
     /**
      * Find each time series directory in a collection and create a zip file for it.
      * <p>
-     * Uses content
+     * The directories are compressed in parallel, and within each directory the files are read and decrypted in
+     * parallel ahead of being written to the zip file in order. The CRC of each entry is recorded on the result as it
+     * is written so the zip file can be verified without unzipping it.
      *
      * @param contentReader
      * @param contentWriter
@@ -35,14 +56,10 @@ public class TimeSeriesCompressor {
 
         for (Path timeSeriesDirectory : timeSeriesDirectories) {
             String saveUri = getZipUri(contentReader, timeSeriesDirectory);
-            int filesAdded = compressFile(contentReader, contentWriter, isEncrypted, timeSeriesDirectory, saveUri);
-            results.add(new TimeseriesCompressionResult(timeSeriesDirectory, Paths.get(saveUri), filesAdded));
-
-            //Log.print("Deleting directory after compression %s", timeSeriesDirectory);
-            //FileUtils.deleteDirectory(timeSeriesDirectory.toFile());
+            results.add(new TimeseriesCompressionResult(timeSeriesDirectory, Paths.get(saveUri), 0));
         }
 
-        return results;
+        return compressFiles(contentReader, contentWriter, isEncrypted, results);
     }
 
     /**
@@ -57,15 +74,54 @@ public class TimeSeriesCompressor {
      * @throws ZebedeeException
      */
     public List<TimeseriesCompressionResult> compressFiles(ContentReader contentReader, ContentWriter contentWriter, boolean isEncrypted, List<TimeseriesCompressionResult> zipFilesToCompress) throws IOException, ZebedeeException {
+        List<Future<?>> compressed = new ArrayList<>();
         for (TimeseriesCompressionResult result : zipFilesToCompress) {
-            String zipUri = getZipUri(contentReader, result.sourcePath);
-            int filesAdded = compressFile(contentReader, contentWriter, isEncrypted, result.sourcePath, zipUri);
-            result.numberOfFiles = filesAdded;
+            compressed.add(pool.submit(() -> {
+                String zipUri = getZipUri(contentReader, result.sourcePath);
+                Map<String, Long> entryCrcs = new LinkedHashMap<>();
+                result.numberOfFiles = compressFile(contentReader, contentWriter, isEncrypted, result.sourcePath, zipUri, entryCrcs);
+                result.entryCrcs = entryCrcs;
+                return null;
+            }));
+        }
+
+        for (Future<?> future : compressed) {
+            waitFor(future, compressed);
         }
 
         return zipFilesToCompress;
     }
 
+    /**
+     * Wait for a directory to be compressed, cancelling the remaining directories if it failed.
+     */
+    private void waitFor(Future<?> future, List<Future<?>> compressed) throws IOException, ZebedeeException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            cancel(compressed);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted compressing time series", e);
+        } catch (ExecutionException e) {
+            cancel(compressed);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ZebedeeException) {
+                throw (ZebedeeException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error compressing time series", cause);
+        }
+    }
+
+    private void cancel(List<Future<?>> compressed) {
+        for (Future<?> future : compressed) {
+            future.cancel(true);
+        }
+    }
+
     /**
      * Resolve the zip uri.
      *
@@ -78,14 +134,24 @@ public class TimeSeriesCompressor {
     }
 
     public int compressFile(ContentReader contentReader, ContentWriter contentWriter, boolean isEncrypted, Path timeSeriesDirectory, String saveUri) throws IOException, ZebedeeException {
+        return compressFile(contentReader, contentWriter, isEncrypted, timeSeriesDirectory, saveUri, new HashMap<>());
+    }
+
+    /**
+     * Compress a time series directory into a zip file.
+     *
+     * @param entryCrcs populated with the CRC of each entry added, by entry name.
+     * @return the number of files added.
+     */
+    public int compressFile(ContentReader contentReader, ContentWriter contentWriter, boolean isEncrypted, Path timeSeriesDirectory, String saveUri, Map<String, Long> entryCrcs) throws IOException, ZebedeeException {
         logInfo("Compressing time series directory").addParameter("directory", timeSeriesDirectory.toString()).log();
         if (!isEncrypted) {
             try (OutputStream outputStream = contentWriter.getOutputStream(saveUri)) {
-                return ZipUtils.zipFolder(timeSeriesDirectory.toFile(), outputStream,
+                return ZipUtils.zipFolder(timeSeriesDirectory.toFile(), outputStream, entryCrcs, entryPool,
                         url -> VersionedContentItem.isVersionedUri(url));
             }
         } else {
-            return ZipUtils.zipFolderWithEncryption(contentReader, contentWriter, timeSeriesDirectory.toFile().toString(), saveUri,
+            return ZipUtils.zipFolderWithEncryption(contentReader, contentWriter, timeSeriesDirectory.toFile().toString(), saveUri, entryCrcs, entryPool,
                     url -> VersionedContentItem.isVersionedUri(url));
         }
     }
@@ -1,6 +1,7 @@
 package com.github.onsdigital.zebedee.model.approval.tasks.timeseries;
 
 import java.nio.file.Path;
+import java.util.Map;
 
 /**
  * track the verification of compressed timeseries.
@@ -11,9 +12,19 @@ public class TimeseriesCompressionResult {
     public Path zipPath;
     public int numberOfFiles;
 
+    /**
+     * The CRC of each entry recorded as the zip file was written, by entry name. Null if they were not recorded.
+     */
+    public Map<String, Long> entryCrcs;
+
     public TimeseriesCompressionResult(Path sourcePath, Path zipPath, int numberOfFiles) {
         this.sourcePath = sourcePath;
         this.zipPath = zipPath;
         this.numberOfFiles = numberOfFiles;
     }
+
+    public TimeseriesCompressionResult(Path sourcePath, Path zipPath, int numberOfFiles, Map<String, Long> entryCrcs) {
+        this(sourcePath, zipPath, numberOfFiles);
+        this.entryCrcs = entryCrcs;
+    }
 }
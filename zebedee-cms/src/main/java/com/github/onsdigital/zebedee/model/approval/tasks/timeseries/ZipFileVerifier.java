@@ -1,32 +1,37 @@
 package com.github.onsdigital.zebedee.model.approval.tasks.timeseries;
 
-import com.github.davidcarboni.cryptolite.Random;
 import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
-import com.github.onsdigital.zebedee.model.ContentWriter;
 import com.github.onsdigital.zebedee.reader.ContentReader;
 import com.github.onsdigital.zebedee.reader.Resource;
-import com.github.onsdigital.zebedee.util.ZipUtils;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
 
 /**
- * Verifies that generated zip files are not corrupt by unzipping them and checking their contents is as expected.
+ * Verifies that generated zip files are not corrupt by streaming through their entries and checking their contents is
+ * as expected. Nothing is written to disk.
+ * <p>
+ * Reading each entry checks its data against the CRC stored in the zip file, which is then compared against the CRC
+ * recorded when the entry was written. The number of entries is checked, and the first time series page is
+ * deserialised.
  */
 public class ZipFileVerifier {
 
+    private static final String DATA_JSON = "data.json";
+
     public List<TimeseriesCompressionResult> verifyZipFiles(
             List<TimeseriesCompressionResult> zipFiles,
-            ContentReader contentReader,
-            ContentReader verificationContentReader,
-            ContentWriter verificationContentWriter
+            ContentReader contentReader
     ) throws IOException {
 
         // maintain a list of failed verifications.
@@ -34,10 +39,7 @@ public class ZipFileVerifier {
 
         for (TimeseriesCompressionResult zipFile : zipFiles) {
             try {
-                boolean verified = verifyZipFile(contentReader,
-                        verificationContentReader,
-                        verificationContentWriter,
-                        zipFile);
+                boolean verified = verifyZipFile(contentReader, zipFile);
 
                 if (!verified)
                     failedVerifications.add(zipFile);
@@ -48,36 +50,58 @@ public class ZipFileVerifier {
             }
         }
 
-        FileUtils.deleteDirectory(verificationContentReader.getRootFolder().resolve("verification").toFile());
         return failedVerifications;
     }
 
-    public boolean verifyZipFile(
-            ContentReader contentReader,
-            ContentReader verificationContentReader,
-            ContentWriter verificationContentWriter,
-            TimeseriesCompressionResult zipData
-    ) throws ZebedeeException, IOException {
+    public boolean verifyZipFile(ContentReader contentReader, TimeseriesCompressionResult zipData) throws ZebedeeException, IOException {
+
+        // count number of files?
+        if (zipData.numberOfFiles == 0)
+            return false;
+
+        int entries = 0;
+        boolean pageVerified = false;
+
         try (
                 Resource resource = contentReader.getResource(zipData.zipPath.toString());
-                InputStream inputStream = resource.getData()
+                ZipInputStream zipInputStream = new ZipInputStream(resource.getData())
         ) {
-            String verificationPath = "verification/" + Random.id();
-            List<String> unzipped = ZipUtils.unzip(inputStream, verificationPath, verificationContentWriter);
+            ZipEntry zipEntry;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                if (zipEntry.isDirectory()) {
+                    continue;
+                }
 
-            // count number of files?
-            if (zipData.numberOfFiles == 0)
-                return false;
+                // deserialise file and check its a timeseries? reading to the end of the entry checks its CRC.
+                if (!pageVerified && (zipEntry.getName().equals(DATA_JSON) || zipEntry.getName().endsWith("/" + DATA_JSON))) {
+                    String json = IOUtils.toString(zipInputStream, StandardCharsets.UTF_8);
+                    if (ContentUtil.deserialise(json, TimeSeries.class) == null) {
+                        return false;
+                    }
+                    pageVerified = true;
+                } else {
+                    IOUtils.copy(zipInputStream, NullOutputStream.NULL_OUTPUT_STREAM);
+                }
 
-            if (unzipped.size() != zipData.numberOfFiles) {
-                return false;
+                if (zipData.entryCrcs != null) {
+                    Long expectedCrc = zipData.entryCrcs.get(zipEntry.getName());
+                    if (expectedCrc == null || expectedCrc != zipEntry.getCrc()) {
+                        return false;
+                    }
+                }
+                entries++;
             }
+        }
+
+        if (entries != zipData.numberOfFiles) {
+            return false;
+        }
 
-            // deserialise file and check its a timeseries?
-            String verificationPageUri = Paths.get(unzipped.get(0)).getParent().toString();
-            TimeSeries page = (TimeSeries) verificationContentReader.getContent(verificationPageUri);
-            logInfo("Verified " + unzipped.size() + " files in zip file: " + zipData.zipPath).log();
-            return page != null;
+        if (zipData.entryCrcs != null && entries != zipData.entryCrcs.size()) {
+            return false;
         }
+
+        logInfo("Verified " + entries + " files in zip file: " + zipData.zipPath).log();
+        return pageVerified;
     }
 }
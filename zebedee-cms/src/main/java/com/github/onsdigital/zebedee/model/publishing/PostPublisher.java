@@ -1,5 +1,6 @@
 package com.github.onsdigital.zebedee.model.publishing;
 
+import com.github.davidcarboni.cryptolite.Random;
 import com.github.onsdigital.zebedee.Zebedee;
 import com.github.onsdigital.zebedee.configuration.Configuration;
 import com.github.onsdigital.zebedee.content.page.base.Page;
@@ -17,6 +18,8 @@ import com.github.onsdigital.zebedee.reader.CollectionReader;
 import com.github.onsdigital.zebedee.reader.ContentReader;
 import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
 import com.github.onsdigital.zebedee.reader.Resource;
+import com.github.onsdigital.zebedee.reader.cache.LatestEditionIndex;
+import com.github.onsdigital.zebedee.reader.cache.PageCache;
 import com.github.onsdigital.zebedee.search.indexing.Indexer;
 import com.github.onsdigital.zebedee.service.DeletedContent.DeletedContentService;
 import com.github.onsdigital.zebedee.service.DeletedContent.DeletedContentServiceFactory;
@@ -33,19 +36,27 @@ import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.FastDateFormat;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logDebug;
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
@@ -63,6 +74,8 @@ public class PostPublisher {
     private static Session zebdeePublisherSession = null;
 
     private static final ExecutorService pool = Executors.newFixedThreadPool(10);
+    private static final ExecutorService copyPool = Executors.newFixedThreadPool(
+            Configuration.getPostPublishCopyThreads());
 
     private static DeletedContentService deletedContentService;
 
@@ -90,21 +103,33 @@ public class PostPublisher {
             ContentReader contentReader = new FileSystemContentReader(zebedee.getPublished().path);
             ContentWriter contentWriter = new ContentWriter(zebedee.getPublished().path);
 
+            long start = System.currentTimeMillis();
             applyDeletesToPublishing(collection, contentReader, contentWriter);
+            start = logPhase(collection, "applyDeletesToPublishing", start);
             processManifestForMaster(collection, contentReader, contentWriter);
+            start = logPhase(collection, "processManifestForMaster", start);
             copyFilesToMaster(zebedee, collection, collectionReader);
+            start = logPhase(collection, "copyFilesToMaster", start);
+            updateDataIndex(zebedee, collection);
+            start = logPhase(collection, "updateDataIndex", start);
+            refreshLatestEditionIndex(zebedee, collection);
+            start = logPhase(collection, "refreshLatestEditionIndex", start);
 
             reindexPublishingSearch(collection);
+            start = logPhase(collection, "reindexPublishingSearch", start);
 
             Path collectionJsonPath = moveCollectionToArchive(zebedee, collection, collectionReader);
+            start = logPhase(collection, "moveCollectionToArchive", start);
 
             if (!skipVerification) {
                 // add to published collections list
                 indexPublishReport(zebedee, collectionJsonPath, collectionReader);
             }
 
+            updateBrowseTree(zebedee, collection);
+            start = logPhase(collection, "updateBrowseTree", start);
             collection.delete();
-            ContentTree.dropCache();
+            logPhase(collection, "deleteCollection", start);
 
             return true;
         } catch (Exception exception) {
@@ -116,6 +141,18 @@ public class PostPublisher {
     }
 
 
+    /**
+     * Log how long a post publish phase took.
+     *
+     * @return the time the phase finished, to time the next phase from.
+     */
+    private static long logPhase(Collection collection, String phase, long start) {
+        long finish = System.currentTimeMillis();
+        logInfo("Post publish phase complete").collectionName(collection).collectionId(collection)
+                .addParameter("phase", phase).timeTaken(finish - start).log();
+        return finish;
+    }
+
     /**
      * Returns a session object with the email as the class name of {@link Publisher} - required by the history event
      * logging.
@@ -128,6 +165,47 @@ public class PostPublisher {
         return zebdeePublisherSession;
     }
 
+    /**
+     * Apply the published and deleted directories to the cached browse tree so it does not need to be rebuilt.
+     * The cache is dropped if it cannot be updated.
+     */
+    private static void updateBrowseTree(Zebedee zebedee, Collection collection) {
+        try {
+            Path publishedPath = zebedee.getPublished().path;
+            Set<Path> directories = new HashSet<>();
+
+            for (String uri : collection.reviewedUris()) {
+                directories.add(publishedPath.resolve(StringUtils.removeStart(uri, "/")).getParent());
+            }
+
+            Manifest manifest = Manifest.get(collection);
+            for (String uri : manifest.urisToDelete) {
+                directories.add(publishedPath.resolve(StringUtils.removeStart(uri, "/")));
+            }
+            for (FileCopy fileCopy : manifest.filesToCopy) {
+                directories.add(publishedPath.resolve(StringUtils.removeStart(fileCopy.target, "/")).getParent());
+            }
+
+            ContentTree.update(directories);
+        } catch (Exception e) {
+            logError(e, "An error occurred updating the browse tree, dropping the cached tree")
+                    .collectionName(collection).collectionId(collection).log();
+            ContentTree.dropCache();
+        }
+    }
+
+    /**
+     * Index any timeseries in the collection so the data index does not need to be rebuilt to find them.
+     */
+    private static void updateDataIndex(Zebedee zebedee, Collection collection) {
+        try {
+            zebedee.getDataIndex().update(collection.reviewedUris());
+        } catch (Exception e) {
+            logError(e, "An error occurred updating the data index")
+                    .collectionName(collection).collectionId(collection).log();
+        }
+    }
+
     private static void applyDeletesToPublishing(Collection collection, ContentReader contentReader, ContentWriter contentWriter) {
 
         try {
@@ -208,6 +286,7 @@ public class PostPublisher {
                 logDebug("Deleting directory: " + target.toString());
                 try {
                     FileUtils.deleteDirectory(target.toFile());
+                    PageCache.getInstance().invalidateAll(target);
                 } catch (IOException e) {
                     logError(e, "An error occurred trying to delete directory "
                             + target.toString())
@@ -235,6 +314,7 @@ public class PostPublisher {
                         .log();
                 try {
                     FileUtils.deleteDirectory(target.toFile());
+                    PageCache.getInstance().invalidateAll(target);
                 } catch (IOException e) {
                     logError(e, "An error occurred trying to delete directory "
                             + target.toString())
@@ -264,6 +344,20 @@ public class PostPublisher {
     }
 
 
+    /**
+     * Refreshes latest editions of bulletins, articles and compendia that were published or deleted.
+     */
+    private static void refreshLatestEditionIndex(Zebedee zebedee, Collection collection) {
+        try {
+            Set<String> uris = new HashSet<>(collection.reviewed.uris());
+            uris.addAll(Manifest.get(collection).urisToDelete);
+            LatestEditionIndex.getInstance().refresh(zebedee.getPublished().path, uris);
+        } catch (Exception e) {
+            logError(e, "An error occurred trying to refresh the latest edition index")
+                    .collectionName(collection).collectionId(collection).log();
+        }
+    }
+
     private static void indexPublishReport(final Zebedee zebedee, final Path collectionJsonPath, final CollectionReader collectionReader) {
         pool.submit(() -> {
             logInfo("Indexing publish report").log();
@@ -298,6 +392,7 @@ public class PostPublisher {
                     ) {
                         ZipUtils.unzip(dataStream, publishPath.toString());
                     }
+                    PageCache.getInstance().invalidateAll(publishPath);
                 }
             }
         }
@@ -312,16 +407,18 @@ public class PostPublisher {
             long start = System.currentTimeMillis();
 
             List<String> uris = collection.reviewed.uris("*data.json");
+            List<String> contentUris = new ArrayList<>();
             for (String uri : uris) {
                 if (isIndexedUri(uri)) {
-                    String contentUri = URIUtils.removeLastSegment(uri);
-                    reIndexPublishingSearch(contentUri);
+                    contentUris.add(URIUtils.removeLastSegment(uri));
                 }
             }
 
+            List<String> deletedUris = new ArrayList<>();
             for (PendingDelete pendingDelete : collection.description.getPendingDeletes()) {
 
                 ContentTreeNavigator.getInstance().search(pendingDelete.getRoot(), node -> {
+                    deletedUris.add(node.uri);
                     logDebug("Deleting index from publishing search ").addParameter("uri", node.uri).log();
                     pool.submit(() -> {
                         try {
@@ -332,6 +429,7 @@ public class PostPublisher {
                     });
                 });
             }
+            reIndexPublishingSearch(contentUris, deletedUris);
 
             logInfo("Redindex search completed").collectionName(collection)
                     .timeTaken((System.currentTimeMillis() - start)).log();
@@ -352,34 +450,152 @@ public class PostPublisher {
         return !VersionedContentItem.isVersionedUri(uri);
     }
 
-    private static void reIndexPublishingSearch(final String uri) throws IOException {
+    /**
+     * Indexes all given uris of a collection in a single delta reindex, updating the latest release flag of series
+     * that editions were deleted from.
+     */
+    private static void reIndexPublishingSearch(final List<String> uris, final List<String> deletedUris)
+            throws IOException {
+        if (uris.isEmpty() && deletedUris.isEmpty()) {
+            return;
+        }
         pool.submit(() -> {
             try {
-                Indexer.getInstance().reloadContent(uri);
+                Indexer.getInstance().reloadContent(uris, deletedUris);
             } catch (Exception e) {
                 logError(e, "Exception reloading search index:").log();
             }
         });
     }
 
+    /**
+     * Copy the reviewed files into master on the copy pool. Each file is copied to a temporary file beside its
+     * destination, and only once every file has been copied are they moved into place, a directory at a time, so a
+     * failed copy does not leave master partly updated and the website never reads a partly written file.
+     */
     public static void copyFilesToMaster(Zebedee zebedee, Collection collection, CollectionReader collectionReader)
             throws IOException, ZebedeeException {
         logInfo("Moving files from collection into master").collectionName(collection).log();
-        // Move each item of content:
+
+        // set once the copies are no longer wanted, so a copy still running then removes its own temporary file.
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Map<Path, Path> temps = new LinkedHashMap<>();
+        Map<Path, Future<Path>> copies = new LinkedHashMap<>();
         for (String uri : collection.reviewed.uris()) {
-            if (!VersionedContentItem.isVersionedUri(uri)
-                    && !FilenameUtils.getName(uri).equals("timeseries-to-publish.zip")) {
+            if (isCopiedToMaster(uri)) {
                 Path destination = zebedee.getPublished().toPath(uri);
-                try (
-                        Resource resource = collectionReader.getResource(uri);
-                        InputStream dataStream = resource.getData()
-                ) {
-                    FileUtils.copyInputStreamToFile(dataStream, destination.toFile());
+                Path temp = destination.resolveSibling("." + destination.getFileName() + "." + Random.id() + ".tmp");
+                temps.put(destination, temp);
+                copies.put(destination, copyPool.submit(() -> {
+                    Files.createDirectories(destination.getParent());
+                    try {
+                        copy(collection, collectionReader, uri, temp);
+                    } catch (Exception e) {
+                        Files.deleteIfExists(temp);
+                        throw e;
+                    }
+                    if (abandoned.get()) {
+                        Files.deleteIfExists(temp);
+                    }
+                    return temp;
+                }));
+            }
+        }
+
+        Set<Path> moved = new LinkedHashSet<>();
+        try {
+            waitForCopies(collection, copies);
+
+            Map<Path, List<Path>> directories = temps.keySet().stream()
+                    .collect(Collectors.groupingBy(Path::getParent, LinkedHashMap::new, Collectors.toList()));
+            for (List<Path> destinations : directories.values()) {
+                for (Path destination : destinations) {
+                    Files.move(temps.get(destination), destination,
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    moved.add(destination);
+                    PageCache.getInstance().invalidate(destination);
+                }
+            }
+        } catch (IOException e) {
+            if (!moved.isEmpty()) {
+                logError(e, "Failed moving files into master, master is partly updated").collectionName(collection)
+                        .collectionId(collection)
+                        .addParameter("moved", moved.size())
+                        .addParameter("total", temps.size())
+                        .addParameter("movedFiles", moved.stream().map(Path::toString).collect(Collectors.joining(",")))
+                        .log();
+            }
+            throw e;
+        } finally {
+            // remove any temporary files that were not moved into place, including those of copies still running.
+            abandoned.set(true);
+            for (Map.Entry<Path, Path> temp : temps.entrySet()) {
+                if (!moved.contains(temp.getKey())) {
+                    try {
+                        Files.deleteIfExists(temp.getValue());
+                    } catch (IOException e) {
+                        logError(e, "Failed to remove temporary file").collectionName(collection)
+                                .addParameter("path", temp.getValue().toString()).log();
+                    }
                 }
             }
         }
     }
 
+    private static boolean isCopiedToMaster(String uri) {
+        return !VersionedContentItem.isVersionedUri(uri)
+                && !FilenameUtils.getName(uri).equals("timeseries-to-publish.zip");
+    }
+
+    /**
+     * Copy a reviewed file, leaving the copy to the file system if the collection is not encrypted.
+     */
+    private static void copy(Collection collection, CollectionReader collectionReader, String uri, Path destination)
+            throws IOException, ZebedeeException {
+        Path source = collection.reviewed.get(uri, false);
+        if (!collection.getDescription().isEncrypted && source != null) {
+            Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            try (
+                    Resource resource = collectionReader.getResource(uri);
+                    InputStream dataStream = resource.getData()
+            ) {
+                Files.copy(dataStream, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Wait for every copy to finish.
+     *
+     * @throws IOException naming how many copies failed, with each failure added as suppressed, if any copy failed.
+     */
+    private static void waitForCopies(Collection collection, Map<Path, Future<Path>> copies)
+            throws IOException {
+        List<Throwable> failures = new ArrayList<>();
+        for (Map.Entry<Path, Future<Path>> copy : copies.entrySet()) {
+            try {
+                copy.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                copies.values().forEach(future -> future.cancel(true));
+                throw new IOException("Interrupted while copying files for collection "
+                        + collection.getDescription().getId(), e);
+            } catch (ExecutionException e) {
+                logError(e.getCause(), "Failed to copy file").collectionName(collection).collectionId(collection)
+                        .addParameter("destination", copy.getKey().toString()).log();
+                failures.add(e.getCause());
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            IOException exception = new IOException(failures.size() + " of " + copies.size()
+                    + " files could not be copied for collection " + collection.getDescription().getId());
+            failures.forEach(exception::addSuppressed);
+            throw exception;
+        }
+    }
+
     public static Path moveCollectionToArchive(Zebedee zebedee, Collection collection, CollectionReader collectionReader) throws IOException, ZebedeeException {
 
         logInfo("Moving collection files to archive for collection").collectionName(collection).log();
@@ -409,15 +625,16 @@ public class PostPublisher {
 
         logInfo("Moving collection files").addParameter("from", collectionFilesSource.toString())
                 .addParameter("to", collectionFilesDestination.toString()).log();
+        Map<Path, Future<Path>> copies = new LinkedHashMap<>();
         for (String uri : collection.reviewed.uris()) {
-            try (
-                    Resource resource = collectionReader.getResource(uri);
-                    InputStream inputStream = resource.getData();
-            ) {
-                File destination = collectionFilesDestination.resolve(URIUtils.removeLeadingSlash(uri)).toFile();
-                FileUtils.copyInputStreamToFile(inputStream, destination);
-            }
+            Path destination = collectionFilesDestination.resolve(URIUtils.removeLeadingSlash(uri));
+            copies.put(destination, copyPool.submit(() -> {
+                Files.createDirectories(destination.getParent());
+                copy(collection, collectionReader, uri, destination);
+                return destination;
+            }));
         }
+        waitForCopies(collection, copies);
 
         return collectionJsonDestination;
     }
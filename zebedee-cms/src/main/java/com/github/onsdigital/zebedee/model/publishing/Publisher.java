@@ -5,6 +5,7 @@ import com.github.davidcarboni.httpino.Endpoint;
 import com.github.davidcarboni.httpino.Host;
 import com.github.davidcarboni.httpino.Response;
 import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
 import com.github.onsdigital.zebedee.json.ApprovalStatus;
 import com.github.onsdigital.zebedee.json.Event;
 import com.github.onsdigital.zebedee.json.EventType;
@@ -15,18 +16,20 @@ import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
 import com.github.onsdigital.zebedee.reader.Resource;
-import com.github.onsdigital.zebedee.util.Http;
 import com.github.onsdigital.zebedee.util.SlackNotification;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -187,14 +190,16 @@ public class Publisher {
 
             futures.add(pool.submit(() -> {
                 IOException result = null;
-                try (Http http = new Http()) {
-                    Endpoint publish = new Endpoint(theTrainHost, "CommitManifest")
-                            .setParameter("transactionId", transactionId)
-                            .setParameter("encryptionPassword", encryptionPassword);
-
-                    Response<Result> response = http.postJson(publish, manifest, Result.class);
-                    checkResponse(response);
+                try {
+                    TrainClient.get(theTrainHost).send((http, metrics) -> {
+                        Endpoint publish = new Endpoint(theTrainHost, "CommitManifest")
+                                .setParameter("transactionId", transactionId)
+                                .setParameter("encryptionPassword", encryptionPassword);
 
+                        Response<Result> response = http.postJson(publish, manifest, Result.class);
+                        checkResponse(response);
+                        return response.body;
+                    });
                 } catch (IOException e) {
                     result = e;
                 }
@@ -273,16 +278,38 @@ public class Publisher {
 
         List<Future<IOException>> results = new ArrayList<>();
         long start = System.currentTimeMillis();
+        Map<TrainHostMetrics, Long> bytesSentBefore = new HashMap<>();
+        for (TrainHostMetrics metrics : TrainClient.getMetrics()) {
+            bytesSentBefore.put(metrics, metrics.getBytesSent());
+        }
 
         logInfo("PublishFiles start").collectionName(collection).log();
+        // Small files are sent in zip archives when batching is enabled, files too big to batch are sent on their own.
+        boolean batching = Configuration.isPublishBatchingEnabled();
+        long maxBatchedFileSize = Configuration.getPublishBatchMaxFileSizeKb() * 1024L;
+        Map<String, Long> batchedFiles = new LinkedHashMap<>();
+
         // Publish each item of content:
         for (String uri : collection.reviewed.uris()) {
             if (!shouldBeFiltered(filters, uri)) {
-                logInfo("Start PublishFile").collectionId(collection).addParameter("uri", uri).log();
-                publishFile(collection, encryptionPassword, pool, results, uri, collectionReader);
+                Long size = batching ? getBatchedFileSize(collection, uri, maxBatchedFileSize) : null;
+                if (size != null) {
+                    batchedFiles.put(uri, size);
+                } else {
+                    logInfo("Start PublishFile").collectionId(collection).addParameter("uri", uri).log();
+                    publishFile(collection, encryptionPassword, pool, results, uri, collectionReader);
+                }
             }
         }
 
+        for (TrainBatch batch : TrainBatch.create(batchedFiles, Configuration.getPublishBatchSizeMb() * 1024L * 1024L)) {
+            logInfo("Start PublishBatch").collectionId(collection)
+                    .addParameter("files", batch.getUris().size())
+                    .addParameter("size", batch.getSize())
+                    .log();
+            publishBatch(collection, encryptionPassword, pool, results, batch, collectionReader);
+        }
+
         // Check the publishing results:
         for (Future<IOException> result : results) {
             try {
@@ -292,7 +319,11 @@ public class Publisher {
                 throw new IOException("Error in file publish", e);
             }
         }
-        logInfo("PublishFiles end").collectionName(collection).timeTaken((System.currentTimeMillis() - start)).log();
+        long timeTaken = System.currentTimeMillis() - start;
+        for (TrainHostMetrics metrics : TrainClient.getMetrics()) {
+            metrics.log("PublishFiles train host metrics", bytesSentBefore.getOrDefault(metrics, 0L), timeTaken);
+        }
+        logInfo("PublishFiles end").collectionName(collection).timeTaken(timeTaken).log();
     }
 
     /**
@@ -338,6 +369,84 @@ public class Publisher {
         }
     }
 
+    /**
+     * @return size of the given file if it can be sent in a batch, or null if it should be sent on its own.
+     */
+    private static Long getBatchedFileSize(Collection collection, String uri, long maxBatchedFileSize) throws IOException {
+        Path source = collection.reviewed.get(uri);
+        if (source == null || source.getFileName().toString().equals("timeseries-to-publish.zip")) {
+            return null;
+        }
+        long size = Files.size(source);
+        return size <= maxBatchedFileSize ? size : null;
+    }
+
+    private static void publishBatch(
+            Collection collection,
+            String encryptionPassword,
+            ExecutorService pool,
+            List<Future<IOException>> results,
+            TrainBatch batch,
+            CollectionReader reader
+    ) {
+        for (Map.Entry<String, String> entry : collection.description.publishTransactionIds.entrySet()) {
+            Host theTrainHost = new Host(entry.getKey());
+            String transactionId = entry.getValue();
+            results.add(publishBatch(theTrainHost, transactionId, encryptionPassword, batch, reader, pool));
+        }
+    }
+
+    /**
+     * Submits a batch of files for asynchronous publishing as a single zip archive, which the train unzips into the
+     * transaction.
+     *
+     * @param host               The Train {@link Host}
+     * @param transactionId      The transaction to publish to.
+     * @param encryptionPassword The password used to encrypt files duing publishing.
+     * @param batch              The files to be published.
+     * @param pool               An {@link ExecutorService} to use for asynchronous execution.
+     * @return A {@link Future} that will evaluate to {@code null} unless an error occurs in publishing the batch, in which case the exception will be returned.
+     */
+    private static Future<IOException> publishBatch(
+            final Host host,
+            final String transactionId,
+            final String encryptionPassword,
+            final TrainBatch batch,
+            final CollectionReader reader,
+            ExecutorService pool
+    ) {
+        return pool.submit(() -> {
+            IOException result = null;
+            try {
+                Endpoint publish = new Endpoint(host, "publish")
+                        .setParameter("transactionId", transactionId)
+                        .setParameter("encryptionPassword", encryptionPassword)
+                        .setParameter("zip", Boolean.toString(true))
+                        .setParameter("uri", TrainBatch.BATCH_URI);
+                // the archive is packed again for each attempt, unzipping the same files again overwrites them
+                TrainClient.get(host).sendIdempotent((http, metrics) -> {
+                    try (
+                            TrainBatch.Archive archive = batch.pack(reader);
+                            CountingInputStream dataStream = new CountingInputStream(archive.getData())
+                    ) {
+                        Response<Result> response = http.post(publish, dataStream, TrainBatch.ARCHIVE_NAME, Result.class);
+                        metrics.sent(dataStream.getByteCount());
+                        Map<String, String> checksums = archive.getChecksums();
+                        checkResponse(response);
+                        List<String> errors = TrainBatch.verify(checksums, response.body.transaction);
+                        if (errors.size() > 0) {
+                            throw new IOException(errors.toString());
+                        }
+                        return response.body;
+                    }
+                });
+            } catch (IOException e) {
+                result = e;
+            }
+            return result;
+        });
+    }
+
     /**
      * Starts a publishing transaction.
      *
@@ -348,37 +457,37 @@ public class Publisher {
      */
     private static Map<String, String> beginPublish(List<Host> hosts, String encryptionPassword) throws IOException {
         Map<String, String> hostToTransactionIdMap = new ConcurrentHashMap<>();
-        try (Http http = new Http()) {
-
-            List<Future<IOException>> results = new ArrayList<>();
+        List<Future<IOException>> results = new ArrayList<>();
 
-            // submit a beginPublish call for each host to the thread pool.
-            for (Host host : hosts) {
-                results.add(pool.submit(() -> {
-                    IOException result = null;
-                    try {
-                        logInfo("BeginPublish start").addParameter("host", host.toString()).log();
+        // submit a beginPublish call for each host to the thread pool.
+        for (Host host : hosts) {
+            results.add(pool.submit(() -> {
+                IOException result = null;
+                try {
+                    logInfo("BeginPublish start").addParameter("host", host.toString()).log();
+                    Result begun = TrainClient.get(host).send((http, metrics) -> {
                         Endpoint begin = new Endpoint(host, "begin").setParameter("encryptionPassword", encryptionPassword);
                         Response<Result> response = http.post(begin, Result.class);
                         checkResponse(response);
-                        hostToTransactionIdMap.put(host.toString(), response.body.transaction.id);
-                        logInfo("BeginPublish end").addParameter("host", host.toString()).log();
-                    } catch (IOException e) {
-                        result = e;
-                    }
+                        return response.body;
+                    });
+                    hostToTransactionIdMap.put(host.toString(), begun.transaction.id);
+                    logInfo("BeginPublish end").addParameter("host", host.toString()).log();
+                } catch (IOException e) {
+                    result = e;
+                }
 
-                    return result;
-                }));
-            }
+                return result;
+            }));
+        }
 
-            // wait for all results to return, checking if an exception has occurred
-            for (Future<IOException> result : results) {
-                try {
-                    IOException exception = result.get();
-                    if (exception != null) throw exception;
-                } catch (InterruptedException | ExecutionException e) {
-                    throw new IOException("Error in BeginPublish", e);
-                }
+        // wait for all results to return, checking if an exception has occurred
+        for (Future<IOException> result : results) {
+            try {
+                IOException exception = result.get();
+                if (exception != null) throw exception;
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IOException("Error in BeginPublish", e);
             }
         }
         return hostToTransactionIdMap;
@@ -409,20 +518,26 @@ public class Publisher {
     ) {
         return pool.submit(() -> {
             IOException result = null;
-            try (Http http = new Http()) {
+            try {
                 Endpoint publish = new Endpoint(host, "publish")
                         .setParameter("transactionId", transactionId)
                         .setParameter("encryptionPassword", encryptionPassword)
                         .setParameter("zip", Boolean.toString(zipped))
                         .setParameter("uri", publishUri);
-                System.out.println("uri = " + uri);
-                try (
-                        Resource resource = reader.getResource(uri);
-                        InputStream dataStream = resource.getData()
-                ) {
-                    Response<Result> response = http.post(publish, dataStream, source.getFileName().toString(), Result.class);
-                    checkResponse(response);
-                }
+                // sending the same file to a transaction again overwrites it, so failed attempts can be retried
+                TrainClient.get(host).sendIdempotent((http, metrics) -> {
+                    try (
+                            Resource resource = reader.getResource(uri);
+                            CountingInputStream dataStream = new CountingInputStream(resource.getData())
+                    ) {
+                        Response<Result> response = http.post(publish, dataStream, source.getFileName().toString(), Result.class);
+                        metrics.sent(dataStream.getByteCount());
+                        checkResponse(response);
+                        return response.body;
+                    } catch (ZebedeeException e) {
+                        throw new IOException("Failed reading file to publish: " + uri, e);
+                    }
+                });
             } catch (IOException e) {
                 result = e;
             }
@@ -493,16 +608,14 @@ public class Publisher {
     }
 
     static Result endPublish(Host host, String endpointName, String transactionId, String encryptionPassword) throws IOException {
-        Result result;
-        try (Http http = new Http()) {
+        return TrainClient.get(host).send((http, metrics) -> {
             Endpoint endpoint = new Endpoint(host, endpointName)
                     .setParameter("transactionId", transactionId)
                     .setParameter("encryptionPassword", encryptionPassword);
             Response<Result> response = http.post(endpoint, Result.class);
             checkResponse(response);
-            result = response.body;
-        }
-        return result;
+            return response.body;
+        });
     }
 
     static void checkResponse(Response<Result> response) throws IOException {
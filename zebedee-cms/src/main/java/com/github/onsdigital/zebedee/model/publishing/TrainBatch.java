@@ -0,0 +1,204 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.json.publishing.Transaction;
+import com.github.onsdigital.zebedee.json.publishing.UriInfo;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.github.onsdigital.zebedee.util.URIUtils.removeLeadingSlash;
+
+/**
+ * A batch of small collection files sent to the train as a single zip archive.
+ * <p>
+ * The archive is sent with zip=true to {@link #BATCH_URI}, so the train unzips each entry to the uri it is named after.
+ * Archives are packed while they are sent rather than held in memory or written to disk, as collection files might be
+ * encrypted. The sha1 of each file is recorded while packing, which makes the manifest of the batch, and every file in
+ * it must be reported by the train with a matching hash for the batch to be sent.
+ */
+class TrainBatch {
+
+    static final String BATCH_URI = "/";
+    static final String ARCHIVE_NAME = "batch.zip";
+    private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+
+    private static final ExecutorService packers = Executors.newFixedThreadPool(Configuration.getPublishBatchPackThreads());
+
+    private final List<String> uris = new ArrayList<>();
+    private long size;
+
+    /**
+     * Splits given files into batches of at most given size in bytes, in the given order. A file bigger than the
+     * batch size makes a batch on its own.
+     *
+     * @param fileSizes    uri - size of file mapping
+     * @param maxBatchSize maximum sum of file sizes in a batch
+     */
+    static List<TrainBatch> create(Map<String, Long> fileSizes, long maxBatchSize) {
+        List<TrainBatch> batches = new ArrayList<>();
+        TrainBatch batch = new TrainBatch();
+        for (Map.Entry<String, Long> file : fileSizes.entrySet()) {
+            if (!batch.isEmpty() && batch.size + file.getValue() > maxBatchSize) {
+                batches.add(batch);
+                batch = new TrainBatch();
+            }
+            batch.add(file.getKey(), file.getValue());
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    void add(String uri, long size) {
+        uris.add(uri);
+        this.size += size;
+    }
+
+    boolean isEmpty() {
+        return uris.isEmpty();
+    }
+
+    List<String> getUris() {
+        return Collections.unmodifiableList(uris);
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Starts packing the files of this batch into a zip archive on a background thread.
+     *
+     * @param reader reads files to pack
+     * @return archive being packed, read it to completion then call {@link Archive#getChecksums()}
+     */
+    Archive pack(CollectionReader reader) throws IOException {
+        PipedInputStream archive = new PipedInputStream(PIPE_BUFFER_SIZE);
+        PipedOutputStream output = new PipedOutputStream(archive);
+        Future<Map<String, String>> checksums = packers.submit(() -> {
+            try (OutputStream out = output) {
+                return pack(reader, out);
+            }
+        });
+        return new Archive(archive, checksums);
+    }
+
+    /**
+     * Writes the files of this batch into a zip archive on given stream.
+     *
+     * @return uri - sha1 of each file packed
+     */
+    Map<String, String> pack(CollectionReader reader, OutputStream output) throws IOException, ZebedeeException {
+        Map<String, String> checksums = new LinkedHashMap<>();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(output)) {
+            zipOutputStream.setLevel(5);
+            for (String uri : uris) {
+                zipOutputStream.putNextEntry(new ZipEntry(removeLeadingSlash(uri)));
+                try (
+                        Resource resource = reader.getResource(uri);
+                        DigestInputStream data = new DigestInputStream(resource.getData(), DigestUtils.getSha1Digest())
+                ) {
+                    IOUtils.copy(data, zipOutputStream);
+                    checksums.put(uri, Hex.encodeHexString(data.getMessageDigest().digest()));
+                }
+                zipOutputStream.closeEntry();
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Checks every file packed into the batch against the files the train reports, so a file the train dropped or
+     * reported without a hash fails the batch as well as one reported with a different hash.
+     *
+     * @return errors for files missing from the transaction or reported with a different hash, empty if none
+     */
+    static List<String> verify(Map<String, String> checksums, Transaction transaction) {
+        Map<String, String> received = new HashMap<>();
+        if (transaction != null && transaction.uriInfos != null) {
+            for (UriInfo uriInfo : transaction.uriInfos) {
+                received.put(uriInfo.uri, uriInfo.sha);
+            }
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<String, String> checksum : checksums.entrySet()) {
+            String uri = checksum.getKey();
+            String expected = checksum.getValue();
+            if (!received.containsKey(uri)) {
+                errors.add("File missing from transaction: " + uri);
+            } else if (received.get(uri) == null) {
+                errors.add("No checksum received for " + uri);
+            } else if (!expected.equalsIgnoreCase(received.get(uri))) {
+                errors.add("Checksum mismatch for " + uri + ": sent " + expected + ", received " + received.get(uri));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Zip archive of a batch, packed as it is read.
+     */
+    static class Archive implements AutoCloseable {
+        private final InputStream data;
+        private final Future<Map<String, String>> checksums;
+
+        private Archive(InputStream data, Future<Map<String, String>> checksums) {
+            this.data = data;
+            this.checksums = checksums;
+        }
+
+        InputStream getData() {
+            return data;
+        }
+
+        /**
+         * Waits for packing to complete.
+         *
+         * @return uri - sha1 of each file packed
+         * @throws IOException if packing failed
+         */
+        Map<String, String> getChecksums() throws IOException {
+            try {
+                return checksums.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted packing batch", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Failed packing batch", e.getCause());
+            }
+        }
+
+        /**
+         * Closing the archive before it is read to completion stops packing.
+         */
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+    }
+}
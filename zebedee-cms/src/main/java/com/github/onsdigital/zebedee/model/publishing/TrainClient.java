@@ -0,0 +1,150 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.davidcarboni.httpino.Host;
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.util.Http;
+import com.github.onsdigital.zebedee.verification.http.ClientConfiguration;
+import com.github.onsdigital.zebedee.verification.http.PooledHttpClient;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logWarn;
+
+/**
+ * Keep alive http client with a connection pool for a single train host, shared by all publishing requests to the host
+ * so connections are reused across files and collections rather than opened per request.
+ */
+class TrainClient {
+
+    private static final Map<String, TrainClient> clients = new ConcurrentHashMap<>();
+
+    private final Host host;
+    private final PooledHttpClient pooledHttpClient;
+    private final TrainHostMetrics metrics;
+    private final int retryCount;
+    private final int retryDelay;
+
+    private TrainClient(Host host) {
+        this.host = host;
+        this.pooledHttpClient = new PooledHttpClient(host.toString(), createConfiguration());
+        this.metrics = new TrainHostMetrics(host.toString());
+        this.retryCount = Configuration.getTrainRetryCount();
+        this.retryDelay = Configuration.getTrainRetryDelay();
+        logInfo("Created train http client").addParameter("host", host.toString()).log();
+    }
+
+    /**
+     * @return shared client for given train host
+     */
+    static TrainClient get(Host host) {
+        return clients.computeIfAbsent(host.toString(), key -> new TrainClient(host));
+    }
+
+    /**
+     * @return metrics of all train hosts requests were made to
+     */
+    static List<TrainHostMetrics> getMetrics() {
+        List<TrainHostMetrics> metrics = new ArrayList<>();
+        for (TrainClient client : clients.values()) {
+            metrics.add(client.metrics);
+        }
+        return metrics;
+    }
+
+    private static ClientConfiguration createConfiguration() {
+        ClientConfiguration configuration = new ClientConfiguration();
+        configuration.setMaxTotalConnection(Configuration.getTrainMaxConnections());
+        configuration.setConnectTimeout(Configuration.getTrainConnectTimeout());
+        configuration.setConnectionRequestTimeout(Configuration.getTrainConnectTimeout());
+        configuration.setSocketTimeout(Configuration.getTrainSocketTimeout());
+        return configuration;
+    }
+
+    TrainHostMetrics getHostMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sends a request that must not be repeated, e.g. starting or committing a transaction.
+     */
+    <T> T send(TrainRequest<T> request) throws IOException {
+        return send(request, false);
+    }
+
+    /**
+     * Sends a request that can safely be repeated, e.g. sending a file to a transaction. Failed attempts are retried up
+     * to the configured retry count, waiting the configured delay before the first retry and doubling it each time.
+     */
+    <T> T sendIdempotent(TrainRequest<T> request) throws IOException {
+        return send(request, true);
+    }
+
+    private <T> T send(TrainRequest<T> request, boolean retry) throws IOException {
+        int attempt = 0;
+        while (true) {
+            long start = System.currentTimeMillis();
+            metrics.started();
+            try (Http http = new PooledHttp()) {
+                T result = request.send(http, metrics);
+                metrics.completed(System.currentTimeMillis() - start);
+                return result;
+            } catch (IOException e) {
+                metrics.failed(System.currentTimeMillis() - start);
+                if (!retry || attempt >= retryCount) {
+                    throw e;
+                }
+                long delay = (long) retryDelay << attempt;
+                attempt++;
+                metrics.retried();
+                logWarn("Request to train host failed, retrying")
+                        .addParameter("host", host.toString())
+                        .addParameter("attempt", attempt)
+                        .addParameter("delay", delay)
+                        .addParameter("error", e.getMessage())
+                        .log();
+                sleep(delay);
+            }
+        }
+    }
+
+    private void sleep(long delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting to retry request to " + host);
+        }
+    }
+
+    /**
+     * A request to the train host, made with given http client.
+     */
+    @FunctionalInterface
+    interface TrainRequest<T> {
+        T send(Http http, TrainHostMetrics metrics) throws IOException;
+    }
+
+    /**
+     * Http client using the shared connection pool. Closing it does not close the pool, connections are returned to
+     * the pool once responses are read.
+     */
+    private class PooledHttp extends Http {
+
+        @Override
+        protected CloseableHttpClient httpClient() {
+            return pooledHttpClient.getHttpClient();
+        }
+
+        @Override
+        public void close() {
+            // the pool is shared by all requests to the host
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
+
+/**
+ * Counts of requests made to a single train host since start up.
+ */
+public class TrainHostMetrics {
+
+    private final String host;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    TrainHostMetrics(String host) {
+        this.host = host;
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void completed(long latency) {
+        finished(latency);
+    }
+
+    void failed(long latency) {
+        failures.incrementAndGet();
+        finished(latency);
+    }
+
+    void retried() {
+        retries.incrementAndGet();
+    }
+
+    void sent(long bytes) {
+        bytesSent.addAndGet(bytes);
+    }
+
+    private void finished(long latency) {
+        inFlight.decrementAndGet();
+        requests.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getAverageLatency() {
+        long count = requests.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    /**
+     * Logs current counts together with throughput over a publishing phase.
+     *
+     * @param message     log message
+     * @param bytesBefore bytes sent to the host when the phase started
+     * @param timeTaken   milliseconds the phase took
+     */
+    void log(String message, long bytesBefore, long timeTaken) {
+        long bytes = getBytesSent() - bytesBefore;
+        logInfo(message)
+                .addParameter("host", host)
+                .addParameter("bytesSent", bytes)
+                .addParameter("bytesPerSecond", timeTaken == 0 ? 0 : bytes * 1000 / timeTaken)
+                .addParameter("inFlight", getInFlight())
+                .addParameter("requests", getRequests())
+                .addParameter("failures", getFailures())
+                .addParameter("retries", getRetries())
+                .addParameter("averageLatency", getAverageLatency())
+                .addParameter("maxLatency", getMaxLatency())
+                .log();
+    }
+}
@@ -1,6 +1,5 @@
 package com.github.onsdigital.zebedee.model.publishing.scheduled;
 
-import com.github.davidcarboni.restolino.json.Serialiser;
 import com.github.onsdigital.zebedee.Zebedee;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
@@ -9,16 +8,12 @@ import com.github.onsdigital.zebedee.json.ApprovalStatus;
 import com.github.onsdigital.zebedee.json.CollectionType;
 import com.github.onsdigital.zebedee.json.EventType;
 import com.github.onsdigital.zebedee.model.Collection;
-import com.github.onsdigital.zebedee.model.PathUtils;
 import com.github.onsdigital.zebedee.model.ZebedeeCollectionReader;
 import com.github.onsdigital.zebedee.model.publishing.PostPublisher;
 import com.github.onsdigital.zebedee.model.publishing.PublishNotification;
 import com.github.onsdigital.zebedee.model.publishing.Publisher;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
@@ -55,11 +50,7 @@ public class PublishTask implements Runnable {
                 // TODO Alarm message
 
                 // and save
-                String filename = PathUtils.toFilename(collection.getDescription().getName()) + ".json";
-                Path collectionPath = zebedee.getCollections().path.resolve(filename);
-                try (OutputStream output = Files.newOutputStream(collectionPath)) {
-                    Serialiser.serialise(output, collection.description);
-                }
+                collection.save();
 
             } else {
 
@@ -21,15 +21,18 @@ import com.github.onsdigital.zebedee.user.service.UsersService;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import static com.github.onsdigital.zebedee.configuration.Configuration.getUnauthorizedMessage;
-import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logDebug;
 import static com.github.onsdigital.zebedee.persistence.CollectionEventType.COLLECTION_VIEWER_TEAM_ADDED;
 import static com.github.onsdigital.zebedee.persistence.CollectionEventType.COLLECTION_VIEWER_TEAM_REMOVED;
 import static com.github.onsdigital.zebedee.persistence.dao.CollectionHistoryDaoFactory.getCollectionHistoryDao;
@@ -38,6 +41,9 @@ import static com.github.onsdigital.zebedee.persistence.model.CollectionEventMet
 
 /**
  * Handles permissions mapping between users and {@link com.github.onsdigital.zebedee.Zebedee} functions.
+ * <p>
+ * Permission checks are answered from a {@link PermissionsSnapshot} of the access mapping, teams and users, which is
+ * only rebuilt after one of them is written. Changes to the access mapping are made to a copy read from the store.
  * Created by david on 12/03/2015.
  */
 public class PermissionsServiceImpl implements PermissionsService {
@@ -47,6 +53,8 @@ public class PermissionsServiceImpl implements PermissionsService {
     private ReadWriteLock accessMappingLock = new ReentrantReadWriteLock();
     private ServiceSupplier<UsersService> usersServiceSupplier;
     private ServiceSupplier<TeamsService> teamsServiceSupplier;
+    private final AtomicReference<PermissionsSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong snapshotRebuilds = new AtomicLong();
 
     /**
      * @param permissionsStore
@@ -62,6 +70,47 @@ public class PermissionsServiceImpl implements PermissionsService {
         this.keyringCache = keyringCache;
     }
 
+    /**
+     * Get the current snapshot, rebuilding it if the access mapping, teams or users have been written since it was
+     * taken.
+     */
+    PermissionsSnapshot getSnapshot() {
+        PermissionsSnapshot current = snapshot.get();
+        while (current == null || !current.isCurrent()) {
+            PermissionsSnapshot rebuilt = new PermissionsSnapshot(current,
+                    () -> permissionsStore.getAccessMapping(),
+                    () -> java.util.Collections.unmodifiableList(teamsServiceSupplier.getService().listTeams()),
+                    () -> java.util.Collections.unmodifiableList(new ArrayList<>(usersServiceSupplier.getService().list())));
+            long replacedAge = getSnapshotAge();
+            if (snapshot.compareAndSet(current, rebuilt)) {
+                snapshotRebuilds.incrementAndGet();
+                logDebug("Permissions snapshot rebuilt")
+                        .addParameter("version", rebuilt.getVersion())
+                        .addParameter("rebuilds", getSnapshotRebuilds())
+                        .addParameter("replacedSnapshotAge(ms)", replacedAge)
+                        .log();
+                return rebuilt;
+            }
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    /**
+     * @return milliseconds since the permissions snapshot in use was taken, or -1 if there is none yet.
+     */
+    public long getSnapshotAge() {
+        PermissionsSnapshot current = snapshot.get();
+        return current == null ? -1 : System.currentTimeMillis() - current.getCreated();
+    }
+
+    /**
+     * @return the number of times the permissions snapshot has been built since start up.
+     */
+    public long getSnapshotRebuilds() {
+        return snapshotRebuilds.get();
+    }
+
     /**
      * Determines whether the specified user has publisher permissions/
      *
@@ -89,7 +138,7 @@ public class PermissionsServiceImpl implements PermissionsService {
         if (StringUtils.isEmpty(email)) {
             return false;
         }
-        AccessMapping accessMapping = permissionsStore.getAccessMapping();
+        AccessMapping accessMapping = getSnapshot().getAccessMapping();
         return isPublisher(email, accessMapping);
     }
 
@@ -124,16 +173,15 @@ public class PermissionsServiceImpl implements PermissionsService {
         if (StringUtils.isEmpty(email)) {
             return false;
         }
-        return isAdministrator(email, permissionsStore.getAccessMapping());
+        return isAdministrator(email, getSnapshot().getAccessMapping());
     }
 
     @Override
     public List<User> getCollectionAccessMapping(Collection collection) throws IOException {
-        AccessMapping accessMapping = permissionsStore.getAccessMapping();
-        List<Team> teamsList = teamsServiceSupplier.getService().listTeams();
-        List<User> keyUsers = usersServiceSupplier
-                .getService()
-                .list()
+        PermissionsSnapshot permissions = getSnapshot();
+        AccessMapping accessMapping = permissions.getAccessMapping();
+        List<Team> teamsList = permissions.getTeams();
+        List<User> keyUsers = permissions.getUsers()
                 .stream()
                 .filter(user -> isCollectionKeyRecipient(accessMapping, teamsList, user, collection))
                 .collect(Collectors.toList());
@@ -141,15 +189,9 @@ public class PermissionsServiceImpl implements PermissionsService {
     }
 
     private boolean isCollectionKeyRecipient(AccessMapping accessMapping, List<Team> teamsList, User user, Collection collection) {
-        boolean result = false;
-        try {
-            result = isAdministrator(user.getEmail(), accessMapping)
-                    || canEdit(user.getEmail())
-                    || canView(user.getEmail(), collection.getDescription(), accessMapping, teamsList);
-        } catch (IOException e) {
-            logError(e).throwUnchecked(e);
-        }
-        return result;
+        return isAdministrator(user.getEmail(), accessMapping)
+                || canEdit(user.getEmail(), accessMapping)
+                || canView(user.getEmail(), collection.getDescription(), accessMapping, teamsList);
     }
 
     private boolean isAdministrator(String email, AccessMapping accessMapping) {
@@ -164,7 +206,7 @@ public class PermissionsServiceImpl implements PermissionsService {
      */
     @Override
     public boolean hasAdministrator() throws IOException {
-        AccessMapping accessMapping = permissionsStore.getAccessMapping();
+        AccessMapping accessMapping = getSnapshot().getAccessMapping();
         return accessMapping.getAdministrators() != null && !accessMapping.getAdministrators().isEmpty();
     }
 
@@ -234,7 +276,7 @@ public class PermissionsServiceImpl implements PermissionsService {
      */
     @Override
     public boolean canEdit(String email) throws IOException {
-        AccessMapping accessMapping = permissionsStore.getAccessMapping();
+        AccessMapping accessMapping = getSnapshot().getAccessMapping();
         return canEdit(email, accessMapping);
     }
 
@@ -362,9 +404,10 @@ public class PermissionsServiceImpl implements PermissionsService {
      */
     @Override
     public boolean canView(User user, CollectionDescription collectionDescription) throws IOException {
-        AccessMapping accessMapping = permissionsStore.getAccessMapping();
+        PermissionsSnapshot permissions = getSnapshot();
+        AccessMapping accessMapping = permissions.getAccessMapping();
         return user != null && (
-                canEdit(user.getEmail(), accessMapping) || canView(user.getEmail(), collectionDescription, accessMapping));
+                canEdit(user.getEmail(), accessMapping) || canView(user.getEmail(), collectionDescription, permissions));
     }
 
     /**
@@ -432,7 +475,7 @@ public class PermissionsServiceImpl implements PermissionsService {
             throw new UnauthorizedException(getUnauthorizedMessage(session));
         }
 
-        AccessMapping accessMapping = permissionsStore.getAccessMapping();
+        AccessMapping accessMapping = getSnapshot().getAccessMapping();
         Set<Integer> teamIds = accessMapping.getCollections().get(collectionDescription.getId());
         if (teamIds == null) teamIds = new HashSet<>();
 
@@ -477,17 +520,16 @@ public class PermissionsServiceImpl implements PermissionsService {
     }
 
 
-    private boolean canView(String email, CollectionDescription collectionDescription, AccessMapping accessMapping)
+    private boolean canView(String email, CollectionDescription collectionDescription, PermissionsSnapshot permissions)
             throws IOException {
 
         // Check to see if the email is a member of a team associated with the given collection:
-        Set<Integer> teams = accessMapping.getCollections().get(collectionDescription.getId());
+        Set<Integer> teams = permissions.getAccessMapping().getCollections().get(collectionDescription.getId());
         if (teams == null) {
             return false;
         }
 
-        return teamsServiceSupplier.getService()
-                .listTeams()
+        return permissions.getTeams()
                 .stream()
                 .filter(team -> teams.contains(team.getId()) && team.getMembers().contains(standardise(email)))
                 .findFirst()
@@ -495,7 +537,7 @@ public class PermissionsServiceImpl implements PermissionsService {
     }
 
     private boolean canView(String email, CollectionDescription collectionDescription,
-                            AccessMapping accessMapping, List<Team> teamsList) throws IOException {
+                            AccessMapping accessMapping, List<Team> teamsList) {
         Set<Integer> collectionTeams = accessMapping.getCollections().get(collectionDescription.getId());
         if (collectionTeams == null || collectionTeams.isEmpty()) {
             return false;
@@ -522,7 +564,7 @@ public class PermissionsServiceImpl implements PermissionsService {
     @Override
     public PermissionDefinition userPermissions(String email, Session session) throws IOException, NotFoundException,
             UnauthorizedException {
-        AccessMapping accessMapping = permissionsStore.getAccessMapping();
+        AccessMapping accessMapping = getSnapshot().getAccessMapping();
 
         if ((session == null) || (!isAdministrator(session.getEmail(), accessMapping) && !isPublisher(session.getEmail(), accessMapping)
                 && !session.getEmail().equalsIgnoreCase(email))) {
@@ -0,0 +1,104 @@
+package com.github.onsdigital.zebedee.permissions.service;
+
+import com.github.onsdigital.zebedee.permissions.model.AccessMapping;
+import com.github.onsdigital.zebedee.teams.model.Team;
+import com.github.onsdigital.zebedee.user.model.User;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.github.onsdigital.zebedee.permissions.store.PermissionsDataVersion.ACCESS_MAPPING;
+import static com.github.onsdigital.zebedee.permissions.store.PermissionsDataVersion.TEAMS;
+import static com.github.onsdigital.zebedee.permissions.store.PermissionsDataVersion.USERS;
+
+/**
+ * Copy on write view of the access mapping, teams and users that permission checks are answered from. A snapshot is
+ * never modified once published: when any of them is written a new snapshot is created, sharing the parts that have
+ * not changed with the previous one. Each part is read once, when it is first needed, and must not be modified.
+ */
+class PermissionsSnapshot {
+
+    private final long version;
+    private final long created = System.currentTimeMillis();
+    private final Part<AccessMapping> accessMapping;
+    private final Part<List<Team>> teams;
+    private final Part<List<User>> users;
+
+    /**
+     * Create a snapshot, sharing the parts of the previous snapshot that are still current.
+     *
+     * @param previous the snapshot being replaced, or null.
+     */
+    PermissionsSnapshot(PermissionsSnapshot previous, Loader<AccessMapping> accessMappingLoader,
+                        Loader<List<Team>> teamsLoader, Loader<List<User>> usersLoader) {
+        this.version = previous == null ? 1 : previous.version + 1;
+        this.accessMapping = current(previous == null ? null : previous.accessMapping, ACCESS_MAPPING.get(), accessMappingLoader);
+        this.teams = current(previous == null ? null : previous.teams, TEAMS.get(), teamsLoader);
+        this.users = current(previous == null ? null : previous.users, USERS.get(), usersLoader);
+    }
+
+    private static <T> Part<T> current(Part<T> previous, long version, Loader<T> loader) {
+        return previous != null && previous.version == version ? previous : new Part<>(version, loader);
+    }
+
+    /**
+     * @return true if nothing has been written since this snapshot was taken.
+     */
+    boolean isCurrent() {
+        return accessMapping.version == ACCESS_MAPPING.get()
+                && teams.version == TEAMS.get()
+                && users.version == USERS.get();
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    long getCreated() {
+        return created;
+    }
+
+    AccessMapping getAccessMapping() throws IOException {
+        return accessMapping.get();
+    }
+
+    List<Team> getTeams() throws IOException {
+        return teams.get();
+    }
+
+    List<User> getUsers() throws IOException {
+        return users.get();
+    }
+
+    interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    /**
+     * Data read at a given version, loaded the first time it is needed.
+     */
+    private static class Part<T> {
+        private final long version;
+        private final Loader<T> loader;
+        private volatile T value;
+
+        Part(long version, Loader<T> loader) {
+            this.version = version;
+            this.loader = loader;
+        }
+
+        T get() throws IOException {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = loader.load();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
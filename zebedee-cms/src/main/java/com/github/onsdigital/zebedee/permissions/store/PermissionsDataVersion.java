@@ -0,0 +1,27 @@
+package com.github.onsdigital.zebedee.permissions.store;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the writes to each kind of data that permissions are checked against. Permission checks are answered from an
+ * in memory snapshot, which is rebuilt when one of these has moved on since the snapshot was taken.
+ */
+public enum PermissionsDataVersion {
+
+    ACCESS_MAPPING,
+    TEAMS,
+    USERS;
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Record a write.
+     */
+    public void increment() {
+        version.incrementAndGet();
+    }
+
+    public long get() {
+        return version.get();
+    }
+}
@@ -148,6 +148,7 @@ public class PermissionsStoreFileSystemImpl implements PermissionsStore {
         try (OutputStream output = Files.newOutputStream(accessMappingFilePath)) {
             Serialiser.serialise(output, accessMapping);
         } finally {
+            PermissionsDataVersion.ACCESS_MAPPING.increment();
             accessMappingLock.writeLock().unlock();
         }
     }
@@ -1,6 +1,5 @@
 package com.github.onsdigital.zebedee.service;
 
-import com.github.davidcarboni.restolino.json.Serialiser;
 import com.github.onsdigital.zebedee.audit.Audit;
 import com.github.onsdigital.zebedee.content.page.base.PageType;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
@@ -15,6 +14,7 @@ import com.github.onsdigital.zebedee.persistence.CollectionEventType;
 import com.github.onsdigital.zebedee.persistence.dao.CollectionHistoryDao;
 import com.github.onsdigital.zebedee.persistence.dao.CollectionHistoryDaoFactory;
 import com.github.onsdigital.zebedee.persistence.model.CollectionEventMetaData;
+import com.github.onsdigital.zebedee.service.content.navigation.ContentTreeIndex;
 import com.github.onsdigital.zebedee.service.content.navigation.ContentTreeNavigator;
 import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.util.ContentTree;
@@ -24,8 +24,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -49,7 +47,6 @@ import static com.github.onsdigital.zebedee.persistence.model.CollectionEventMet
 
 public class ContentDeleteService {
 
-    private static final String JSON_FILE_EXT = ".json";
     private static ZebedeeCmsService zebedeeCmsService = ZebedeeCmsService.getInstance();
     private static ContentTreeNavigator contentTreeNavigator = ContentTreeNavigator.getInstance();
     private static CollectionHistoryDao collectionHistoryDao = CollectionHistoryDaoFactory.getCollectionHistoryDao();
@@ -162,11 +159,15 @@ public class ContentDeleteService {
         saveManifest(collection);
     }
 
-    public void overlayDeletedNodesInBrowseTree(ContentDetail browseTree) throws IOException {
+    /**
+     * Mark the nodes pending deletion in the browse tree. Marked nodes are copied first as they may be shared with the
+     * cached published tree.
+     */
+    public void overlayDeletedNodesInBrowseTree(ContentTreeIndex browseTree) throws IOException {
         getAllDeleteMarkerUris()
                 .stream()
                 .forEach(deletedUri ->
-                        contentTreeNavigator.updateNodeAndDescendants(browseTree,
+                        contentTreeNavigator.updateCopyOfNodeAndDescendants(browseTree,
                                 deletedUri, (node) -> node.setDeleteMarker(true)));
     }
 
@@ -198,8 +199,8 @@ public class ContentDeleteService {
     }
 
     private void saveManifest(Collection collection) throws ZebedeeException {
-        try (OutputStream output = Files.newOutputStream(manifestPath(collection))) {
-            Serialiser.serialise(output, collection.description);
+        try {
+            collection.save();
         } catch (IOException e) {
             // TODO probably want exception type for this.
             logError(e, "Error while serialising delete markers...").logAndThrow(BadRequestException.class);
@@ -208,7 +209,7 @@ public class ContentDeleteService {
 
     public ContentDetail getAllDeletesForNode(DeleteMarker nodeToDelete)
             throws IOException {
-        ContentDetail wholeTree = ContentTree.get();
+        ContentTreeIndex wholeTree = ContentTree.getIndex();
         Optional<ContentDetail> branch = contentTreeNavigator.findContentDetail(wholeTree, nodeToDelete.getPath());
         if (branch.isPresent()) {
             return branch.get();
@@ -216,10 +217,6 @@ public class ContentDeleteService {
         throw new RuntimeException("CANNOT FIND PATH IN BROWSE TREE");
     }
 
-    private Path manifestPath(com.github.onsdigital.zebedee.model.Collection collection) {
-        return Paths.get(collection.path.toString() + JSON_FILE_EXT);
-    }
-
     private Consumer<PendingDelete> contentDetailsToPathList(List<Path> resultsList) {
         return (pendingDelete) ->
                 contentTreeNavigator.search(pendingDelete.getRoot(),
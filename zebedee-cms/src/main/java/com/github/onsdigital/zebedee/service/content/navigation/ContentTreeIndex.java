@@ -0,0 +1,162 @@
+package com.github.onsdigital.zebedee.service.content.navigation;
+
+import com.github.onsdigital.zebedee.json.ContentDetail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A browse tree along with an index of its nodes by content path, so a node can be found without walking the tree.
+ * <p>
+ * An index can be overlayed on another: the overlay starts with a copy of the root and only indexes the nodes that
+ * are added to it or copied into it, looking everything else up in the index it was overlayed on. A node that is
+ * indexed by the overlay itself belongs to the overlay and can be changed in place, any other node is shared.
+ * <p>
+ * Publishing applies its changes to an update layer in the same way, which holds only the paths that changed and
+ * marks removed paths so they are no longer found in the layers below. {@link #compact()} merges a layer into the one
+ * below it once it is at least half its size, so the layers shrink going up, only a few are searched for each lookup and
+ * the large bottom layer is only copied after many publishes.
+ * <p>
+ * Instances are not thread safe. Changes should be made before an index is shared, and an index should not be changed
+ * once it has been overlayed.
+ */
+public class ContentTreeIndex {
+
+    private static final String ROOT = "/";
+
+    private final ContentTreeIndex base;
+
+    // a null node marks a path that has been removed from the layers below.
+    private final Map<String, ContentDetail> nodes;
+    private ContentDetail root;
+
+    private ContentTreeIndex(ContentTreeIndex base, Map<String, ContentDetail> nodes, ContentDetail root) {
+        this.base = base;
+        this.nodes = nodes;
+        this.root = root;
+    }
+
+    /**
+     * Index every node in the given tree.
+     */
+    public static ContentTreeIndex build(ContentDetail root) {
+        ContentTreeIndex index = new ContentTreeIndex(null, new HashMap<>(), root);
+        index.putAll(root);
+        index.nodes.put(ROOT, root);
+        return index;
+    }
+
+    /**
+     * @return a new index over a copy of this tree's root that shares the rest of this tree and its index.
+     */
+    public ContentTreeIndex overlay() {
+        ContentDetail copy = root.shallowClone();
+        ContentTreeIndex overlay = new ContentTreeIndex(this, new HashMap<>(), copy);
+        overlay.nodes.put(ROOT, copy);
+        return overlay;
+    }
+
+    /**
+     * @return a new, empty layer over this index that can be changed without changing this one. Neither the nodes nor
+     * the index are copied, the changes should copy any node they change.
+     */
+    public ContentTreeIndex update() {
+        return new ContentTreeIndex(this, new HashMap<>(), root);
+    }
+
+    /**
+     * @return an index with the same nodes as this one, with each layer merged into the one below it while it is at
+     * least half the size of that layer. Only the merged layers are copied, this index is not changed.
+     */
+    public ContentTreeIndex compact() {
+        ContentTreeIndex compacted = this;
+        while (compacted.base != null && compacted.nodes.size() * 2 >= compacted.base.nodes.size()) {
+            compacted = compacted.mergeIntoBase();
+        }
+        return compacted;
+    }
+
+    private ContentTreeIndex mergeIntoBase() {
+        Map<String, ContentDetail> merged = new HashMap<>(base.nodes);
+        for (Map.Entry<String, ContentDetail> entry : nodes.entrySet()) {
+            if (entry.getValue() == null && base.base == null) {
+                merged.remove(entry.getKey());
+            } else {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new ContentTreeIndex(base.base, merged, root);
+    }
+
+    public ContentDetail getRoot() {
+        return root;
+    }
+
+    public void setRoot(ContentDetail root) {
+        this.root = root;
+        nodes.put(ROOT, root);
+    }
+
+    /**
+     * Find the node with the given content path, e.g. "/economy/inflationandpriceindices".
+     */
+    public Optional<ContentDetail> find(String contentPath) {
+        for (ContentTreeIndex index = this; index != null; index = index.base) {
+            ContentDetail node = index.nodes.get(contentPath);
+            if (node != null || index.nodes.containsKey(contentPath)) {
+                return Optional.ofNullable(node);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return true if the node with the given content path was added to this index rather than the one it overlays.
+     */
+    public boolean isOwned(String contentPath) {
+        return nodes.get(contentPath) != null;
+    }
+
+    /**
+     * Index the given node by its content path, replacing any node indexed at the same path.
+     */
+    public void put(ContentDetail node) {
+        if (node.contentPath != null) {
+            put(node.contentPath, node);
+        }
+    }
+
+    /**
+     * Index the given node by the given path, for nodes that do not have a content path of their own.
+     */
+    public void put(String contentPath, ContentDetail node) {
+        nodes.put(contentPath, node);
+    }
+
+    /**
+     * Index the given node and all of its descendants.
+     */
+    public void putAll(ContentDetail node) {
+        put(node);
+        if (node.children != null) {
+            node.children.forEach(this::putAll);
+        }
+    }
+
+    /**
+     * Remove the given node and all of its descendants from the index.
+     */
+    public void removeAll(ContentDetail node) {
+        if (node.contentPath != null && find(node.contentPath).orElse(null) == node) {
+            if (base == null) {
+                nodes.remove(node.contentPath);
+            } else {
+                nodes.put(node.contentPath, null);
+            }
+        }
+        if (node.children != null) {
+            node.children.forEach(this::removeAll);
+        }
+    }
+}
@@ -39,6 +39,106 @@ public class ContentTreeNavigator {
         return false;
     }
 
+    /**
+     * Apply the function to copies of the target node and its descendants, leaving the nodes the tree shares with
+     * other trees unchanged. Each node on the path to the target that is not owned by the index is copied and replaced
+     * in its parent, and the copies are indexed in its place.
+     */
+    public boolean updateCopyOfNodeAndDescendants(ContentTreeIndex browseTree, Path targetNodeUri,
+                                                  ContentDetailFunction function) {
+        Iterator<Path> pathIterator = createPathIterator(targetNodeUri);
+        if (!pathIterator.hasNext()) {
+            return false;
+        }
+
+        ContentDetail parent = browseTree.getRoot();
+        while (true) {
+            String contentPath = pathIterator.next().toString();
+            Optional<ContentDetail> node = browseTree.find(contentPath);
+            if (!node.isPresent()) {
+                return false;
+            }
+
+            if (!pathIterator.hasNext()) {
+                ContentDetail copy = deepCopy(node.get());
+                replaceChild(parent, node.get(), copy);
+                browseTree.putAll(copy);
+                applyAndPropagate(copy, function);
+                return true;
+            }
+
+            ContentDetail next = node.get();
+            if (!browseTree.isOwned(contentPath)) {
+                next = next.shallowClone();
+                replaceChild(parent, node.get(), next);
+                browseTree.put(contentPath, next);
+            }
+            parent = next;
+        }
+    }
+
+    /**
+     * Nest the given items into the browse tree, skipping any that are already in it and creating directory nodes
+     * for any missing parents. Nodes on the path to each new item that are not owned by the index are copied first,
+     * so the items are only added to the tree the index belongs to.
+     */
+    public void overlayDetails(ContentTreeIndex browseTree, List<ContentDetail> toOverlay) {
+        for (ContentDetail contentDetail : toOverlay) {
+            Optional<ContentDetail> existing = browseTree.find(contentDetail.uri);
+            if (existing.isPresent() && existing.get() != browseTree.getRoot()
+                    && contentDetail.uri.equals(existing.get().uri)) {
+                continue;
+            }
+
+            ContentDetail parent = browseTree.getRoot();
+            Path path = ROOT.resolve(contentDetail.uri);
+            for (int depth = 1; depth < path.getNameCount(); depth++) {
+                String contentPath = ROOT.resolve(path.subpath(0, depth)).toString();
+                Optional<ContentDetail> node = browseTree.find(contentPath);
+
+                ContentDetail next;
+                if (!node.isPresent()) {
+                    next = new ContentDetail(path.getName(depth - 1).toString(), "", null);
+                    addChild(parent, next);
+                } else if (!browseTree.isOwned(contentPath)) {
+                    next = node.get().shallowClone();
+                    replaceChild(parent, node.get(), next);
+                } else {
+                    next = node.get();
+                }
+                browseTree.put(contentPath, next);
+                parent = next;
+            }
+
+            addChild(parent, contentDetail);
+            browseTree.put(contentDetail.uri, contentDetail);
+        }
+    }
+
+    private void addChild(ContentDetail parent, ContentDetail child) {
+        if (parent.children == null) {
+            parent.children = new ArrayList<>();
+        }
+        parent.children.add(child);
+    }
+
+    private void replaceChild(ContentDetail parent, ContentDetail child, ContentDetail replacement) {
+        for (int i = 0; i < parent.children.size(); i++) {
+            if (parent.children.get(i) == child) {
+                parent.children.set(i, replacement);
+                return;
+            }
+        }
+    }
+
+    private ContentDetail deepCopy(ContentDetail node) {
+        ContentDetail copy = node.shallowClone();
+        if (copy.children != null) {
+            copy.children.replaceAll(this::deepCopy);
+        }
+        return copy;
+    }
+
     public void applyAndPropagate(ContentDetail node, ContentDetailFunction function) {
         if (node != null) {
             function.apply(node);
@@ -64,6 +164,17 @@ public class ContentTreeNavigator {
         return find(pathIterator, browseTree);
     }
 
+    /**
+     * Find the node with the given uri using the index rather than walking the tree.
+     */
+    public Optional<ContentDetail> findContentDetail(ContentTreeIndex browseTree, Path targetNodeUri) {
+        Path contentPath = requireNonNull(targetNodeUri, "targetNodeUri is required and cannot be null");
+        if (DATA_JSON.equals(contentPath.getFileName())) {
+            contentPath = contentPath.getParent();
+        }
+        return browseTree.find(ROOT.resolve(contentPath).toString());
+    }
+
     public List<ContentDetail> getDeleteChildren(Path parentUri, ContentDetail browseTree) {
         List<ContentDetail> children = new ArrayList<>();
         Optional<ContentDetail> targetNode = find(createPathIterator(parentUri), browseTree);
@@ -13,15 +13,22 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logDebug;
+import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
 
 /**
+ * Sessions are held in memory, indexed by id and by email. A new session is written to disk straight away, but
+ * updates to the last access time are written behind on a schedule so authenticated requests do not write to disk.
+ * The persisted sessions are reloaded on startup.
+ * <p>
  * Created by david on 12/03/2015.
  */
 public class SessionsService extends TimerTask {
@@ -29,21 +36,65 @@ public class SessionsService extends TimerTask {
     private static final String DELETING_SESSION_MSG = "Deleting expired session";
     private static final String SESSION_ID_PARAM = "sessionId";
 
+    private static final long FLUSH_INTERVAL = 10 * 1000; //milliseconds
+    private static final long EXPIRY_INTERVAL = 60 * 1000; //milliseconds
+
     private Supplier<String> randomIdGenerator = () -> Random.id();
     private SessionsStoreImpl sessionsStore;
 
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> sessionIdsByEmail = new ConcurrentHashMap<>();
+    private final Set<String> lastAccessUpdated = ConcurrentHashMap.newKeySet();
+
     int expiryUnit = Calendar.MINUTE;
     int expiryAmount = 60;
     Timer timer;
     private Path sessionsPath;
 
-    public SessionsService(Path sessionsPath) {
+    public SessionsService(Path sessionsPath) throws IOException {
         this.sessionsPath = sessionsPath;
         this.sessionsStore = new SessionsStoreImpl(sessionsPath);
+        load();
 
-        // Run every minute after the first minute:
+        // Expire sessions every minute after the first minute, writing last access times more often:
         timer = new Timer("Florence sessions timer", true);
-        timer.schedule(this, 60 * 1000, 60 * 1000);
+        timer.schedule(this, EXPIRY_INTERVAL, EXPIRY_INTERVAL);
+        timer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                flushLastAccess();
+            }
+        }, FLUSH_INTERVAL, FLUSH_INTERVAL);
+    }
+
+    /**
+     * Loads the persisted sessions into memory.
+     *
+     * @throws IOException If a filesystem error occurs.
+     */
+    void load() throws IOException {
+        sessions.clear();
+        sessionIdsByEmail.clear();
+        for (Session session : sessionsStore.filterSessions(session -> session != null)) {
+            if (StringUtils.isNotBlank(session.getId())) {
+                index(session);
+            }
+        }
+    }
+
+    private void index(Session session) {
+        sessions.put(session.getId(), session);
+        if (StringUtils.isNotBlank(session.getEmail())) {
+            sessionIdsByEmail.put(PathUtils.standardise(session.getEmail()), session.getId());
+        }
+    }
+
+    private void unindex(Session session) {
+        sessions.remove(session.getId(), session);
+        lastAccessUpdated.remove(session.getId());
+        if (StringUtils.isNotBlank(session.getEmail())) {
+            sessionIdsByEmail.remove(PathUtils.standardise(session.getEmail()), session.getId());
+        }
     }
 
     public void setExpiry(int expiryAmount, int expiryUnit) {
@@ -57,6 +108,7 @@ public class SessionsService extends TimerTask {
     @Override
     public void run() {
         try {
+            flushLastAccess();
             deleteExpiredSessions();
         } catch (IOException e) {
             // Not much we can do.
@@ -75,7 +127,7 @@ public class SessionsService extends TimerTask {
      * be returned.
      * @throws java.io.IOException If a filesystem error occurs.
      */
-    public Session create(User user) throws IOException {
+    public synchronized Session create(User user) throws IOException {
         Session session = null;
 
         if (StringUtils.isNotBlank(user.getEmail())) {
@@ -89,6 +141,7 @@ public class SessionsService extends TimerTask {
                 session.setId(randomIdGenerator.get());
                 session.setEmail(user.getEmail());
                 sessionsStore.write(session);
+                index(session);
             }
         }
 
@@ -120,10 +173,9 @@ public class SessionsService extends TimerTask {
         Session result = null;
 
         // Check the session record exists:
-        if (sessionsStore.exists(id)) {
-            // Deserialise the json:
-            Session session = sessionsStore.read(sessionPath(id));
-            if (!expired(session)) {
+        if (StringUtils.isNotBlank(id)) {
+            Session session = sessions.get(id);
+            if (session != null && !expired(session)) {
                 updateLastAccess(session);
                 result = session;
             }
@@ -139,7 +191,11 @@ public class SessionsService extends TimerTask {
      * @throws IOException If a filesystem error occurs.
      */
     public Session find(String email) throws IOException {
-        Session session = sessionsStore.find(email);
+        Session session = null;
+        String id = StringUtils.isBlank(email) ? null : sessionIdsByEmail.get(PathUtils.standardise(email));
+        if (id != null) {
+            session = sessions.get(id);
+        }
         if (!expired(session)) {
             updateLastAccess(session);
         }
@@ -154,24 +210,50 @@ public class SessionsService extends TimerTask {
      * @throws IOException If a filesystem error occurs.
      */
     public boolean exists(String id) throws IOException {
-        return sessionsStore.exists(id);
+        return StringUtils.isNotBlank(id) && sessions.containsKey(id);
     }
 
 
     /**
-     * Iterates all sessions and deletes expired ones.
+     * Sweeps all sessions and deletes expired ones.
      *
      * @throws IOException If a filesystem error occurs.
      */
     public void deleteExpiredSessions() throws IOException {
-        Predicate<Session> isExpired = (session) -> expired(session);
-        List<Session> expired = sessionsStore.filterSessions(isExpired);
-
-        for (Session s : expired) {
-            logDebug(DELETING_SESSION_MSG)
-                    .addParameter(SESSION_ID_PARAM, s.getId())
-                    .log();
-            sessionsStore.delete(sessionPath(s.getId()));
+        Iterator<Session> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            Session s = iterator.next();
+            if (expired(s)) {
+                logDebug(DELETING_SESSION_MSG)
+                        .addParameter(SESSION_ID_PARAM, s.getId())
+                        .log();
+                unindex(s);
+                Path path = sessionPath(s.getId());
+                if (sessionsStore.exists(s.getId())) {
+                    sessionsStore.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the sessions whose last access time has been updated since they were last written.
+     */
+    public void flushLastAccess() {
+        Iterator<String> iterator = lastAccessUpdated.iterator();
+        while (iterator.hasNext()) {
+            String id = iterator.next();
+            iterator.remove();
+            Session session = sessions.get(id);
+            if (session != null) {
+                try {
+                    sessionsStore.write(session);
+                } catch (IOException e) {
+                    // the session is still held in memory, so it is written on the next flush.
+                    logError(e, "Failed to write session last access time").addParameter(SESSION_ID_PARAM, id).log();
+                    lastAccessUpdated.add(id);
+                }
+            }
         }
     }
 
@@ -196,7 +278,7 @@ public class SessionsService extends TimerTask {
 
 
     /**
-     * Updates the last access time and saves the session to disk.
+     * Updates the last access time, which is saved to disk on the next flush.
      *
      * @param session The session to update.
      * @throws IOException If a filesystem error occurs.
@@ -204,7 +286,7 @@ public class SessionsService extends TimerTask {
     public void updateLastAccess(Session session) throws IOException {
         if (session != null) {
             session.setLastAccess(new Date());
-            sessionsStore.write(session);
+            lastAccessUpdated.add(session.getId());
         }
     }
 
@@ -227,14 +309,14 @@ public class SessionsService extends TimerTask {
     }
 
     /**
-     * Reads the session with the given ID from disk.
+     * Reads the session with the given ID without updating its last access time.
      *
      * @param id The ID to be read.
-     * @return The session, or
+     * @return The session, or null if there is no session with the ID.
      * @throws IOException
      */
     public Session read(String id) throws IOException {
-        return sessionsStore.read(sessionPath(id));
+        return StringUtils.isBlank(id) ? null : sessions.get(id);
     }
 
     public Date getExpiryDate(Session session) {
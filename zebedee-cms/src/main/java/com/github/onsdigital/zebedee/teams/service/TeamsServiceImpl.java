@@ -6,6 +6,7 @@ import com.github.onsdigital.zebedee.exceptions.ForbiddenException;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.UnauthorizedException;
 import com.github.onsdigital.zebedee.permissions.service.PermissionsService;
+import com.github.onsdigital.zebedee.permissions.store.PermissionsDataVersion;
 import com.github.onsdigital.zebedee.service.ServiceSupplier;
 import com.github.onsdigital.zebedee.session.model.Session;
 import com.github.onsdigital.zebedee.teams.model.Team;
@@ -120,6 +121,7 @@ public class TeamsServiceImpl implements TeamsService {
             teamsStore.save(team);
             return team;
         } finally {
+            PermissionsDataVersion.TEAMS.increment();
             teamLock.writeLock().unlock();
         }
     }
@@ -127,7 +129,9 @@ public class TeamsServiceImpl implements TeamsService {
     @Override
     public void deleteTeam(Team delete, Session session) throws IOException, UnauthorizedException, NotFoundException, BadRequestException, ForbiddenException {
         validateSessionAndPermissions(session);
-        if (!teamsStore.deleteTeam(delete)) {
+        boolean deleted = teamsStore.deleteTeam(delete);
+        PermissionsDataVersion.TEAMS.increment();
+        if (!deleted) {
             logDebug("Team could not be deleted").addParameter("teamName", delete.getName()).log();
             throw new IOException("Team " + delete.getName() + " could not be deleted.");
         }
@@ -178,6 +182,7 @@ public class TeamsServiceImpl implements TeamsService {
             try {
                 teamsStore.save(updateTask.apply(target));
             } finally {
+                PermissionsDataVersion.TEAMS.increment();
                 teamLock.writeLock().unlock();
             }
         }
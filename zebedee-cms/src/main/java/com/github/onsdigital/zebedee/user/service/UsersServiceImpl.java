@@ -24,7 +24,10 @@ import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logDebug;
@@ -39,7 +42,10 @@ import static java.text.MessageFormat.format;
  * updates before
  * writing the user back to the File system. In such cases the version of the user version written first would be
  * overwridden by subsequent updates - leading to data missing from user.<br/> The obvious performance implications
- * are outweighed by the correctness of data. The long term plan is to use a database.
+ * are outweighed by the correctness of data. The long term plan is to use a database.<br/> Adding and removing
+ * keyring keys only takes the lock for the user being updated (along with the shared side of a read/write lock that
+ * every other modification takes exclusively), so the keyrings of different users can be updated concurrently when a
+ * collection key is distributed.
  */
 public class UsersServiceImpl implements UsersService {
 
@@ -49,7 +55,9 @@ public class UsersServiceImpl implements UsersService {
 
     private static UsersService INSTANCE = null;
 
-    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantReadWriteLock usersLock = new ReentrantReadWriteLock();
+    private final Lock lock = usersLock.writeLock();
+    private final Map<String, Lock> userLocks = new ConcurrentHashMap<>();
 
     // private Path users;
     private PermissionsService permissionsService;
@@ -102,14 +110,14 @@ public class UsersServiceImpl implements UsersService {
 
     @Override
     public User addKeyToKeyring(String email, String keyIdentifier, SecretKey key) throws IOException {
-        lock.lock();
+        Lock userLock = lockUser(email);
         try {
             User user = userStore.get(email);
             user.keyring().put(keyIdentifier, key);
             userStore.save(user);
             return user;
         } finally {
-            lock.unlock();
+            unlockUser(userLock);
         }
     }
 
@@ -294,14 +302,14 @@ public class UsersServiceImpl implements UsersService {
     @Override
     public User removeKeyFromKeyring(String email, String keyIdentifier) throws IOException {
         // TODO MIGHT WANT TO CONSIDER HOW WE MIGHT ROLLBACK IS THE SAVE CALL FAILS.
-        lock.lock();
+        Lock userLock = lockUser(email);
         try {
             User user = userStore.get(email);
             user.keyring().remove(keyIdentifier);
             userStore.save(user);
             return user;
         } finally {
-            lock.unlock();
+            unlockUser(userLock);
         }
     }
 
@@ -459,6 +467,21 @@ public class UsersServiceImpl implements UsersService {
         }
     }
 
+    /**
+     * Lock a single user for a keyring update, waiting for any modification holding the exclusive lock to finish.
+     */
+    private Lock lockUser(String email) {
+        usersLock.readLock().lock();
+        Lock userLock = userLocks.computeIfAbsent(normalise(email), key -> new ReentrantLock());
+        userLock.lock();
+        return userLock;
+    }
+
+    private void unlockUser(Lock userLock) {
+        userLock.unlock();
+        usersLock.readLock().unlock();
+    }
+
     private String normalise(String email) {
         return StringUtils.lowerCase(StringUtils.trim(email));
     }
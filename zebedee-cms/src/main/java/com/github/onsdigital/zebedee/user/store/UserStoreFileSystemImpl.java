@@ -3,6 +3,7 @@ package com.github.onsdigital.zebedee.user.store;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.UnauthorizedException;
 import com.github.onsdigital.zebedee.model.PathUtils;
+import com.github.onsdigital.zebedee.permissions.store.PermissionsDataVersion;
 import com.github.onsdigital.zebedee.user.model.User;
 import com.github.onsdigital.zebedee.user.model.UserList;
 import com.github.onsdigital.zebedee.user.model.UserListCollector;
@@ -14,6 +15,8 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
 
 /**
@@ -27,6 +30,10 @@ public class UserStoreFileSystemImpl implements UserStore {
     private Path usersPath;
     private JSONSerialiser<User> userSerialiser;
 
+    // the permission relevant fields of each user as last saved, so saving only a keyring or password does not
+    // invalidate the permissions snapshot.
+    private final Map<String, String> savedPermissionFields = new ConcurrentHashMap<>();
+
     public UserStoreFileSystemImpl(Path usersPath) {
         this.userSerialiser = new JSONSerialiser(User.class);
         this.usersPath = usersPath;
@@ -50,7 +57,15 @@ public class UserStoreFileSystemImpl implements UserStore {
     public void save(User user) throws IOException {
         user.setEmail(normalise(user.getEmail()));
         Path userPath = userPath(user.getEmail());
-        userSerialiser.serialise(userPath, user);
+        String permissionFields = permissionFields(user);
+        try {
+            userSerialiser.serialise(userPath, user);
+        } finally {
+            String previous = savedPermissionFields.put(user.getEmail(), permissionFields);
+            if (!permissionFields.equals(previous)) {
+                PermissionsDataVersion.USERS.increment();
+            }
+        }
     }
 
     @Override
@@ -66,7 +81,18 @@ public class UserStoreFileSystemImpl implements UserStore {
 
     @Override
     public boolean delete(User user) throws IOException, UnauthorizedException, NotFoundException {
-        return Files.deleteIfExists(userPath(user.getEmail()));
+        boolean deleted = Files.deleteIfExists(userPath(user.getEmail()));
+        savedPermissionFields.remove(normalise(user.getEmail()));
+        PermissionsDataVersion.USERS.increment();
+        return deleted;
+    }
+
+    /**
+     * The fields that permission checks and collection key distribution compare users by. A user saved for the first
+     * time since start up always counts as changed.
+     */
+    private static String permissionFields(User user) {
+        return user.getName() + "|" + user.getInactive() + "|" + user.getLastAdmin() + "|" + (user.keyring() != null);
     }
 
     private Path userPath(String email) {
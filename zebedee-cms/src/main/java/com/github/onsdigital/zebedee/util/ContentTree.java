@@ -8,19 +8,26 @@ import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.reader.CollectionReader;
 import com.github.onsdigital.zebedee.service.ContentDeleteService;
 import com.github.onsdigital.zebedee.service.ServiceSupplier;
+import com.github.onsdigital.zebedee.service.content.navigation.ContentTreeIndex;
+import com.github.onsdigital.zebedee.service.content.navigation.ContentTreeNavigator;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logDebug;
 
 /**
- * Holds a cached instance of the published content tree
+ * Holds a cached instance of the published content tree, along with an index of its nodes by path. The cached tree is
+ * never changed in place: publishing replaces it with an update layer and each collection overlay copies only the
+ * nodes it changes, sharing the rest.
  */
 public class ContentTree {
 
-    private static ContentDetail publishedContentTree;
+    private static volatile ContentTreeIndex publishedContentTree;
 
     private static ContentDeleteService contentDeleteService = ContentDeleteService.getInstance();
+    private static ContentTreeNavigator contentTreeNavigator = ContentTreeNavigator.getInstance();
     private static ServiceSupplier<Zebedee> zebedeeServiceSupplier = () -> Root.zebedee;
 
     private ContentTree() {
@@ -33,15 +40,47 @@ public class ContentTree {
      * @throws IOException
      */
     public static ContentDetail get() throws IOException {
-        ContentDetail contentTree = publishedContentTree;
+        return getIndex().getRoot();
+    }
+
+    /**
+     * Gets the content tree structure for published content along with the index of its nodes. The index must not be
+     * changed, use {@link ContentTreeIndex#overlay()} to make changes to a copy.
+     *
+     * @return
+     * @throws IOException
+     */
+    public static ContentTreeIndex getIndex() throws IOException {
+        ContentTreeIndex contentTree = publishedContentTree;
         if (contentTree == null) {
             synchronized (ContentTree.class) {
+                contentTree = publishedContentTree;
                 if (contentTree == null) {
-                    publishedContentTree = zebedeeServiceSupplier.getService().getPublished().nestedDetails();
+                    contentTree = ContentTreeIndex.build(zebedeeServiceSupplier.getService().getPublished().nestedDetails());
+                    publishedContentTree = contentTree;
                 }
             }
         }
-        return publishedContentTree;
+        return contentTree;
+    }
+
+    /**
+     * Applies changes to the given published directories to the cached content tree, reading only the pages in those
+     * directories rather than rebuilding the whole tree. Does nothing if the tree has not been cached yet.
+     *
+     * @param directories the published directories that have been added, updated or deleted.
+     * @throws IOException
+     */
+    public static void update(Set<Path> directories) throws IOException {
+        synchronized (ContentTree.class) {
+            ContentTreeIndex contentTree = publishedContentTree;
+            if (contentTree != null) {
+                ContentTreeIndex updated = contentTree.update();
+                zebedeeServiceSupplier.getService().getPublished().updateNestedDetails(updated, directories);
+                publishedContentTree = updated.compact();
+            }
+        }
+        logDebug("Updated browser tree cache.").addParameter("directories", directories.size()).log();
     }
 
 
@@ -52,12 +91,12 @@ public class ContentTree {
      * @return
      */
     public static ContentDetail getOverlayed(Collection collection, CollectionReader reader) throws IOException, ZebedeeException {
-        ContentDetail publishedDetails = get().clone();
-        publishedDetails.overlayDetails(ContentDetailUtil.resolveDetails(collection.inProgress, reader.getInProgress()));
-        publishedDetails.overlayDetails(ContentDetailUtil.resolveDetails(collection.complete, reader.getComplete()));
-        publishedDetails.overlayDetails(ContentDetailUtil.resolveDetails(collection.reviewed, reader.getReviewed()));
+        ContentTreeIndex publishedDetails = getIndex().overlay();
+        contentTreeNavigator.overlayDetails(publishedDetails, ContentDetailUtil.resolveDetails(collection.inProgress, reader.getInProgress()));
+        contentTreeNavigator.overlayDetails(publishedDetails, ContentDetailUtil.resolveDetails(collection.complete, reader.getComplete()));
+        contentTreeNavigator.overlayDetails(publishedDetails, ContentDetailUtil.resolveDetails(collection.reviewed, reader.getReviewed()));
         contentDeleteService.overlayDeletedNodesInBrowseTree(publishedDetails);
-        return publishedDetails;
+        return publishedDetails.getRoot();
     }
 
     public static void dropCache() {
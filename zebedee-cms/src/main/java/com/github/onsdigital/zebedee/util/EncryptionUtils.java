@@ -1,20 +1,45 @@
 package com.github.onsdigital.zebedee.util;
 
 import com.github.davidcarboni.cryptolite.Crypto;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * Created by thomasridd on 25/11/2015.
+ * <p>
+ * Encrypted files are written with a header ahead of the encrypted data holding the length of the plain content, so
+ * the length can be read without decrypting the file. Files written before the header was added have none and are
+ * still decrypted.
  */
 public class EncryptionUtils {
 
+    private static final byte[] LENGTH_HEADER = "ZBDLEN01".getBytes(StandardCharsets.US_ASCII);
+    private static final int LENGTH_HEADER_SIZE = LENGTH_HEADER.length + Long.BYTES;
+
+    /**
+     * Length written in the header until the file is closed, and returned when a file has no header.
+     */
+    public static final long UNKNOWN_LENGTH = -1;
+
     /**
      * Get an output stream to write with encryption
      *
@@ -36,7 +61,38 @@ public class EncryptionUtils {
      * @throws IOException
      */
     public static OutputStream encryptionOutputStream(Path path, SecretKey key) throws IOException {
-        return encryptionOutputStream(FileUtils.openOutputStream(path.toFile()), key);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING);
+        try {
+            channel.write(lengthHeader(UNKNOWN_LENGTH));
+            OutputStream file = new CloseShieldOutputStream(Channels.newOutputStream(channel));
+            return new LengthHeaderOutputStream(encryptionOutputStream(file, key), channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the length of the plain content of an encrypted file without decrypting it.
+     *
+     * @param path a path to a file
+     * @return the length, or {@link #UNKNOWN_LENGTH} if the file has no length header or is still being written.
+     * @throws IOException
+     */
+    public static long getPlainLength(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            ByteBuffer header = ByteBuffer.allocate(LENGTH_HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read until the header is full or the file ends
+            }
+            if (header.hasRemaining() || !hasLengthHeader(header.array())) {
+                return UNKNOWN_LENGTH;
+            }
+            return header.getLong(LENGTH_HEADER.length);
+        }
     }
 
 
@@ -62,6 +118,54 @@ public class EncryptionUtils {
      * @throws IOException
      */
     public static InputStream encryptionInputStream(Path path, SecretKey key) throws IOException {
-        return encryptionInputStream(Files.newInputStream(path), key);
+        PushbackInputStream inputStream = new PushbackInputStream(Files.newInputStream(path), LENGTH_HEADER_SIZE);
+        try {
+            byte[] header = new byte[LENGTH_HEADER_SIZE];
+            int read = IOUtils.read(inputStream, header);
+            if (read < LENGTH_HEADER_SIZE || !hasLengthHeader(header)) {
+                inputStream.unread(header, 0, read);
+            }
+            return encryptionInputStream(inputStream, key);
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    private static boolean hasLengthHeader(byte[] header) {
+        return Arrays.equals(LENGTH_HEADER, Arrays.copyOf(header, LENGTH_HEADER.length));
+    }
+
+    private static ByteBuffer lengthHeader(long length) {
+        ByteBuffer header = ByteBuffer.allocate(LENGTH_HEADER_SIZE);
+        header.put(LENGTH_HEADER).putLong(length);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * Counts plain content as it is encrypted and writes the count into the length header when closed.
+     */
+    private static class LengthHeaderOutputStream extends CountingOutputStream {
+
+        private final FileChannel channel;
+        private boolean closed;
+
+        LengthHeaderOutputStream(OutputStream encrypted, FileChannel channel) {
+            super(encrypted);
+            this.channel = channel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (FileChannel file = channel) {
+                super.close();
+                file.write(lengthHeader(getByteCount()), 0);
+            }
+        }
     }
 }
@@ -13,9 +13,17 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.file.Paths;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -26,6 +34,11 @@ import java.util.zip.ZipOutputStream;
  */
 public class ZipUtils {
 
+    /**
+     * How many entries are read ahead of the entry being written when reading on a pool.
+     */
+    private static final int READ_AHEAD = 32;
+
     /**
      * Unzip the given file into the given destination.
      *
@@ -40,7 +53,10 @@ public class ZipUtils {
     public static void unzip(final InputStream inputStream, final String destination) throws IOException {
         try (ZipInputStream zipInputStream = new ZipInputStream(inputStream)) {
             ZipEntry zipEntry;
-            while ((zipEntry = zipInputStream.getNextEntry()) != null && !zipEntry.isDirectory()) {
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                if (zipEntry.isDirectory()) {
+                    continue;
+                }
                 String name = zipEntry.getName();
                 File file = new File(destination + File.separator + name);
                 File parent = file.getParentFile();
@@ -70,7 +86,11 @@ public class ZipUtils {
 
             List<String> unzipped = new ArrayList<>();
 
-            while ((zipEntry = zipInputStream.getNextEntry()) != null && !zipEntry.isDirectory()) {
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                if (zipEntry.isDirectory()) {
+                    continue;
+                }
+
                 String name = zipEntry.getName();
                 String fileUri = uri + "/" + name;
                 contentWriter.write(zipInputStream, fileUri);
@@ -94,28 +114,43 @@ public class ZipUtils {
     }
 
     public static int zipFolder(final File folder, final OutputStream outputStream, Function<String, Boolean>... filters) throws IOException {
-        try (ZipOutputStream zipOutputStream = getZipOutputStream(outputStream)) {
-            return zipFolder(folder, zipOutputStream, folder.getPath().length() + 1, filters);
-        }
+        return zipFolder(folder, outputStream, new HashMap<>(), filters);
     }
 
-    private static int zipFolder(final File folder, final ZipOutputStream zipOutputStream, final int prefixLength, Function<String, Boolean>... filters)
-            throws IOException {
-        int filesAdded = 0;
-        for (final File file : folder.listFiles()) {
-            if (file.isFile() && !shouldBeFiltered(filters, file.toString())) {
-                final ZipEntry zipEntry = new ZipEntry(file.getPath().substring(prefixLength));
-                zipOutputStream.putNextEntry(zipEntry);
-                try (FileInputStream inputStream = new FileInputStream(file)) {
-                    IOUtils.copy(inputStream, zipOutputStream);
-                }
-                zipOutputStream.closeEntry();
-                filesAdded++;
-            } else if (file.isDirectory()) {
-                filesAdded += zipFolder(file, zipOutputStream, prefixLength, filters);
-            }
+    /**
+     * Zip the given folder into the given output stream, recording the CRC of each entry as it is written.
+     *
+     * @param folder
+     * @param outputStream
+     * @param entryCrcs    populated with the CRC of each entry added, by entry name.
+     * @param filters
+     * @return the number of files added.
+     * @throws IOException
+     */
+    public static int zipFolder(final File folder, final OutputStream outputStream, final Map<String, Long> entryCrcs, Function<String, Boolean>... filters) throws IOException {
+        return zipFolder(folder, outputStream, entryCrcs, null, filters);
+    }
+
+    /**
+     * Zip the given folder into the given output stream, reading the files ahead of the entries being written on the
+     * given pool.
+     *
+     * @param entryCrcs populated with the CRC of each entry added, by entry name.
+     * @param readers   pool to read files on, or null to read each file as its entry is written.
+     * @return the number of files added.
+     */
+    public static int zipFolder(final File folder, final OutputStream outputStream, final Map<String, Long> entryCrcs,
+                                final ExecutorService readers, Function<String, Boolean>... filters) throws IOException {
+        int prefixLength = folder.getPath().length() + 1;
+        Map<String, EntryReader> entries = new LinkedHashMap<>();
+        for (File file : listFiles(folder, filters)) {
+            entries.put(file.getPath().substring(prefixLength), () -> Files.readAllBytes(file.toPath()));
+        }
+        try (ZipOutputStream zipOutputStream = getZipOutputStream(outputStream)) {
+            return writeEntries(entries, zipOutputStream, entryCrcs, readers);
+        } catch (ZebedeeException e) {
+            throw new IOException(e);
         }
-        return filesAdded;
     }
 
     /**
@@ -146,42 +181,143 @@ public class ZipUtils {
             String folderPath,
             String saveUri,
             Function<String, Boolean>... filters) throws IOException, ZebedeeException {
-        try (ZipOutputStream zipOutputStream = getZipOutputStream(contentWriter.getOutputStream(saveUri))) {
-            return zipFolderWithEncryption(contentReader, folderPath, zipOutputStream, folderPath.length() + 1, filters);
-        } catch (BadRequestException e) {
-            e.printStackTrace();
-        }
-        return 0;
+        return zipFolderWithEncryption(contentReader, contentWriter, folderPath, saveUri, new HashMap<>(), filters);
     }
 
-    private static int zipFolderWithEncryption(
+    /**
+     * Zip the given folder of encrypted content into an encrypted zip file, recording the CRC of each entry as it is
+     * written.
+     *
+     * @param contentReader
+     * @param contentWriter
+     * @param folderPath
+     * @param saveUri
+     * @param entryCrcs     populated with the CRC of each entry added, by entry name.
+     * @param filters
+     * @return the number of files added.
+     * @throws IOException
+     * @throws ZebedeeException
+     */
+    public static int zipFolderWithEncryption(
             final ContentReader contentReader,
-            String folderUri,
-            final ZipOutputStream zipOutputStream,
-            final int prefixLength,
-            Function<String, Boolean>... filters)
-            throws IOException, ZebedeeException {
-
-        File folder = Paths.get(folderUri).toFile();
-        int filesAdded = 0;
+            final ContentWriter contentWriter,
+            String folderPath,
+            String saveUri,
+            final Map<String, Long> entryCrcs,
+            Function<String, Boolean>... filters) throws IOException, ZebedeeException {
+        return zipFolderWithEncryption(contentReader, contentWriter, folderPath, saveUri, entryCrcs, null, filters);
+    }
 
-        for (final File file : folder.listFiles()) {
+    /**
+     * Zip the given folder of encrypted content into an encrypted zip file, reading and decrypting the files ahead of
+     * the entries being written on the given pool.
+     *
+     * @param entryCrcs populated with the CRC of each entry added, by entry name.
+     * @param readers   pool to read files on, or null to read each file as its entry is written.
+     * @return the number of files added.
+     */
+    public static int zipFolderWithEncryption(
+            final ContentReader contentReader,
+            final ContentWriter contentWriter,
+            String folderPath,
+            String saveUri,
+            final Map<String, Long> entryCrcs,
+            final ExecutorService readers,
+            Function<String, Boolean>... filters) throws IOException, ZebedeeException {
+        int prefixLength = folderPath.length() + 1;
+        Map<String, EntryReader> entries = new LinkedHashMap<>();
+        for (File file : listFiles(new File(folderPath), filters)) {
             String fileUri = contentReader.getRootFolder().relativize(file.toPath()).toString();
-            if (file.isFile() && !shouldBeFiltered(filters, file.toString())) {
-                final ZipEntry zipEntry = new ZipEntry(file.getPath().substring(prefixLength));
-                zipOutputStream.putNextEntry(zipEntry);
+            entries.put(file.getPath().substring(prefixLength), () -> {
                 try (
                         Resource resource = contentReader.getResource(fileUri);
                         InputStream inputStream = resource.getData()
                 ) {
-                    IOUtils.copy(inputStream, zipOutputStream);
+                    return IOUtils.toByteArray(inputStream);
                 }
-                zipOutputStream.closeEntry();
-                filesAdded++;
+            });
+        }
+        try (ZipOutputStream zipOutputStream = getZipOutputStream(contentWriter.getOutputStream(saveUri))) {
+            return writeEntries(entries, zipOutputStream, entryCrcs, readers);
+        } catch (BadRequestException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * List the files under the given folder that are not filtered, in the order they are zipped.
+     */
+    private static List<File> listFiles(File folder, Function<String, Boolean>[] filters) {
+        List<File> files = new ArrayList<>();
+        for (File file : folder.listFiles()) {
+            if (file.isFile() && !shouldBeFiltered(filters, file.toString())) {
+                files.add(file);
             } else if (file.isDirectory()) {
-                filesAdded += zipFolderWithEncryption(contentReader, contentReader.getRootFolder().resolve(fileUri).toString(), zipOutputStream, prefixLength);
+                files.addAll(listFiles(file, filters));
             }
         }
-        return filesAdded;
+        return files;
+    }
+
+    /**
+     * Write each entry in order. If a pool is given up to {@link #READ_AHEAD} entries are read on it ahead of the entry
+     * being written, so reading and decrypting files overlaps with compressing them.
+     */
+    private static int writeEntries(Map<String, EntryReader> entries, ZipOutputStream zipOutputStream,
+                                    Map<String, Long> entryCrcs, ExecutorService readers)
+            throws IOException, ZebedeeException {
+        List<String> names = new ArrayList<>(entries.keySet());
+        Deque<Future<byte[]>> reads = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (String name : names) {
+                byte[] data;
+                if (readers == null) {
+                    data = entries.get(name).read();
+                } else {
+                    while (next < names.size() && reads.size() < READ_AHEAD) {
+                        EntryReader reader = entries.get(names.get(next++));
+                        reads.add(readers.submit(reader::read));
+                    }
+                    data = read(reads.poll());
+                }
+                ZipEntry zipEntry = new ZipEntry(name);
+                zipOutputStream.putNextEntry(zipEntry);
+                zipOutputStream.write(data);
+                zipOutputStream.closeEntry();
+                entryCrcs.put(zipEntry.getName(), zipEntry.getCrc());
+            }
+        } finally {
+            reads.forEach(read -> read.cancel(true));
+        }
+        return names.size();
+    }
+
+    private static byte[] read(Future<byte[]> read) throws IOException, ZebedeeException {
+        try {
+            return read.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted reading zip entry", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ZebedeeException) {
+                throw (ZebedeeException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error reading zip entry", cause);
+        }
+    }
+
+    /**
+     * Reads the content of a zip entry.
+     */
+    @FunctionalInterface
+    private interface EntryReader {
+        byte[] read() throws IOException, ZebedeeException;
     }
 }
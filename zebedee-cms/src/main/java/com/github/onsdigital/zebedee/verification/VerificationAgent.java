@@ -19,13 +19,22 @@ import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logError;
 import static com.github.onsdigital.zebedee.logging.ZebedeeLogBuilder.logInfo;
@@ -34,26 +43,48 @@ import static java.util.Arrays.asList;
 /**
  * Created by bren on 16/11/15.
  * Verification agent works after each publish to connect to website ( or another proxy ) to verify the content by checking content's hash
+ * <p>
+ * The uris of a collection are checked in batches, each batch checking its uris at the same time on a pool sized to
+ * the pooled connections to the website. Uris that are not yet verified are retried together in a new batch, scheduled
+ * with a delay that doubles on each retry, so no thread waits between retries. Batches wait in a bounded queue, and the
+ * number of uris still being verified, verified, failed and retried is counted and logged as each collection finishes
+ * verification.
  */
 public class VerificationAgent {
 
+    private static final int BATCH_SIZE = 50;
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int MAX_CONNECTIONS = 100;
+
     private PooledHttpClient verificationProxyClient;
-    private ExecutorService pool;
+    private ThreadPoolExecutor pool;
+    private ExecutorService checkPool;
+    private ScheduledExecutorService scheduler;
     private Zebedee zebedee;
 
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
     public VerificationAgent(Zebedee zebedee) {
         this.zebedee = zebedee;
         String defaultVerificationUrl = Configuration.getDefaultVerificationUrl();
         logInfo("Initializing verification agent").addParameter("url", defaultVerificationUrl).log();
         ClientConfiguration clientConfiguration = new ClientConfiguration();
-        clientConfiguration.setMaxTotalConnection(100);
+        clientConfiguration.setMaxTotalConnection(MAX_CONNECTIONS);
         clientConfiguration.setDisableRedirectHandling(true);
         verificationProxyClient = new PooledHttpClient(defaultVerificationUrl, clientConfiguration);
-        pool = Executors.newFixedThreadPool(100);
+        int threads = Configuration.getVerificationThreads();
+        pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+        checkPool = Executors.newFixedThreadPool(MAX_CONNECTIONS);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
     }
 
     public void submitForVerification(PublishedCollection publishedCollection, Path jsonPath, CollectionReader reader) {
         logInfo("Submitting collection for external verification").collectionName(publishedCollection.getName()).log();
+        List<UriInfo> batch = new ArrayList<>();
         List<Result> publishResults = publishedCollection.publishResults;
         for (Result publishResult : publishResults) {
             Set<UriInfo> uriInfos = publishResult.transaction.uriInfos;
@@ -61,89 +92,176 @@ public class VerificationAgent {
                 setHash(uriInfo, reader);
                 uriInfo.verificationStatus = UriInfo.VERIFYING;
                 publishedCollection.incrementVerifyInProgressCount();
-                submit(publishedCollection, jsonPath, uriInfo);
+                outstanding.incrementAndGet();
+                batch.add(uriInfo);
+                if (batch.size() == BATCH_SIZE) {
+                    submit(new VerifyTask(publishedCollection, jsonPath, batch));
+                    batch = new ArrayList<>();
+                }
             }
         }
+        if (!batch.isEmpty()) {
+            submit(new VerifyTask(publishedCollection, jsonPath, batch));
+        }
         save(publishedCollection, jsonPath);
     }
 
-    private void submit(PublishedCollection publishedCollection, Path jsoPath, UriInfo uriInfo) {
-        pool.submit(new VerifyTask(publishedCollection, jsoPath, uriInfo));
+    /**
+     * @return how many uris are still being verified.
+     */
+    public int getOutstandingCount() {
+        return outstanding.get();
     }
 
-    //Resubmits uri to be verified with configured delay if failed
-    private void reSubmit(final PublishedCollection publishedCollection, final Path jsonPath, final UriInfo uriInfo) {
-        ((Runnable) () -> {
-            try {
-                Thread.sleep(Configuration.getVerifyRetrtyDelay());
-            } catch (InterruptedException e) {
-                logError(e, "Retry delay failed, continuing with verification retry").log();
-            }
-            uriInfo.verificationStatus = UriInfo.VERIFY_RETRYING;
-            submit(publishedCollection, jsonPath, uriInfo);
-        }).run();
+    /**
+     * @return how many batches of uris are waiting to be verified, not counting those waiting to be retried.
+     */
+    public int getQueuedBatchCount() {
+        return pool.getQueue().size();
+    }
+
+    public long getVerifiedCount() {
+        return verified.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    private void submit(VerifyTask task) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the queue is full, so try again later without counting it as a retry.
+            logInfo("Verification queue is full, delaying verification").addParameter("uris", task.uriInfos.size())
+                    .log();
+            schedule(task, Configuration.getVerifyRetrtyDelay());
+        }
     }
 
-    private class VerifyTask implements Callable<Object> {
-        private final UriInfo uriInfo;
+    //Resubmits uris to be verified once the delay has passed
+    private void schedule(VerifyTask task, long delay) {
+        scheduler.schedule(() -> submit(task), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the retry delay, doubled for each retry already made up to the max retry delay.
+     */
+    static long retryDelay(int retryCount) {
+        long delay = Configuration.getVerifyRetrtyDelay();
+        for (int i = 1; i < retryCount && delay < Configuration.getVerifyMaxRetrtyDelay(); i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, Configuration.getVerifyMaxRetrtyDelay());
+    }
+
+    private class VerifyTask implements Runnable {
+        private final List<UriInfo> uriInfos;
         private final PublishedCollection publishedCollection;
         private Path jsonPath;
 
-        VerifyTask(PublishedCollection publishedCollection, Path jsonPath, UriInfo uriInfo) {
-            this.uriInfo = uriInfo;
+        VerifyTask(PublishedCollection publishedCollection, Path jsonPath, List<UriInfo> uriInfos) {
+            this.uriInfos = uriInfos;
             this.publishedCollection = publishedCollection;
             this.jsonPath = jsonPath;
         }
 
-        private void verify() {
-            try {
+        private void verify() throws InterruptedException {
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (UriInfo uriInfo : uriInfos) {
                 uriInfo.verificationRetryCount++;
-                if (isPublished(uriInfo)) {
-                    onVerified();
-                } else {
-                    onVerifyFailed("Not yet available");
+                checks.add(checkPool.submit(() -> isPublished(uriInfo)));
+            }
+
+            List<UriInfo> retry = new ArrayList<>();
+            for (int i = 0; i < uriInfos.size(); i++) {
+                UriInfo uriInfo = uriInfos.get(i);
+                String errorMessage;
+                try {
+                    if (checks.get(i).get()) {
+                        onVerified(uriInfo);
+                        continue;
+                    }
+                    errorMessage = "Not yet available";
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof HttpResponseException) {
+                        errorMessage = "Verification agent error code:" + ((HttpResponseException) cause).getStatusCode();
+                    } else {
+                        // an unexpected error verifying one uri fails that uri only, the rest of the batch carries on.
+                        errorMessage = "Failed verifying " + cause.getMessage();
+                        logError(cause, "Failed verifying").addParameter("uri", uriInfo.uri).log();
+                    }
+                }
+                if (!onVerifyFailed(uriInfo, errorMessage)) {
+                    retry.add(uriInfo);
                 }
-            } catch (HttpResponseException e) {
-                onVerifyFailed("Verification agent error code:" + e.getStatusCode());
-            } catch (IOException e) {
-                String errorMessage = "Failed verifying " + e.getMessage();
-                logError(e, "Failed verifying").addParameter("uri", uriInfo.uri).log();
-                onVerifyFailed(errorMessage);
             }
 
+            if (!retry.isEmpty()) {
+                retried.addAndGet(retry.size());
+                schedule(new VerifyTask(publishedCollection, jsonPath, retry),
+                        retryDelay(retry.get(0).verificationRetryCount));
+            }
+            saveIfDone();
         }
 
-        private void onVerified() {
+        private void onVerified(UriInfo uriInfo) {
             logInfo("Succesfully verified").addParameter("uri", uriInfo.uri).log();
             publishedCollection.incrementVerified();
             publishedCollection.decrementVerifyInProgressCount();
             uriInfo.verificationStatus = UriInfo.VERIFIED;
             uriInfo.verificationEnd = DateConverter.toString(new Date());
-            saveIfDone();
+            outstanding.decrementAndGet();
+            verified.incrementAndGet();
         }
 
-        private void onVerifyFailed(String errorMessage) {
+        /**
+         * @return true if the uri has failed verification, false if it should be retried.
+         */
+        private boolean onVerifyFailed(UriInfo uriInfo, String errorMessage) {
             if (Configuration.getVerifyRetrtyCount() == uriInfo.verificationRetryCount) {
                 uriInfo.verificationStatus = UriInfo.VERIFY_FAILED;
                 publishedCollection.incrementVerifyFailed();
                 publishedCollection.decrementVerifyInProgressCount();
                 uriInfo.verifyMessage = errorMessage;
-            } else {
-                reSubmit(publishedCollection, jsonPath, uriInfo);
+                outstanding.decrementAndGet();
+                failed.incrementAndGet();
+                return true;
             }
-            saveIfDone();
+            uriInfo.verificationStatus = UriInfo.VERIFY_RETRYING;
+            return false;
         }
 
         private void saveIfDone() {
             if (publishedCollection.verifyInprogressCount == 0) {
                 save(publishedCollection, jsonPath);
+                logInfo("Collection verification finished").collectionName(publishedCollection.getName())
+                        .addParameter("verified", publishedCollection.verifiedCount)
+                        .addParameter("failed", publishedCollection.verifyFailedCount)
+                        .addParameter("agentOutstanding", getOutstandingCount())
+                        .addParameter("agentQueuedBatches", getQueuedBatchCount())
+                        .addParameter("agentVerified", getVerifiedCount())
+                        .addParameter("agentFailed", getFailedCount())
+                        .addParameter("agentRetried", getRetriedCount())
+                        .log();
             }
         }
 
         @Override
-        public Object call() throws Exception {
-            verify();
-            return null;
+        public void run() {
+            try {
+                verify();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logError(e, "Unexpected error verifying published uris")
+                        .collectionName(publishedCollection.getName()).log();
+            }
         }
     }
 
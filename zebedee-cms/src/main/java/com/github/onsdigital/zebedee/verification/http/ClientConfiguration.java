@@ -7,6 +7,9 @@ public class ClientConfiguration {
 
     private Integer maxTotalConnection;
     private boolean disableRedirectHandling;
+    private Integer connectTimeout;
+    private Integer socketTimeout;
+    private Integer connectionRequestTimeout;
 
     public ClientConfiguration() {
     }
@@ -26,4 +29,37 @@ public class ClientConfiguration {
     public boolean isDisableRedirectHandling() {
         return disableRedirectHandling;
     }
+
+    /**
+     * @param connectTimeout timeout in milliseconds until a connection is established
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param socketTimeout timeout in milliseconds waiting for data
+     */
+    public void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public Integer getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * @param connectionRequestTimeout timeout in milliseconds waiting for a connection from the pool
+     */
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public Integer getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
 }
@@ -6,6 +6,7 @@ import org.apache.http.NameValuePair;
 import org.apache.http.StatusLine;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -65,6 +66,17 @@ public class PooledHttpClient {
         if (configuration.isDisableRedirectHandling()) {
             customClientBuilder.disableRedirectHandling();
         }
+        RequestConfig.Builder requestConfig = RequestConfig.custom();
+        if (configuration.getConnectTimeout() != null) {
+            requestConfig.setConnectTimeout(configuration.getConnectTimeout());
+        }
+        if (configuration.getSocketTimeout() != null) {
+            requestConfig.setSocketTimeout(configuration.getSocketTimeout());
+        }
+        if (configuration.getConnectionRequestTimeout() != null) {
+            requestConfig.setConnectionRequestTimeout(configuration.getConnectionRequestTimeout());
+        }
+        customClientBuilder.setDefaultRequestConfig(requestConfig.build());
     }
 
     private URI resolveHostUri(String host) {
@@ -146,6 +158,14 @@ public class PooledHttpClient {
         }
     }
 
+    /**
+     * @return underlying pooled client, for callers building their own requests. Must not be closed by callers, use
+     * {@link #shutdown()}
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
     public void shutdown() throws IOException {
         logDebug("Shutting down connection pool").addParameter("host", HOST).log();
         httpClient.close();
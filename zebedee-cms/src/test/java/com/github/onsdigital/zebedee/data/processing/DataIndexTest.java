@@ -1,5 +1,6 @@
 package com.github.onsdigital.zebedee.data.processing;
 
+import com.github.davidcarboni.cryptolite.Random;
 import com.github.onsdigital.zebedee.Builder;
 import com.github.onsdigital.zebedee.Zebedee;
 import com.github.onsdigital.zebedee.ZebedeeTestBaseFixture;
@@ -15,7 +16,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -68,4 +73,65 @@ public class DataIndexTest extends ZebedeeTestBaseFixture {
         assertTrue(dataIndex.cdids().size() > 0);
     }
 
+    @Test
+    public void dataIndex_givenSavedIndex_loadsIndexWithoutWaiting() throws IOException, InterruptedException, BadRequestException {
+        // Given
+        // a data index saved to a file
+        Path indexFile = Files.createTempDirectory(Random.id()).resolve(Zebedee.DATA_INDEX);
+        DataIndex built = new DataIndex(publishedReader, indexFile);
+        built.pauseUntilComplete(60);
+
+        // When
+        // we set up another DataIndex from the file
+        DataIndex loaded = new DataIndex(publishedReader, indexFile);
+
+        // Then
+        // the index is ready straight away with the same entries
+        assertTrue(Files.exists(indexFile));
+        assertTrue(loaded.isIndexBuilt());
+        assertEquals(built.cdids(), loaded.cdids());
+        for (String cdid : built.cdids()) {
+            assertEquals(built.getUriForCdid(cdid), loaded.getUriForCdid(cdid));
+        }
+    }
+
+    @Test
+    public void dataIndex_givenStaleEntry_dropsItOnReindex() throws IOException, InterruptedException, BadRequestException {
+        // Given
+        // a data index with an entry for a timeseries that is no longer published
+        Path indexFile = Files.createTempDirectory(Random.id()).resolve(Zebedee.DATA_INDEX);
+        DataIndex dataIndex = new DataIndex(publishedReader, indexFile);
+        dataIndex.pauseUntilComplete(60);
+        int published = dataIndex.cdids().size();
+        dataIndex.setUriForCdid("stale", "/economy/timeseries/stale");
+
+        // When
+        // the index is built again
+        dataIndex.reindex();
+        dataIndex.pauseUntilComplete(60);
+
+        // Then
+        // the stale entry is dropped from the index and the saved file
+        assertNull(dataIndex.getUriForCdid("stale"));
+        assertEquals(published, dataIndex.cdids().size());
+        assertNull(new DataIndex(publishedReader, indexFile).getUriForCdid("stale"));
+    }
+
+    @Test
+    public void dataIndex_givenCorruptIndexFile_rebuildsIndex() throws IOException, InterruptedException, BadRequestException {
+        // Given
+        // an index file that cannot be read
+        Path indexFile = Files.createTempDirectory(Random.id()).resolve(Zebedee.DATA_INDEX);
+        Files.write(indexFile, "not an index".getBytes());
+
+        // When
+        // we set up a DataIndex from the file
+        DataIndex dataIndex = new DataIndex(publishedReader, indexFile);
+        dataIndex.pauseUntilComplete(60);
+
+        // Then
+        // the index is built from the published content
+        assertTrue(dataIndex.cdids().size() > 0);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.github.onsdigital.zebedee.data.processing;
+
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeriesValue;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
+import com.github.onsdigital.zebedee.data.framework.DataPagesGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures merging a dataset upload of 50 year timeseries with yearly, quarterly and monthly values into the current
+ * timeseries, as done for every CDID when a dataset is approved.
+ * <p>
+ * Run from the zebedee-cms module root after test sources are compiled (mvn test-compile):
+ * <pre>
+ * java -cp target/test-classes:target/classes:target/dependency/* com.github.onsdigital.zebedee.data.processing.DataMergeBenchmark
+ * </pre>
+ * The legacy benchmark clones through json and scans the current values for each update the way DataMerge used to,
+ * to compare against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataMergeBenchmark {
+
+    private static final int YEARS = 50;
+    private static final int FINAL_YEAR = 2016;
+
+    @Param({"100", "2000"})
+    public int cdids;
+
+    private List<TimeSeries> current;
+    private List<TimeSeries> updates;
+
+    @Setup
+    public void generateTimeseries() {
+        DataPagesGenerator generator = new DataPagesGenerator();
+        current = new ArrayList<>();
+        updates = new ArrayList<>();
+        for (int i = 0; i < cdids; i++) {
+            String cdid = "cd" + i;
+            // the update has one more year of values than the current timeseries, and a different random walk
+            current.add(generator.exampleTimeseries(cdid, "data", new Date(), true, true, true, YEARS, FINAL_YEAR - 1));
+            updates.add(generator.exampleTimeseries(cdid + "u", "data", new Date(), true, true, true, YEARS, FINAL_YEAR));
+        }
+    }
+
+    @Benchmark
+    public void merge(Blackhole blackhole) {
+        for (int i = 0; i < cdids; i++) {
+            DataMerge dataMerge = new DataMerge();
+            blackhole.consume(dataMerge.merge(current.get(i), updates.get(i), "data"));
+        }
+    }
+
+    @Benchmark
+    public void mergeLegacy(Blackhole blackhole) {
+        for (int i = 0; i < cdids; i++) {
+            blackhole.consume(legacyMerge(current.get(i), updates.get(i), "data"));
+        }
+    }
+
+    private static TimeSeries legacyMerge(TimeSeries original, TimeSeries updates, String datasetId) {
+        TimeSeries merged = ContentUtil.deserialise(ContentUtil.serialise(original), TimeSeries.class);
+        legacyMergeValues(merged, merged.years, updates.years, datasetId);
+        legacyMergeValues(merged, merged.quarters, updates.quarters, datasetId);
+        legacyMergeValues(merged, merged.months, updates.months, datasetId);
+        return merged;
+    }
+
+    private static void legacyMergeValues(TimeSeries page, Set<TimeSeriesValue> currentValues, Set<TimeSeriesValue> updateValues, String datasetId) {
+        for (TimeSeriesValue value : updateValues) {
+            TimeSeriesValue current = null;
+            for (TimeSeriesValue candidate : currentValues) {
+                if (candidate.compareTo(value) == 0) {
+                    current = candidate;
+                    break;
+                }
+            }
+
+            if (current != null) {
+                if (!current.value.equalsIgnoreCase(value.value)) {
+                    current.value = value.value;
+                    current.sourceDataset = datasetId;
+                    current.updateDate = page.getDescription().getReleaseDate();
+                }
+            } else {
+                TimeSeriesValue copy = ContentUtil.deserialise(ContentUtil.serialise(value), TimeSeriesValue.class);
+                copy.sourceDataset = datasetId;
+                copy.updateDate = page.getDescription().getReleaseDate();
+                page.add(copy);
+            }
+        }
+
+        currentValues.stream()
+                .filter(current -> !updateValues.contains(current))
+                .forEach(current -> current.value = "");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DataMergeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -126,6 +126,28 @@ public class DataMergeTest {
         assertEquals(1, dataMerge.corrections);
     }
 
+    @Test
+    public void mergeValues_overExistingTimeSeries_shouldNotChangeOriginal() throws IOException {
+        // Given a timeseries for 2000-2002 and a set of updates that corrects 2001 and adds 2003
+        TimeSeries initial = simplifyTimeSeries(generator.exampleTimeseries("cdid", "dataset"));
+        TimeSeries updates = simplifyTimeSeries(generator.exampleTimeseries("cdid", "dataset"));
+        valueForTime("2001", updates).value = "5";
+        updates.add(quickTimeSeriesValue("2003", "4"));
+
+        // When a merge is done
+        DataMerge dataMerge = new DataMerge();
+        TimeSeries merged = dataMerge.merge(initial, updates, "update");
+
+        // Then the merged timeseries has the updates but the original values are unchanged
+        assertEquals(1, dataMerge.corrections);
+        assertEquals(1, dataMerge.insertions);
+        assertEquals("5", valueForTime("2001", merged).value);
+        assertEquals("update", valueForTime("2001", merged).sourceDataset);
+        assertEquals(3, initial.years.size());
+        assertEquals("2", valueForTime("2001", initial).value);
+        assertEquals(null, valueForTime("2001", initial).sourceDataset);
+    }
+
 
     private void assertTimeSeriesPointsMatch(TreeSet<TimeSeriesValue> values1, TreeSet<TimeSeriesValue> values2) {
         assertEquals(values1.size(), values2.size());
@@ -1,10 +1,13 @@
 package com.github.onsdigital.zebedee.data.processing;
 
 import com.github.onsdigital.zebedee.ZebedeeTestBaseFixture;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
 import com.github.onsdigital.zebedee.data.framework.DataBuilder;
 import com.github.onsdigital.zebedee.data.framework.DataPagesGenerator;
 import com.github.onsdigital.zebedee.data.framework.DataPagesSet;
 import com.github.onsdigital.zebedee.data.importing.TimeseriesUpdateCommand;
+import com.github.onsdigital.zebedee.data.json.TimeSerieses;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
 import com.github.onsdigital.zebedee.json.CollectionDescription;
 import com.github.onsdigital.zebedee.json.CollectionType;
@@ -118,6 +121,31 @@ public class DataPublicationTestBaseFixture extends ZebedeeTestBaseFixture {
         Path idiotCheck = generateIdiotCheck(collectionReader.getReviewed());
     }
 
+    @Test
+    public void publication_givenRepeatedCdid_savesTheLastTimeseries() throws ZebedeeException, IOException, URISyntaxException {
+        // Given
+        // our data in review, with the first timeseries returned again under a new title
+        DataPublicationDetails details = unpublished.getDetails(publishedReader, collectionReader.getReviewed());
+        TimeSerieses serieses = unpublished.getTimeSerieses();
+        TimeSeries repeated = ContentUtil.deserialise(ContentUtil.serialise(serieses.get(0)), TimeSeries.class);
+        repeated.getDescription().setTitle("Repeated title");
+        serieses.add(repeated);
+
+        DataPublication publication = new DataPublication(publishedReader, collectionReader.getReviewed(), details.datasetUri);
+        publication.setDataLink(new DataLinkMock(serieses));
+
+        // When
+        // we process the publication
+        publication.process(publishedReader, collectionReader.getReviewed(), collectionWriter.getReviewed(), zebedee.getDataIndex(), updateCommands);
+
+        // Then
+        // the timeseries saved for the repeated CDID is the last one returned
+        String uri = zebedee.getDataIndex().getUriForCdid(repeated.getCdid().toLowerCase()) + "/"
+                + publication.getDetails().landingPage.getDescription().getDatasetId().toLowerCase();
+        TimeSeries saved = (TimeSeries) collectionReader.getReviewed().getContent(uri);
+        assertEquals("Repeated title", saved.getDescription().getTitle());
+    }
+
     @Test
     public void publication_givenLandingPageWithoutDatasetId_generatesFromCSDBFileName() throws IOException, ParseException, URISyntaxException, ZebedeeException {
         // Given
@@ -0,0 +1,123 @@
+package com.github.onsdigital.zebedee.model;
+
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.davidcarboni.restolino.json.Serialiser;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class CollectionRegistryTest {
+
+    private Path collectionsPath;
+    private CollectionRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+        collectionsPath = Files.createTempDirectory(Random.id());
+        registry = new CollectionRegistry(collectionsPath);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        registry.close();
+        FileUtils.deleteDirectory(collectionsPath.toFile());
+    }
+
+    @Test
+    public void entries_ShouldLoadEveryCollection() throws Exception {
+
+        // Given two collections on disk
+        write("one", "one-123");
+        write("two", "two-456");
+
+        // When the registry is listed
+        // Then both collections are registered and can be found by id
+        assertEquals(2, registry.entries().size());
+        assertEquals("one", registry.getById("ONE-123").description.getName());
+        assertEquals(collectionsPath.resolve("two"), registry.getById("two-456").path);
+    }
+
+    @Test
+    public void put_ShouldRegisterACopyOfTheSavedDescription() throws Exception {
+
+        // Given a registered collection
+        write("one", "one-123");
+        registry.entries();
+
+        // When its description is saved with a new name
+        CollectionDescription description = write("one", "one-123");
+        description.setName("renamed");
+        registry.put(collectionsPath.resolve("one"), description);
+
+        // Then a copy of the saved description is registered
+        CollectionRegistry.Entry entry = registry.getById("one-123");
+        assertEquals("renamed", entry.description.getName());
+        assertNotSame(description, entry.description);
+    }
+
+    @Test
+    public void reconcile_ShouldPickUpChangesMadeOutsideTheRegistry() throws Exception {
+
+        // Given a loaded registry
+        write("one", "one-123");
+        write("two", "two-456");
+        registry.entries();
+
+        // When a collection is changed, one is added and one is deleted outside the registry
+        CollectionDescription changed = new CollectionDescription("changed name");
+        changed.setId("two-456");
+        writeDescription("two", changed);
+        write("three", "three-789");
+        FileUtils.deleteDirectory(collectionsPath.resolve("one").toFile());
+        Files.delete(collectionsPath.resolve("one.json"));
+        registry.reconcile();
+
+        // Then the registry matches the collections on disk
+        assertEquals(2, registry.entries().size());
+        assertNull(registry.getById("one-123"));
+        assertEquals("changed name", registry.getById("two-456").description.getName());
+        assertEquals("three", registry.getById("three-789").description.getName());
+    }
+
+    @Test
+    public void getById_ShouldFindCollectionAddedOutsideTheRegistry() throws Exception {
+
+        // Given a loaded registry
+        write("one", "one-123");
+        registry.entries();
+
+        // When a collection is added without going through the registry
+        write("two", "two-456");
+
+        // Then it is found by id
+        assertEquals("two", registry.getById("two-456").description.getName());
+        assertNull(registry.getById("missing"));
+    }
+
+    private CollectionDescription write(String name, String id) throws IOException {
+        if (!Files.exists(collectionsPath.resolve(name))) {
+            Collection.CreateCollectionFolders(name, collectionsPath);
+        }
+        CollectionDescription description = new CollectionDescription(name);
+        description.setId(id);
+        writeDescription(name, description);
+        return description;
+    }
+
+    private void writeDescription(String name, CollectionDescription description) throws IOException {
+        try (OutputStream output = Files.newOutputStream(collectionsPath.resolve(name + ".json"))) {
+            Serialiser.serialise(output, description);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.onsdigital.zebedee.model;
+
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.json.ContentDetail;
+import com.github.onsdigital.zebedee.json.PendingDelete;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CollectionUriIndexTest {
+
+    private Path collectionsPath;
+    private Path one;
+    private Path two;
+    private CollectionUriIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        collectionsPath = Files.createTempDirectory(Random.id());
+        Collection.CreateCollectionFolders("one", collectionsPath);
+        Collection.CreateCollectionFolders("two", collectionsPath);
+        one = collectionsPath.resolve("one");
+        two = collectionsPath.resolve("two");
+        index = new CollectionUriIndex();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(collectionsPath.toFile());
+    }
+
+    @Test
+    public void editing_ShouldFindCollectionsWithContentAtOrUnderTheUri() throws Exception {
+
+        // Given content in two collections
+        write(one, Collection.IN_PROGRESS, "/economy/gdp/data.json");
+        write(two, Collection.REVIEWED, "/economy/inflation/data.json");
+
+        // When the content is loaded
+        index.loadContent(Arrays.asList(one, two));
+
+        // Then each uri is owned by the collections with content at or under it
+        assertEquals(new HashSet<>(Arrays.asList("one")), index.editing("/economy/gdp/data.json"));
+        assertEquals(new HashSet<>(Arrays.asList("one")), index.editing("/economy/gdp"));
+        assertEquals(new HashSet<>(Arrays.asList("one", "two")), index.editing("/economy/"));
+        assertTrue(index.editing("/economy/gdpother").isEmpty());
+    }
+
+    @Test
+    public void contentChanged_ShouldDropContentThatHasBeenDeleted() throws Exception {
+
+        // Given loaded content, and a file written after it was loaded
+        write(one, Collection.IN_PROGRESS, "/economy/gdp/data.json");
+        index.loadContent(Arrays.asList(one, two));
+        write(one, Collection.COMPLETE, "/economy/inflation/data.json");
+        index.written(one, "/economy/inflation/data.json");
+        assertEquals(new HashSet<>(Arrays.asList("one")), index.editing("/economy/inflation"));
+
+        // When content is deleted and the collection is listed again
+        Files.delete(one.resolve(Collection.IN_PROGRESS).resolve("economy/gdp/data.json"));
+        index.contentChanged(one);
+
+        // Then only the remaining content is owned
+        assertTrue(index.editing("/economy/gdp").isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList("one")), index.editing("/economy"));
+    }
+
+    @Test
+    public void markingForDelete_ShouldFindDeleteMarkersOnTheUriOrItsParents() throws Exception {
+
+        // Given a collection with a pending delete
+        CollectionDescription description = new CollectionDescription("one");
+        ContentDetail root = new ContentDetail();
+        root.contentPath = "/economy/gdp";
+        description.getPendingDeletes().add(new PendingDelete("user", root));
+
+        // When its description is registered
+        index.registered(one, description);
+
+        // Then uris at or under the deleted page are marked for delete
+        assertEquals(new HashSet<>(Arrays.asList("one")), index.markingForDelete("/economy/gdp"));
+        assertEquals(new HashSet<>(Arrays.asList("one")), index.markingForDelete("/economy/gdp/bulletins/q1"));
+        assertTrue(index.markingForDelete("/economy").isEmpty());
+        assertTrue(index.markingForDelete("/economy/gdpother").isEmpty());
+
+        // And the marker is dropped when the delete is cancelled
+        description.getPendingDeletes().clear();
+        index.registered(one, description);
+        assertTrue(index.markingForDelete("/economy/gdp").isEmpty());
+    }
+
+    private void write(Path collectionPath, String folder, String uri) throws IOException {
+        Path file = collectionPath.resolve(folder).resolve(uri.substring(1));
+        Files.createDirectories(file.getParent());
+        Files.write(file, "{}".getBytes());
+    }
+}
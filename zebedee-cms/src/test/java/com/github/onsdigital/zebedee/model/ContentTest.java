@@ -4,6 +4,7 @@ import com.github.davidcarboni.cryptolite.Random;
 import com.github.davidcarboni.restolino.json.Serialiser;
 import com.github.onsdigital.zebedee.json.ContentDetail;
 import com.github.onsdigital.zebedee.json.ContentDetailDescription;
+import com.github.onsdigital.zebedee.service.content.navigation.ContentTreeIndex;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
@@ -13,7 +14,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.github.onsdigital.zebedee.model.Content.isVisible;
 import static org.hamcrest.core.Is.is;
@@ -175,6 +178,49 @@ public class ContentTest {
         assertTrue(bulletinDetails.children.size() == 0);
     }
 
+    @Test
+    public void updateNestedDetailsShouldApplyChangedDirectoriesAndShareTheRest() throws IOException {
+
+        // Given the nested details of an instance of content
+        Content content = new Content(basePath, basePath);
+        ContentDetail root = content.nestedDetails();
+        ContentTreeIndex index = ContentTreeIndex.build(root);
+
+        // When a page is added under one directory, another directory is deleted and the tree is updated
+        Path newPageDirectory = basePath.resolve(directoryBName).resolve("newpage");
+        Files.createDirectory(newPageDirectory);
+        ContentDetail newPage = new ContentDetail();
+        newPage.description = new ContentDetailDescription("New page 2017");
+        newPage.type = "article";
+        try (OutputStream output = Files.newOutputStream(newPageDirectory.resolve(filename))) {
+            Serialiser.serialise(output, newPage);
+        }
+        FileUtils.deleteDirectory(basePath.resolve(directoryCName).toFile());
+
+        Set<Path> directories = new HashSet<>();
+        directories.add(newPageDirectory);
+        directories.add(basePath.resolve(directoryCName));
+        content.updateNestedDetails(index, directories);
+        ContentDetail updated = index.getRoot();
+
+        // Then the updated tree matches a rebuilt tree, shares the unchanged directory and the original is unchanged
+        assertEquals(2, updated.children.size());
+        assertSame(root.children.get(0), updated.children.get(0));
+        ContentDetail directoryB = updated.children.get(1);
+        assertEquals(directoryBName, directoryB.description.title);
+        assertEquals("New page 2017", directoryB.getChildWithName("New page 2017").description.title);
+        assertEquals("/" + basePath.relativize(newPageDirectory), directoryB.getChildWithName("New page 2017").uri);
+        assertSame(directoryB.getChildWithName("New page 2017"), index.find("/" + basePath.relativize(newPageDirectory)).get());
+        assertFalse(index.find("/" + directoryCName).isPresent());
+
+        ContentDetail rebuilt = content.nestedDetails();
+        assertEquals(rebuilt.children.size(), updated.children.size());
+        assertEquals(rebuilt.children.get(1).children.size(), directoryB.children.size());
+
+        assertEquals(3, root.children.size());
+        assertTrue(root.children.get(1).children.isEmpty());
+    }
+
     @Test
     public void listTimeSeriesDirectoriesShouldReturnListOfTimeseriesDirectories() throws IOException {
 
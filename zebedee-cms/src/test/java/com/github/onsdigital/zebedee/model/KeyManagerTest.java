@@ -16,6 +16,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -23,6 +24,9 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -497,4 +501,37 @@ public class KeyManagerTest {
         verify(schedulerCache, times(1)).put(COLLECTION_ID, secretKey);
     }
 
+    @Test
+    public void distributeCollectionKey_ShouldReportAllFailedUsersTogether() throws Exception {
+        List<User> keyRecipients = new ArrayList<>();
+        keyRecipients.add(user);
+        keyRecipients.add(user2);
+
+        when(keyringCache.get(session))
+                .thenReturn(keyring);
+        when(keyring.get(COLLECTION_ID))
+                .thenReturn(secretKey);
+        when(permissionsServiceImpl.getCollectionAccessMapping(collection))
+                .thenReturn(keyRecipients);
+        when(usersService.addKeyToKeyring(EMAIL, COLLECTION_ID, secretKey))
+                .thenThrow(new IOException("user"));
+        when(usersService.addKeyToKeyring(USER2_EMAIL, COLLECTION_ID, secretKey))
+                .thenThrow(new IOException("user2"));
+        when(keyringCache.getSchedulerCache())
+                .thenReturn(schedulerCache);
+
+        try {
+            KeyManager.distributeCollectionKey(zebedee, session, collection, true);
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), containsString(EMAIL));
+            assertThat(e.getMessage(), containsString(USER2_EMAIL));
+            assertEquals(2, e.getSuppressed().length);
+        }
+
+        verify(usersService, times(1)).addKeyToKeyring(EMAIL, COLLECTION_ID, secretKey);
+        verify(usersService, times(1)).addKeyToKeyring(USER2_EMAIL, COLLECTION_ID, secretKey);
+        verify(schedulerCache, times(1)).put(COLLECTION_ID, secretKey);
+    }
+
 }
@@ -0,0 +1,189 @@
+package com.github.onsdigital.zebedee.model;
+
+import com.github.davidcarboni.cryptolite.Random;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a file of 100,000 redirects, where the last 1,000 move the targets of the others, and resolving
+ * 1,000,000 uris through the loaded table. A tenth of the redirected pages exist.
+ * <p>
+ * Run from the zebedee-cms module root after test sources are compiled (mvn test-compile):
+ * <pre>
+ * java -cp target/test-classes:target/classes:target/dependency/* com.github.onsdigital.zebedee.model.RedirectTableBenchmark
+ * </pre>
+ * The legacy benchmarks add one redirect at a time and try every path prefix checking each target on disk, the way
+ * RedirectTablePartialMatch used to, to compare against. Loading one redirect at a time takes quadratic time, so the
+ * legacy load only loads the first 10,000 redirects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RedirectTableBenchmark {
+
+    private static final int REDIRECTS = 100000;
+    private static final int LEGACY_REDIRECTS = 10000;
+    private static final int SECTIONS = 1000;
+    private static final int LOOKUPS = 1000000;
+    private static final int URIS = 4096;
+
+    private Path root;
+    private Path redirectFile;
+    private Content content;
+    private RedirectTablePartialMatch table;
+    private String[] uris;
+
+    @Setup
+    public void generateRedirects() throws IOException {
+        root = Files.createTempDirectory(Random.id());
+        content = new Content(root);
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < REDIRECTS - SECTIONS; i++) {
+            lines.add("old" + (i % SECTIONS) + "/page" + i + "\tnew" + (i % SECTIONS) + "/page" + i);
+            if (i % 10 == 0) {
+                Path page = Files.createDirectories(root.resolve("moved" + (i % SECTIONS)).resolve("page" + i));
+                Files.write(page.resolve("data.json"), "{}".getBytes());
+            }
+        }
+        for (int s = 0; s < SECTIONS; s++) {
+            lines.add("new" + s + "\tmoved" + s);
+        }
+        redirectFile = root.resolve("redirect.txt");
+        Files.write(redirectFile, lines);
+
+        table = new RedirectTablePartialMatch(content);
+        table.load(redirectFile);
+
+        java.util.Random random = new java.util.Random(42);
+        uris = new String[URIS];
+        for (int i = 0; i < URIS; i++) {
+            int page = random.nextInt(REDIRECTS - SECTIONS);
+            uris[i] = "old" + (page % SECTIONS) + "/page" + page + "/data.json";
+        }
+    }
+
+    @TearDown
+    public void deleteRedirects() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public RedirectTable load() throws IOException {
+        RedirectTablePartialMatch loaded = new RedirectTablePartialMatch(content);
+        loaded.load(redirectFile);
+        return loaded;
+    }
+
+    @Benchmark
+    public Map<String, List<String>> loadLegacy() throws IOException {
+        Map<String, List<String>> legacy = new ConcurrentHashMap<>();
+        try (BufferedReader br = Files.newBufferedReader(redirectFile)) {
+            String line;
+            int count = 0;
+            while ((line = br.readLine()) != null && count++ < LEGACY_REDIRECTS) {
+                String[] fromTo = line.split("\t");
+                legacy = legacyAddRedirect(legacy, fromTo[0], fromTo[1]);
+            }
+        }
+        return legacy;
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole.consume(table.get(uris[i % URIS]));
+        }
+    }
+
+    @Benchmark
+    public void resolveLegacy(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole.consume(legacyGet(uris[i % URIS]));
+        }
+    }
+
+    private static Map<String, List<String>> legacyAddRedirect(Map<String, List<String>> table, String redirectFrom,
+                                                               String redirectTo) {
+        if (table.containsKey(redirectFrom)) {
+            for (String partialTo : table.get(redirectFrom)) {
+                if (partialTo.equalsIgnoreCase(redirectTo)) {
+                    return table;
+                }
+            }
+        }
+
+        Map<String, List<String>> newTable = new ConcurrentHashMap<>();
+        for (String partialFrom : table.keySet()) {
+            List<String> newList = new ArrayList<>();
+            for (String partialTo : table.get(partialFrom)) {
+                if (partialTo.startsWith(redirectFrom)) {
+                    newList.add(redirectTo + partialTo.substring(redirectFrom.length()));
+                } else {
+                    newList.add(partialTo);
+                }
+            }
+            newTable.put(partialFrom, newList);
+        }
+        newTable.computeIfAbsent(redirectFrom, key -> new ArrayList<>()).add(redirectTo);
+        return newTable;
+    }
+
+    private String legacyGet(String uri) {
+        if (content.exists(uri, false)) {
+            return uri;
+        }
+
+        Path path = Paths.get(uri);
+        for (int i = path.getNameCount() - 1; i >= 0; i--) {
+            String partialFrom = path.subpath(0, i + 1).toString();
+            if (table.table.containsKey(partialFrom)) {
+                for (String partialTo : table.table.get(partialFrom)) {
+                    String redirected = partialTo + uri.substring(partialFrom.length());
+                    if (content.exists(redirected, false)) {
+                        return redirected;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RedirectTableBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
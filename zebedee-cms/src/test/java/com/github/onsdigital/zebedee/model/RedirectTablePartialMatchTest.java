@@ -9,7 +9,9 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 import static org.junit.Assert.*;
 
@@ -306,4 +308,50 @@ public class RedirectTablePartialMatchTest extends ZebedeeTestBaseFixture {
         assertTrue(currentTable.exists("morrocan", "curried"));
         assertTrue(currentTable.exists("stirfry", "no"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void load_withChainedRedirects_appliesEachRedirectToThoseBeforeIt() throws Exception {
+        // Given
+        // a redirect file where later redirects move the targets of earlier ones
+        Path file = Files.createTempFile("redirect", ".txt");
+        Files.write(file, Arrays.asList(
+                "carrot/cake\tpoached/pears",
+                "poached\tcaramelised",
+                "caramelised/pears\tfruit/pears",
+                "custard\tcaramelised/pears/tart",
+                "sponge\tcustard/slice"));
+
+        // When
+        // we load the file
+        RedirectTable table = new RedirectTablePartialMatch(zebedee.getPublished());
+        table.load(file);
+
+        // Then
+        // each redirect has been applied to the targets of the redirects before it, but not after it
+        assertTrue(table.exists("carrot/cake", "fruit/pears"));
+        assertTrue(table.exists("poached", "caramelised"));
+        assertTrue(table.exists("caramelised/pears", "fruit/pears"));
+        assertTrue(table.exists("custard", "caramelised/pears/tart"));
+        assertTrue(table.exists("sponge", "custard/slice"));
+        Files.delete(file);
+    }
+
+    @Test
+    public void get_whereRedirectTargetIsNested_shouldMatchLongestOrigin() {
+        // Given
+        // redirects from a top level node and from a page beneath it
+        RedirectTable table = new RedirectTablePartialMatch(zebedee.getPublished());
+        table.addRedirect("business", "themea");
+        table.addRedirect("business/landingc", "themeb/landingc");
+
+        // When
+        // We get a page beneath each
+        String fromTopLevel = table.get("business/landinga/data.json");
+        String fromPage = table.get("business/landingc/data.json");
+
+        // Then
+        // the longest matching origin is used first
+        assertEquals("themea/landinga/data.json", fromTopLevel);
+        assertEquals("themeb/landingc/data.json", fromPage);
+    }
+}
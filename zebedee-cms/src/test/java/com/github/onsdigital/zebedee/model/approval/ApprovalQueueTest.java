@@ -0,0 +1,66 @@
+package com.github.onsdigital.zebedee.model.approval;
+
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.CollectionTest;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ApprovalQueueTest {
+
+    @Test
+    public void approvalsSharingADatasetShouldRunOneAtATime() throws Exception {
+
+        // Given an approval that is running, one for another collection sharing its dataset and one that shares nothing
+        Path collectionsPath = Files.createTempDirectory(Random.id());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+
+        ApproveTask first = task(CollectionTest.CreateCollection(collectionsPath, "first"), "dataset:/economy/datasets/a");
+        when(first.call()).thenAnswer(invocation -> {
+            firstStarted.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        ApproveTask sharing = task(CollectionTest.CreateCollection(collectionsPath, "sharing"), "dataset:/economy/datasets/a");
+        when(sharing.call()).thenReturn(true);
+        ApproveTask independent = task(CollectionTest.CreateCollection(collectionsPath, "independent"), "dataset:/economy/datasets/b");
+        when(independent.call()).thenReturn(true);
+
+        // When they are added to the queue
+        Future<Boolean> firstResult = ApprovalQueue.add(first);
+        assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+        Future<Boolean> sharingResult = ApprovalQueue.add(sharing);
+        Future<Boolean> independentResult = ApprovalQueue.add(independent);
+
+        // Then the independent approval completes while the one sharing the dataset waits for the first to finish
+        assertTrue(independentResult.get(10, TimeUnit.SECONDS));
+        assertFalse(sharingResult.isDone());
+        assertEquals(1, ApprovalQueue.getStatus().getQueueDepth());
+
+        release.countDown();
+        assertTrue(firstResult.get(10, TimeUnit.SECONDS));
+        assertTrue(sharingResult.get(10, TimeUnit.SECONDS));
+        assertEquals(0, ApprovalQueue.getStatus().getQueueDepth());
+    }
+
+    private ApproveTask task(Collection collection, String dataset) throws Exception {
+        ApproveTask task = mock(ApproveTask.class);
+        when(task.getCollection()).thenReturn(collection);
+        when(task.getResources()).thenReturn(new HashSet<>(Arrays.asList(
+                "collection:" + collection.getDescription().getId(), dataset)));
+        return task;
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.onsdigital.zebedee.model.approval.task.timeseries;
+
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.page.statistics.data.timeseries.TimeSeries;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
+import com.github.onsdigital.zebedee.data.framework.DataPagesGenerator;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.model.ContentWriter;
+import com.github.onsdigital.zebedee.model.approval.tasks.timeseries.TimeSeriesCompressor;
+import com.github.onsdigital.zebedee.model.approval.tasks.timeseries.TimeseriesCompressionResult;
+import com.github.onsdigital.zebedee.model.approval.tasks.timeseries.ZipFileVerifier;
+import com.github.onsdigital.zebedee.model.content.item.VersionedContentItem;
+import com.github.onsdigital.zebedee.reader.ContentReader;
+import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import com.github.onsdigital.zebedee.util.ZipUtils;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compressing and verifying time series datasets of 5,000 time series each, as done when a collection is
+ * approved.
+ * <p>
+ * Run from the zebedee-cms module root after test sources are compiled (mvn test-compile):
+ * <pre>
+ * java -cp target/test-classes:target/classes:target/dependency/* com.github.onsdigital.zebedee.model.approval.task.timeseries.TimeSeriesCompressionBenchmark
+ * </pre>
+ * The legacy benchmark compresses one directory at a time and unzips each zip file to disk to verify it, the way
+ * TimeSeriesCompressor and ZipFileVerifier used to, to compare against. The tempBytes counter reports the bytes written
+ * to disk for verification in each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimeSeriesCompressionBenchmark {
+
+    private static final int TIMESERIES = 5000;
+    private static final int YEARS = 10;
+    private static final int FINAL_YEAR = 2016;
+
+    @Param({"1", "4"})
+    public int datasets;
+
+    private Path root;
+    private ContentReader reader;
+    private ContentWriter writer;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class TempDisk {
+        public long tempBytes;
+    }
+
+    @Setup
+    public void generateTimeseries() throws IOException {
+        root = Files.createTempDirectory(Random.id());
+        reader = new FileSystemContentReader(root);
+        writer = new ContentWriter(root);
+
+        DataPagesGenerator generator = new DataPagesGenerator();
+        for (int d = 0; d < datasets; d++) {
+            Path timeseriesRoot = Files.createDirectories(root.resolve("dataset" + d).resolve("timeseries"));
+            for (int i = 0; i < TIMESERIES; i++) {
+                String cdid = "cd" + d + "x" + i;
+                TimeSeries timeSeries = generator.exampleTimeseries(cdid, "data", new Date(), true, true, true, YEARS, FINAL_YEAR);
+                Path directory = Files.createDirectories(timeseriesRoot.resolve(cdid));
+                FileUtils.write(directory.resolve("data.json").toFile(), ContentUtil.serialise(timeSeries));
+            }
+        }
+    }
+
+    @TearDown
+    public void deleteTimeseries() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public void compressAndVerify(TempDisk tempDisk, Blackhole blackhole) throws IOException, ZebedeeException {
+        List<TimeseriesCompressionResult> zipFiles = new TimeSeriesCompressor().compressFiles(reader, writer, false);
+        blackhole.consume(new ZipFileVerifier().verifyZipFiles(zipFiles, reader));
+    }
+
+    @Benchmark
+    public void compressAndVerifyLegacy(TempDisk tempDisk, Blackhole blackhole) throws IOException, ZebedeeException {
+        List<TimeseriesCompressionResult> zipFiles = new ArrayList<>();
+        for (Path timeSeriesDirectory : reader.listTimeSeriesDirectories()) {
+            String saveUri = reader.getRootFolder().relativize(timeSeriesDirectory).toString() + "-to-publish.zip";
+            try (OutputStream outputStream = writer.getOutputStream(saveUri)) {
+                int filesAdded = ZipUtils.zipFolder(timeSeriesDirectory.toFile(), outputStream,
+                        url -> VersionedContentItem.isVersionedUri(url));
+                zipFiles.add(new TimeseriesCompressionResult(timeSeriesDirectory, Paths.get(saveUri), filesAdded));
+            }
+        }
+
+        for (TimeseriesCompressionResult zipFile : zipFiles) {
+            blackhole.consume(legacyVerify(zipFile, tempDisk));
+        }
+        FileUtils.deleteDirectory(root.resolve("verification").toFile());
+    }
+
+    private boolean legacyVerify(TimeseriesCompressionResult zipFile, TempDisk tempDisk) throws IOException, ZebedeeException {
+        try (
+                Resource resource = reader.getResource(zipFile.zipPath.toString());
+                InputStream inputStream = resource.getData()
+        ) {
+            String verificationPath = "verification/" + Random.id();
+            List<String> unzipped = ZipUtils.unzip(inputStream, verificationPath, writer);
+            tempDisk.tempBytes += FileUtils.sizeOfDirectory(root.resolve(verificationPath).toFile());
+
+            if (unzipped.size() != zipFile.numberOfFiles) {
+                return false;
+            }
+
+            Page page = reader.getContent(Paths.get(unzipped.get(0)).getParent().toString());
+            return page != null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TimeSeriesCompressionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -61,7 +61,7 @@ public class TimeseriesCompressionTaskTest {
         TimeSeriesCompressor timeSeriesCompressor = getMockedCompressor(zipFiles);
 
         ZipFileVerifier zipFileVerifier = mock(ZipFileVerifier.class);
-        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader, contentReader, contentWriter))
+        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader))
                 .thenReturn(new ArrayList<>());
 
         // When the compress time series task is run.
@@ -80,7 +80,7 @@ public class TimeseriesCompressionTaskTest {
         TimeSeriesCompressor timeSeriesCompressor = getMockedCompressor(zipFiles);
 
         ZipFileVerifier zipFileVerifier = mock(ZipFileVerifier.class);
-        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader, contentReader, contentWriter))
+        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader))
                 .thenReturn(zipFiles)
                 .thenReturn(new ArrayList<>()); // attempt 1
 
@@ -100,7 +100,7 @@ public class TimeseriesCompressionTaskTest {
         TimeSeriesCompressor timeSeriesCompressor = getMockedCompressor(zipFiles);
 
         ZipFileVerifier zipFileVerifier = mock(ZipFileVerifier.class);
-        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader, contentReader, contentWriter))
+        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader))
                 .thenReturn(zipFiles);
 
         // When the compress time series task is run.
@@ -117,7 +117,7 @@ public class TimeseriesCompressionTaskTest {
         TimeSeriesCompressor timeSeriesCompressor = getMockedCompressor(zipFiles);
 
         ZipFileVerifier zipFileVerifier = mock(ZipFileVerifier.class);
-        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader, contentReader, contentWriter))
+        when(zipFileVerifier.verifyZipFiles(zipFiles, contentReader))
                 .thenReturn(zipFiles) // attempt 1
                 .thenReturn(zipFiles) // attempt 2
                 .thenReturn(zipFiles) // attempt 3
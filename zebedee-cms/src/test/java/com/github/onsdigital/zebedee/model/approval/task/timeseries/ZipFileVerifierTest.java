@@ -17,7 +17,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 
 public class ZipFileVerifierTest {
@@ -57,10 +59,35 @@ public class ZipFileVerifierTest {
         List<TimeseriesCompressionResult> zipFiles = timeSeriesCompressor.compressFiles(reader, writer, false);
 
         // when the zip file is verified.
-        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader, reader, writer);
+        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader);
         assertTrue(failedVerifications.size() == 0);
     }
 
+    // If an entry in the zip file does not have the CRC recorded when it was written then fail verification.
+    @Test
+    public void shouldReturnFailedVerificationsForMismatchedEntryCrc() throws IOException, ZebedeeException {
+
+        // Given a zip file of timeseries with a different CRC recorded for one of its entries
+        Path tempDirectory = Files.createTempDirectory(Random.id());
+        Path timeseriesRoot = Files.createDirectories(tempDirectory.resolve("timeseries"));
+
+        ContentReader reader = new FileSystemContentReader(tempDirectory);
+        ContentWriter writer = new ContentWriter(tempDirectory);
+
+        createTimeseriesFile(timeseriesRoot);
+        createTimeseriesFile(timeseriesRoot);
+        List<TimeseriesCompressionResult> zipFiles = timeSeriesCompressor.compressFiles(reader, writer, false);
+        Map.Entry<String, Long> entry = zipFiles.get(0).entryCrcs.entrySet().iterator().next();
+        entry.setValue(entry.getValue() + 1);
+
+        // when the zip file is verified.
+        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader);
+
+        // then it fails without anything being unzipped to disk.
+        assertTrue(failedVerifications.size() > 0);
+        assertFalse(Files.exists(tempDirectory.resolve("verification")));
+    }
+
     // If there is an empty json file in the zip file then fail verification.
     @Test
     public void shouldReturnFailedVerificationsForEmptyJsonFile() throws IOException, ZebedeeException {
@@ -74,7 +101,7 @@ public class ZipFileVerifierTest {
         createEmptyFile(timeseriesRoot);
         List<TimeseriesCompressionResult> zipFiles = timeSeriesCompressor.compressFiles(reader, writer, false);
 
-        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader, reader, writer);
+        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader);
         assertTrue(failedVerifications.size() > 0);
     }
 
@@ -91,7 +118,7 @@ public class ZipFileVerifierTest {
 
         List<TimeseriesCompressionResult> zipFiles = timeSeriesCompressor.compressFiles(reader, writer, false);
 
-        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader, reader, writer);
+        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader);
         assertTrue(failedVerifications.size() > 0);
     }
 
@@ -110,7 +137,7 @@ public class ZipFileVerifierTest {
         zipFiles.get(0).numberOfFiles = 1;
 
         // when the zip file is verified.
-        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader, reader, writer);
+        List<TimeseriesCompressionResult> failedVerifications = zipFileVerifier.verifyZipFiles(zipFiles, reader);
         assertTrue(failedVerifications.size() > 0);
     }
 }
@@ -1,12 +1,53 @@
 package com.github.onsdigital.zebedee.model.publishing;
 
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.davidcarboni.restolino.json.Serialiser;
+import com.github.onsdigital.zebedee.Zebedee;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.Content;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class PostPublisherTest {
 
+    private static final int FILES = 20;
+
+    private Path master;
+    private Zebedee zebedee;
+    private Collection collection;
+
+    @Before
+    public void setUp() throws Exception {
+        master = Files.createTempDirectory(Random.id());
+        zebedee = mock(Zebedee.class);
+        when(zebedee.getPublished()).thenReturn(new Content(master));
+        collection = collection();
+    }
+
     @Test
     public void isIndexedUriShouldBeTrueIfNotVersioned() {
 
@@ -32,4 +73,125 @@ public class PostPublisherTest {
         // Then the result should be false, ie, it should not be indexed.
         assertFalse(isIndexed);
     }
+
+    @Test
+    public void copyFilesToMasterShouldCopyEveryReviewedFile() throws Exception {
+
+        // Given a collection with reviewed files, one of which replaces a file already in master
+        FileUtils.write(master.resolve("economy/0/data.json").toFile(), "previous");
+
+        // When the files are copied to master
+        PostPublisher.copyFilesToMaster(zebedee, collection, mock(CollectionReader.class));
+
+        // Then every file is in master with the reviewed content, and no temporary files are left behind
+        for (int i = 0; i < FILES; i++) {
+            assertEquals(content(i), FileUtils.readFileToString(master.resolve("economy/" + i + "/data.json").toFile()));
+        }
+        assertEquals(0, temporaryFiles().size());
+    }
+
+    @Test
+    public void copyFilesToMasterShouldNotUpdateMasterWhenAnyCopyFails() throws Exception {
+
+        // Given an encrypted collection where two of the files cannot be read
+        collection.description.isEncrypted = true;
+        FileUtils.write(master.resolve("economy/0/data.json").toFile(), "previous");
+        CollectionReader reader = mock(CollectionReader.class);
+        when(reader.getResource(anyString())).thenAnswer(invocation -> {
+            String uri = (String) invocation.getArguments()[0];
+            if (uri.contains("/3/") || uri.contains("/7/")) {
+                throw new IOException("Cannot read " + uri);
+            }
+            return resource(uri);
+        });
+
+        // When the files are copied to master
+        try {
+            PostPublisher.copyFilesToMaster(zebedee, collection, reader);
+            fail("Expected the copy to fail");
+        } catch (IOException e) {
+            // Then both failures are reported together
+            assertTrue(e.getMessage(), e.getMessage().startsWith("2 of " + FILES + " files could not be copied"));
+            assertEquals(2, e.getSuppressed().length);
+        }
+
+        // And master is left as it was, with no temporary files
+        assertEquals("previous", FileUtils.readFileToString(master.resolve("economy/0/data.json").toFile()));
+        assertFalse(Files.exists(master.resolve("economy/1/data.json")));
+        assertEquals(0, temporaryFiles().size());
+    }
+
+    @Test
+    public void copyFilesToMasterShouldRemoveTemporaryFilesOfCopiesRunningWhenInterrupted() throws Exception {
+
+        // Given an encrypted collection where reading one file blocks until released
+        collection.description.isEncrypted = true;
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CollectionReader reader = mock(CollectionReader.class);
+        when(reader.getResource(anyString())).thenAnswer(invocation -> {
+            String uri = (String) invocation.getArguments()[0];
+            if (uri.contains("/0/")) {
+                reading.countDown();
+                release.await();
+            }
+            return resource(uri);
+        });
+
+        // When the copy is interrupted while that file is being read
+        AtomicReference<Exception> thrown = new AtomicReference<>();
+        Thread publish = new Thread(() -> {
+            try {
+                PostPublisher.copyFilesToMaster(zebedee, collection, reader);
+            } catch (Exception e) {
+                thrown.set(e);
+            }
+        });
+        publish.start();
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        publish.interrupt();
+        publish.join(10000);
+        release.countDown();
+
+        // Then the copy fails, and the blocked copy removes its temporary file once it finishes
+        assertTrue(thrown.get() instanceof IOException);
+        for (int i = 0; i < 100 && !temporaryFiles().isEmpty(); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, temporaryFiles().size());
+        assertFalse(Files.exists(master.resolve("economy/0/data.json")));
+    }
+
+    private List<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(master)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".tmp")).collect(Collectors.toList());
+        }
+    }
+
+    private static Resource resource(String uri) {
+        Resource resource = new Resource();
+        resource.setData(new ByteArrayInputStream(content(Integer.parseInt(uri.split("/")[2])).getBytes(StandardCharsets.UTF_8)));
+        return resource;
+    }
+
+    private static String content(int i) {
+        return "{\"type\":\"static_page\",\"description\":{\"title\":\"" + i + "\"}}";
+    }
+
+    /**
+     * Creates a collection with a number of reviewed files, each in its own directory.
+     */
+    private static Collection collection() throws Exception {
+        Path collections = Files.createTempDirectory(Random.id());
+        Collection.CreateCollectionFolders("publish", collections);
+        CollectionDescription description = new CollectionDescription("publish");
+        description.setId("publish-" + Random.id());
+        Files.write(collections.resolve("publish.json"), Serialiser.serialise(description).getBytes(StandardCharsets.UTF_8));
+
+        Path reviewed = collections.resolve("publish").resolve(Collection.REVIEWED);
+        for (int i = 0; i < FILES; i++) {
+            FileUtils.write(reviewed.resolve("economy/" + i + "/data.json").toFile(), content(i));
+        }
+        return new Collection(collections.resolve("publish"), null);
+    }
 }
@@ -0,0 +1,279 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.davidcarboni.restolino.json.Serialiser;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.json.publishing.Result;
+import com.github.onsdigital.zebedee.json.publishing.Transaction;
+import com.github.onsdigital.zebedee.json.publishing.UriInfo;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.DummyCollectionReader;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration.getConfiguration;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TrainBatchTest {
+
+    private HttpServer train;
+    private final List<String> trainRequests = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() {
+        if (train != null) {
+            train.stop(0);
+        }
+        System.clearProperty("publish_batching_enabled");
+        System.clearProperty("train_retry_count");
+    }
+
+    @Test
+    public void createShouldSplitFilesIntoBatchesOfMaxSize() {
+
+        // Given files adding up to more than the batch size
+        Map<String, Long> files = new LinkedHashMap<>();
+        files.put("/a/data.json", 400L);
+        files.put("/b/data.json", 500L);
+        files.put("/c/data.json", 300L);
+        files.put("/d/data.json", 2000L);
+
+        // When they are batched
+        List<TrainBatch> batches = TrainBatch.create(files, 1000);
+
+        // Then files are batched in order without exceeding the batch size, unless a file is bigger on its own
+        assertEquals(3, batches.size());
+        assertEquals(2, batches.get(0).getUris().size());
+        assertEquals(900, batches.get(0).getSize());
+        assertEquals("/c/data.json", batches.get(1).getUris().get(0));
+        assertEquals(2000, batches.get(2).getSize());
+    }
+
+    @Test
+    public void packedBatchShouldUnpackToOriginalFiles() throws IOException, ZebedeeException {
+
+        // Given a batch of collection files
+        Path collection = Files.createTempDirectory(Random.id());
+        CollectionReader reader = new DummyCollectionReader(collection);
+        Path reviewed = collection.resolve(getConfiguration().getReviewedFolderName());
+        FileUtils.write(reviewed.resolve("economy/data.json").toFile(), "{\"type\":\"taxonomy_landing_page\"}");
+        FileUtils.writeByteArrayToFile(reviewed.resolve("economy/chart.png").toFile(), Random.password(4096).getBytes());
+
+        TrainBatch batch = new TrainBatch();
+        batch.add("/economy/data.json", Files.size(reviewed.resolve("economy/data.json")));
+        batch.add("/economy/chart.png", Files.size(reviewed.resolve("economy/chart.png")));
+
+        // When the batch is packed and unpacked by the train
+        Path website = Files.createTempDirectory(Random.id());
+        Transaction transaction;
+        Map<String, String> checksums;
+        try (TrainBatch.Archive archive = batch.pack(reader)) {
+            transaction = unzip(archive.getData(), website, TrainBatch.BATCH_URI);
+            checksums = archive.getChecksums();
+        }
+
+        // Then each file is unpacked to its uri with the checksum recorded when packing
+        assertArrayEquals(Files.readAllBytes(reviewed.resolve("economy/data.json")), Files.readAllBytes(website.resolve("economy/data.json")));
+        assertArrayEquals(Files.readAllBytes(reviewed.resolve("economy/chart.png")), Files.readAllBytes(website.resolve("economy/chart.png")));
+        assertEquals(2, checksums.size());
+        assertEquals(2, transaction.uriInfos.size());
+        assertTrue(TrainBatch.verify(checksums, transaction).isEmpty());
+    }
+
+    @Test
+    public void verifyShouldReturnChecksumMismatches() {
+
+        // Given a file the train reports with a different hash to the one sent
+        Map<String, String> checksums = new LinkedHashMap<>();
+        checksums.put("/economy/data.json", DigestUtils.sha1Hex("sent"));
+        checksums.put("/economy/chart.png", DigestUtils.sha1Hex("chart"));
+
+        Transaction transaction = new Transaction();
+        transaction.uriInfos.add(uriInfo("/economy/data.json", DigestUtils.sha1Hex("received")));
+        transaction.uriInfos.add(uriInfo("/economy/chart.png", DigestUtils.sha1Hex("chart").toUpperCase()));
+
+        // When the batch is verified
+        List<String> errors = TrainBatch.verify(checksums, transaction);
+
+        // Then only the mismatched file is reported
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).contains("/economy/data.json"));
+    }
+
+    @Test
+    public void verifyShouldReturnFilesMissingFromTransaction() {
+
+        // Given a batch the train reports one file of without a hash and another not at all
+        Map<String, String> checksums = new LinkedHashMap<>();
+        checksums.put("/economy/data.json", DigestUtils.sha1Hex("data"));
+        checksums.put("/economy/chart.png", DigestUtils.sha1Hex("chart"));
+        checksums.put("/economy/table.xls", DigestUtils.sha1Hex("table"));
+
+        Transaction transaction = new Transaction();
+        transaction.uriInfos.add(uriInfo("/economy/data.json", DigestUtils.sha1Hex("data")));
+        transaction.uriInfos.add(uriInfo("/economy/chart.png", null));
+
+        // When the batch is verified
+        List<String> errors = TrainBatch.verify(checksums, transaction);
+
+        // Then both files are reported
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).contains("/economy/chart.png"));
+        assertTrue(errors.get(1).contains("/economy/table.xls"));
+        assertEquals(3, TrainBatch.verify(checksums, null).size());
+    }
+
+    @Test
+    public void publishCollectionFilesShouldSendSmallFilesInABatch() throws Exception {
+
+        // Given a collection of small files and a train that unzips everything it is sent
+        Path website = Files.createTempDirectory(Random.id());
+        Collection collection = collection(startTrain(website, false));
+        CollectionReader reader = new DummyCollectionReader(collection.path);
+        System.setProperty("publish_batching_enabled", "true");
+
+        // When the collection files are published
+        Publisher.PublishCollectionFiles(collection, reader, "password");
+
+        // Then the files are sent to the train in a single zip archive and unzipped to their uris
+        assertEquals(1, trainRequests.size());
+        assertTrue(trainRequests.get(0), trainRequests.get(0).contains("zip=true"));
+        assertArrayEquals(Files.readAllBytes(collection.reviewed.get("/economy/data.json")), Files.readAllBytes(website.resolve("economy/data.json")));
+        assertArrayEquals(Files.readAllBytes(collection.reviewed.get("/economy/chart.png")), Files.readAllBytes(website.resolve("economy/chart.png")));
+    }
+
+    @Test
+    public void publishCollectionFilesShouldFailWhenTheTrainDropsABatchedFile() throws Exception {
+
+        // Given a train that leaves the last file of a zip archive out of the transaction
+        Path website = Files.createTempDirectory(Random.id());
+        Collection collection = collection(startTrain(website, true));
+        CollectionReader reader = new DummyCollectionReader(collection.path);
+        System.setProperty("publish_batching_enabled", "true");
+        System.setProperty("train_retry_count", "0");
+
+        // When the collection files are published
+        try {
+            Publisher.PublishCollectionFiles(collection, reader, "password");
+            fail("Expected a batch with a missing file to fail");
+        } catch (IOException e) {
+            // Then the batch fails naming the missing file
+            assertTrue(e.getMessage(), e.getMessage().contains("File missing from transaction"));
+        }
+    }
+
+    /**
+     * Creates a collection with a small json file and a small image reviewed, publishing to the given train host.
+     */
+    private static Collection collection(String trainHost) throws Exception {
+        Path collections = Files.createTempDirectory(Random.id());
+        Collection.CreateCollectionFolders("batch", collections);
+        CollectionDescription description = new CollectionDescription("batch");
+        description.setId("batch-" + Random.id());
+        Files.write(collections.resolve("batch.json"), Serialiser.serialise(description).getBytes(StandardCharsets.UTF_8));
+
+        Path reviewed = collections.resolve("batch").resolve(Collection.REVIEWED);
+        FileUtils.write(reviewed.resolve("economy/data.json").toFile(), "{\"type\":\"taxonomy_landing_page\"}");
+        FileUtils.writeByteArrayToFile(reviewed.resolve("economy/chart.png").toFile(), Random.password(4096).getBytes());
+
+        Collection collection = new Collection(collections.resolve("batch"), null);
+        collection.description.publishTransactionIds = new HashMap<>();
+        collection.description.publishTransactionIds.put(trainHost, "transaction");
+        return collection;
+    }
+
+    /**
+     * Starts a stand in for the train publish endpoint, which unzips the archive in each multipart request it
+     * receives and reports the files in the transaction.
+     *
+     * @param dropLastFile leave the last file unzipped out of the transaction
+     * @return the host the train is listening on
+     */
+    private String startTrain(Path website, boolean dropLastFile) throws IOException {
+        train = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        train.createContext("/publish", exchange -> {
+            trainRequests.add(exchange.getRequestURI().getQuery());
+            byte[] body = IOUtils.toByteArray(exchange.getRequestBody());
+
+            Result result = new Result();
+            result.transaction = unzip(new ByteArrayInputStream(body, zipStart(body), body.length), website, TrainBatch.BATCH_URI);
+            if (dropLastFile) {
+                List<UriInfo> uriInfos = new ArrayList<>(result.transaction.uriInfos);
+                result.transaction.uriInfos.remove(uriInfos.get(uriInfos.size() - 1));
+            }
+
+            byte[] response = Serialiser.serialise(result).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(response);
+            }
+        });
+        train.start();
+        return "http://localhost:" + train.getAddress().getPort();
+    }
+
+    /**
+     * @return the offset of the first zip local file header in a multipart request body.
+     */
+    private static int zipStart(byte[] body) {
+        for (int i = 0; i < body.length - 3; i++) {
+            if (body[i] == 'P' && body[i + 1] == 'K' && body[i + 2] == 3 && body[i + 3] == 4) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No zip archive in request body");
+    }
+
+    /**
+     * Stands in for the train receiving a file with zip=true: each entry is written under the given uri and recorded
+     * in the transaction with its hash.
+     */
+    private static Transaction unzip(InputStream data, Path website, String uri) throws IOException {
+        Transaction transaction = new Transaction();
+        Path target = website.resolve(uri.substring(1));
+        try (ZipInputStream zip = new ZipInputStream(data)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                Path file = target.resolve(entry.getName());
+                Files.createDirectories(file.getParent());
+                Files.copy(zip, file);
+                transaction.uriInfos.add(uriInfo(uri + entry.getName(), DigestUtils.sha1Hex(Files.readAllBytes(file))));
+            }
+        }
+        return transaction;
+    }
+
+    private static UriInfo uriInfo(String uri, String sha) {
+        UriInfo uriInfo = new UriInfo();
+        uriInfo.uri = uri;
+        uriInfo.sha = sha;
+        return uriInfo;
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.onsdigital.zebedee.model.publishing;
+
+import com.github.davidcarboni.httpino.Host;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TrainClientTest {
+
+    @BeforeClass
+    public static void setUp() {
+        System.setProperty("train_retry_count", "2");
+        System.setProperty("train_retry_delay", "1");
+    }
+
+    @Test
+    public void sendIdempotentShouldRetryFailedRequests() throws IOException {
+
+        // Given a request that fails twice before succeeding
+        TrainClient client = TrainClient.get(new Host("http://localhost:18084"));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When it is sent as an idempotent request
+        String result = client.sendIdempotent((http, metrics) -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("Connection reset");
+            }
+            return "sent";
+        });
+
+        // Then it is retried until it succeeds
+        assertEquals("sent", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, client.getHostMetrics().getRetries());
+        assertEquals(2, client.getHostMetrics().getFailures());
+        assertEquals(0, client.getHostMetrics().getInFlight());
+    }
+
+    @Test
+    public void sendShouldNotRetryFailedRequests() {
+
+        // Given a request that fails
+        TrainClient client = TrainClient.get(new Host("http://localhost:18085"));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When it is sent as a request that must not be repeated
+        try {
+            client.send((http, metrics) -> {
+                attempts.incrementAndGet();
+                throw new IOException("Connection reset");
+            });
+            fail("Expected failed request to throw");
+        } catch (IOException e) {
+            // Then it is only attempted once
+            assertEquals(1, attempts.get());
+            assertEquals(0, client.getHostMetrics().getRetries());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.github.onsdigital.zebedee.teams.model.Team;
 import com.github.onsdigital.zebedee.model.Collection;
 import com.github.onsdigital.zebedee.model.KeyringCache;
 import com.github.onsdigital.zebedee.teams.service.TeamsService;
+import com.github.onsdigital.zebedee.permissions.store.PermissionsDataVersion;
 import com.github.onsdigital.zebedee.permissions.store.PermissionsStore;
 import com.github.onsdigital.zebedee.service.ServiceSupplier;
 import com.github.onsdigital.zebedee.session.model.Session;
@@ -513,7 +514,7 @@ public class PermissionsServiceImplTest {
         List<User> result = permissions.getCollectionAccessMapping(collectionMock);
 
         assertThat(result, equalTo(expected));
-        verify(permissionsStore, times(2)).getAccessMapping();
+        verify(permissionsStore, times(1)).getAccessMapping();
         verify(teamsService, times(1)).listTeams();
         verify(usersService, times(1)).list();
         verify(userMock, times(2)).getEmail();
@@ -572,7 +573,7 @@ public class PermissionsServiceImplTest {
         try {
             permissions.addAdministrator(EMAIL, session);
         } catch (UnauthorizedException e) {
-            verify(permissionsStore, times(2)).getAccessMapping();
+            verify(permissionsStore, times(1)).getAccessMapping();
             verify(accessMapping, times(4)).getAdministrators();
             verifyNoMoreInteractions(permissionsStore, accessMapping, usersService, teamsService);
             throw e;
@@ -598,7 +599,7 @@ public class PermissionsServiceImplTest {
 
         permissions.addAdministrator(email2, session);
 
-        verify(permissionsStore, times(3)).getAccessMapping();
+        verify(permissionsStore, times(2)).getAccessMapping();
         verify(accessMapping, times(6)).getAdministrators();
         verify(permissionsStore, times(1)).saveAccessMapping(accessMapping);
         verify(adminsMock, times(1)).add(email2);
@@ -616,4 +617,31 @@ public class PermissionsServiceImplTest {
         verify(permissionsStore, times(1)).getAccessMapping();
         verifyZeroInteractions(teamsService);
     }
+
+    @Test
+    public void permissionChecks_ShouldReadAccessMappingOnlyAfterItIsWritten() throws Exception {
+        admins.add(EMAIL);
+
+        when(permissionsStore.getAccessMapping())
+                .thenReturn(accessMapping);
+        when(accessMapping.getAdministrators())
+                .thenReturn(admins);
+
+        // Given the access mapping has been read for a permission check
+        assertThat(permissions.isAdministrator(EMAIL), is(true));
+
+        // When more checks are made
+        assertThat(permissions.isAdministrator(EMAIL), is(true));
+        assertThat(permissions.hasAdministrator(), is(true));
+
+        // Then they are answered from the snapshot until the access mapping is written
+        verify(permissionsStore, times(1)).getAccessMapping();
+        assertThat(((PermissionsServiceImpl) permissions).getSnapshotRebuilds(), equalTo(1L));
+
+        PermissionsDataVersion.ACCESS_MAPPING.increment();
+        assertThat(permissions.isAdministrator(EMAIL), is(true));
+        verify(permissionsStore, times(2)).getAccessMapping();
+        assertThat(((PermissionsServiceImpl) permissions).getSnapshotRebuilds(), equalTo(2L));
+        verifyZeroInteractions(usersService, teamsService, keyringCache);
+    }
 }
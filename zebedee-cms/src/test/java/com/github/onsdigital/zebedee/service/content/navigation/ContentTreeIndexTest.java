@@ -0,0 +1,98 @@
+package com.github.onsdigital.zebedee.service.content.navigation;
+
+import com.github.onsdigital.zebedee.json.ContentDetail;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ContentTreeIndexTest {
+
+    private ContentDetail root;
+    private ContentDetail economy;
+    private ContentDetail inflation;
+    private ContentDetail people;
+    private ContentTreeIndex index;
+
+    @Before
+    public void setUp() {
+        root = node("/");
+        economy = child(root, "/economy");
+        inflation = child(economy, "/economy/inflation");
+        people = child(root, "/people");
+        index = ContentTreeIndex.build(root);
+    }
+
+    @Test
+    public void update_ShouldHoldOnlyTheChangedPathsAndLeaveTheIndexUnchanged() {
+
+        // Given an update layer over an indexed tree
+        ContentTreeIndex update = index.update();
+
+        // When a node is removed and another is replaced in the update
+        update.removeAll(inflation);
+        ContentDetail peopleCopy = node("/people");
+        update.put(peopleCopy);
+
+        // Then the update finds the changes, falls back to the index for the rest and the index is unchanged
+        assertFalse(update.find("/economy/inflation").isPresent());
+        assertSame(peopleCopy, update.find("/people").get());
+        assertSame(economy, update.find("/economy").get());
+        assertTrue(update.isOwned("/people"));
+        assertFalse(update.isOwned("/economy"));
+
+        assertSame(inflation, index.find("/economy/inflation").get());
+        assertSame(people, index.find("/people").get());
+    }
+
+    @Test
+    public void compact_ShouldMergeLargeLayersWithoutChangingThem() {
+
+        // Given an update layer holding half as many paths as the index
+        ContentTreeIndex update = index.update();
+        update.removeAll(inflation);
+        update.put(node("/people"));
+
+        // When it is compacted
+        ContentTreeIndex compacted = update.compact();
+
+        // Then the merged index finds the same nodes and the update is unchanged
+        assertFalse(compacted.find("/economy/inflation").isPresent());
+        assertSame(update.find("/people").get(), compacted.find("/people").get());
+        assertSame(economy, compacted.find("/economy").get());
+        assertTrue(compacted.isOwned("/economy"));
+        assertFalse(update.isOwned("/economy"));
+    }
+
+    @Test
+    public void compact_ShouldKeepSmallLayers() {
+
+        // Given an update layer holding a single path of a larger index
+        child(people, "/people/births");
+        child(people, "/people/deaths");
+        index = ContentTreeIndex.build(root);
+        ContentTreeIndex update = index.update();
+        update.put(node("/people/births"));
+
+        // When it is compacted
+        // Then the layer is kept rather than copying the index
+        assertSame(update, update.compact());
+    }
+
+    private ContentDetail node(String uri) {
+        ContentDetail node = new ContentDetail(uri, uri, "article");
+        node.contentPath = uri;
+        node.children = new ArrayList<>();
+        return node;
+    }
+
+    private ContentDetail child(ContentDetail parent, String uri) {
+        ContentDetail child = node(uri);
+        parent.children.add(child);
+        return child;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.onsdigital.zebedee.service.content.navigation;
+
+import com.github.onsdigital.zebedee.json.ContentDetail;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding a node in a browse tree of about 200,000 nodes, three levels deep.
+ * <p>
+ * Run from the zebedee-cms module root after test sources are compiled (mvn test-compile):
+ * <pre>
+ * java -cp target/test-classes:target/classes:target/dependency/* com.github.onsdigital.zebedee.service.content.navigation.ContentTreeNavigatorBenchmark
+ * </pre>
+ * The legacy benchmark walks the tree searching each level's children, the way every lookup used to, to compare
+ * against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentTreeNavigatorBenchmark {
+
+    private static final int TOPICS = 60;
+    private static final int SUBTOPICS = 60;
+    private static final int PAGES = 55;
+    private static final int LOOKUPS = 1024;
+
+    private ContentTreeNavigator navigator = ContentTreeNavigator.getInstance();
+    private ContentDetail tree;
+    private ContentTreeIndex index;
+    private Path[] paths;
+    private int next;
+
+    @Setup
+    public void buildTree() {
+        tree = node("/");
+        for (int t = 0; t < TOPICS; t++) {
+            ContentDetail topic = child(tree, "/topic" + t);
+            for (int s = 0; s < SUBTOPICS; s++) {
+                ContentDetail subtopic = child(topic, topic.contentPath + "/subtopic" + s);
+                for (int p = 0; p < PAGES; p++) {
+                    child(subtopic, subtopic.contentPath + "/page" + p);
+                }
+            }
+        }
+        index = ContentTreeIndex.build(tree);
+
+        Random random = new Random(42);
+        paths = new Path[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            paths[i] = Paths.get("/topic" + random.nextInt(TOPICS) + "/subtopic" + random.nextInt(SUBTOPICS)
+                    + "/page" + random.nextInt(PAGES) + "/data.json");
+        }
+    }
+
+    private ContentDetail node(String contentPath) {
+        ContentDetail node = new ContentDetail(contentPath, contentPath, "article");
+        node.contentPath = contentPath;
+        node.children = new ArrayList<>();
+        return node;
+    }
+
+    private ContentDetail child(ContentDetail parent, String contentPath) {
+        ContentDetail child = node(contentPath);
+        parent.children.add(child);
+        return child;
+    }
+
+    private Path nextPath() {
+        next = (next + 1) % LOOKUPS;
+        return paths[next];
+    }
+
+    @Benchmark
+    public Optional<ContentDetail> find() {
+        return navigator.findContentDetail(index, nextPath());
+    }
+
+    @Benchmark
+    public Optional<ContentDetail> findLegacy() {
+        return navigator.findContentDetail(tree, nextPath());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContentTreeNavigatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.onsdigital.zebedee.service.content.navigation;
+
+import com.github.onsdigital.zebedee.json.ContentDetail;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ContentTreeNavigatorTest {
+
+    private ContentTreeNavigator navigator = ContentTreeNavigator.getInstance();
+
+    private ContentDetail root;
+    private ContentDetail economy;
+    private ContentDetail inflation;
+    private ContentDetail people;
+    private ContentTreeIndex index;
+
+    @Before
+    public void setUp() {
+        root = node("/");
+        economy = child(root, "/economy");
+        inflation = child(economy, "/economy/inflation");
+        people = child(root, "/people");
+        index = ContentTreeIndex.build(root);
+    }
+
+    @Test
+    public void findContentDetail_ShouldFindNodeByUriUsingIndex() {
+
+        // Given an indexed tree
+
+        // When nodes are found by uri, with or without the data.json file name
+        // Then the indexed nodes are returned
+        assertSame(inflation, navigator.findContentDetail(index, Paths.get("/economy/inflation")).get());
+        assertSame(inflation, navigator.findContentDetail(index, Paths.get("/economy/inflation/data.json")).get());
+        assertSame(economy, navigator.findContentDetail(index, Paths.get("economy")).get());
+        assertFalse(navigator.findContentDetail(index, Paths.get("/economy/gdp")).isPresent());
+    }
+
+    @Test
+    public void overlayDetails_ShouldCopyOnlyThePathToNewNodes() {
+
+        // Given an overlay on an indexed tree
+        ContentTreeIndex overlay = index.overlay();
+
+        // When a new page and an existing page are overlayed
+        ContentDetail newPage = node("/economy/inflation/bulletins/cpi");
+        ContentDetail existingPage = node("/people");
+        navigator.overlayDetails(overlay, Arrays.asList(newPage, existingPage));
+
+        // Then the new page is added under copies of its parents, a directory is created for the missing parent,
+        // the untouched branch is shared and the original tree is unchanged
+        ContentDetail overlayedEconomy = overlay.getRoot().getChildWithUri("/economy");
+        assertNotSame(economy, overlayedEconomy);
+        assertSame(people, overlay.getRoot().getChildWithUri("/people"));
+        assertEquals(2, overlay.getRoot().children.size());
+
+        ContentDetail bulletins = overlayedEconomy.getChildWithUri("/economy/inflation").getChildWithName("bulletins");
+        assertSame(newPage, bulletins.children.get(0));
+        assertSame(newPage, navigator.findContentDetail(overlay, Paths.get("/economy/inflation/bulletins/cpi")).get());
+
+        assertTrue(inflation.children.isEmpty());
+        assertFalse(navigator.findContentDetail(index, Paths.get("/economy/inflation/bulletins/cpi")).isPresent());
+    }
+
+    @Test
+    public void updateCopyOfNodeAndDescendants_ShouldNotChangeSharedNodes() {
+
+        // Given an overlay on an indexed tree
+        ContentTreeIndex overlay = index.overlay();
+
+        // When a node and its descendants are updated
+        List<ContentDetail> updated = new ArrayList<>();
+        boolean found = navigator.updateCopyOfNodeAndDescendants(overlay, Paths.get("/economy"), updated::add);
+
+        // Then copies of the node and its descendants are updated in place of the originals
+        assertTrue(found);
+        assertEquals(2, updated.size());
+        assertSame(updated.get(0), overlay.getRoot().getChildWithUri("/economy"));
+        assertSame(updated.get(1), navigator.findContentDetail(overlay, Paths.get("/economy/inflation")).get());
+        assertNotSame(economy, updated.get(0));
+        assertNotSame(inflation, updated.get(1));
+        assertSame(economy, root.getChildWithUri("/economy"));
+    }
+
+    private ContentDetail node(String uri) {
+        ContentDetail node = new ContentDetail(uri, uri, "article");
+        node.contentPath = uri;
+        node.children = new ArrayList<>();
+        return node;
+    }
+
+    private ContentDetail child(ContentDetail parent, String uri) {
+        ContentDetail child = node(uri);
+        parent.children.add(child);
+        return child;
+    }
+}
@@ -1,6 +1,5 @@
 package com.github.onsdigital.zebedee.session.service;
 
-import com.github.davidcarboni.cryptolite.Random;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.json.Credentials;
@@ -20,16 +19,15 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
-import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static com.github.onsdigital.zebedee.Zebedee.SESSIONS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
@@ -109,59 +107,32 @@ public class SessionsServiceTest {
 
     @Test
     public void shouldNotCreateDuplicateSession() throws IOException, NotFoundException, BadRequestException {
-        ReflectionTestUtils.setField(sessionsService, "sessionsStore", sessionsStore);
-        Path p = sessionPath();
-
-        when(sessionsStore.read(any()))
-                .thenReturn(null);
-        when(sessionMock.getEmail())
-                .thenReturn(EMAIL);
-        when(sessionMock.getLastAccess())
-                .thenReturn(new Date());
-
-        sessionsService.create(user);
-
-        when(sessionsStore.find(EMAIL))
-                .thenReturn(sessionMock);
-
-        when(sessionsStore.read(any()))
-                .thenReturn(sessionMock);
-
-        sessionsService.create(user);
+        Session first = sessionsService.create(user);
+        Session second = sessionsService.create(user);
 
-        verify(sessionsStore, times(2)).find(EMAIL);
-        verify(sessionsStore, times(1)).write(sessionMock);
+        assertThat(second, equalTo(first));
+        verify(sessionsStore, times(1)).write(any(Session.class));
+        verify(randomIdGenerator, times(1)).get();
     }
 
     @Test
     public void shouldGetSession() throws IOException, NotFoundException, BadRequestException {
-        // Create a session.
-        randomIdGenerator = () -> Random.id();
-        ReflectionTestUtils.setField(sessionsService, "randomIdGenerator", randomIdGenerator);
-
-
         // create a session.
         Session expected = new Session();
         expected.setEmail(EMAIL);
         expected.setId(SESSION_ID);
 
-        when(sessionsStore.exists(SESSION_ID))
-                .thenReturn(true);
-        when(sessionsStore.read(sessionPath()))
-                .thenReturn(expected);
+        sessionsService.create(user);
 
         assertThat(sessionsService.get(SESSION_ID), equalTo(expected));
-        verify(sessionsStore, times(1)).exists(SESSION_ID);
-        verify(sessionsStore, times(1)).read(sessionPath());
+        assertTrue(sessionsService.exists(SESSION_ID));
+        verify(sessionsStore, never()).read(any(Path.class));
     }
 
     @Test
     public void shouldNotGetNonexistentSession() throws IOException, NotFoundException, BadRequestException {
-        when(sessionsStore.find(EMAIL))
-                .thenReturn(null);
-
-        assertThat(sessionsService.find(EMAIL), equalTo(null));
-        verify(sessionsStore, times(1)).find(EMAIL);
+        assertNull(sessionsService.get(SESSION_ID));
+        assertFalse(sessionsService.exists(SESSION_ID));
         verify(sessionsStore, never()).write(any(Session.class));
     }
 
@@ -176,43 +147,65 @@ public class SessionsServiceTest {
 
     @Test
     public void shouldFindSession() throws IOException, NotFoundException, BadRequestException {
-        when(sessionsStore.find(EMAIL))
-                .thenReturn(sessionMock);
-        when(sessionMock.getLastAccess())
-                .thenReturn(new Date());
+        Session expected = sessionsService.create(user);
 
-        assertThat(sessionsService.find(EMAIL), equalTo(sessionMock));
-        verify(sessionsStore, times(1)).find(EMAIL);
-        verify(sessionMock, times(1)).setLastAccess(any(Date.class));
-        verify(sessionMock, times(1)).getLastAccess();
-        verify(sessionsStore, times(1)).write(sessionMock);
+        // the email index is case insensitive.
+        assertThat(sessionsService.find(EMAIL.toLowerCase()), equalTo(expected));
+        verify(sessionsStore, never()).find(anyString());
     }
 
     @Test
-    public void shouldNotFindNonexistentSession() throws IOException {
-        when(sessionsStore.find(EMAIL))
-                .thenReturn(null);
+    public void shouldWriteLastAccessBehind() throws IOException {
+        // Given a session that has been accessed
+        Session session = sessionsService.create(user);
+        session.setLastAccess(new DateTime().minusMinutes(5).toDate());
+        sessionsService.get(SESSION_ID);
+
+        // Then the access is only written on the next flush
+        verify(sessionsStore, times(1)).write(session);
+        sessionsService.flushLastAccess();
+        verify(sessionsStore, times(2)).write(session);
+        sessionsService.flushLastAccess();
+        verify(sessionsStore, times(2)).write(session);
+    }
 
+    @Test
+    public void shouldNotFindNonexistentSession() throws IOException {
         assertNull(sessionsService.find(EMAIL));
-        verify(sessionsStore, times(1)).find(EMAIL);
+        verify(sessionsStore, never()).find(EMAIL);
         verify(sessionsStore, never()).write(any(Session.class));
     }
 
     @Test
     public void shouldExpireSessions() throws IOException, InterruptedException, NotFoundException, BadRequestException {
-        List<Session> expired = new ArrayList<>();
-        expired.add(sessionMock);
+        Session session = sessionsService.create(user);
+        session.setLastAccess(new DateTime().minusHours(2).toDate());
 
-        when(sessionsStore.filterSessions(any(Predicate.class)))
-                .thenReturn(expired);
-        when(sessionMock.getId())
-                .thenReturn(SESSION_ID);
+        when(sessionsStore.exists(SESSION_ID))
+                .thenReturn(true);
 
         sessionsService.deleteExpiredSessions();
 
-        verify(sessionsStore, times(1)).filterSessions(any(Predicate.class));
-        verify(sessionMock, times(2)).getId();
         verify(sessionsStore, times(1)).delete(sessionPath());
+        assertFalse(sessionsService.exists(SESSION_ID));
+        assertNull(sessionsService.find(EMAIL));
+    }
+
+    @Test
+    public void shouldReloadPersistedSessions() throws IOException {
+        // Given a session whose last access has been written behind
+        SessionsService service = new SessionsService(sessionsPath);
+        Session session = service.create(user);
+        service.get(session.getId());
+        session.setLastAccess(new DateTime().minusMinutes(10).toDate());
+        service.flushLastAccess();
+
+        // When the sessions are loaded on restart
+        SessionsService restarted = new SessionsService(sessionsPath);
+
+        // Then the session can be found by id and email
+        assertTrue(restarted.read(session.getId()).getLastAccess().before(new DateTime().minusMinutes(5).toDate()));
+        assertThat(restarted.find(EMAIL).getId(), equalTo(session.getId()));
     }
 
     @Test
@@ -0,0 +1,145 @@
+package com.github.onsdigital.zebedee.user.service;
+
+import com.github.davidcarboni.cryptolite.Keys;
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.onsdigital.zebedee.Zebedee;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.json.Keyring;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.Collections;
+import com.github.onsdigital.zebedee.model.KeyManager;
+import com.github.onsdigital.zebedee.model.KeyringCache;
+import com.github.onsdigital.zebedee.model.encryption.ApplicationKeys;
+import com.github.onsdigital.zebedee.permissions.service.PermissionsService;
+import com.github.onsdigital.zebedee.session.model.Session;
+import com.github.onsdigital.zebedee.session.service.SessionsService;
+import com.github.onsdigital.zebedee.user.model.User;
+import com.github.onsdigital.zebedee.user.store.UserStore;
+import com.github.onsdigital.zebedee.user.store.UserStoreFileSystemImpl;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures distributing a collection key to a few thousand file backed users, first to every user of a new collection
+ * and then again once the collection is restricted to half of them, which removes the key from the other half.
+ * <p>
+ * Run from the zebedee-cms module root after test sources are compiled (mvn test-compile):
+ * <pre>
+ * java -cp target/test-classes:target/classes:target/dependency/* com.github.onsdigital.zebedee.user.service.KeyDistributionBenchmark
+ * </pre>
+ * The number of threads keyrings are written on is set with the key_distribution_threads system property.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KeyDistributionBenchmark {
+
+    private static final String COLLECTION_ID = "collection-123";
+
+    @Param({"1000", "4000"})
+    private int users;
+
+    private Path usersPath;
+    private Zebedee zebedee;
+    private Session session;
+    private Collection collection;
+    private PermissionsService permissionsService;
+    private List<User> everyUser;
+    private List<User> halfOfUsers;
+
+    @Setup
+    public void createUsers() throws Exception {
+        usersPath = Files.createTempDirectory(Random.id());
+        UserStore userStore = new UserStoreFileSystemImpl(usersPath);
+
+        // Only the public key is needed to add a key to a keyring so every user can share one key pair.
+        Keyring keyring = Keyring.generate("password");
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@ons.gov.uk");
+            user.setName("User " + i);
+            user.setKeyring(keyring.emptyClone());
+            userStore.save(user);
+        }
+        everyUser = new ArrayList<>(userStore.list());
+        halfOfUsers = new ArrayList<>(everyUser.subList(0, users / 2));
+
+        permissionsService = mock(PermissionsService.class);
+        UsersService usersService = new UsersServiceImpl(userStore, mock(Collections.class), permissionsService,
+                mock(ApplicationKeys.class), mock(KeyringCache.class));
+
+        SecretKey collectionKey = Keys.newSecretKey();
+        session = new Session();
+        Keyring sessionKeyring = mock(Keyring.class);
+        when(sessionKeyring.get(COLLECTION_ID)).thenReturn(collectionKey);
+
+        KeyringCache keyringCache = mock(KeyringCache.class);
+        when(keyringCache.get(session)).thenReturn(sessionKeyring);
+        when(keyringCache.getSchedulerCache()).thenReturn(new ConcurrentHashMap<>());
+
+        zebedee = mock(Zebedee.class);
+        when(zebedee.getUsersService()).thenReturn(usersService);
+        when(zebedee.getSessionsService()).thenReturn(mock(SessionsService.class));
+        when(zebedee.getKeyringCache()).thenReturn(keyringCache);
+        when(zebedee.getPermissionsService()).thenReturn(permissionsService);
+
+        CollectionDescription description = new CollectionDescription("collection");
+        description.setId(COLLECTION_ID);
+        collection = mock(Collection.class);
+        when(collection.getDescription()).thenReturn(description);
+    }
+
+    @TearDown
+    public void deleteUsers() throws IOException {
+        FileUtils.deleteDirectory(usersPath.toFile());
+    }
+
+    @Benchmark
+    public void distributeToNewCollection() throws IOException {
+        when(permissionsService.getCollectionAccessMapping(collection)).thenReturn(everyUser);
+        KeyManager.distributeCollectionKey(zebedee, session, collection, true);
+    }
+
+    @Benchmark
+    public void distributeToRestrictedCollection() throws IOException {
+        when(permissionsService.getCollectionAccessMapping(collection)).thenReturn(halfOfUsers);
+        KeyManager.distributeCollectionKey(zebedee, session, collection, false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(KeyDistributionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
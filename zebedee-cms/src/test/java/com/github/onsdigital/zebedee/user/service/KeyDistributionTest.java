@@ -0,0 +1,182 @@
+package com.github.onsdigital.zebedee.user.service;
+
+import com.github.davidcarboni.cryptolite.Keys;
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.onsdigital.zebedee.Zebedee;
+import com.github.onsdigital.zebedee.json.CollectionDescription;
+import com.github.onsdigital.zebedee.json.Keyring;
+import com.github.onsdigital.zebedee.model.Collection;
+import com.github.onsdigital.zebedee.model.Collections;
+import com.github.onsdigital.zebedee.model.KeyManager;
+import com.github.onsdigital.zebedee.model.KeyringCache;
+import com.github.onsdigital.zebedee.model.encryption.ApplicationKeys;
+import com.github.onsdigital.zebedee.permissions.service.PermissionsService;
+import com.github.onsdigital.zebedee.session.model.Session;
+import com.github.onsdigital.zebedee.session.service.SessionsService;
+import com.github.onsdigital.zebedee.user.model.User;
+import com.github.onsdigital.zebedee.user.model.UserList;
+import com.github.onsdigital.zebedee.user.store.UserStore;
+import com.github.onsdigital.zebedee.user.store.UserStoreFileSystemImpl;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Distributes collection keys to file backed users to check every keyring is updated when the keyrings are written
+ * concurrently, and that concurrent distributions of the same collection key leave every keyring matching the
+ * permissions read last.
+ */
+public class KeyDistributionTest {
+
+    private static final int USERS = 40;
+    private static final String COLLECTION_ID = "collection-123";
+
+    private Path usersPath;
+    private UserStore userStore;
+    private Zebedee zebedee;
+    private Session session;
+    private Collection collection;
+    private PermissionsService permissionsService;
+    private Map<String, SecretKey> schedulerCache;
+    private SecretKey collectionKey;
+
+    @Before
+    public void setUp() throws Exception {
+        usersPath = Files.createTempDirectory(Random.id());
+        userStore = new UserStoreFileSystemImpl(usersPath);
+
+        // Only the public key is needed to add a key to a keyring so every user can share one key pair.
+        Keyring keyring = Keyring.generate("password");
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@ons.gov.uk");
+            user.setName("User " + i);
+            user.setKeyring(keyring.emptyClone());
+            userStore.save(user);
+        }
+
+        permissionsService = mock(PermissionsService.class);
+        UsersService usersService = new UsersServiceImpl(userStore, mock(Collections.class), permissionsService,
+                mock(ApplicationKeys.class), mock(KeyringCache.class));
+
+        collectionKey = Keys.newSecretKey();
+        session = new Session();
+        Keyring sessionKeyring = mock(Keyring.class);
+        when(sessionKeyring.get(COLLECTION_ID)).thenReturn(collectionKey);
+
+        schedulerCache = new ConcurrentHashMap<>();
+        KeyringCache keyringCache = mock(KeyringCache.class);
+        when(keyringCache.get(session)).thenReturn(sessionKeyring);
+        when(keyringCache.getSchedulerCache()).thenReturn(schedulerCache);
+
+        zebedee = mock(Zebedee.class);
+        when(zebedee.getUsersService()).thenReturn(usersService);
+        when(zebedee.getSessionsService()).thenReturn(mock(SessionsService.class));
+        when(zebedee.getKeyringCache()).thenReturn(keyringCache);
+        when(zebedee.getPermissionsService()).thenReturn(permissionsService);
+
+        CollectionDescription description = new CollectionDescription("collection");
+        description.setId(COLLECTION_ID);
+        collection = mock(Collection.class);
+        when(collection.getDescription()).thenReturn(description);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(usersPath.toFile());
+    }
+
+    @Test
+    public void distributeCollectionKey_ShouldUpdateEveryUserKeyring() throws Exception {
+
+        // Given a new collection every user has access to
+        UserList users = userStore.list();
+        when(permissionsService.getCollectionAccessMapping(collection)).thenReturn(new ArrayList<>(users));
+
+        // When the collection key is distributed
+        KeyManager.distributeCollectionKey(zebedee, session, collection, true);
+
+        // Then every user has the key saved in their keyring
+        for (User user : userStore.list()) {
+            assertTrue(user.getEmail(), user.keyring().list().contains(COLLECTION_ID));
+        }
+        assertEquals(collectionKey, schedulerCache.get(COLLECTION_ID));
+
+        // Given the collection is restricted to half of the users
+        List<User> permitted = new ArrayList<>(users.subList(0, USERS / 2));
+        when(permissionsService.getCollectionAccessMapping(collection)).thenReturn(permitted);
+
+        // When the collection key is distributed again
+        KeyManager.distributeCollectionKey(zebedee, session, collection, false);
+
+        // Then the key is only kept by the permitted users
+        assertOnlyPermittedUsersHaveKey(permitted);
+    }
+
+    @Test
+    public void distributeCollectionKey_ShouldApplyConcurrentDistributionsInTurn() throws Exception {
+
+        // Given a collection every user has a key for
+        UserList users = userStore.list();
+        when(permissionsService.getCollectionAccessMapping(collection)).thenReturn(new ArrayList<>(users));
+        KeyManager.distributeCollectionKey(zebedee, session, collection, true);
+
+        // And permissions that change from the first half of the users to the second half between two reads
+        List<User> firstHalf = new ArrayList<>(users.subList(0, USERS / 2));
+        List<User> secondHalf = new ArrayList<>(users.subList(USERS / 2, USERS));
+        when(permissionsService.getCollectionAccessMapping(collection)).thenReturn(firstHalf, secondHalf);
+
+        // When the collection key is distributed by two requests at the same time
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Void> distribute = () -> {
+            start.await();
+            KeyManager.distributeCollectionKey(zebedee, session, collection, false);
+            return null;
+        };
+        try {
+            Future<Void> first = requests.submit(distribute);
+            Future<Void> second = requests.submit(distribute);
+            start.countDown();
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+        } finally {
+            requests.shutdownNow();
+        }
+
+        // Then every keyring matches the permissions that were read last
+        assertOnlyPermittedUsersHaveKey(secondHalf);
+    }
+
+    private void assertOnlyPermittedUsersHaveKey(List<User> permitted) throws Exception {
+        for (User user : userStore.list()) {
+            boolean hasKey = user.keyring().list().contains(COLLECTION_ID);
+            if (permitted.contains(user)) {
+                assertTrue(user.getEmail(), hasKey);
+            } else {
+                assertFalse(user.getEmail(), hasKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.onsdigital.zebedee.user.store;
+
+import com.github.davidcarboni.cryptolite.Keys;
+import com.github.davidcarboni.cryptolite.Random;
+import com.github.onsdigital.zebedee.json.Keyring;
+import com.github.onsdigital.zebedee.permissions.store.PermissionsDataVersion;
+import com.github.onsdigital.zebedee.user.model.User;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class UserStoreFileSystemImplTest {
+
+    private Path usersPath;
+    private UserStore userStore;
+
+    @Before
+    public void setUp() throws Exception {
+        usersPath = Files.createTempDirectory(Random.id());
+        userStore = new UserStoreFileSystemImpl(usersPath);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(usersPath.toFile());
+    }
+
+    @Test
+    public void save_ShouldOnlyInvalidatePermissionsWhenPermissionFieldsChange() throws Exception {
+
+        // Given a saved user
+        User user = new User();
+        user.setEmail("user@ons.gov.uk");
+        user.setName("User");
+        user.setKeyring(Keyring.generate("password"));
+        userStore.save(user);
+        long version = PermissionsDataVersion.USERS.get();
+
+        // When a key is added to their keyring and they are saved again
+        user.keyring().put("collection-123", Keys.newSecretKey());
+        userStore.save(user);
+
+        // Then the users version is unchanged, so the permissions snapshot is kept
+        assertEquals(version, PermissionsDataVersion.USERS.get());
+
+        // When they are made inactive
+        user.setInactive(true);
+        userStore.save(user);
+
+        // Then the users version moves on
+        assertEquals(version + 1, PermissionsDataVersion.USERS.get());
+
+        // When they are deleted
+        userStore.delete(user);
+
+        // Then the users version moves on again
+        assertEquals(version + 2, PermissionsDataVersion.USERS.get());
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.Test;
 import javax.crypto.SecretKey;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -73,4 +74,45 @@ Path path;
         assertEquals(plain, value);
     }
 
+    @Test
+    public void getPlainLength_afterEncrypting_returnsLengthWithoutDecrypting() throws IOException {
+        // Given
+        // some text we have encrypted and closed
+        SecretKey key = Keys.newSecretKey();
+        String plain = "lorem ipsum dolor sit amet";
+        try (OutputStream outputStream = EncryptionUtils.encryptionOutputStream(path, key)) {
+            IOUtils.copy(IOUtils.toInputStream(plain), outputStream);
+        }
+
+        // When
+        // we read the length
+        long length = EncryptionUtils.getPlainLength(path);
+
+        // Then
+        // it is the length of the plain text and the text still decrypts
+        assertEquals(plain.length(), length);
+        assertEquals(plain, IOUtils.toString(EncryptionUtils.encryptionInputStream(path, key), "UTF8"));
+    }
+
+    @Test
+    public void inputStream_withoutLengthHeader_deciphersGobbledygook() throws IOException {
+        // Given
+        // some text encrypted before length headers were written
+        SecretKey key = Keys.newSecretKey();
+        String plain = "lorem ipsum dolor sit amet";
+        try (OutputStream outputStream = EncryptionUtils.encryptionOutputStream(Files.newOutputStream(path), key)) {
+            IOUtils.copy(IOUtils.toInputStream(plain), outputStream);
+        }
+
+        // When
+        // we read the length and decrypt
+        long length = EncryptionUtils.getPlainLength(path);
+        String value = IOUtils.toString(EncryptionUtils.encryptionInputStream(path, key), "UTF8");
+
+        // Then
+        // the length is unknown but the text still decrypts
+        assertEquals(EncryptionUtils.UNKNOWN_LENGTH, length);
+        assertEquals(plain, value);
+    }
+
 }
\ No newline at end of file
@@ -9,9 +9,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ZipUtilsTest {
 
@@ -79,4 +85,35 @@ public class ZipUtilsTest {
         Assert.assertTrue(unzippedFolder.toFile().exists());
         Assert.assertTrue(unzippedFolder.resolve("example-table.xls").toFile().exists());
     }
+
+    @Test
+    public void zipFolderWithPoolShouldAddEveryFileInOrder() throws IOException {
+
+        // Given a folder with more files than are read ahead, some in a sub folder
+        File folderToZip = Files.createDirectory(rootPath.resolve("folderToZip")).toFile();
+        Files.createDirectory(folderToZip.toPath().resolve("sub"));
+        for (int i = 0; i < 50; i++) {
+            Files.write(folderToZip.toPath().resolve((i % 2 == 0 ? "sub/" : "") + i + ".json"), ("file " + i).getBytes());
+        }
+        File zipFile = rootPath.resolve(Random.id() + ".zip").toFile();
+
+        // When the folder is zipped reading the files on a pool
+        Map<String, Long> pooledCrcs = new LinkedHashMap<>();
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try (OutputStream outputStream = new FileOutputStream(zipFile)) {
+            Assert.assertEquals(50, ZipUtils.zipFolder(folderToZip, outputStream, pooledCrcs, readers));
+        } finally {
+            readers.shutdown();
+        }
+
+        // Then the entries are the same, in the same order, as zipping without the pool
+        Map<String, Long> entryCrcs = new LinkedHashMap<>();
+        ZipUtils.zipFolder(folderToZip, new FileOutputStream(rootPath.resolve(Random.id() + ".zip").toFile()), entryCrcs);
+        Assert.assertEquals(entryCrcs.keySet().toString(), pooledCrcs.keySet().toString());
+        Assert.assertEquals(entryCrcs, pooledCrcs);
+
+        Path unzippedFolder = rootPath.resolve("unzipped");
+        ZipUtils.unzip(zipFile, unzippedFolder.toString());
+        Assert.assertEquals("file 48", new String(Files.readAllBytes(unzippedFolder.resolve("sub/48.json"))));
+    }
 }
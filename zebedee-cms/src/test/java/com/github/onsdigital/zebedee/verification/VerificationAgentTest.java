@@ -0,0 +1,176 @@
+package com.github.onsdigital.zebedee.verification;
+
+import com.github.onsdigital.zebedee.Zebedee;
+import com.github.onsdigital.zebedee.configuration.Configuration;
+import com.github.onsdigital.zebedee.json.CollectionType;
+import com.github.onsdigital.zebedee.json.publishing.PublishedCollection;
+import com.github.onsdigital.zebedee.json.publishing.Result;
+import com.github.onsdigital.zebedee.json.publishing.Transaction;
+import com.github.onsdigital.zebedee.json.publishing.UriInfo;
+import com.github.onsdigital.zebedee.model.publishing.PublishedCollections;
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VerificationAgentTest {
+
+    private static final String HASH = "0123456789abcdef";
+
+    private HttpServer website;
+
+    @After
+    public void tearDown() {
+        if (website != null) {
+            website.stop(0);
+        }
+        System.clearProperty("verification_url");
+    }
+
+    @Test
+    public void retryDelay_ShouldDoubleOnEachRetryUpToTheMaxDelay() {
+
+        // Given the configured retry delays
+        long delay = Configuration.getVerifyRetrtyDelay();
+        long maxDelay = Configuration.getVerifyMaxRetrtyDelay();
+
+        // When the delay is worked out for each retry
+        // Then it doubles each time until it reaches the max delay
+        assertEquals(delay, VerificationAgent.retryDelay(1));
+        assertEquals(Math.min(delay * 2, maxDelay), VerificationAgent.retryDelay(2));
+        assertEquals(Math.min(delay * 4, maxDelay), VerificationAgent.retryDelay(3));
+        assertEquals(maxDelay, VerificationAgent.retryDelay(Configuration.getVerifyRetrtyCount()));
+    }
+
+    @Test
+    public void submitForVerification_ShouldVerifyTheRestOfABatchWhenAUriThrows() throws Exception {
+
+        // Given a website serving the hash of each published uri
+        website = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        website.createContext("/hash", exchange -> {
+            byte[] response = HASH.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(response);
+            }
+        });
+        website.start();
+        System.setProperty("verification_url", "http://localhost:" + website.getAddress().getPort());
+
+        // And a published collection with one uri that has no hash, which throws when it is verified
+        Transaction transaction = new Transaction();
+        List<UriInfo> published = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            published.add(uriInfo("/economy/" + i + "/data.json", HASH));
+        }
+        UriInfo noHash = uriInfo("/economy/nohash/data.json", null);
+        transaction.uriInfos.addAll(published);
+        transaction.uriInfos.add(noHash);
+
+        PublishedCollection collection = publishedCollection(transaction);
+
+        Zebedee zebedee = mock(Zebedee.class);
+        when(zebedee.getPublishedCollections()).thenReturn(mock(PublishedCollections.class));
+
+        // When the collection is submitted for verification
+        VerificationAgent agent = new VerificationAgent(zebedee);
+        agent.submitForVerification(collection, Paths.get("published.json"), mock(CollectionReader.class));
+        for (int i = 0; i < 100 && agent.getVerifiedCount() + agent.getRetriedCount() < published.size() + 1; i++) {
+            Thread.sleep(100);
+        }
+
+        // Then every other uri in the batch is verified and the uri that threw is retried
+        for (UriInfo uriInfo : published) {
+            assertEquals(uriInfo.uri, UriInfo.VERIFIED, uriInfo.verificationStatus);
+        }
+        assertEquals(UriInfo.VERIFY_RETRYING, noHash.verificationStatus);
+        assertEquals(1, agent.getRetriedCount());
+        assertEquals(1, agent.getOutstandingCount());
+    }
+
+    @Test
+    public void submitForVerification_ShouldCheckTheUrisOfABatchAtTheSameTime() throws Exception {
+
+        // Given a website that only serves the right hash once every uri of the batch has been requested at once
+        int uris = 5;
+        CountDownLatch requested = new CountDownLatch(uris);
+        website = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        website.setExecutor(Executors.newCachedThreadPool());
+        website.createContext("/hash", exchange -> {
+            requested.countDown();
+            String hash;
+            try {
+                hash = requested.await(10, TimeUnit.SECONDS) ? HASH : "not yet";
+            } catch (InterruptedException e) {
+                hash = "interrupted";
+            }
+            byte[] response = hash.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(response);
+            }
+        });
+        website.start();
+        System.setProperty("verification_url", "http://localhost:" + website.getAddress().getPort());
+
+        // And a published collection with a single batch of uris
+        Transaction transaction = new Transaction();
+        List<UriInfo> published = new ArrayList<>();
+        for (int i = 0; i < uris; i++) {
+            published.add(uriInfo("/economy/" + i + "/data.json", HASH));
+        }
+        transaction.uriInfos.addAll(published);
+        PublishedCollection collection = publishedCollection(transaction);
+
+        Zebedee zebedee = mock(Zebedee.class);
+        when(zebedee.getPublishedCollections()).thenReturn(mock(PublishedCollections.class));
+
+        // When the collection is submitted for verification
+        VerificationAgent agent = new VerificationAgent(zebedee);
+        agent.submitForVerification(collection, Paths.get("published.json"), mock(CollectionReader.class));
+        for (int i = 0; i < 150 && agent.getVerifiedCount() + agent.getRetriedCount() < uris; i++) {
+            Thread.sleep(100);
+        }
+
+        // Then every uri is verified on the first check
+        for (UriInfo uriInfo : published) {
+            assertEquals(uriInfo.uri, UriInfo.VERIFIED, uriInfo.verificationStatus);
+        }
+        assertEquals(0, agent.getRetriedCount());
+        assertEquals(0, agent.getOutstandingCount());
+    }
+
+    private static PublishedCollection publishedCollection(Transaction transaction) {
+        Result result = new Result();
+        result.transaction = transaction;
+        PublishedCollection collection = new PublishedCollection("id", "name", CollectionType.manual, new Date());
+        collection.verifiedCount = 0;
+        collection.verifyFailedCount = 0;
+        collection.verifyInprogressCount = 0;
+        collection.publishResults = new ArrayList<>();
+        collection.publishResults.add(result);
+        return collection;
+    }
+
+    private static UriInfo uriInfo(String uri, String sha) {
+        UriInfo uriInfo = new UriInfo();
+        uriInfo.uri = uri;
+        uriInfo.sha = sha;
+        return uriInfo;
+    }
+}
@@ -1,14 +1,19 @@
 package com.github.onsdigital.zebedee.content.base;
 
-import com.github.onsdigital.zebedee.content.util.ContentUtil;
-
 /**
  * Created by bren on 03/08/15.
  */
 public class Content implements Cloneable {
 
+    /**
+     * Shallow copy, fields of the copy refer to the same objects as the original's.
+     */
     @Override
-    public Object clone() throws CloneNotSupportedException {
-        return ContentUtil.clone(this);
+    public Content clone() {
+        try {
+            return (Content) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -48,6 +48,52 @@ public class TimeSeries extends StatisticalData implements Comparable<TimeSeries
      */
     public List<String> sourceDatasets = new ArrayList<String>();
 
+    public TimeSeries() {
+    }
+
+    /**
+     * Copies the given timeseries without serialising it. Each value is copied, so values of the copy can be changed
+     * without affecting the given timeseries. Lists of page metadata are copied but the description and the items
+     * in those lists are shared with the given timeseries.
+     *
+     * @param other the timeseries to copy
+     */
+    public TimeSeries(TimeSeries other) {
+        this.years = copyValues(other.years);
+        this.quarters = copyValues(other.quarters);
+        this.months = copyValues(other.months);
+        this.csvValueScaleFactor = other.csvValueScaleFactor;
+        this.sourceDatasets = copyList(other.sourceDatasets);
+
+        setUri(other.getUri());
+        setDescription(other.getDescription());
+        setTopics(copyList(other.getTopics()));
+        setAlerts(copyList(other.getAlerts()));
+        setRelatedMethodology(copyList(other.getRelatedMethodology()));
+        setRelatedMethodologyArticle(copyList(other.getRelatedMethodologyArticle()));
+        setVersions(copyList(other.getVersions()));
+        setRelatedDatasets(copyList(other.getRelatedDatasets()));
+        setSection(other.getSection());
+        setNotes(copyList(other.getNotes()));
+        setRelatedDocuments(copyList(other.getRelatedDocuments()));
+        setRelatedData(copyList(other.getRelatedData()));
+    }
+
+    private static TreeSet<TimeSeriesValue> copyValues(TreeSet<TimeSeriesValue> values) {
+        if (values == null) {
+            return null;
+        }
+        TreeSet<TimeSeriesValue> copy = new TreeSet<>();
+        for (TimeSeriesValue value : values) {
+            copy.add(new TimeSeriesValue(value));
+        }
+        return copy;
+    }
+
+    private static <T> List<T> copyList(List<T> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+
     public void add(TimeSeriesValue value) {
 
         try {
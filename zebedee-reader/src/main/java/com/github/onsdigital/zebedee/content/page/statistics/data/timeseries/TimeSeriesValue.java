@@ -38,6 +38,26 @@ public class TimeSeriesValue implements Comparable<TimeSeriesValue> {
 	 */
 	private transient Date toDate;
 
+	public TimeSeriesValue() {
+	}
+
+	/**
+	 * Copies all fields of the given value, including the parsed date so it is not parsed again.
+	 *
+	 * @param other the value to copy
+	 */
+	public TimeSeriesValue(TimeSeriesValue other) {
+		this.date = other.date;
+		this.value = other.value;
+		this.label = other.label;
+		this.year = other.year;
+		this.month = other.month;
+		this.quarter = other.quarter;
+		this.sourceDataset = other.sourceDataset;
+		this.updateDate = other.updateDate == null ? null : new Date(other.updateDate.getTime());
+		this.toDate = other.toDate;
+	}
+
 	/**
 	 * Calls {@link #toDate()} and returns {@link Date#hashCode()}.
 	 */
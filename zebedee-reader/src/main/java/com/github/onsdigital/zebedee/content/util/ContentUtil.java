@@ -1,11 +1,13 @@
 package com.github.onsdigital.zebedee.content.util;
 
 import com.github.onsdigital.zebedee.content.base.Content;
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
 import com.github.onsdigital.zebedee.content.page.base.Page;
 import com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -13,6 +15,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Created by bren on 06/06/15.
@@ -23,6 +27,8 @@ import java.util.Date;
  */
 public class ContentUtil {
 
+    private static final Map<String, Gson> gsonCache = new ConcurrentHashMap<>();
+
     /**
      * Returns json string for given object
      *
@@ -102,14 +108,7 @@ public class ContentUtil {
      * @return
      */
     public static Page deserialiseContent(InputStream stream) {
-        try (InputStreamReader inputStreamReader = new InputStreamReader(stream)) {
-            return createBuilder(ContentConstants.JSON_DATE_PATTERN)
-                    .registerTypeAdapter(Page.class, new PageTypeResolver())
-                    .create().fromJson(inputStreamReader, Page.class);
-        } catch (IOException ex) {
-            ZebedeeReaderLogBuilder.logError(ex, "Failed to close inputstream reader.").log();
-            throw new RuntimeException(ex);
-        }
+        return deserialiseContent(stream, ContentConstants.JSON_DATE_PATTERN);
     }
 
 
@@ -121,7 +120,12 @@ public class ContentUtil {
      * @return
      */
     public static Page deserialiseContent(InputStream stream, String datePattern) {
-        return createBuilder(datePattern).registerTypeAdapter(Page.class, new PageTypeResolver()).create().fromJson(new InputStreamReader(stream), Page.class);
+        try (InputStreamReader inputStreamReader = new InputStreamReader(stream)) {
+            return deserialiseContent(IOUtils.toString(inputStreamReader), datePattern);
+        } catch (IOException ex) {
+            ZebedeeReaderLogBuilder.logError(ex, "Failed to close inputstream reader.").log();
+            throw new RuntimeException(ex);
+        }
     }
 
 
@@ -132,7 +136,7 @@ public class ContentUtil {
      * @return
      */
     public static Page deserialiseContent(String json) {
-        return createBuilder(ContentConstants.JSON_DATE_PATTERN).registerTypeAdapter(Page.class, new PageTypeResolver()).create().fromJson(json, Page.class);
+        return deserialiseContent(json, ContentConstants.JSON_DATE_PATTERN);
     }
 
     /**
@@ -143,7 +147,34 @@ public class ContentUtil {
      * @return
      */
     public static Page deserialiseContent(String json, String datePattern) {
-        return createBuilder(datePattern).registerTypeAdapter(Page.class, new PageTypeResolver()).create().fromJson(json, Page.class);
+        Class<? extends Page> pageClass = PageTypeResolver.resolvePageClass(json);
+        if (pageClass == null) {
+            return null;
+        }
+        return gson(datePattern).fromJson(json, pageClass);
+    }
+
+    /**
+     * Reads only type and description title, edition and release date of page json, without deserialising the rest of
+     * the page. Use when listing pages, e.g. browsing children or parents of content.
+     *
+     * @param stream json stream, closed after reading
+     * @return content node without uri, null if json does not have a type
+     */
+    public static ContentNode deserialiseContentNode(InputStream stream) {
+        return deserialiseContentNode(stream, ContentConstants.JSON_DATE_PATTERN);
+    }
+
+    /**
+     * Reads only type and description title, edition and release date of page json using given date pattern.
+     *
+     * @param stream      json stream, closed after reading
+     * @param datePattern date pattern to be used when reading release date
+     * @return content node without uri, null if json does not have a type
+     */
+    public static ContentNode deserialiseContentNode(InputStream stream, String datePattern) {
+        String pattern = StringUtils.isNotBlank(datePattern) ? datePattern : ContentConstants.JSON_DATE_PATTERN;
+        return new PageHeaderReader(pattern).read(new InputStreamReader(stream));
     }
 
     public static String hash(Content content) {
@@ -169,22 +200,41 @@ public class ContentUtil {
         return ObjectUtils.clone(o);
     }
 
+    /**
+     * Deep copies given object by serialising it into a json tree and reading it back, use for objects read from json
+     *
+     * @param o   object to be copied
+     * @param <O>
+     * @return copy of given object, null if given object is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <O> O copy(O o) {
+        if (o == null) {
+            return null;
+        }
+        Gson gson = gson();
+        return (O) gson.fromJson(gson.toJsonTree(o), o.getClass());
+    }
+
     private static Gson gson() {
         return gson(null);
     }
 
+    /**
+     * Gson instances are thread safe, they are built once per date pattern and reused.
+     */
     private static Gson gson(String datePattern) {
-        GsonBuilder builder = createBuilder(datePattern);
-        return builder.create();
+        String pattern = StringUtils.isNotBlank(datePattern) ? datePattern : ContentConstants.JSON_DATE_PATTERN;
+        Gson gson = gsonCache.get(pattern);
+        if (gson == null) {
+            gson = gsonCache.computeIfAbsent(pattern, p -> createBuilder(p).create());
+        }
+        return gson;
     }
 
     private static GsonBuilder createBuilder(String datePattern) {
         GsonBuilder builder = new GsonBuilder();
-        if (StringUtils.isNotBlank(datePattern)) {
-            builder.registerTypeAdapter(Date.class, new IsoDateSerializer(datePattern));
-        } else {
-            builder.registerTypeAdapter(Date.class, new IsoDateSerializer(ContentConstants.JSON_DATE_PATTERN));
-        }
+        builder.registerTypeAdapter(Date.class, new IsoDateSerializer(datePattern));
         return builder;
     }
 }
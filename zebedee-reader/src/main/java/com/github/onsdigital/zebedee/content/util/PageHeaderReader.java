@@ -0,0 +1,132 @@
+package com.github.onsdigital.zebedee.content.util;
+
+import com.github.onsdigital.zebedee.content.dynamic.ContentNodeDetails;
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
+import com.github.onsdigital.zebedee.content.page.base.PageType;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * Reads header fields of a page json (type, description title, edition and release date) by streaming through its top
+ * level fields. Reading stops as soon as both type and description are read, any other field on the way is skipped
+ * without being parsed, so large pages like time series are not read through.
+ */
+class PageHeaderReader {
+
+    private static final String TYPE = "type";
+    private static final String DESCRIPTION = "description";
+
+    private final IsoDateSerializer dateSerializer;
+
+    PageHeaderReader(String datePattern) {
+        this.dateSerializer = new IsoDateSerializer(datePattern);
+    }
+
+    /**
+     * @return content node with type and description of the page, uri is not set. Null if json is empty or does not
+     * have a known type, the same way as pages without type are not deserialised
+     * @throws JsonSyntaxException if the json is malformed
+     */
+    ContentNode read(Reader json) {
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return null;
+            }
+
+            PageType type = null;
+            ContentNodeDetails description = null;
+            boolean typeRead = false;
+            boolean descriptionRead = false;
+
+            reader.beginObject();
+            while (reader.hasNext() && !(typeRead && descriptionRead)) {
+                String name = reader.nextName();
+                if (TYPE.equals(name)) {
+                    type = readType(reader);
+                    typeRead = true;
+                } else if (DESCRIPTION.equals(name)) {
+                    description = readDescription(reader);
+                    descriptionRead = true;
+                } else {
+                    reader.skipValue();
+                }
+            }
+
+            if (type == null) {
+                return null;
+            }
+            ContentNode node = new ContentNode();
+            node.setType(type);
+            node.setDescription(description);
+            return node;
+        } catch (EOFException e) {
+            //empty document
+            return null;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // a field of the wrong kind, e.g. an object where a string is expected, is malformed json as well
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private PageType readType(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        String type = reader.nextString();
+        try {
+            return PageType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            // unknown types are read as null, the same way gson reads enum values
+            return null;
+        }
+    }
+
+    private ContentNodeDetails readDescription(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        ContentNodeDetails description = new ContentNodeDetails();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "title":
+                    description.setTitle(reader.nextString());
+                    break;
+                case "edition":
+                    description.setEdition(reader.nextString());
+                    break;
+                case "releaseDate":
+                    description.setReleaseDate(readDate(reader.nextString()));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return description;
+    }
+
+    private Date readDate(String date) {
+        try {
+            return dateSerializer.deserialize(date);
+        } catch (ParseException e) {
+            throw new JsonSyntaxException(date, e);
+        }
+    }
+}
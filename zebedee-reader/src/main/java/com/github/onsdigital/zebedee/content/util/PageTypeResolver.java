@@ -2,16 +2,16 @@ package com.github.onsdigital.zebedee.content.util;
 
 import com.github.onsdigital.zebedee.content.page.base.Page;
 import com.github.onsdigital.zebedee.content.page.base.PageType;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.reflections.Reflections;
 import org.reflections.util.ConfigurationBuilder;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -21,10 +21,13 @@ import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logE
 
 /**
  * Created by bren on 09/06/15.
+ * <p>
+ * Resolves the concrete page class for a page json by streaming through its top level fields until the type field is
+ * found. Other fields are skipped without being parsed into a json tree.
  */
-class PageTypeResolver implements JsonDeserializer<Page> {
+class PageTypeResolver {
 
-    private static Map<PageType, Class> contentClasses = new HashMap<PageType, Class>();
+    private static Map<PageType, Class<? extends Page>> contentClasses = new HashMap<>();
 
     static {
         registerContentTypes();
@@ -60,27 +63,55 @@ class PageTypeResolver implements JsonDeserializer<Page> {
         }
     }
 
-    @Override
-    public Page deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        JsonObject jsonObject = json.getAsJsonObject();
-
-        JsonElement jsonType = jsonObject.get("type");
-        if (jsonType == null) {
+    /**
+     * Resolves the page class for the given page json.
+     *
+     * @param json page json
+     * @return page class, null if json is empty or does not have a type field
+     */
+    static Class<? extends Page> resolvePageClass(String json) {
+        String type = readType(json);
+        if (type == null) {
             return null;
         }
 
-        String type = jsonType.getAsString();
-
         try {
             PageType contentType = PageType.valueOf(type);
-            Class<Page> pageClass = contentClasses.get(contentType);
-            if(pageClass == null) {
+            Class<? extends Page> pageClass = contentClasses.get(contentType);
+            if (pageClass == null) {
                 throw new RuntimeException("Could find content object for " + type);
             }
-            Page content = context.deserialize(json, pageClass);
-            return content;
+            return pageClass;
         } catch (IllegalArgumentException e) {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads top level type field of given json, stops reading as soon as type is found.
+     */
+    private static String readType(String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return null;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("type".equals(reader.nextName())) {
+                    if (reader.peek() == JsonToken.NULL) {
+                        return null;
+                    }
+                    return reader.nextString();
+                }
+                reader.skipValue();
+            }
+            return null;
+        } catch (EOFException e) {
+            //empty document
+            return null;
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+}
@@ -5,13 +5,23 @@ import com.github.onsdigital.zebedee.content.page.base.Page;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.reader.cache.CollectionContentIndex;
+import com.github.onsdigital.zebedee.reader.cache.CollectionContentIndex.State;
 import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+
+import static com.github.onsdigital.zebedee.util.URIUtils.removeLeadingSlash;
+import static com.github.onsdigital.zebedee.util.URIUtils.removeTrailingSlash;
 
 public abstract class CollectionReader {
 
@@ -20,6 +30,11 @@ public abstract class CollectionReader {
     protected ContentReader reviewed;
     protected ContentReader root;
 
+    /**
+     * The folder each uri was last read from, or null to try each folder in turn.
+     */
+    protected CollectionContentIndex index;
+
     protected boolean isEncrypted = false;
 
     public CollectionReader(boolean isEncrypted) {
@@ -47,7 +62,8 @@ public abstract class CollectionReader {
 
     /**
      * Reads content under a given collection root folder.
-     * Tries finding content under in progress, completePath and reviewedPath folders respectively. Throws not found exception if not found
+     * Tries finding content under in progress, completePath and reviewedPath folders respectively, starting with the
+     * folder it was last found in. Throws not found exception if not found
      *
      * @param path path of requested content under requested root folder
      * @return
@@ -55,30 +71,34 @@ public abstract class CollectionReader {
      * @throws IOException
      */
     public Page getContent(String path) throws ZebedeeException, IOException {
-        return findContent(path);
+        return findContent(path).orElseThrow(() -> notFound(path));
     }
 
 
     public Resource getResource(String path) throws ZebedeeException, IOException {
         try {
-            return findResource(path);
+            return findResource(path).orElseThrow(() -> notFound(path));
         } catch (BadRequestException e) {
             if(path.startsWith("/visualisations/")) {
-                return findResource(path + "/index.html");
+                String indexPath = path + "/index.html";
+                return findResource(indexPath).orElseThrow(() -> notFound(indexPath));
             }
             throw e;
         }
     }
 
     public long getContentLength(String path) throws ZebedeeException, IOException {
-        long length = getContentLengthQuiet(path, inProgress);
-        if (length == 0) {
-            length = getContentLengthQuiet(path, complete);
-            if (length == 0) {
-                length = reviewed.getContentLength(path);
+        for (State state : searchOrder(index == null ? Optional.empty() : index.getFile(path))) {
+            ContentReader reader = getReader(state);
+            if (hasResource(reader, path)) {
+                long length = reader.getContentLength(path);
+                if (index != null) {
+                    index.putFile(path, state);
+                }
+                return length;
             }
         }
-        return length;
+        throw notFound(path);
     }
 
     /**
@@ -112,51 +132,79 @@ public abstract class CollectionReader {
         return parents;
     }
 
-    private Page findContent(String path) throws IOException, ZebedeeException {
-        Page page = getContentQuiet(path, inProgress);
-        if (page == null) {
-            page = getContentQuiet(path, complete);
-            if (page == null) {
-                page = reviewed.getContent(path);
+    private Optional<Page> findContent(String path) throws IOException, ZebedeeException {
+        ContentLanguage language = inProgress.getLanguage();
+        for (State state : searchOrder(index == null ? Optional.empty() : index.getPage(path, language))) {
+            ContentReader reader = getReader(state);
+            if (hasContent(reader, path)) {
+                Page page = reader.getContent(path);
+                if (page != null) {
+                    if (index != null) {
+                        index.putPage(path, language, state);
+                    }
+                    return Optional.of(page);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Resource> findResource(String path) throws IOException, ZebedeeException {
+        for (State state : searchOrder(index == null ? Optional.empty() : index.getFile(path))) {
+            ContentReader reader = getReader(state);
+            if (hasResource(reader, path)) {
+                Resource resource = reader.getResource(path);
+                if (index != null) {
+                    index.putFile(path, state);
+                }
+                return Optional.of(resource);
             }
         }
-        return page;
+        return Optional.empty();
     }
 
-    private Resource findResource(String path) throws IOException, ZebedeeException {
-        Resource resource = getQuiet(path, inProgress);
-        if (resource == null) {
-            resource = getQuiet(path, complete);
-            if (resource == null) {
-                resource = reviewed.getResource(path);
+    /**
+     * @return the folders to look in, starting with the indexed folder if there is one, then in the order content is
+     * read.
+     */
+    private static List<State> searchOrder(Optional<State> indexed) {
+        List<State> states = new ArrayList<>(State.values().length);
+        indexed.ifPresent(states::add);
+        for (State state : State.values()) {
+            if (!indexed.isPresent() || indexed.get() != state) {
+                states.add(state);
             }
         }
-        return resource;
+        return states;
     }
 
-    //If content not found with given reader do not shout
-    private Resource getQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
-        try {
-            return contentReader.getResource(path);
-        } catch (NotFoundException e) {
-            return null;
+    private ContentReader getReader(State state) {
+        switch (state) {
+            case IN_PROGRESS:
+                return inProgress;
+            case COMPLETE:
+                return complete;
+            default:
+                return reviewed;
         }
     }
 
-    private long getContentLengthQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
-        try {
-            return contentReader.getContentLength(path);
-        } catch (NotFoundException e) {
-            return 0;
-        }
+    /**
+     * Checks for the json file the given reader would read a page from, without reading it.
+     */
+    private static boolean hasContent(ContentReader reader, String path) {
+        Path folder = reader.getRootFolder().resolve(removeLeadingSlash(path));
+        return Files.exists(reader.getRootFolder().resolve(removeLeadingSlash(removeTrailingSlash(path) + ".json")))
+                || Files.exists(folder.resolve(reader.getLanguage().getDataFileName()))
+                || Files.exists(folder.resolve(ContentLanguage.en.getDataFileName()));
     }
 
-    private Page getContentQuiet(String path, ContentReader contentReader) throws ZebedeeException, IOException {
-        try {
-            return contentReader.getContent(path);
-        } catch (NotFoundException e) {
-            return null;
-        }
+    private static boolean hasResource(ContentReader reader, String path) {
+        return Files.exists(reader.getRootFolder().resolve(removeLeadingSlash(path)));
+    }
+
+    private static NotFoundException notFound(String path) {
+        return new NotFoundException("Could not find requested content, path:" + path);
     }
 
     //If content not found with given reader do not shout
@@ -95,6 +95,22 @@ public class CompositeContentReader implements ContentReader {
         return 0; // should never happen
     }
 
+    @Override
+    public ContentNode getContentNode(String path) throws ZebedeeException, IOException {
+        Iterator<ContentReader> iterator = readers.iterator();
+        while (iterator.hasNext()) {
+            ContentReader reader = iterator.next();
+            try {
+                return reader.getContentNode(path);
+            } catch (ZebedeeException | IOException e) {
+                if (!iterator.hasNext()) {
+                    throw e;
+                }
+            }
+        }
+        return null; // should never happen
+    }
+
     @Override
     public Map<URI, ContentNode> getChildren(String path) throws ZebedeeException, IOException {
         Iterator<ContentReader> iterator = readers.iterator();
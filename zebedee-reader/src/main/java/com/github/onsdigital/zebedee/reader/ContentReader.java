@@ -22,6 +22,8 @@ public interface ContentReader {
 
     long getContentLength(String path) throws ZebedeeException, IOException;
 
+    ContentNode getContentNode(String path) throws ZebedeeException, IOException;
+
     Map<URI, ContentNode> getChildren(String path) throws ZebedeeException, IOException;
 
     DirectoryStream<Path> getDirectoryStream(String path) throws BadRequestException, IOException;
@@ -4,14 +4,14 @@ import com.github.onsdigital.zebedee.content.dynamic.ContentNodeDetails;
 import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
 import com.github.onsdigital.zebedee.content.page.base.Page;
 import com.github.onsdigital.zebedee.content.page.base.PageDescription;
-import com.github.onsdigital.zebedee.content.page.statistics.document.figure.chart.Chart;
-import com.github.onsdigital.zebedee.content.page.statistics.document.figure.image.Image;
-import com.github.onsdigital.zebedee.content.page.statistics.document.figure.table.Table;
+import com.github.onsdigital.zebedee.content.page.base.PageType;
 import com.github.onsdigital.zebedee.content.util.ContentUtil;
 import com.github.onsdigital.zebedee.exceptions.BadRequestException;
 import com.github.onsdigital.zebedee.exceptions.ResourceDirectoryNotFileException;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.reader.cache.LatestEditionIndex;
+import com.github.onsdigital.zebedee.reader.cache.PageCache;
 import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
 import com.github.onsdigital.zebedee.reader.util.ReleaseDateComparator;
 import com.github.onsdigital.zebedee.util.PathUtils;
@@ -60,18 +60,35 @@ import static org.apache.commons.lang3.StringUtils.removeEnd;
 public class FileSystemContentReader implements ContentReader {
 
     private final Path ROOT_FOLDER;
+    private final PageCache pageCache;
+    private final LatestEditionIndex latestEditionIndex;
     private ContentLanguage language = ContentLanguage.en;
 
     public FileSystemContentReader(String rootFolder) {
-        this(StringUtils.isEmpty(rootFolder) ? null : Paths.get(rootFolder));
+        this(rootFolder, null, null);
+    }
+
+    public FileSystemContentReader(String rootFolder, PageCache pageCache, LatestEditionIndex latestEditionIndex) {
+        this(StringUtils.isEmpty(rootFolder) ? null : Paths.get(rootFolder), pageCache, latestEditionIndex);
     }
 
 
     public FileSystemContentReader(Path rootFolder) {
+        this(rootFolder, null, null);
+    }
+
+    /**
+     * @param rootFolder
+     * @param pageCache          cache for parsed pages, pages are read from disk on every request if null
+     * @param latestEditionIndex index of latest editions, editions are scanned on every latest request if null
+     */
+    public FileSystemContentReader(Path rootFolder, PageCache pageCache, LatestEditionIndex latestEditionIndex) {
         if (rootFolder == null) {
             throw new NullPointerException("Root folder can not be null");
         }
         this.ROOT_FOLDER = rootFolder;
+        this.pageCache = pageCache;
+        this.latestEditionIndex = latestEditionIndex;
     }
 
     /**
@@ -108,8 +125,8 @@ public class FileSystemContentReader implements ContentReader {
         if (isRootFolder(contentPath) == false) {
             String parentPath = URIUtils.removeLastSegment(path);
             try {
-                Page latestContent = getLatestContent(parentPath);
-                if (toRelativeUri(contentPath.getParent()).equals(latestContent.getUri())) {
+                Page latestContent = getLatestContentIfRequested(parentPath, contentPath);
+                if (latestContent != null) {
                     return latestContent;
                 }
             } catch (Exception e) {
@@ -125,6 +142,32 @@ public class FileSystemContentReader implements ContentReader {
         return page;
     }
 
+    /**
+     * Returns latest content under given parent path if requested content is the latest edition, null otherwise.
+     * Uses latest edition index if available, so that only requested content is read.
+     */
+    private Page getLatestContentIfRequested(String parentPath, Path contentPath) throws ZebedeeException, IOException {
+        if (latestEditionIndex != null) {
+            Path seriesFolder = resolvePath(parentPath);
+            assertIsEditionsFolder(seriesFolder.getParent());
+            LatestEditionIndex.LatestEdition latest = latestEditionIndex.getLatest(seriesFolder, language);
+            if (latest != null) {
+                if (!latest.isEdition(contentPath.getParent())) {
+                    return null;
+                }
+                Page page = getPage(contentPath);
+                page.getDescription().setLatestRelease(true);
+                return page;
+            }
+        }
+
+        Page latestContent = getLatestContent(parentPath);
+        if (toRelativeUri(contentPath.getParent()).equals(latestContent.getUri())) {
+            return latestContent;
+        }
+        return null;
+    }
+
     /**
      * @param path Should not have data file name at the end
      * @return
@@ -137,6 +180,15 @@ public class FileSystemContentReader implements ContentReader {
     }
 
     private Page getPage(Path dataFile) throws IOException, ZebedeeException {
+        if (pageCache == null) {
+            return readPage(dataFile);
+        }
+        assertExists(dataFile);
+        assertNotDirectory(dataFile);
+        return pageCache.get(dataFile, () -> readPage(dataFile));
+    }
+
+    private Page readPage(Path dataFile) throws IOException, ZebedeeException {
         try (Resource resource = getResource(dataFile)) {
 //            checkJsonMime(resource, path);
             Page page = deserialize(resource);
@@ -144,16 +196,16 @@ public class FileSystemContentReader implements ContentReader {
                 return null;
             }
             String uri = resource.getUri().toString();
-            page.setUri(resolveUri(uri, page));
+            page.setUri(resolveUri(uri, page.getType()));
             PageDescription description = page.getDescription();
 
             return page;
         }
     }
 
-    private URI resolveUri(String uriString, Page page) {
+    private URI resolveUri(String uriString, PageType type) {
         URI uri;
-        if (page instanceof Table || page instanceof Chart || page instanceof Image) {
+        if (PageType.table == type || PageType.chart == type || PageType.image == type) {
             uri = URI.create(removeEnd(uriString, ".json"));
         } else {
             uri = URI.create(removeLastSegment(uriString));
@@ -161,6 +213,37 @@ public class FileSystemContentReader implements ContentReader {
         return uri;
     }
 
+    /**
+     * get header of content under given path, only type, uri, title, edition and release date are read from content json
+     *
+     * @param path path of requested content under given root folder
+     * @return content node, null if content has no type
+     */
+    @Override
+    public ContentNode getContentNode(String path) throws ZebedeeException, IOException {
+        return getContentNode(resolveContentPath(path));
+    }
+
+    private ContentNode getContentNode(Path dataFile) throws ZebedeeException, IOException {
+        if (pageCache == null) {
+            return readContentNode(dataFile);
+        }
+        assertExists(dataFile);
+        assertNotDirectory(dataFile);
+        return pageCache.getHeader(dataFile, () -> readContentNode(dataFile));
+    }
+
+    private ContentNode readContentNode(Path dataFile) throws ZebedeeException, IOException {
+        try (Resource resource = getResource(dataFile)) {
+            ContentNode contentNode = deserializeContentNode(resource);
+            if (contentNode == null) {
+                return null;
+            }
+            contentNode.setUri(resolveUri(resource.getUri().toString(), contentNode.getType()));
+            return contentNode;
+        }
+    }
+
     @Override
     public Page getLatestContent(String path) throws ZebedeeException, IOException {
         Path contentPath = resolvePath(path);
@@ -299,6 +382,12 @@ public class FileSystemContentReader implements ContentReader {
     }
 
     private Page resolveLatest(Path path) throws ZebedeeException, IOException {
+        if (latestEditionIndex != null) {
+            LatestEditionIndex.LatestEdition latest = latestEditionIndex.getLatest(path, language);
+            if (latest != null) {
+                return getPage(latest.getDataFile());
+            }
+        }
 
         Map<URI, ContentNode> children = resolveChildren(path);
         if (children == null || children.isEmpty()) {
@@ -346,6 +435,16 @@ public class FileSystemContentReader implements ContentReader {
         }
     }
 
+    protected ContentNode deserializeContentNode(Resource resource) {
+        try {
+            return ContentUtil.deserialiseContentNode(resource.getData());
+        } catch (JsonSyntaxException e) {
+            logError(e, "Failed to deserialise resource")
+                    .addParameter("resourceUri", resource.getUri()).log();
+            throw e;
+        }
+    }
+
     private void assertExists(Path path) throws ZebedeeException, IOException {
         if (!exists(path) || !isChild(path)) {
             throw new NotFoundException("Could not find requested content, path:" + path.toUri().toString());
@@ -425,21 +524,11 @@ public class FileSystemContentReader implements ContentReader {
     }
 
 
-    //Creates content node from content if data file is available, otherwise creates content node using folder name
+    //Creates content node from content header if data file is available, otherwise creates content node using folder name
     private ContentNode createContentNode(Path path) throws ZebedeeException, IOException {
         ContentNode contentNode = null;
         try {
-            Page content = getContent(path);
-            if (content != null) {
-                contentNode = new ContentNode();
-                contentNode.setUri(content.getUri());
-                contentNode.setType(content.getType());
-                PageDescription description = content.getDescription();
-                if (description != null) {
-                    contentNode.setDescription(new ContentNodeDetails(description.getTitle(), description.getEdition()));
-                    contentNode.getDescription().setReleaseDate(description.getReleaseDate());
-                }
-            }
+            contentNode = getContentNode(resolveDataFilePath(path));
         } catch (NotFoundException e) {
             contentNode = createContentNodeForFolder(path);
         } catch (JsonSyntaxException e) {
@@ -8,6 +8,8 @@ import com.github.onsdigital.zebedee.exceptions.ResourceDirectoryNotFileExceptio
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.UnauthorizedException;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.reader.cache.LatestEditionIndex;
+import com.github.onsdigital.zebedee.reader.cache.PageCache;
 import com.github.onsdigital.zebedee.reader.data.filter.DataFilter;
 import com.github.onsdigital.zebedee.reader.data.filter.FilterUtil;
 import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
@@ -45,7 +47,7 @@ public class ZebedeeReader {
     }
 
     public ZebedeeReader(ContentLanguage language) {
-        publishedContentReader = new FileSystemContentReader(getConfiguration().getContentDir());
+        publishedContentReader = new FileSystemContentReader(getConfiguration().getContentDir(), getPageCache(), LatestEditionIndex.getInstance());
         publishedContentReader.setLanguage(language);
         this.language = language;
     }
@@ -55,6 +57,13 @@ public class ZebedeeReader {
         this.language = language;
     }
 
+    /**
+     * @return shared page cache if enabled in configuration, null otherwise
+     */
+    private static PageCache getPageCache() {
+        return getConfiguration().isPageCacheEnabled() ? PageCache.getInstance() : null;
+    }
+
     public static CollectionReaderFactory getCollectionReaderFactory() {
         return collectionReaderFactory;
     }
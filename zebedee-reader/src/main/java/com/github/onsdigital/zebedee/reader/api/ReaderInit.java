@@ -0,0 +1,22 @@
+package com.github.onsdigital.zebedee.reader.api;
+
+import com.github.davidcarboni.restolino.framework.Startup;
+import com.github.onsdigital.zebedee.reader.cache.LatestEditionIndex;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.file.Paths;
+
+import static com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration.getConfiguration;
+
+/**
+ * Zebedee Reader initialization entry point
+ */
+public class ReaderInit implements Startup {
+    @Override
+    public void init() {
+        String contentDir = getConfiguration().getContentDir();
+        if (StringUtils.isNotEmpty(contentDir)) {
+            LatestEditionIndex.getInstance().buildInBackground(Paths.get(contentDir));
+        }
+    }
+}
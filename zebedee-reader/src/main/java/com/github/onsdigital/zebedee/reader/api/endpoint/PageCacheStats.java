@@ -0,0 +1,36 @@
+package com.github.onsdigital.zebedee.reader.api.endpoint;
+
+import com.github.davidcarboni.restolino.framework.Api;
+import com.github.onsdigital.zebedee.reader.cache.PageCache;
+import com.github.onsdigital.zebedee.reader.util.ReaderResponseResponseUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.GET;
+import java.io.IOException;
+
+import static com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration.getConfiguration;
+
+/**
+ * Page cache hit, miss and eviction counters
+ */
+@Api
+public class PageCacheStats {
+
+    /**
+     * Returns current page cache counters, 404 if page cache is not enabled
+     *
+     * @param request
+     * @param response
+     * @throws IOException
+     */
+    @GET
+    public void get(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!getConfiguration().isPageCacheEnabled()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        com.github.onsdigital.zebedee.reader.cache.PageCacheStats stats = PageCache.getInstance().getStats();
+        ReaderResponseResponseUtils.sendResponse(stats, response);
+    }
+}
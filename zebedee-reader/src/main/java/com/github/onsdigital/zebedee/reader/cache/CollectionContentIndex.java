@@ -0,0 +1,189 @@
+package com.github.onsdigital.zebedee.reader.cache;
+
+import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.github.onsdigital.zebedee.util.URIUtils.removeLeadingSlash;
+import static com.github.onsdigital.zebedee.util.URIUtils.removeTrailingSlash;
+
+/**
+ * Index of which folder of a collection (in progress, complete or reviewed) holds each uri read from it, so a read
+ * goes straight to the folder holding the content rather than trying each folder in turn.
+ * <p>
+ * Pages (the uris passed to getContent) and files are indexed separately, and pages are indexed per language as a
+ * Welsh page falls back to the English data file. Writes to in progress are indexed as they happen, as in progress
+ * content is read first. Writes to complete or reviewed, moves and deletes remove the uris they touch, along with any
+ * uris under them, so they are resolved again on the next read. An indexed folder is only a hint, readers still check
+ * the content is there before reading it.
+ * <p>
+ * Indexes are shared by every reader and writer of a collection, so there is one index per collection folder.
+ */
+public class CollectionContentIndex {
+
+    private static final ConcurrentMap<Path, CollectionContentIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * The collection folders, in the order they are read.
+     */
+    public enum State {
+        IN_PROGRESS,
+        COMPLETE,
+        REVIEWED
+    }
+
+    private final Map<ContentLanguage, ConcurrentNavigableMap<String, State>> pages = new EnumMap<>(ContentLanguage.class);
+    private final ConcurrentNavigableMap<String, State> files = new ConcurrentSkipListMap<>();
+
+    CollectionContentIndex() {
+        for (ContentLanguage language : ContentLanguage.values()) {
+            pages.put(language, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * @param collectionPath the collection folder.
+     * @return the index of the given collection, created if it does not exist yet.
+     */
+    public static CollectionContentIndex forCollection(Path collectionPath) {
+        return indexes.computeIfAbsent(collectionPath.toAbsolutePath().normalize(), path -> new CollectionContentIndex());
+    }
+
+    /**
+     * Drop the index of a collection that has been deleted or renamed.
+     *
+     * @param collectionPath the collection folder.
+     */
+    public static void remove(Path collectionPath) {
+        indexes.remove(collectionPath.toAbsolutePath().normalize());
+    }
+
+    /**
+     * @param path     the page path, as passed to getContent.
+     * @param language the language the page is read in.
+     * @return the folder the page was last found in, if it has been indexed.
+     */
+    public Optional<State> getPage(String path, ContentLanguage language) {
+        return Optional.ofNullable(pages.get(language).get(key(path)));
+    }
+
+    /**
+     * @param uri the file uri, as passed to getResource.
+     * @return the folder the file was last found in, if it has been indexed.
+     */
+    public Optional<State> getFile(String uri) {
+        return Optional.ofNullable(files.get(key(uri)));
+    }
+
+    public void putPage(String path, ContentLanguage language, State state) {
+        pages.get(language).put(key(path), state);
+    }
+
+    public void putFile(String uri, State state) {
+        files.put(key(uri), state);
+    }
+
+    /**
+     * Index a file that has just been written to the given folder.
+     *
+     * @param uri   the file uri.
+     * @param state the folder written to.
+     */
+    public void written(String uri, State state) {
+        String key = key(uri);
+        String page = pageKey(key);
+        for (ContentLanguage language : pagesWritten(key)) {
+            if (state == State.IN_PROGRESS) {
+                pages.get(language).put(page, state);
+            } else {
+                pages.get(language).remove(page);
+            }
+        }
+
+        // in progress may still hold a file written to another folder, so leave it to be resolved on the next read
+        if (state == State.IN_PROGRESS) {
+            files.put(key, state);
+        } else {
+            files.remove(key);
+        }
+    }
+
+    /**
+     * Remove the given uri, and any uris under it, after it has been moved or deleted.
+     *
+     * @param uri a file or directory uri.
+     */
+    public void invalidate(String uri) {
+        String key = key(uri);
+        String page = pageKey(key);
+        for (ConcurrentNavigableMap<String, State> languagePages : pages.values()) {
+            if (page != null) {
+                languagePages.remove(page);
+            }
+            invalidate(languagePages, key);
+        }
+        invalidate(files, key);
+    }
+
+    private static void invalidate(ConcurrentNavigableMap<String, State> map, String key) {
+        if (key.isEmpty()) {
+            map.clear();
+        } else {
+            map.remove(key);
+            map.subMap(key + "/", key + "/" + Character.MAX_VALUE).clear();
+        }
+    }
+
+    public void clear() {
+        pages.values().forEach(Map::clear);
+        files.clear();
+    }
+
+    private static String key(String uri) {
+        return removeTrailingSlash(removeLeadingSlash(uri));
+    }
+
+    /**
+     * @return the page path a json file is read for, or null if the file is not a json file.
+     */
+    private static String pageKey(String key) {
+        if (!key.endsWith(".json")) {
+            return null;
+        }
+        int slash = key.lastIndexOf('/');
+        if (isDataFile(key.substring(slash + 1))) {
+            return slash < 0 ? "" : key.substring(0, slash);
+        }
+        return key.substring(0, key.length() - ".json".length());
+    }
+
+    /**
+     * @return the languages whose page is read from the given json file.
+     */
+    private static ContentLanguage[] pagesWritten(String key) {
+        if (pageKey(key) == null) {
+            return new ContentLanguage[0];
+        }
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        if (name.equals(ContentLanguage.cy.getDataFileName())) {
+            return new ContentLanguage[]{ContentLanguage.cy};
+        }
+        return ContentLanguage.values();
+    }
+
+    private static boolean isDataFile(String name) {
+        for (ContentLanguage language : ContentLanguage.values()) {
+            if (language.getDataFileName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
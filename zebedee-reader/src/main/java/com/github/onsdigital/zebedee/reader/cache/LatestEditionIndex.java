@@ -0,0 +1,313 @@
+package com.github.onsdigital.zebedee.reader.cache;
+
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
+import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
+import com.google.gson.JsonSyntaxException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logError;
+import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logInfo;
+import static com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration.getConfiguration;
+import static com.github.onsdigital.zebedee.util.URIUtils.removeLeadingSlash;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.isDirectory;
+
+/**
+ * Index of latest editions of bulletins, articles and compendia in published content.
+ * <p>
+ * Maps each series folder (the folder holding all editions of a bulletin, article or compendium, e.g.
+ * /economy/environmentalaccounts/bulletins/ukenvironmentalaccounts) to its edition with the latest release date.
+ * <p>
+ * An entry is served as long as the series folder, each edition folder and each edition's data file have not been
+ * modified since the entry was resolved, which covers editions being added or removed and the release date of any
+ * edition changing. Publishing also refreshes the series of published uris explicitly so they are resolved ahead of
+ * the next request.
+ */
+public class LatestEditionIndex {
+
+    private static volatile LatestEditionIndex instance;
+
+    private final Map<String, LatestEdition> index = new ConcurrentHashMap<>();
+    private final AtomicBoolean buildStarted = new AtomicBoolean();
+
+    LatestEditionIndex() {
+    }
+
+    public static LatestEditionIndex getInstance() {
+        if (instance == null) {
+            synchronized (LatestEditionIndex.class) {
+                if (instance == null) {
+                    instance = new LatestEditionIndex();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns latest edition under given series folder, resolving it if not indexed or out of date.
+     *
+     * @param seriesFolder folder holding editions
+     * @param language     language of data files to read release dates from
+     * @return latest edition, null if there are no editions with a release date
+     */
+    public LatestEdition getLatest(Path seriesFolder, ContentLanguage language) throws IOException {
+        Path folder = normalise(seriesFolder);
+        String key = key(folder, language);
+        LatestEdition latest = index.get(key);
+        if (latest != null && latest.isCurrent()) {
+            return latest;
+        }
+
+        latest = resolve(folder, language);
+        if (latest == null) {
+            index.remove(key);
+        } else {
+            index.put(key, latest);
+        }
+        return latest;
+    }
+
+    /**
+     * Re-resolves latest editions of all series affected by given uris, used after publishing content.
+     *
+     * @param root published content root folder
+     * @param uris published or deleted uris
+     */
+    public void refresh(Path root, Collection<String> uris) {
+        Set<Path> seriesFolders = new HashSet<>();
+        for (String uri : uris) {
+            Path seriesFolder = getSeriesFolder(root, root.resolve(removeLeadingSlash(uri)));
+            if (seriesFolder != null) {
+                seriesFolders.add(seriesFolder);
+            }
+        }
+
+        for (Path seriesFolder : seriesFolders) {
+            refresh(seriesFolder);
+        }
+    }
+
+    /**
+     * Drops indexed latest editions for given series folder and resolves it again if it still exists.
+     */
+    public void refresh(Path seriesFolder) {
+        Path folder = normalise(seriesFolder);
+        for (ContentLanguage language : ContentLanguage.values()) {
+            index.remove(key(folder, language));
+        }
+        if (!isDirectory(folder)) {
+            return;
+        }
+        try {
+            getLatest(folder, ContentLanguage.en);
+        } catch (IOException e) {
+            logError(e, "Failed resolving latest edition").addParameter("path", folder.toString()).log();
+        }
+    }
+
+    /**
+     * Walks given content tree and indexes latest editions of all series found.
+     *
+     * @param root published content root folder
+     */
+    public void build(Path root) {
+        long start = System.currentTimeMillis();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (isSeriesFolder(dir)) {
+                        getLatest(dir, ContentLanguage.en);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            logInfo("Latest edition index built").addParameter("entries", index.size())
+                    .addParameter("timeTaken", System.currentTimeMillis() - start).log();
+        } catch (IOException e) {
+            logError(e, "Failed building latest edition index").addParameter("root", root.toString()).log();
+        }
+    }
+
+    /**
+     * Builds the index on a background thread, latest editions are resolved on demand until the build completes. Only
+     * the first call starts a build.
+     *
+     * @param root published content root folder
+     */
+    public void buildInBackground(Path root) {
+        if (!buildStarted.compareAndSet(false, true)) {
+            return;
+        }
+        final ExecutorService thread = Executors.newSingleThreadExecutor();
+        thread.submit(() -> {
+            try {
+                logInfo("Building latest edition index...").log();
+                build(root);
+            } finally {
+                thread.shutdown();
+            }
+        });
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return series folder given path is under, null if path is not under a bulletin, article or compendium series
+     */
+    static Path getSeriesFolder(Path root, Path path) {
+        Path rootFolder = normalise(root);
+        Path current = normalise(path);
+        while (current != null && current.startsWith(rootFolder) && !current.equals(rootFolder)) {
+            if (isSeriesFolder(current)) {
+                return current;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    private static boolean isSeriesFolder(Path path) {
+        Path parent = path.getParent();
+        if (parent == null || parent.getFileName() == null) {
+            return false;
+        }
+        String parentName = parent.getFileName().toString();
+        return getConfiguration().getBulletinsFolderName().equals(parentName)
+                || getConfiguration().getArticlesFolderName().equals(parentName)
+                || getConfiguration().getCompendiumFolderName().equals(parentName);
+    }
+
+    private LatestEdition resolve(Path seriesFolder, ContentLanguage language) throws IOException {
+        if (!isDirectory(seriesFolder)) {
+            return null;
+        }
+
+        Map<Path, Long> modified = new HashMap<>();
+        modified.put(seriesFolder, Files.getLastModifiedTime(seriesFolder).toMillis());
+        LatestEdition latest = null;
+        try (DirectoryStream<Path> editions = Files.newDirectoryStream(seriesFolder)) {
+            for (Path edition : editions) {
+                if (!isDirectory(edition)) {
+                    continue;
+                }
+                modified.put(edition, Files.getLastModifiedTime(edition).toMillis());
+                Path dataFile = resolveDataFile(edition, language);
+                if (dataFile == null) {
+                    continue;
+                }
+                modified.put(dataFile, Files.getLastModifiedTime(dataFile).toMillis());
+                Date releaseDate = readReleaseDate(dataFile);
+                if (releaseDate == null) {
+                    continue;
+                }
+                if (latest == null || releaseDate.after(latest.releaseDate)) {
+                    latest = new LatestEdition(edition, dataFile, releaseDate, modified);
+                }
+            }
+        }
+        return latest;
+    }
+
+    private Path resolveDataFile(Path edition, ContentLanguage language) {
+        Path dataFile = edition.resolve(language.getDataFileName());
+        if (!exists(dataFile)) {
+            dataFile = edition.resolve(ContentLanguage.en.getDataFileName());
+        }
+        return exists(dataFile) ? dataFile : null;
+    }
+
+    private Date readReleaseDate(Path dataFile) throws IOException {
+        try (InputStream stream = Files.newInputStream(dataFile)) {
+            ContentNode header = ContentUtil.deserialiseContentNode(stream);
+            if (header == null || header.getDescription() == null) {
+                return null;
+            }
+            return header.getDescription().getReleaseDate();
+        } catch (JsonSyntaxException e) {
+            logError(e, "Warning!!! Invalid json file encountered").addParameter("path", dataFile.toString()).log();
+            return null;
+        }
+    }
+
+    private static Path normalise(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static String key(Path seriesFolder, ContentLanguage language) {
+        return seriesFolder.toString() + "|" + language.name();
+    }
+
+    /**
+     * Latest edition of a series, together with the modified times of the series folder, edition folders and data
+     * files it was resolved from.
+     */
+    public static class LatestEdition {
+        private final Path editionFolder;
+        private final Path dataFile;
+        private final Date releaseDate;
+        private final Map<Path, Long> modified;
+
+        LatestEdition(Path editionFolder, Path dataFile, Date releaseDate, Map<Path, Long> modified) {
+            this.editionFolder = editionFolder;
+            this.dataFile = dataFile;
+            this.releaseDate = releaseDate;
+            this.modified = modified;
+        }
+
+        public Path getEditionFolder() {
+            return editionFolder;
+        }
+
+        public Path getDataFile() {
+            return dataFile;
+        }
+
+        public Date getReleaseDate() {
+            return releaseDate;
+        }
+
+        /**
+         * @return true if given folder is this edition's folder
+         */
+        public boolean isEdition(Path folder) {
+            return folder != null && editionFolder.equals(normalise(folder));
+        }
+
+        private boolean isCurrent() {
+            try {
+                for (Map.Entry<Path, Long> entry : modified.entrySet()) {
+                    if (Files.getLastModifiedTime(entry.getKey()).toMillis() != entry.getValue()) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.github.onsdigital.zebedee.reader.cache;
+
+import com.github.onsdigital.zebedee.content.dynamic.ContentNodeDetails;
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.page.base.PageDescription;
+import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logDebug;
+import static com.github.onsdigital.zebedee.reader.configuration.ReaderConfiguration.getConfiguration;
+
+/**
+ * Bounded in memory cache of deserialised pages, keyed by data file path.
+ * <p>
+ * Each entry remembers last modified time and size of the file it was read from, an entry is only served if the file on
+ * disk still has the same last modified time and size. Writers to published content should also invalidate changed paths
+ * explicitly, as file times might not change within the file system's time resolution.
+ * <p>
+ * Entries are weighed by the size of the json file they were read from. Cached pages are shared, callers are handed a
+ * shallow copy with its own description as readers only change description fields (e.g. latest release flag) on pages
+ * they are served. Nothing else on a served page should be changed.
+ * <p>
+ * Page headers (type, uri, title, edition and release date) used for browsing content are cached separately with the same
+ * file version checks, bounded by number of entries as they are small.
+ */
+public class PageCache {
+
+    private static final int MAX_HEADERS = 100000;
+
+    private static volatile PageCache instance;
+
+    private final Cache<Path, CachedPage> cache;
+    private final Cache<Path, CachedHeader> headers;
+    private final long maxWeight;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong headerHits = new AtomicLong();
+    private final AtomicLong headerMisses = new AtomicLong();
+
+    PageCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+        RemovalListener<Path, CachedPage> evictionCounter = notification -> {
+            if (notification.wasEvicted()) {
+                evictions.incrementAndGet();
+            }
+        };
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Path path, CachedPage page) -> page.weight)
+                .removalListener(evictionCounter)
+                .build();
+        this.headers = CacheBuilder.newBuilder()
+                .maximumSize(MAX_HEADERS)
+                .build();
+    }
+
+    /**
+     * @return Shared page cache sized using reader configuration
+     */
+    public static PageCache getInstance() {
+        if (instance == null) {
+            synchronized (PageCache.class) {
+                if (instance == null) {
+                    long maxWeight = getConfiguration().getPageCacheMaxSizeMb() * 1024L * 1024L;
+                    logDebug("Creating page cache").addParameter("maxWeight", maxWeight).log();
+                    instance = new PageCache(maxWeight);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a copy of the cached page for given data file if the cached entry is still current, otherwise loads and
+     * caches the page using given loader.
+     *
+     * @param dataFile absolute path of page data file
+     * @param loader   reads the page from disk on cache miss
+     * @return page read, null if loader returns null
+     */
+    public Page get(Path dataFile, PageLoader loader) throws IOException, ZebedeeException {
+        Path key = dataFile.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        CachedPage cached = cache.getIfPresent(key);
+        if (cached != null && cached.isVersion(lastModified, size)) {
+            hits.incrementAndGet();
+            return copy(cached.page);
+        }
+
+        misses.incrementAndGet();
+        Page page = loader.load();
+        if (page == null) {
+            cache.invalidate(key);
+            return null;
+        }
+        cache.put(key, new CachedPage(page, lastModified, size));
+        return copy(page);
+    }
+
+    /**
+     * Returns a copy of the cached header for given data file if the cached entry is still current, otherwise loads and
+     * caches the header using given loader.
+     *
+     * @param dataFile absolute path of page data file
+     * @param loader   reads the page header from disk on cache miss
+     * @return header read, null if loader returns null
+     */
+    public ContentNode getHeader(Path dataFile, HeaderLoader loader) throws IOException, ZebedeeException {
+        Path key = dataFile.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        CachedHeader cached = headers.getIfPresent(key);
+        if (cached != null && cached.isVersion(lastModified, size)) {
+            headerHits.incrementAndGet();
+            return copy(cached.header);
+        }
+
+        headerMisses.incrementAndGet();
+        ContentNode header = loader.load();
+        if (header == null) {
+            headers.invalidate(key);
+            return null;
+        }
+        headers.put(key, new CachedHeader(copy(header), lastModified, size));
+        return header;
+    }
+
+    /**
+     * Drops cached page and header for given data file, if any.
+     */
+    public void invalidate(Path dataFile) {
+        Path key = dataFile.toAbsolutePath().normalize();
+        cache.invalidate(key);
+        headers.invalidate(key);
+    }
+
+    /**
+     * Drops all cached pages read from under given folder. Used when whole directories are deleted or replaced.
+     */
+    public void invalidateAll(Path folder) {
+        Path prefix = folder.toAbsolutePath().normalize();
+        for (Path key : cache.asMap().keySet()) {
+            if (key.startsWith(prefix)) {
+                cache.invalidate(key);
+            }
+        }
+        for (Path key : headers.asMap().keySet()) {
+            if (key.startsWith(prefix)) {
+                headers.invalidate(key);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        headers.invalidateAll();
+    }
+
+    public PageCacheStats getStats() {
+        long weight = 0;
+        for (CachedPage page : cache.asMap().values()) {
+            weight += page.weight;
+        }
+        return new PageCacheStats(hits.get(), misses.get(), evictions.get(), cache.size(), weight, maxWeight,
+                headerHits.get(), headerMisses.get(), headers.size());
+    }
+
+    /**
+     * Reads a page on cache miss.
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+        Page load() throws IOException, ZebedeeException;
+    }
+
+    /**
+     * Reads a page header on cache miss.
+     */
+    @FunctionalInterface
+    public interface HeaderLoader {
+        ContentNode load() throws IOException, ZebedeeException;
+    }
+
+    private static Page copy(Page page) {
+        Page copy = (Page) page.clone();
+        PageDescription description = page.getDescription();
+        if (description != null) {
+            copy.setDescription((PageDescription) description.clone());
+        }
+        return copy;
+    }
+
+    //Content nodes are mutable, children are set on them when building taxonomy
+    private static ContentNode copy(ContentNode header) {
+        ContentNode copy = new ContentNode();
+        copy.setUri(header.getUri());
+        copy.setType(header.getType());
+        ContentNodeDetails description = header.getDescription();
+        if (description != null) {
+            ContentNodeDetails descriptionCopy = new ContentNodeDetails(description.getTitle(), description.getEdition());
+            descriptionCopy.setReleaseDate(description.getReleaseDate());
+            copy.setDescription(descriptionCopy);
+        }
+        return copy;
+    }
+
+    private static class CachedPage {
+        private final Page page;
+        private final long lastModified;
+        private final long size;
+        private final int weight;
+
+        private CachedPage(Page page, long lastModified, long size) {
+            this.page = page;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.weight = (int) Math.min(Integer.MAX_VALUE, Math.max(1, size));
+        }
+
+        private boolean isVersion(long lastModified, long size) {
+            return this.lastModified == lastModified && this.size == size;
+        }
+    }
+
+    private static class CachedHeader {
+        private final ContentNode header;
+        private final long lastModified;
+        private final long size;
+
+        private CachedHeader(ContentNode header, long lastModified, long size) {
+            this.header = header;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        private boolean isVersion(long lastModified, long size) {
+            return this.lastModified == lastModified && this.size == size;
+        }
+    }
+}
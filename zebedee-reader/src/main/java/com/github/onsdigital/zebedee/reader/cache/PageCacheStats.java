@@ -0,0 +1,66 @@
+package com.github.onsdigital.zebedee.reader.cache;
+
+/**
+ * Snapshot of page cache counters, used for sizing the cache.
+ */
+public class PageCacheStats {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long entries;
+    private long weight;
+    private long maxWeight;
+    private long headerHits;
+    private long headerMisses;
+    private long headerEntries;
+
+    public PageCacheStats(long hits, long misses, long evictions, long entries, long weight, long maxWeight,
+                          long headerHits, long headerMisses, long headerEntries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.weight = weight;
+        this.maxWeight = maxWeight;
+        this.headerHits = headerHits;
+        this.headerMisses = headerMisses;
+        this.headerEntries = headerEntries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getHeaderHits() {
+        return headerHits;
+    }
+
+    public long getHeaderMisses() {
+        return headerMisses;
+    }
+
+    public long getHeaderEntries() {
+        return headerEntries;
+    }
+}
@@ -2,6 +2,7 @@ package com.github.onsdigital.zebedee.reader.configuration;
 
 import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logDebug;
 import com.github.onsdigital.zebedee.util.URIUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 import static com.github.onsdigital.zebedee.util.VariableUtils.getVariableValue;
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
@@ -12,6 +13,9 @@ public class ReaderConfiguration {
 
     private final static String ZEBEDEE_ROOT_ENV = "zebedee_root";
     private final static String CONTENT_DIR_ENV = "content_dir";
+    private final static String PAGE_CACHE_ENABLED_ENV = "enable_page_cache";
+    private final static String PAGE_CACHE_MAX_SIZE_MB_ENV = "page_cache_max_size_mb";
+    private static final long DEFAULT_PAGE_CACHE_MAX_SIZE_MB = 256;
     /*Zebedee folder layout*/
     private static final String IN_PROGRESS_FOLDER_NAME = "inprogress";
     private static final String COMPLETE_FOLDER_NAME = "complete";
@@ -24,6 +28,8 @@ public class ReaderConfiguration {
     private static ReaderConfiguration instance;
     private static String collectionsFolder;
     private static String contentDir;
+    private static boolean pageCacheEnabled;
+    private static long pageCacheMaxSizeMb;
 
     private ReaderConfiguration() {
 
@@ -78,6 +84,9 @@ public class ReaderConfiguration {
             System.err.println("Please set either zebedee_root or content_dir");
         }
 
+        pageCacheEnabled = Boolean.parseBoolean(getVariableValue(PAGE_CACHE_ENABLED_ENV));
+        pageCacheMaxSizeMb = NumberUtils.toLong(getVariableValue(PAGE_CACHE_MAX_SIZE_MB_ENV), DEFAULT_PAGE_CACHE_MAX_SIZE_MB);
+
         dumpConfiguration();
 
     }
@@ -88,6 +97,7 @@ public class ReaderConfiguration {
     public static void dumpConfiguration() {
         logDebug("Collections folder:" + collectionsFolder).log();
         logDebug("Published content dir:" + contentDir).log();
+        logDebug("Page cache enabled:" + pageCacheEnabled + ", max size mb:" + pageCacheMaxSizeMb).log();
     }
 
     /**
@@ -103,6 +113,17 @@ public class ReaderConfiguration {
         return contentDir;
     }
 
+    /**
+     * @return true if parsed published pages should be cached in memory
+     */
+    public boolean isPageCacheEnabled() {
+        return pageCacheEnabled;
+    }
+
+    public long getPageCacheMaxSizeMb() {
+        return pageCacheMaxSizeMb;
+    }
+
     public String getInProgressFolderName() {
         return IN_PROGRESS_FOLDER_NAME;
     }
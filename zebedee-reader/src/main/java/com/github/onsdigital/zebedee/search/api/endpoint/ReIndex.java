@@ -6,12 +6,14 @@ import com.github.davidcarboni.restolino.framework.Api;
 import com.github.onsdigital.zebedee.search.indexing.IndexInProgressException;
 import com.github.onsdigital.zebedee.search.indexing.Indexer;
 import com.github.onsdigital.zebedee.search.indexing.IndexingException;
+import com.github.onsdigital.zebedee.search.indexing.ReindexStatus;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jetty.http.HttpStatus;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.core.Context;
 import java.io.IOException;
@@ -26,6 +28,27 @@ public class ReIndex {
 
     private static final String REINDEX_KEY_HASH = "5NpB6/uAgk14nYwHzMbIQRnuI2W63MrBOS2279YlcUUY2kNOhrL+R5UFR3O066bQ";
 
+    /**
+     * Reports progress of the running full reindex, or of the last one if none is running. Requires the same key as
+     * starting a reindex.
+     */
+    @GET
+    public Object getReindexStatus(@Context HttpServletRequest request, @Context HttpServletResponse response) throws IOException {
+        String key = request.getParameter("key");
+        if (!Password.verify(key, REINDEX_KEY_HASH)) {
+            response.setStatus(HttpStatus.UNAUTHORIZED_401);
+            return "Wrong key, make sure you pass in the right key";
+        }
+
+        ReindexStatus status = Indexer.getInstance().getReindexStatus();
+        if (status == null) {
+            response.setStatus(HttpStatus.NOT_FOUND_404);
+            return "No full reindex has run since start up";
+        }
+        response.setStatus(HttpStatus.OK_200);
+        return status;
+    }
+
     @POST
     public Object reIndex(@Context HttpServletRequest request, @Context HttpServletResponse response) throws IOException {
 
@@ -14,6 +14,9 @@ public class SearchConfiguration {
             ("ELASTIC_SEARCH_PORT"), "9300"));
     private static String elasticSearchCluster = defaultIfBlank(getVariableValue("ELASTIC_SEARCH_CLUSTER"), "");
     private static boolean startEmbeddedSearch = "Y".equals(defaultIfBlank(getVariableValue("START_EMBEDDED_SERVER"), "N"));
+    private static int reindexWorkers = Integer.parseInt(defaultIfBlank(getVariableValue("REINDEX_WORKERS"),
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+    private static int reindexQueueSize = Integer.parseInt(defaultIfBlank(getVariableValue("REINDEX_QUEUE_SIZE"), "1000"));
 
     public static boolean isStartEmbeddedSearch() {
         return startEmbeddedSearch;
@@ -34,5 +37,19 @@ public class SearchConfiguration {
         return elasticSearchCluster;
     }
 
+    /**
+     * @return number of threads reading and preparing pages during a full reindex
+     */
+    public static int getReindexWorkers() {
+        return reindexWorkers;
+    }
+
+    /**
+     * @return maximum number of scanned documents waiting to be read during a full reindex
+     */
+    public static int getReindexQueueSize() {
+        return reindexQueueSize;
+    }
+
 
 }
@@ -11,10 +11,12 @@ import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequestBuilder;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
 import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.delete.DeleteRequestBuilder;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.update.UpdateRequestBuilder;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.IndicesAdminClient;
 import org.elasticsearch.cluster.metadata.AliasMetaData;
@@ -160,6 +162,17 @@ class ElasticSearchUtils {
         return client.prepareIndex(index, type, id);
     }
 
+    /**
+     * Prepares a partial update of given document, fields in the update are merged into the existing document
+     */
+    public UpdateRequestBuilder prepareUpdate(String index, String type, String id) {
+        return client.prepareUpdate(index, type, id);
+    }
+
+    public BulkRequestBuilder prepareBulk() {
+        return client.prepareBulk();
+    }
+
     private IndicesAdminClient getIndicesClient() {
         return client.admin().indices();
     }
@@ -33,31 +33,48 @@ public class FileScanner {
     }
 
     public List<Document> scan(String path) throws IOException {
+        List<Document> fileNames = new ArrayList<>();
+        try {
+            scan(path, fileNames::add);
+        } catch (InterruptedException e) {
+            //adding to a list does not block
+            Thread.currentThread().interrupt();
+            throw new IndexingException("Interrupted scanning content", e);
+        }
+        return fileNames;
+    }
 
+    /**
+     * Walks the file system under given path and hands each content document to given handler as it is found, without
+     * holding the documents found so far in memory.
+     *
+     * @param path    path to scan under content root, whole content is scanned if empty
+     * @param handler receives documents in file system order, may block to throttle scanning
+     * @throws IOException          if any file io operations fail
+     * @throws InterruptedException if handler is interrupted while waiting
+     */
+    public void scan(String path, DocumentHandler handler) throws IOException, InterruptedException {
         Path dir = root;
         if (isEmpty(path) == false) {
             dir = root.resolve(URIUtils.removeLeadingSlash(path));
         }
-
-        List<Document> fileNames = new ArrayList<>();
-        return getFileNames(fileNames, dir, null);
+        scan(handler, dir, null);
     }
 
     /**
      * Iterates through the file system from a specified root directory and
-     * stores the file names
+     * hands documents found to given handler
      *
-     * @param fileNames a List to store results in
-     * @param dir       the root directory to start searching from
-     * @return the list with file names
+     * @param handler receives documents found
+     * @param dir     the root directory to start searching from
      * @throws IOException if any file io operations fail
      */
-    private List<Document> getFileNames(List<Document> fileNames, Path dir, Set<List<String>> searchTerms)
-            throws IOException {
+    private void scan(DocumentHandler handler, Path dir, Set<List<String>> searchTerms)
+            throws IOException, InterruptedException {
 
-        if (fileNames == null || dir == null) {
+        if (handler == null || dir == null) {
             throw new IllegalArgumentException(
-                    "List of fileNames and Path dir cannot be null");
+                    "Document handler and Path dir cannot be null");
         }
 
         if (searchTerms == null) {
@@ -72,7 +89,7 @@ public class FileScanner {
                     if (isNotPreviousVersion(path.getFileName().toString())) {
                         List<String> termsForPrefix = getSearchTermResolver().getTermsForPrefix(uri);
                         searchTerms.add(termsForPrefix);
-                        getFileNames(fileNames, path, searchTerms);
+                        scan(handler, path, searchTerms);
                         searchTerms.remove(termsForPrefix);
                     } else {
                         continue;//skip versions
@@ -82,14 +99,12 @@ public class FileScanner {
                     if (isDataFile(fullPath)) {
                         List<String> terms = getSearchTermResolver().getTerms(uri);
                         searchTerms.add(terms);
-                        fileNames.add(new Document(uri, searchTerms));
+                        handler.handle(new Document(uri, searchTerms));
                         searchTerms.remove(terms);
                     }
                 }
             }
         }
-
-        return fileNames;
     }
 
     private String toUri(Path path) {
@@ -103,4 +118,12 @@ public class FileScanner {
     private static boolean isNotPreviousVersion(String fileName) {
         return !fileName.equals("previous");
     }
-}
\ No newline at end of file
+
+    /**
+     * Receives documents as they are found while scanning
+     */
+    @FunctionalInterface
+    public interface DocumentHandler {
+        void handle(Document document) throws InterruptedException;
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.onsdigital.zebedee.search.indexing;
 
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
 import com.github.onsdigital.zebedee.content.page.base.Page;
 import com.github.onsdigital.zebedee.content.page.base.PageType;
 import com.github.onsdigital.zebedee.content.partial.Link;
@@ -14,9 +15,12 @@ import org.apache.commons.io.IOUtils;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.update.UpdateRequestBuilder;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
@@ -29,12 +33,27 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import static com.github.onsdigital.zebedee.content.util.ContentUtil.serialise;
 import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.elasticSearchLog;
+import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.logError;
+import static com.github.onsdigital.zebedee.search.configuration.SearchConfiguration.getReindexQueueSize;
+import static com.github.onsdigital.zebedee.search.configuration.SearchConfiguration.getReindexWorkers;
 import static com.github.onsdigital.zebedee.search.configuration.SearchConfiguration.getSearchAlias;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.startsWith;
@@ -43,15 +62,23 @@ public class Indexer {
     private final static String DEPARTMENTS_INDEX = "departments";
     private final static String DEPARTMENT_TYPE = "departments";
     private final static String DEPARTMENTS_PATH = "/search/departments/departments.txt";
+    private final static long PROGRESS_LOG_INTERVAL_SECONDS = 10;
+    private final static long BULK_COMPLETION_TIMEOUT_MINUTES = 10;
     private static Indexer instance = new Indexer();
     private final Lock LOCK = new ReentrantLock();
     private final Client client = ElasticSearchClient.getClient();
     private ElasticSearchUtils searchUtils = new ElasticSearchUtils(client);
     private ZebedeeReader zebedeeReader = new ZebedeeReader();
+    private volatile ReindexProgress reindexProgress;
 
     private Indexer() {
     }
 
+    Indexer(ElasticSearchUtils searchUtils, ZebedeeReader zebedeeReader) {
+        this.searchUtils = searchUtils;
+        this.zebedeeReader = zebedeeReader;
+    }
+
     public static Indexer getInstance() {
         return instance;
     }
@@ -102,6 +129,15 @@ public class Indexer {
         }
     }
 
+    /**
+     * @return progress of the running full reindex, or of the last one if none is running. Null if content has not been
+     * reindexed since start up
+     */
+    public ReindexStatus getReindexStatus() {
+        ReindexProgress progress = reindexProgress;
+        return progress == null ? null : progress.getStatus();
+    }
+
     public boolean isIndexAvailable(String indexName) {
         return searchUtils.isIndexAvailable(indexName);
     }
@@ -179,17 +215,11 @@ public class Indexer {
             if (page == null) {
                 throw new NotFoundException("Content not found for re-indexing, uri: " + uri);
             }
-            if (isPeriodic(page.getType())) {
-                //TODO: optimize resolving latest flag, only update elastic search for existing releases rather than reindexing
-                //Load old releases as well to get latest flag re-calculated
-                index(getSearchAlias(), new FileScanner().scan(URIUtils.removeLastSegment(uri)));
-            } else {
-                indexSingleContent(getSearchAlias(), page);
-            }
+            indexDelta(getSearchAlias(), Collections.singletonList(page), Collections.emptySet());
             long end = System.currentTimeMillis();
             elasticSearchLog("Reindexing complete")
                     .addParameter("uri", uri)
-                    .addParameter("totalTime(ms)", (start - end))
+                    .addParameter("totalTime(ms)", (end - start))
                     .log();
         } catch (ZebedeeException e) {
             throw new IndexingException("Failed re-indexint content with uri: " + uri, e);
@@ -198,6 +228,37 @@ public class Indexer {
         }
     }
 
+    /**
+     * Reads contents with given uris and indexes them for search in a single bulk request, e.g. all contents of a
+     * published collection. Contents that can not be read are logged and skipped.
+     *
+     * @param uris        uris of contents to reindex
+     * @param deletedUris uris of contents deleted along with the given contents, these are not reindexed but the latest
+     *                    release flag of the series they were deleted from is updated
+     */
+    public void reloadContent(Collection<String> uris, Collection<String> deletedUris) throws IOException {
+        elasticSearchLog("Triggering delta reindex").addParameter("uris", uris.size())
+                .addParameter("deletedUris", deletedUris.size()).log();
+        long start = System.currentTimeMillis();
+        List<Page> pages = new ArrayList<>();
+        for (String uri : uris) {
+            try {
+                Page page = getPage(uri);
+                if (page == null) {
+                    elasticSearchLog("Content not found for re-indexing, skipping").addParameter("uri", uri).log();
+                    continue;
+                }
+                pages.add(page);
+            } catch (ZebedeeException | IOException | RuntimeException e) {
+                logError(e, "Failed reading content for re-indexing, skipping").addParameter("uri", uri).log();
+            }
+        }
+        indexDelta(getSearchAlias(), pages, new HashSet<>(deletedUris));
+        elasticSearchLog("Delta reindexing complete")
+                .addParameter("uris", uris.size())
+                .addParameter("totalTime(ms)", (System.currentTimeMillis() - start))
+                .log();
+    }
 
     public void deleteContentIndex(String pageType, String uri) {
         elasticSearchLog("Triggering delete index on publishing search index").addParameter("uri", uri).log();
@@ -241,51 +302,198 @@ public class Indexer {
         termsList.addAll(terms);
     }
 
+    /**
+     * Indexes all content. Scanning the file system feeds a bounded queue of documents which a pool of workers reads and
+     * hands to the bulk processor. Scanning waits while the queue is full and workers wait while the bulk processor has
+     * too many requests in flight, so the number of documents and pages held in memory stays bounded.
+     */
     private void indexDocuments(String indexName) throws IOException {
-        index(indexName, new FileScanner().scan());
+        int workers = getReindexWorkers();
+        ReindexProgress progress = new ReindexProgress(indexName, getReindexQueueSize());
+        reindexProgress = progress;
+        elasticSearchLog("Starting full reindex")
+                .addParameter("index", indexName)
+                .addParameter("workers", workers)
+                .addParameter("queueSize", getReindexQueueSize())
+                .log();
+
+        ExecutorService workerPool = Executors.newFixedThreadPool(workers);
+        ScheduledExecutorService progressLogger = Executors.newSingleThreadScheduledExecutor();
+        progressLogger.scheduleAtFixedRate(() -> progress.log("Reindex progress"),
+                PROGRESS_LOG_INTERVAL_SECONDS, PROGRESS_LOG_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        BulkProcessor bulkProcessor = getBulkProcessor(progress);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                results.add(workerPool.submit(() -> indexQueued(progress,
+                        document -> prepareIndexRequest(indexName, document), bulkProcessor::add)));
+            }
+
+            new FileScanner().scan(null, progress::put);
+            progress.end(workers);
+
+            for (Future<?> result : results) {
+                result.get();
+            }
+            awaitBulkCompletion(bulkProcessor, BULK_COMPLETION_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IndexingException("Re-indexing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IndexingException("Re-indexing failed", e.getCause());
+        } finally {
+            workerPool.shutdownNow();
+            progressLogger.shutdownNow();
+            bulkProcessor.close();
+            progress.complete();
+            progress.log("Reindex finished");
+        }
     }
 
     /**
-     * Recursively indexes contents and their child contents
-     *
-     * @param indexName
-     * @param documents
-     * @throws IOException
+     * Reads queued documents and adds them to the bulk processor until end of documents is reached.
      */
-    private void index(String indexName, List<Document> documents) throws IOException {
-        try (BulkProcessor bulkProcessor = getBulkProcessor()) {
-            for (Document document : documents) {
-                try {
-                    IndexRequestBuilder indexRequestBuilder = prepareIndexRequest(indexName, document);
-                    if (indexRequestBuilder == null) {
-                        continue;
-                    }
-                    bulkProcessor.add(indexRequestBuilder.request());
-                } catch (Exception e) {
-                    System.err.println("!!!!!!!!!Failed preparing index for " + document.getUri() + " skipping...");
-                    e.printStackTrace();
+    static Void indexQueued(ReindexProgress progress, IndexRequestPreparer preparer, Consumer<IndexRequest> bulk)
+            throws InterruptedException {
+        while (true) {
+            Document document = progress.take();
+            if (document == ReindexProgress.END_OF_DOCUMENTS) {
+                return null;
+            }
+            try {
+                IndexRequest indexRequest = preparer.prepare(document);
+                if (indexRequest == null) {
+                    progress.skipped();
+                    continue;
                 }
+                bulk.accept(indexRequest);
+                progress.prepared();
+            } catch (Exception e) {
+                progress.failed(1);
+                logError(e, "Failed preparing index, skipping").addParameter("uri", document.getUri()).log();
             }
         }
     }
 
+    /**
+     * Flushes and closes given bulk processor, waiting for requests in flight to complete.
+     *
+     * @throws IndexingException if requests are still in flight when timed out, the index is then incomplete
+     */
+    static void awaitBulkCompletion(BulkProcessor bulkProcessor, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!bulkProcessor.awaitClose(timeout, unit)) {
+            throw new IndexingException("Timed out after " + timeout + " " + unit.name().toLowerCase()
+                    + " waiting for bulk index requests to complete");
+        }
+    }
+
     private Page getPage(String uri) throws ZebedeeException, IOException {
         return zebedeeReader.getPublishedContent(uri);
     }
 
-    private IndexRequestBuilder prepareIndexRequest(String indexName, Document document) throws ZebedeeException, IOException {
+    private IndexRequest prepareIndexRequest(String indexName, Document document) throws ZebedeeException, IOException {
         Page page = getPage(document.getUri());
         if (page != null && page.getType() != null) {
-            IndexRequestBuilder indexRequestBuilder = searchUtils.prepareIndex(indexName, page.getType().name(), page.getUri().toString());
-            indexRequestBuilder.setSource(serialise(toSearchDocument(page, document.getSearchTerms())));
-            return indexRequestBuilder;
+            return prepareIndexRequest(indexName, page, document.getSearchTerms()).request();
         }
         return null;
     }
 
-    private void indexSingleContent(String indexName, Page page) throws IOException {
-        List<String> terms = resolveSearchTerms(page.getUri().toString());
-        searchUtils.createDocument(indexName, page.getType().toString(), page.getUri().toString(), serialise(toSearchDocument(page, terms)));
+    private IndexRequestBuilder prepareIndexRequest(String indexName, Page page, List<String> searchTerms) {
+        IndexRequestBuilder indexRequestBuilder = searchUtils.prepareIndex(indexName, page.getType().name(), page.getUri().toString());
+        indexRequestBuilder.setSource(serialise(toSearchDocument(page, searchTerms)));
+        return indexRequestBuilder;
+    }
+
+    /**
+     * Indexes only given pages in a single bulk request.
+     * <p>
+     * Pages are read with their current latest release flag. For bulletins, articles and compendia the edition that was
+     * latest before these pages were published is the latest of the other editions in the series, its flag is updated
+     * with a partial update rather than reindexing all editions of the series. Deleted editions are left out, so the
+     * edition before a deleted latest edition is flagged as latest.
+     */
+    void indexDelta(String indexName, List<Page> pages, Set<String> deletedUris) throws IOException {
+        BulkRequestBuilder bulkRequest = searchUtils.prepareBulk();
+        Set<String> changedUris = new HashSet<>();
+        Set<String> seriesUris = new HashSet<>();
+        for (Page page : pages) {
+            if (page.getType() == null) {
+                continue;
+            }
+            String uri = page.getUri().toString();
+            bulkRequest.add(prepareIndexRequest(indexName, page, resolveSearchTerms(uri)));
+            changedUris.add(uri);
+            if (isPeriodic(page.getType())) {
+                seriesUris.add(URIUtils.removeLastSegment(uri));
+            }
+        }
+
+        for (String deletedUri : deletedUris) {
+            String seriesUri = URIUtils.removeLastSegment(deletedUri);
+            if (!deletedUris.contains(seriesUri)) {
+                seriesUris.add(seriesUri);
+            }
+        }
+
+        for (String seriesUri : seriesUris) {
+            UpdateRequestBuilder latestReleaseUpdate = prepareLatestReleaseUpdate(indexName, seriesUri, changedUris,
+                    deletedUris);
+            if (latestReleaseUpdate != null) {
+                bulkRequest.add(latestReleaseUpdate);
+            }
+        }
+
+        if (bulkRequest.numberOfActions() == 0) {
+            return;
+        }
+        elasticSearchLog("Bulk Indexing documents").addParameter("quantity", bulkRequest.numberOfActions()).log();
+        logFailures(bulkRequest.get());
+    }
+
+    /**
+     * Prepares update of latest release flag of the latest unchanged edition in given series, the edition previously
+     * flagged as latest release unless a newer edition is among the unchanged ones. Deleted editions are ignored.
+     *
+     * @return update request, null if the series has no other editions
+     */
+    UpdateRequestBuilder prepareLatestReleaseUpdate(String indexName, String seriesUri, Set<String> changedUris,
+                                                    Set<String> deletedUris) {
+        Map<URI, ContentNode> editions;
+        try {
+            editions = zebedeeReader.getPublishedContentChildren(seriesUri);
+        } catch (ZebedeeException | IOException e) {
+            logError(e, "Failed reading editions to update latest release flag").addParameter("uri", seriesUri).log();
+            return null;
+        }
+
+        ContentNode latest = null;
+        ContentNode previousLatest = null;
+        for (ContentNode edition : editions.values()) {
+            if (edition.getType() == null || !isPeriodic(edition.getType()) || edition.getDescription() == null
+                    || edition.getDescription().getReleaseDate() == null
+                    || deletedUris.contains(edition.getUri().toString())) {
+                continue;
+            }
+            if (isLaterRelease(edition, latest)) {
+                latest = edition;
+            }
+            if (!changedUris.contains(edition.getUri().toString()) && isLaterRelease(edition, previousLatest)) {
+                previousLatest = edition;
+            }
+        }
+
+        if (previousLatest == null) {
+            return null;
+        }
+        String latestRelease = "{\"description\":{\"latestRelease\":" + (previousLatest == latest) + "}}";
+        return searchUtils.prepareUpdate(indexName, previousLatest.getType().name(), previousLatest.getUri().toString())
+                .setDoc(latestRelease);
+    }
+
+    private boolean isLaterRelease(ContentNode edition, ContentNode current) {
+        return current == null || edition.getDescription().getReleaseDate().after(current.getDescription().getReleaseDate());
     }
 
     private SearchDocument toSearchDocument(Page page, List<String> searchTerms) {
@@ -360,7 +568,32 @@ public class Indexer {
         }
     }
 
-    private BulkProcessor getBulkProcessor() {
+    /**
+     * Logs failed items of given bulk response
+     *
+     * @return number of failed items
+     */
+    private int logFailures(BulkResponse response) {
+        int failures = 0;
+        if (response.hasFailures()) {
+            BulkItemResponse[] items = response.getItems();
+            for (BulkItemResponse item : items) {
+                if (item.isFailed()) {
+                    failures++;
+                    elasticSearchLog("Indexing failure")
+                            .addParameter("uri", item.getFailure().getId())
+                            .addParameter("detailMessage", item.getFailureMessage())
+                            .log();
+                }
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * @param progress counts indexed and failed documents
+     */
+    private BulkProcessor getBulkProcessor(ReindexProgress progress) {
         BulkProcessor bulkProcessor = BulkProcessor.builder(
                 client,
                 new BulkProcessor.Listener() {
@@ -378,17 +611,9 @@ public class Indexer {
                             BulkRequest request,
                             BulkResponse response
                     ) {
-                        if (response.hasFailures()) {
-                            BulkItemResponse[] items = response.getItems();
-                            for (BulkItemResponse item : items) {
-                                if (item.isFailed()) {
-                                    elasticSearchLog("Indexing failure")
-                                            .addParameter("uri", item.getFailure().getId())
-                                            .addParameter("detailMessage", item.getFailureMessage())
-                                            .log();
-                                }
-                            }
-                        }
+                        int failures = logFailures(response);
+                        progress.indexed(request.numberOfActions() - failures);
+                        progress.failed(failures);
                     }
 
                     @Override
@@ -401,6 +626,7 @@ public class Indexer {
                                 .addParameter("detailedMessagee", failure.getMessage())
                                 .log();
                         failure.printStackTrace();
+                        progress.failed(request.numberOfActions());
                     }
                 })
                 .setBulkActions(10000)
@@ -410,4 +636,15 @@ public class Indexer {
 
         return bulkProcessor;
     }
+
+    /**
+     * Prepares the index request of a scanned document during a full reindex.
+     */
+    @FunctionalInterface
+    interface IndexRequestPreparer {
+        /**
+         * @return index request, null if the document should not be indexed
+         */
+        IndexRequest prepare(Document document) throws ZebedeeException, IOException;
+    }
 }
@@ -0,0 +1,108 @@
+package com.github.onsdigital.zebedee.search.indexing;
+
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.onsdigital.zebedee.logging.ZebedeeReaderLogBuilder.elasticSearchLog;
+
+/**
+ * Queue of scanned documents waiting to be indexed during a full reindex, with counts of documents through each stage.
+ * <p>
+ * The queue is bounded, scanning blocks while workers are behind so only a limited number of documents are held in
+ * memory at a time.
+ */
+class ReindexProgress {
+
+    /**
+     * Marks the end of scanned documents, one is queued for each worker.
+     */
+    static final Document END_OF_DOCUMENTS = new Document(null, null);
+
+    private final String index;
+    private final BlockingQueue<Document> queue;
+    private final long start = System.currentTimeMillis();
+    private volatile long end;
+
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong prepared = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    ReindexProgress(String index, int queueSize) {
+        this.index = index;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    /**
+     * Queues a scanned document, waiting for space if the queue is full.
+     */
+    void put(Document document) throws InterruptedException {
+        queue.put(document);
+        scanned.incrementAndGet();
+    }
+
+    void end(int workers) throws InterruptedException {
+        for (int i = 0; i < workers; i++) {
+            queue.put(END_OF_DOCUMENTS);
+        }
+    }
+
+    Document take() throws InterruptedException {
+        return queue.take();
+    }
+
+    void prepared() {
+        prepared.incrementAndGet();
+    }
+
+    void skipped() {
+        skipped.incrementAndGet();
+    }
+
+    void indexed(long count) {
+        indexed.addAndGet(count);
+    }
+
+    void failed(long count) {
+        failed.addAndGet(count);
+    }
+
+    void complete() {
+        end = System.currentTimeMillis();
+    }
+
+    void log(String message) {
+        ReindexStatus status = getStatus();
+        elasticSearchLog(message)
+                .addParameter("index", index)
+                .addParameter("scanned", status.getScanned())
+                .addParameter("indexed", status.getIndexed())
+                .addParameter("failed", status.getFailed())
+                .addParameter("queueDepth", status.getQueueDepth())
+                .addParameter("documentsPerSecond", status.getDocumentsPerSecond())
+                .log();
+    }
+
+    ReindexStatus getStatus() {
+        long finished = end;
+        long timeTaken = (finished == 0 ? System.currentTimeMillis() : finished) - start;
+
+        ReindexStatus status = new ReindexStatus();
+        status.setIndex(index);
+        status.setInProgress(finished == 0);
+        status.setStartDate(new Date(start));
+        status.setEndDate(finished == 0 ? null : new Date(finished));
+        status.setScanned(scanned.get());
+        status.setPrepared(prepared.get());
+        status.setSkipped(skipped.get());
+        status.setIndexed(indexed.get());
+        status.setFailed(failed.get());
+        status.setQueueDepth(queue.size());
+        status.setTimeTaken(timeTaken);
+        status.setDocumentsPerSecond(timeTaken == 0 ? 0 : prepared.get() * 1000d / timeTaken);
+        return status;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.onsdigital.zebedee.search.indexing;
+
+import java.util.Date;
+
+/**
+ * Snapshot of the progress of a full reindex, reported by the reindex status endpoint.
+ */
+public class ReindexStatus {
+
+    private String index;
+    private boolean inProgress;
+    private Date startDate;
+    private Date endDate;
+    private long scanned;
+    private long prepared;
+    private long skipped;
+    private long indexed;
+    private long failed;
+    private int queueDepth;
+    private long timeTaken;
+    private double documentsPerSecond;
+
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public boolean isInProgress() {
+        return inProgress;
+    }
+
+    public void setInProgress(boolean inProgress) {
+        this.inProgress = inProgress;
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Date startDate) {
+        this.startDate = startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Date endDate) {
+        this.endDate = endDate;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(long scanned) {
+        this.scanned = scanned;
+    }
+
+    public long getPrepared() {
+        return prepared;
+    }
+
+    public void setPrepared(long prepared) {
+        this.prepared = prepared;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(long indexed) {
+        this.indexed = indexed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public long getTimeTaken() {
+        return timeTaken;
+    }
+
+    public void setTimeTaken(long timeTaken) {
+        this.timeTaken = timeTaken;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+}
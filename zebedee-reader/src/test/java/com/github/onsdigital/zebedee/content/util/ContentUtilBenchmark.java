@@ -0,0 +1,92 @@
+package com.github.onsdigital.zebedee.content.util;
+
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures page deserialisation throughput and allocation for representative page types.
+ * <p>
+ * Run from the zebedee-reader module root after test resources are generated (mvn test-compile):
+ * <pre>
+ * java -cp target/test-classes:target/classes:target/dependency/* com.github.onsdigital.zebedee.content.util.ContentUtilBenchmark
+ * </pre>
+ * The gc profiler is enabled so allocation per operation is reported alongside throughput. The legacy benchmark
+ * builds a new Gson and a json tree per call the way ContentUtil used to, to compare against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ContentUtilBenchmark {
+
+    private static final String CONTENT_ROOT = "target/test-classes/test-content/zebedee/";
+
+    @Param({
+            "master/economy/environmentalaccounts/bulletins/ukenvironmentalaccounts/2015-07-09/data.json",
+            "master/employmentandlabourmarket/peopleinwork/earningsandworkinghours/timeseries/a2f8/data.json",
+            "collections/testcollection/reviewed/employmentandlabourmarket/peopleinwork/workplacedisputesandworkingconditions/datasets/labourdisputesbysectorlabd02/data.json"
+    })
+    public String page;
+
+    private byte[] json;
+
+    @Setup
+    public void readPage() throws IOException {
+        json = Files.readAllBytes(Paths.get(CONTENT_ROOT, page));
+    }
+
+    @Benchmark
+    public Page deserialiseContent() {
+        return ContentUtil.deserialiseContent(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public Page deserialiseContentLegacy() throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(json))) {
+            JsonElement tree = new JsonParser().parse(reader);
+            String type = tree.getAsJsonObject().get("type").getAsString();
+            Class<? extends Page> pageClass = PageTypeResolver.resolvePageClass("{\"type\":\"" + type + "\"}");
+            Gson gson = new GsonBuilder()
+                    .registerTypeAdapter(Date.class, new IsoDateSerializer(ContentConstants.JSON_DATE_PATTERN))
+                    .create();
+            return gson.fromJson(tree, pageClass);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContentUtilBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
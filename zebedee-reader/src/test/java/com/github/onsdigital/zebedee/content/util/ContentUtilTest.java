@@ -0,0 +1,65 @@
+package com.github.onsdigital.zebedee.content.util;
+
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.page.base.PageType;
+import com.github.onsdigital.zebedee.content.page.staticpage.StaticPage;
+import com.google.gson.JsonSyntaxException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ContentUtilTest {
+
+    @Test
+    public void deserialiseContentShouldResolveTypeAfterOtherFields() {
+        String json = "{\"description\":{\"title\":\"Accessibility\"},\"markdown\":[\"some text\"],\"type\":\"static_page\"}";
+
+        Page page = ContentUtil.deserialiseContent(json);
+
+        assertTrue(page instanceof StaticPage);
+        assertEquals("Accessibility", page.getDescription().getTitle());
+    }
+
+    @Test
+    public void deserialiseContentShouldReturnNullWithoutType() {
+        assertNull(ContentUtil.deserialiseContent("{\"description\":{\"title\":\"no type\"}}"));
+    }
+
+    @Test
+    public void deserialiseContentShouldReturnNullForEmptyJson() {
+        assertNull(ContentUtil.deserialiseContent(""));
+    }
+
+    @Test
+    public void deserialiseContentNodeShouldReadHeaderOnly() {
+        String json = "{\"years\":[{\"value\":\"100.0\"}],\"description\":{\"title\":\"Average weekly earnings\","
+                + "\"edition\":null,\"releaseDate\":\"2015-07-09T23:00:00.000Z\",\"keywords\":[\"pay\"]},"
+                + "\"type\":\"timeseries\",\"months\":[}";
+
+        ContentNode node = ContentUtil.deserialiseContentNode(new ByteArrayInputStream(json.getBytes()));
+
+        assertEquals(PageType.timeseries, node.getType());
+        assertEquals("Average weekly earnings", node.getDescription().getTitle());
+        assertNull(node.getDescription().getEdition());
+        assertNotNull(node.getDescription().getReleaseDate());
+        assertNull(node.getUri());
+    }
+
+    @Test
+    public void deserialiseContentNodeShouldReturnNullWithoutType() {
+        String json = "{\"description\":{\"title\":\"no type\"}}";
+        assertNull(ContentUtil.deserialiseContentNode(new ByteArrayInputStream(json.getBytes())));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void deserialiseContentNodeShouldThrowJsonSyntaxExceptionForFieldsOfTheWrongKind() {
+        String json = "{\"description\":{\"title\":{\"en\":\"not a string\"}},\"type\":\"bulletin\"}";
+        ContentUtil.deserialiseContentNode(new ByteArrayInputStream(json.getBytes()));
+    }
+}
@@ -8,6 +8,7 @@ import com.github.onsdigital.zebedee.content.page.statistics.document.figure.cha
 import com.github.onsdigital.zebedee.content.page.statistics.document.figure.table.Table;
 import com.github.onsdigital.zebedee.exceptions.NotFoundException;
 import com.github.onsdigital.zebedee.exceptions.ZebedeeException;
+import com.github.onsdigital.zebedee.reader.cache.LatestEditionIndex;
 import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
 import org.junit.Before;
 import org.junit.Test;
@@ -15,6 +16,7 @@ import org.junit.Test;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
@@ -162,6 +164,23 @@ public class ContentReaderTest {
         assertEquals("/economy/environmentalaccounts/articles/uknaturalcapitallandcoverintheuk/2015-03-17", contentNode.getKey().toString());
     }
 
+    @Test
+    public void testGetContentNode() throws ZebedeeException, IOException {
+        ContentNode contentNode = contentReader.getContentNode("/economy/environmentalaccounts/bulletins/ukenvironmentalaccounts/2015-07-09");
+        assertEquals(PageType.bulletin, contentNode.getType());
+        assertEquals(URI.create("/economy/environmentalaccounts/bulletins/ukenvironmentalaccounts/2015-07-09"), contentNode.getUri());
+        assertEquals("2015", contentNode.getDescription().getEdition());
+        assertNotNull(contentNode.getDescription().getReleaseDate());
+
+        ContentNode timeSeries = contentReader.getContentNode("/employmentandlabourmarket/peopleinwork/earningsandworkinghours/timeseries/a2f8");
+        assertEquals(PageType.timeseries, timeSeries.getType());
+        assertNotNull(timeSeries.getDescription().getTitle());
+
+        ContentNode chart = contentReader.getContentNode("economy/environmentalaccounts/bulletins/ukenvironmentalaccounts/2015-07-09/0b6d65e2");
+        assertEquals(PageType.chart, chart.getType());
+        assertEquals(URI.create("/economy/environmentalaccounts/bulletins/ukenvironmentalaccounts/2015-07-09/0b6d65e2"), chart.getUri());
+    }
+
     @Test
     public void testGetHomeChildren() throws ZebedeeException, IOException {
         Map<URI, ContentNode> children = contentReader.getChildren("/");
@@ -175,6 +194,19 @@ public class ContentReaderTest {
         assertEquals("2015", latestContent.getDescription().getEdition());
     }
 
+    @Test
+    public void testGetLatestContentWithLatestEditionIndex() throws ZebedeeException, IOException {
+        ContentReader indexedReader = new FileSystemContentReader(Paths.get("target/test-classes/test-content/zebedee/master"), null, LatestEditionIndex.getInstance());
+        Page latestContent = indexedReader.getLatestContent("/economy/environmentalaccounts/bulletins/ukenvironmentalaccounts");
+        assertEquals("2015", latestContent.getDescription().getEdition());
+        assertTrue(latestContent.getDescription().getLatestRelease());
+
+        Page latestEdition = indexedReader.getContent("/economy/environmentalaccounts/bulletins/ukenvironmentalaccounts/2015-07-09");
+        assertTrue(latestEdition.getDescription().getLatestRelease());
+        Page previousEdition = indexedReader.getContent("/economy/environmentalaccounts/bulletins/ukenvironmentalaccounts/2014-07-02");
+        assertNull(previousEdition.getDescription().getLatestRelease());
+    }
+
     @Test
     public void testGetContentLength() throws ZebedeeException, IOException {
         long contentLength = contentReader.getContentLength("economy/environmentalaccounts/articles/uknaturalcapitallandcoverintheuk/2015-03-17/4f5b14cb.xls");
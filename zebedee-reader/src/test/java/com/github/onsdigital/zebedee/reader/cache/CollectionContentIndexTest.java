@@ -0,0 +1,109 @@
+package com.github.onsdigital.zebedee.reader.cache;
+
+import com.github.onsdigital.zebedee.reader.CollectionReader;
+import com.github.onsdigital.zebedee.reader.FileSystemContentReader;
+import com.github.onsdigital.zebedee.reader.Resource;
+import com.github.onsdigital.zebedee.reader.cache.CollectionContentIndex.State;
+import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CollectionContentIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CollectionContentIndex contentIndex;
+    private Path collectionPath;
+
+    @Before
+    public void setUp() {
+        contentIndex = new CollectionContentIndex();
+        collectionPath = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void writtenShouldIndexInProgressPagesAndFiles() {
+        contentIndex.written("/economy/gdp/data.json", State.IN_PROGRESS);
+        contentIndex.written("/economy/gdp/data_cy.json", State.IN_PROGRESS);
+        contentIndex.written("/economy/gdp/table.json", State.IN_PROGRESS);
+
+        assertEquals(Optional.of(State.IN_PROGRESS), contentIndex.getPage("/economy/gdp", ContentLanguage.en));
+        assertEquals(Optional.of(State.IN_PROGRESS), contentIndex.getPage("economy/gdp/", ContentLanguage.cy));
+        assertEquals(Optional.of(State.IN_PROGRESS), contentIndex.getPage("/economy/gdp/table", ContentLanguage.en));
+        assertEquals(Optional.of(State.IN_PROGRESS), contentIndex.getFile("/economy/gdp/data.json"));
+    }
+
+    @Test
+    public void writtenShouldLeaveOtherFoldersToBeResolved() {
+        contentIndex.putPage("/economy/gdp", ContentLanguage.en, State.IN_PROGRESS);
+        contentIndex.putFile("/economy/gdp/data.json", State.IN_PROGRESS);
+
+        contentIndex.written("/economy/gdp/data.json", State.REVIEWED);
+
+        assertFalse(contentIndex.getPage("/economy/gdp", ContentLanguage.en).isPresent());
+        assertFalse(contentIndex.getFile("/economy/gdp/data.json").isPresent());
+    }
+
+    @Test
+    public void invalidateShouldRemoveUrisUnderTheGivenUri() {
+        contentIndex.written("/economy/gdp/data.json", State.IN_PROGRESS);
+        contentIndex.written("/economy/gdp/previous/v1/data.json", State.IN_PROGRESS);
+        contentIndex.written("/economy/gdpother/data.json", State.IN_PROGRESS);
+
+        contentIndex.invalidate("/economy/gdp");
+
+        assertFalse(contentIndex.getPage("/economy/gdp", ContentLanguage.en).isPresent());
+        assertFalse(contentIndex.getFile("/economy/gdp/previous/v1/data.json").isPresent());
+        assertEquals(Optional.of(State.IN_PROGRESS), contentIndex.getFile("/economy/gdpother/data.json"));
+    }
+
+    @Test
+    public void readerShouldFindContentMovedOutOfTheIndexedFolder() throws Exception {
+        CollectionReader reader = reader();
+        write("complete/economy/gdp/data.json", "complete");
+        assertEquals("complete", read(reader, "/economy/gdp/data.json"));
+        assertEquals(Optional.of(State.COMPLETE), contentIndex.getFile("/economy/gdp/data.json"));
+
+        // moved without the index being told
+        Files.move(collectionPath.resolve("complete/economy"), collectionPath.resolve("reviewed/economy"));
+
+        assertEquals("complete", read(reader, "/economy/gdp/data.json"));
+        assertEquals(Optional.of(State.REVIEWED), contentIndex.getFile("/economy/gdp/data.json"));
+        assertEquals(8, reader.getContentLength("/economy/gdp/data.json"));
+    }
+
+    private CollectionReader reader() throws IOException {
+        CollectionContentIndex collectionIndex = contentIndex;
+        Path folders = collectionPath;
+        return new CollectionReader() {{
+            inProgress = new FileSystemContentReader(Files.createDirectories(folders.resolve("inprogress")));
+            complete = new FileSystemContentReader(Files.createDirectories(folders.resolve("complete")));
+            reviewed = new FileSystemContentReader(Files.createDirectories(folders.resolve("reviewed")));
+            index = collectionIndex;
+        }};
+    }
+
+    private void write(String uri, String content) throws IOException {
+        Path file = collectionPath.resolve(uri);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes());
+    }
+
+    private String read(CollectionReader reader, String uri) throws Exception {
+        try (Resource resource = reader.getResource(uri)) {
+            return IOUtils.toString(resource.getData());
+        }
+    }
+}
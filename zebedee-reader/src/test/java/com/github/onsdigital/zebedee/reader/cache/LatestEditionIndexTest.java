@@ -0,0 +1,84 @@
+package com.github.onsdigital.zebedee.reader.cache;
+
+import com.github.onsdigital.zebedee.reader.data.language.ContentLanguage;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LatestEditionIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LatestEditionIndex index;
+    private Path root;
+    private Path series;
+
+    @Before
+    public void setUp() throws IOException {
+        index = new LatestEditionIndex();
+        root = folder.getRoot().toPath();
+        series = root.resolve("economy/bulletins/gdp");
+        writeEdition("2015-01-01", "2015-01-01T00:00:00.000Z");
+        writeEdition("2016-01-01", "2016-01-01T00:00:00.000Z");
+    }
+
+    @Test
+    public void getLatestShouldReturnEditionWithLatestReleaseDate() throws IOException {
+        LatestEditionIndex.LatestEdition latest = index.getLatest(series, ContentLanguage.en);
+
+        assertTrue(latest.isEdition(series.resolve("2016-01-01")));
+    }
+
+    @Test
+    public void refreshShouldPickUpReleaseDateChangesOfOtherEditions() throws IOException {
+        index.getLatest(series, ContentLanguage.en);
+
+        writeEdition("2015-01-01", "2017-01-01T00:00:00.000Z");
+        index.refresh(root, Arrays.asList("/economy/bulletins/gdp/2015-01-01/data.json"));
+
+        assertTrue(index.getLatest(series, ContentLanguage.en).isEdition(series.resolve("2015-01-01")));
+    }
+
+    @Test
+    public void getLatestShouldPickUpReleaseDateChangesOfOtherEditionsWithoutRefresh() throws IOException {
+        index.getLatest(series, ContentLanguage.en);
+
+        Path dataFile = writeEdition("2015-01-01", "2017-01-01T00:00:00.000Z");
+        Files.setLastModifiedTime(dataFile, FileTime.fromMillis(Files.getLastModifiedTime(dataFile).toMillis() + 10000));
+
+        assertTrue(index.getLatest(series, ContentLanguage.en).isEdition(series.resolve("2015-01-01")));
+    }
+
+    @Test
+    public void buildShouldIndexAllSeries() {
+        index.build(root);
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void getLatestShouldReturnNullWithoutDatedEditions() throws IOException {
+        Path empty = root.resolve("economy/articles/empty");
+        Files.createDirectories(empty.resolve("2015-01-01"));
+
+        assertNull(index.getLatest(empty, ContentLanguage.en));
+    }
+
+    private Path writeEdition(String edition, String releaseDate) throws IOException {
+        Path editionFolder = Files.createDirectories(series.resolve(edition));
+        String json = "{\"type\":\"bulletin\",\"description\":{\"edition\":\"" + edition + "\",\"releaseDate\":\"" + releaseDate + "\"}}";
+        return Files.write(editionFolder.resolve("data.json"), json.getBytes());
+    }
+}
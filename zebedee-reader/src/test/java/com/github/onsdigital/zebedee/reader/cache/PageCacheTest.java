@@ -0,0 +1,131 @@
+package com.github.onsdigital.zebedee.reader.cache;
+
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.util.ContentUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class PageCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PageCache cache;
+    private Path dataFile;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() throws IOException {
+        cache = new PageCache(1024 * 1024);
+        dataFile = folder.getRoot().toPath().resolve("data.json");
+        write("Original");
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void getShouldReturnCopyOfCachedPage() throws Exception {
+        Page first = cache.get(dataFile, this::load);
+        Page second = cache.get(dataFile, this::load);
+
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertEquals("Original", second.getDescription().getTitle());
+
+        second.getDescription().setTitle("Changed by caller");
+        assertEquals("Original", cache.get(dataFile, this::load).getDescription().getTitle());
+
+        PageCacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEntries());
+    }
+
+    @Test
+    public void getShouldNotShareLatestReleaseFlagBetweenCallers() throws Exception {
+        Page first = cache.get(dataFile, this::load);
+        first.getDescription().setLatestRelease(true);
+
+        Page second = cache.get(dataFile, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(false, second.getDescription().isLatestRelease());
+    }
+
+    @Test
+    public void getShouldReloadWhenFileChanges() throws Exception {
+        cache.get(dataFile, this::load);
+
+        write("Updated title");
+        Files.setLastModifiedTime(dataFile, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+
+        assertEquals("Updated title", cache.get(dataFile, this::load).getDescription().getTitle());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateShouldDropEntriesUnderFolder() throws Exception {
+        cache.get(dataFile, this::load);
+
+        cache.invalidateAll(folder.getRoot().toPath());
+        cache.get(dataFile, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void getHeaderShouldReturnCopyOfCachedHeader() throws Exception {
+        ContentNode first = cache.getHeader(dataFile, this::loadHeader);
+        first.getDescription().setTitle("Changed by caller");
+        ContentNode second = cache.getHeader(dataFile, this::loadHeader);
+
+        assertEquals(1, loads.get());
+        assertEquals("Original", second.getDescription().getTitle());
+
+        cache.invalidate(dataFile);
+        cache.getHeader(dataFile, this::loadHeader);
+        assertEquals(2, loads.get());
+
+        PageCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHeaderHits());
+        assertEquals(2, stats.getHeaderMisses());
+        assertEquals(1, stats.getHeaderEntries());
+        assertEquals(0, stats.getHits());
+    }
+
+    @Test
+    public void pagesOverMaxWeightShouldBeEvicted() throws Exception {
+        cache = new PageCache(10);
+
+        cache.get(dataFile, this::load);
+
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(0, cache.getStats().getEntries());
+    }
+
+    private Page load() throws IOException {
+        loads.incrementAndGet();
+        return ContentUtil.deserialiseContent(Files.newInputStream(dataFile));
+    }
+
+    private ContentNode loadHeader() throws IOException {
+        loads.incrementAndGet();
+        return ContentUtil.deserialiseContentNode(Files.newInputStream(dataFile));
+    }
+
+    private void write(String title) throws IOException {
+        String json = "{\"type\":\"static_page\",\"description\":{\"title\":\"" + title + "\"}}";
+        Files.write(dataFile, json.getBytes());
+    }
+}
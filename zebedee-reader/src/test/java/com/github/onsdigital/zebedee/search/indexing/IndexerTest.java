@@ -0,0 +1,256 @@
+package com.github.onsdigital.zebedee.search.indexing;
+
+import com.github.onsdigital.zebedee.content.dynamic.ContentNodeDetails;
+import com.github.onsdigital.zebedee.content.dynamic.browse.ContentNode;
+import com.github.onsdigital.zebedee.content.page.base.Page;
+import com.github.onsdigital.zebedee.content.page.base.PageDescription;
+import com.github.onsdigital.zebedee.content.page.base.PageType;
+import com.github.onsdigital.zebedee.content.page.statistics.document.bulletin.Bulletin;
+import com.github.onsdigital.zebedee.exceptions.NotFoundException;
+import com.github.onsdigital.zebedee.reader.ZebedeeReader;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.update.UpdateRequestBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IndexerTest {
+
+    private static final String SERIES = "/economy/gdp/bulletins/gdp";
+    private static final String INDEX = "ons";
+
+    private ElasticSearchUtils searchUtils;
+    private ZebedeeReader zebedeeReader;
+    private Indexer indexer;
+    private Map<String, UpdateRequestBuilder> updates;
+
+    @Before
+    public void setUp() throws Exception {
+        searchUtils = mock(ElasticSearchUtils.class);
+        zebedeeReader = mock(ZebedeeReader.class);
+        indexer = new Indexer(searchUtils, zebedeeReader);
+
+        updates = new LinkedHashMap<>();
+        when(searchUtils.prepareUpdate(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            UpdateRequestBuilder update = mock(UpdateRequestBuilder.class);
+            when(update.setDoc(anyString())).thenReturn(update);
+            updates.put((String) invocation.getArguments()[2], update);
+            return update;
+        });
+    }
+
+    @Test
+    public void prepareLatestReleaseUpdateShouldUnflagThePreviousLatestEdition() throws Exception {
+
+        // Given a series where a new edition has just been published
+        editions(edition("2016-01", 1), edition("2016-02", 2), edition("2016-03", 3));
+
+        // When the latest release update is prepared
+        UpdateRequestBuilder update = indexer.prepareLatestReleaseUpdate(INDEX, SERIES,
+                set(SERIES + "/2016-03"), Collections.emptySet());
+
+        // Then the edition that was latest before is no longer flagged as latest release
+        assertEquals(updates.get(SERIES + "/2016-02"), update);
+        verify(update).setDoc("{\"description\":{\"latestRelease\":false}}");
+    }
+
+    @Test
+    public void prepareLatestReleaseUpdateShouldFlagTheLatestEditionThatIsNotDeleted() throws Exception {
+
+        // Given a series where the latest edition has just been deleted
+        editions(edition("2016-01", 1), edition("2016-02", 2), edition("2016-03", 3));
+
+        // When the latest release update is prepared
+        UpdateRequestBuilder update = indexer.prepareLatestReleaseUpdate(INDEX, SERIES,
+                Collections.emptySet(), set(SERIES + "/2016-03"));
+
+        // Then the edition before it is flagged as latest release
+        assertEquals(updates.get(SERIES + "/2016-02"), update);
+        verify(update).setDoc("{\"description\":{\"latestRelease\":true}}");
+    }
+
+    @Test
+    public void prepareLatestReleaseUpdateShouldIgnoreSeriesWithNoOtherEditions() throws Exception {
+
+        // Given a series with only the edition that has just been published
+        editions(edition("2016-01", 1));
+
+        // When the latest release update is prepared
+        UpdateRequestBuilder update = indexer.prepareLatestReleaseUpdate(INDEX, SERIES,
+                set(SERIES + "/2016-01"), Collections.emptySet());
+
+        // Then there is nothing to update
+        assertNull(update);
+    }
+
+    @Test
+    public void indexDeltaShouldIndexPagesAndUpdateTheirSeriesInOneBulkRequest() throws Exception {
+
+        // Given a new edition of a series
+        editions(edition("2016-01", 1), edition("2016-02", 2));
+        BulkRequestBuilder bulkRequest = bulkRequest(2);
+        IndexRequestBuilder indexRequest = mock(IndexRequestBuilder.class);
+        when(searchUtils.prepareIndex(INDEX, "bulletin", SERIES + "/2016-02")).thenReturn(indexRequest);
+
+        // When the delta is indexed
+        indexer.indexDelta(INDEX, Collections.singletonList(bulletin("2016-02")), Collections.emptySet());
+
+        // Then the new edition is indexed and the previous edition is updated in the same bulk request
+        verify(bulkRequest).add(indexRequest);
+        verify(bulkRequest).add(updates.get(SERIES + "/2016-01"));
+        verify(bulkRequest).get();
+    }
+
+    @Test
+    public void indexDeltaShouldUpdateTheSeriesOfDeletedEditions() throws Exception {
+
+        // Given the latest edition of a series has been deleted
+        editions(edition("2016-01", 1), edition("2016-02", 2));
+        BulkRequestBuilder bulkRequest = bulkRequest(1);
+
+        // When the delta is indexed
+        indexer.indexDelta(INDEX, Collections.emptyList(), set(SERIES + "/2016-02"));
+
+        // Then the remaining edition is flagged as latest release
+        verify(bulkRequest).add(updates.get(SERIES + "/2016-01"));
+        verify(updates.get(SERIES + "/2016-01")).setDoc("{\"description\":{\"latestRelease\":true}}");
+        verify(bulkRequest, never()).add(any(IndexRequestBuilder.class));
+    }
+
+    @Test
+    public void indexQueuedShouldAddPreparedRequestsUntilEndOfDocuments() throws Exception {
+
+        // Given queued documents, one of which should not be indexed, followed by the end of documents
+        ReindexProgress progress = new ReindexProgress("index", 10);
+        progress.put(new Document("/a", null));
+        progress.put(new Document("/skipped", null));
+        progress.put(new Document("/b", null));
+        progress.end(1);
+
+        // When a worker indexes the queue
+        List<IndexRequest> added = new CopyOnWriteArrayList<>();
+        Indexer.indexQueued(progress,
+                document -> document.getUri().equals("/skipped") ? null : new IndexRequest("index", "type", document.getUri()),
+                added::add);
+
+        // Then a request is added for each document to index, and the skipped document is counted
+        assertEquals(2, added.size());
+        assertEquals("/a", added.get(0).id());
+        assertEquals("/b", added.get(1).id());
+        assertEquals(2, progress.getStatus().getPrepared());
+        assertEquals(1, progress.getStatus().getSkipped());
+    }
+
+    @Test
+    public void indexQueuedShouldCountFailuresAndCarryOn() throws Exception {
+
+        // Given queued documents, one of which cannot be read
+        ReindexProgress progress = new ReindexProgress("index", 10);
+        progress.put(new Document("/missing", null));
+        progress.put(new Document("/a", null));
+        progress.end(1);
+
+        // When a worker indexes the queue
+        List<IndexRequest> added = new CopyOnWriteArrayList<>();
+        Indexer.indexQueued(progress, document -> {
+            if (document.getUri().equals("/missing")) {
+                throw new NotFoundException("Not found");
+            }
+            return new IndexRequest("index", "type", document.getUri());
+        }, added::add);
+
+        // Then the failure is counted and the rest of the queue is still indexed
+        assertEquals(1, added.size());
+        assertEquals(1, progress.getStatus().getFailed());
+        assertEquals(1, progress.getStatus().getPrepared());
+    }
+
+    @Test
+    public void awaitBulkCompletionShouldFailWhenRequestsAreStillInFlight() throws Exception {
+
+        // Given a bulk processor that does not complete in time
+        BulkProcessor bulkProcessor = mock(BulkProcessor.class);
+        when(bulkProcessor.awaitClose(1, TimeUnit.MINUTES)).thenReturn(false);
+
+        // When waiting for the bulk requests to complete
+        try {
+            Indexer.awaitBulkCompletion(bulkProcessor, 1, TimeUnit.MINUTES);
+            fail("Expected an incomplete index to fail the reindex");
+        } catch (IndexingException e) {
+            // Then the reindex fails rather than the alias being moved onto an incomplete index
+        }
+    }
+
+    @Test
+    public void awaitBulkCompletionShouldReturnWhenRequestsComplete() throws Exception {
+
+        // Given a bulk processor that completes in time
+        BulkProcessor bulkProcessor = mock(BulkProcessor.class);
+        when(bulkProcessor.awaitClose(1, TimeUnit.MINUTES)).thenReturn(true);
+
+        // When waiting for the bulk requests to complete, then it returns
+        Indexer.awaitBulkCompletion(bulkProcessor, 1, TimeUnit.MINUTES);
+    }
+
+    private BulkRequestBuilder bulkRequest(int actions) {
+        BulkRequestBuilder bulkRequest = mock(BulkRequestBuilder.class);
+        when(bulkRequest.numberOfActions()).thenReturn(actions);
+        when(bulkRequest.get()).thenReturn(mock(BulkResponse.class));
+        when(searchUtils.prepareBulk()).thenReturn(bulkRequest);
+        return bulkRequest;
+    }
+
+    private void editions(ContentNode... editions) throws Exception {
+        Map<URI, ContentNode> children = new LinkedHashMap<>();
+        for (ContentNode edition : editions) {
+            children.put(edition.getUri(), edition);
+        }
+        when(zebedeeReader.getPublishedContentChildren(SERIES)).thenReturn(children);
+    }
+
+    private static ContentNode edition(String edition, int month) {
+        ContentNodeDetails description = new ContentNodeDetails("GDP", edition);
+        description.setReleaseDate(new Date(2016 - 1900, month - 1, 1));
+        ContentNode node = new ContentNode();
+        node.setUri(URI.create(SERIES + "/" + edition));
+        node.setType(PageType.bulletin);
+        node.setDescription(description);
+        return node;
+    }
+
+    private static Page bulletin(String edition) {
+        Bulletin bulletin = new Bulletin();
+        bulletin.setUri(URI.create(SERIES + "/" + edition));
+        bulletin.setDescription(new PageDescription());
+        return bulletin;
+    }
+
+    private static Set<String> set(String... uris) {
+        return new HashSet<>(asList(uris));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.onsdigital.zebedee.search.indexing;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReindexProgressTest {
+
+    @Test
+    public void putShouldWaitWhileTheQueueIsFull() throws Exception {
+
+        // Given a progress with a full queue
+        ReindexProgress progress = new ReindexProgress("index", 1);
+        progress.put(new Document("/a", null));
+
+        // When another document is scanned
+        CompletableFuture<Void> put = CompletableFuture.runAsync(() -> {
+            try {
+                progress.put(new Document("/b", null));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Then it waits until a worker takes a document off the queue
+        try {
+            put.get(200, TimeUnit.MILLISECONDS);
+            fail("Expected put to wait while the queue is full");
+        } catch (TimeoutException e) {
+            // expected
+        }
+        assertEquals("/a", progress.take().getUri());
+        put.get(10, TimeUnit.SECONDS);
+        assertEquals("/b", progress.take().getUri());
+        assertEquals(2, progress.getStatus().getScanned());
+    }
+
+    @Test
+    public void endShouldQueueAnEndOfDocumentsForEachWorker() throws Exception {
+
+        // Given a progress with a queued document
+        ReindexProgress progress = new ReindexProgress("index", 10);
+        progress.put(new Document("/a", null));
+
+        // When scanning ends for two workers
+        progress.end(2);
+
+        // Then each worker reads the end of documents after the queued document
+        assertEquals("/a", progress.take().getUri());
+        assertSame(ReindexProgress.END_OF_DOCUMENTS, progress.take());
+        assertSame(ReindexProgress.END_OF_DOCUMENTS, progress.take());
+        assertEquals(0, progress.getStatus().getQueueDepth());
+    }
+
+    @Test
+    public void getStatusShouldReportCountsUntilComplete() {
+
+        // Given a progress with documents through each stage
+        ReindexProgress progress = new ReindexProgress("index", 10);
+        progress.prepared();
+        progress.prepared();
+        progress.skipped();
+        progress.indexed(1);
+        progress.failed(1);
+
+        // When the status is read before and after completion
+        ReindexStatus running = progress.getStatus();
+        progress.complete();
+        ReindexStatus complete = progress.getStatus();
+
+        // Then the counts are reported and completion ends the progress
+        assertTrue(running.isInProgress());
+        assertEquals(2, running.getPrepared());
+        assertEquals(1, running.getSkipped());
+        assertEquals(1, running.getIndexed());
+        assertEquals(1, running.getFailed());
+        assertFalse(complete.isInProgress());
+        assertEquals("index", complete.getIndex());
+    }
+}